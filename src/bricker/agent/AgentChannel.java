@@ -0,0 +1,217 @@
+package bricker.agent;
+
+import bricker.gameobjects.PaddleController;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Shares the state of the game with an agent in another process through a memory-mapped file, and takes
+ * the agent's paddle commands back from the same file.
+ * <p>
+ * The file starts with a header, followed by a ring of fixed-size frame slots. Every published frame is
+ * written into the slot of its frame number modulo the slot count, guarded by the slot's sequence counter:
+ * the counter is odd while the slot is written and becomes 2 * frame + 2 once it is complete. A reader
+ * reads the counter, the frame and the counter again, and keeps the frame only if both reads saw the same
+ * even value. The header holds the number of the latest complete frame, and the agent's command: the
+ * paddle direction and the frame it was decided on.
+ * <p>
+ * All values are little endian. Counters are read and written through VarHandles with acquire and release
+ * ordering, so a frame is handed to the agent without copies, locks or system calls.
+ */
+public class AgentChannel implements PaddleController, AutoCloseable {
+
+    /** Marks a Bricker agent channel file, "BRKA" */
+    public static final int MAGIC = 0x42524B41;
+    /** Version of the file layout */
+    public static final int VERSION = 1;
+    /** Marks the latest frame before any frame was published */
+    public static final long NO_FRAME = -1;
+
+    // header layout
+    /** Offset of the magic int */
+    public static final int MAGIC_OFFSET = 0;
+    /** Offset of the version int */
+    public static final int VERSION_OFFSET = 4;
+    /** Offset of the int number of slots */
+    public static final int SLOT_COUNT_OFFSET = 8;
+    /** Offset of the int size of a slot in bytes */
+    public static final int SLOT_SIZE_OFFSET = 12;
+    /** Offset of the int number of longs in the brick alive bitset */
+    public static final int ALIVE_WORDS_OFFSET = 16;
+    /** Offset of the long number of the latest complete frame */
+    public static final int LATEST_FRAME_OFFSET = 24;
+    /** Offset of the long frame the agent decided its command on, on its own cache line */
+    public static final int COMMAND_FRAME_OFFSET = 64;
+    /** Offset of the int paddle direction commanded by the agent: -1, 0 or 1 */
+    public static final int COMMAND_DIRECTION_OFFSET = 72;
+    /** Offset of the first slot */
+    public static final int SLOTS_OFFSET = 128;
+
+    // slot layout
+    /** Offset of the long sequence counter in a slot */
+    public static final int SLOT_SEQUENCE = 0;
+    /** Offset of the long frame number in a slot */
+    public static final int SLOT_FRAME = 8;
+    /** Offset of the long System.nanoTime at which the frame was published */
+    public static final int SLOT_PUBLISH_NANOS = 16;
+    /** Offset of the float center x of the main ball */
+    public static final int SLOT_BALL_X = 24;
+    /** Offset of the float center y of the main ball */
+    public static final int SLOT_BALL_Y = 28;
+    /** Offset of the float horizontal velocity of the main ball */
+    public static final int SLOT_BALL_VELOCITY_X = 32;
+    /** Offset of the float vertical velocity of the main ball */
+    public static final int SLOT_BALL_VELOCITY_Y = 36;
+    /** Offset of the float left edge of the paddle */
+    public static final int SLOT_PADDLE_X = 40;
+    /** Offset of the int number of lives */
+    public static final int SLOT_LIVES = 44;
+    /** Offset of the int number of bricks left */
+    public static final int SLOT_BRICKS_LEFT = 48;
+    /** Offset of the brick alive bitset, bit i of long i / 64 being brick i */
+    public static final int SLOT_ALIVE_BRICKS = 56;
+
+    private static final int CACHE_LINE = 64;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // private fields
+    private final FileChannel file;
+    private final MappedByteBuffer mapping;
+    private final int slotCount;
+    private final int slotSize;
+    private final int aliveWordCount;
+
+    /**
+     * Creates the channel file, or takes over an existing one, and maps it.
+     *
+     * @param path           the path of the file
+     * @param slotCount      the number of frames in the ring
+     * @param aliveWordCount the number of longs in the brick alive bitset of a frame
+     * @throws IOException if the file can not be created or mapped
+     */
+    public AgentChannel(Path path, int slotCount, int aliveWordCount) throws IOException {
+        this.slotCount = slotCount;
+        this.aliveWordCount = aliveWordCount;
+        int payloadSize = SLOT_ALIVE_BRICKS + aliveWordCount * Long.BYTES;
+        this.slotSize = (payloadSize + CACHE_LINE - 1) / CACHE_LINE * CACHE_LINE;
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.mapping = file.map(FileChannel.MapMode.READ_WRITE, 0, SLOTS_OFFSET + (long) slotCount * slotSize);
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+
+        mapping.putInt(VERSION_OFFSET, VERSION);
+        mapping.putInt(SLOT_COUNT_OFFSET, slotCount);
+        mapping.putInt(SLOT_SIZE_OFFSET, slotSize);
+        mapping.putInt(ALIVE_WORDS_OFFSET, aliveWordCount);
+        mapping.putLong(COMMAND_FRAME_OFFSET, NO_FRAME);
+        mapping.putInt(COMMAND_DIRECTION_OFFSET, 0);
+        LONGS.setRelease(mapping, LATEST_FRAME_OFFSET, NO_FRAME);
+        // the magic goes last, so an agent never sees a half initialized header
+        INTS.setRelease(mapping, MAGIC_OFFSET, MAGIC);
+    }
+
+    /**
+     * @return the number of longs in the brick alive bitset of a frame
+     */
+    public int getAliveWordCount() {
+        return aliveWordCount;
+    }
+
+    /**
+     * Starts writing a frame into its slot. Must be followed by the frame's values and endFrame.
+     *
+     * @param frame the number of the frame
+     * @return the offset of the frame's slot, to write the values at
+     */
+    public int beginFrame(long frame) {
+        int slot = SLOTS_OFFSET + (int) (frame % slotCount) * slotSize;
+        LONGS.setOpaque(mapping, slot + SLOT_SEQUENCE, 2 * frame + 1);
+        // the odd counter must be visible before any value of the frame is
+        VarHandle.storeStoreFence();
+        mapping.putLong(slot + SLOT_FRAME, frame);
+        return slot;
+    }
+
+    /**
+     * Writes the ball and paddle values of a frame.
+     *
+     * @param slot      the offset returned by beginFrame
+     * @param ballX     center x of the main ball
+     * @param ballY     center y of the main ball
+     * @param velocityX horizontal velocity of the main ball
+     * @param velocityY vertical velocity of the main ball
+     * @param paddleX   left edge of the paddle
+     * @param lives     the number of lives
+     * @param bricks    the number of bricks left
+     */
+    public void putState(int slot, float ballX, float ballY, float velocityX, float velocityY, float paddleX,
+                         int lives, int bricks) {
+        mapping.putFloat(slot + SLOT_BALL_X, ballX);
+        mapping.putFloat(slot + SLOT_BALL_Y, ballY);
+        mapping.putFloat(slot + SLOT_BALL_VELOCITY_X, velocityX);
+        mapping.putFloat(slot + SLOT_BALL_VELOCITY_Y, velocityY);
+        mapping.putFloat(slot + SLOT_PADDLE_X, paddleX);
+        mapping.putInt(slot + SLOT_LIVES, lives);
+        mapping.putInt(slot + SLOT_BRICKS_LEFT, bricks);
+    }
+
+    /**
+     * Writes a word of the brick alive bitset of a frame.
+     *
+     * @param slot  the offset returned by beginFrame
+     * @param index index of the word
+     * @param word  the alive bits of bricks 64 * index to 64 * index + 63
+     */
+    public void putAliveWord(int slot, int index, long word) {
+        mapping.putLong(slot + SLOT_ALIVE_BRICKS + index * Long.BYTES, word);
+    }
+
+    /**
+     * Completes a frame, handing it to the agent.
+     *
+     * @param slot  the offset returned by beginFrame
+     * @param frame the number of the frame
+     */
+    public void endFrame(int slot, long frame) {
+        mapping.putLong(slot + SLOT_PUBLISH_NANOS, System.nanoTime());
+        LONGS.setRelease(mapping, slot + SLOT_SEQUENCE, 2 * frame + 2);
+        LONGS.setRelease(mapping, LATEST_FRAME_OFFSET, frame);
+    }
+
+    /**
+     * @return the paddle direction last commanded by the agent: -1, 0 or 1
+     */
+    @Override
+    public int getDirection() {
+        return Integer.signum((int) INTS.getAcquire(mapping, COMMAND_DIRECTION_OFFSET));
+    }
+
+    /**
+     * @return the frame the agent decided its last command on, NO_FRAME if it sent none
+     */
+    public long getCommandFrame() {
+        return (long) LONGS.getAcquire(mapping, COMMAND_FRAME_OFFSET);
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected, but nothing is published.
+     */
+    @Override
+    public void close() {
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // closing either way
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package bricker.agent;
+
+import bricker.main.Constants;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A sample out-of-process agent: maps the channel file of a running game, follows the main ball with the
+ * paddle, and prints how long frames took to reach it and how many reads raced with the game's writes.
+ */
+public class AgentClient {
+
+    private static final int PATH_ARG = 0;
+    private static final int FRAMES_ARG = 1;
+    private static final int REPORT_FRAMES = 600;
+    private static final float HALF = 0.5f;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // private fields
+    private final MappedByteBuffer mapping;
+    private final int slotCount;
+    private final int slotSize;
+    private long lastFrame = AgentChannel.NO_FRAME;
+    private long tornReads = 0;
+    private long latencyNanos = 0;
+    private long maxLatencyNanos = 0;
+
+    /**
+     * Maps the channel file of a game.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file can not be mapped, or is not a channel file
+     */
+    private AgentClient(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.mapping = file.map(FileChannel.MapMode.READ_WRITE, 0, file.size());
+        }
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        if ((int) INTS.getAcquire(mapping, AgentChannel.MAGIC_OFFSET) != AgentChannel.MAGIC ||
+                mapping.getInt(AgentChannel.VERSION_OFFSET) != AgentChannel.VERSION) {
+            throw new IOException(path + " is not a Bricker agent channel");
+        }
+        this.slotCount = mapping.getInt(AgentChannel.SLOT_COUNT_OFFSET);
+        this.slotSize = mapping.getInt(AgentChannel.SLOT_SIZE_OFFSET);
+    }
+
+    /**
+     * Waits for the next frame and answers it with a paddle command.
+     */
+    private void handleNextFrame() {
+        while (true) {
+            long frame = (long) LONGS.getAcquire(mapping, AgentChannel.LATEST_FRAME_OFFSET);
+            if (frame == lastFrame || frame == AgentChannel.NO_FRAME) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int slot = AgentChannel.SLOTS_OFFSET + (int) (frame % slotCount) * slotSize;
+            long sequence = (long) LONGS.getAcquire(mapping, slot + AgentChannel.SLOT_SEQUENCE);
+            if (sequence != 2 * frame + 2) {
+                tornReads++;
+                continue;
+            }
+            float ballX = mapping.getFloat(slot + AgentChannel.SLOT_BALL_X);
+            float paddleX = mapping.getFloat(slot + AgentChannel.SLOT_PADDLE_X);
+            long publishNanos = mapping.getLong(slot + AgentChannel.SLOT_PUBLISH_NANOS);
+            // the values are only good if the game did not start rewriting the slot meanwhile
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(mapping, slot + AgentChannel.SLOT_SEQUENCE) != sequence) {
+                tornReads++;
+                continue;
+            }
+            long latency = System.nanoTime() - publishNanos;
+            latencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+            lastFrame = frame;
+
+            float paddleCenter = paddleX + Constants.PADDLE_WIDTH * HALF;
+            int direction = Float.compare(ballX, paddleCenter);
+            INTS.setOpaque(mapping, AgentChannel.COMMAND_DIRECTION_OFFSET, direction);
+            LONGS.setRelease(mapping, AgentChannel.COMMAND_FRAME_OFFSET, frame);
+            return;
+        }
+    }
+
+    /**
+     * Plays the paddle of a running game.
+     *
+     * @param args args[0] = path of the channel file, given to the game as -Dbricker.agentChannel
+     *             optional: args[1] = number of frames to play, forever otherwise
+     * @throws IOException if the file can not be mapped
+     */
+    public static void main(String[] args) throws IOException {
+        AgentClient client = new AgentClient(Paths.get(args[PATH_ARG]));
+        long frames = args.length > FRAMES_ARG ? Long.parseLong(args[FRAMES_ARG]) : Long.MAX_VALUE;
+        for (long handled = 1; handled <= frames; handled++) {
+            client.handleNextFrame();
+            if (handled % REPORT_FRAMES == 0) {
+                System.out.printf("frame %d: handoff %.2f us average, %.2f us max, %d torn reads%n",
+                        client.lastFrame, client.latencyNanos / NANOS_PER_MICRO / REPORT_FRAMES,
+                        client.maxLatencyNanos / NANOS_PER_MICRO, client.tornReads);
+                client.latencyNanos = 0;
+                client.maxLatencyNanos = 0;
+            }
+        }
+    }
+}
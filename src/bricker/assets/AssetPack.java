@@ -0,0 +1,243 @@
+package bricker.assets;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single file bundling all the images and sounds of the game, opened once and read through a
+ * memory mapping.
+ * The pack starts with a header (magic, version, entry count), followed by an index of
+ * (name, offset, length) entries and then the raw asset bytes. Entry names are the same relative
+ * paths the game uses for loose files, so the pack can stand in for the assets directory.
+ */
+public class AssetPack implements ImageSource, SoundSource {
+
+    /** Magic number identifying an asset pack ("BRKP") */
+    static final int MAGIC = 0x42524B50;
+    /** Version of the pack format */
+    static final short FORMAT_VERSION = 1;
+    /** Byte order of all the numbers in the pack */
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int INDEX_ENTRY_FIXED_SIZE = Short.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String EXTRACTED_SOUND_PREFIX = "bricker-";
+    private static final String EXTRACTED_SOUND_SUFFIX = ".wav";
+
+    // private fields
+    private final MappedByteBuffer mappedPack;
+    private final Map<String, ByteBuffer> entries = new HashMap<>();
+    private final SoundReader soundReader;
+    private final Map<String, String> extractedSounds = new HashMap<>();
+
+    /**
+     * Opens an asset pack and maps it into memory. The file handle is closed right after mapping.
+     *
+     * @param packPath    path of the pack file
+     * @param soundReader the game's sound reader, used to load sounds out of the pack
+     * @throws UncheckedIOException  if the pack can not be read
+     * @throws IllegalStateException if the file is not an asset pack or its index is corrupt
+     */
+    public AssetPack(Path packPath, SoundReader soundReader) {
+        this.soundReader = soundReader;
+        try (FileChannel channel = FileChannel.open(packPath, StandardOpenOption.READ)) {
+            this.mappedPack = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            // a mapping can not be larger than 2 GB
+            throw new IllegalStateException("Asset pack is too large to map: " + packPath, e);
+        }
+        mappedPack.order(BYTE_ORDER);
+        readIndex();
+    }
+
+    /**
+     * Reads the header and index of the pack, keeping a zero-copy slice for every entry. The entry count
+     * is checked against the bytes left for the index, and every entry against the size of the pack, so a
+     * corrupt or foreign pack fails here instead of when one of its assets is read.
+     *
+     * @throws IllegalStateException if the file is not an asset pack or its index is corrupt
+     */
+    private void readIndex() {
+        try {
+            if (mappedPack.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a Bricker asset pack");
+            }
+            short version = mappedPack.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported asset pack version: " + version);
+            }
+            int entryCount = mappedPack.getInt();
+            if (entryCount < 0 || entryCount > mappedPack.remaining() / INDEX_ENTRY_FIXED_SIZE) {
+                throw new IllegalStateException("Corrupt asset pack, bad entry count: " + entryCount);
+            }
+            for (int i = 0; i < entryCount; i++) {
+                byte[] nameBytes = new byte[Short.toUnsignedInt(mappedPack.getShort())];
+                mappedPack.get(nameBytes);
+                String name = new String(nameBytes, StandardCharsets.UTF_8);
+                long offset = mappedPack.getLong();
+                int length = mappedPack.getInt();
+                if (offset < 0 || length < 0 || offset > mappedPack.capacity() - length) {
+                    throw new IllegalStateException("Corrupt asset pack, entry out of the pack: " + name);
+                }
+                entries.put(name, mappedPack.slice((int) offset, length).asReadOnlyBuffer());
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Truncated asset pack", e);
+        }
+    }
+
+    /**
+     * @return the names of all the assets in the pack
+     */
+    public Set<String> getAssetNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @param name name of the asset
+     * @return true if the pack contains this asset
+     */
+    public boolean hasAsset(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Returns the raw bytes of an asset, without copying them out of the mapping.
+     *
+     * @param name name of the asset
+     * @return a read-only buffer over the asset's bytes
+     * @throws IllegalArgumentException if the pack does not contain the asset
+     */
+    public ByteBuffer readBytes(String name) {
+        ByteBuffer entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Asset is not part of the pack: " + name);
+        }
+        return entry.duplicate();
+    }
+
+    /**
+     * Reads an image out of the pack, same as ImageReader.readImage.
+     *
+     * @param path                         name of the image in the pack
+     * @param useTopLeftPixelAsTransparent whether to treat the top left pixel color as transparent
+     * @return a renderable of the image
+     */
+    public Renderable readImage(String path, boolean useTopLeftPixelAsTransparent) {
+        return new ImageRenderable(readBufferedImage(path, useTopLeftPixelAsTransparent));
+    }
+
+    /**
+     * Reads and decodes an image out of the pack.
+     *
+     * @param path                         name of the image in the pack
+     * @param useTopLeftPixelAsTransparent whether to treat the top left pixel color as transparent
+     * @return the decoded ARGB image
+     */
+    @Override
+    public BufferedImage readBufferedImage(String path, boolean useTopLeftPixelAsTransparent) {
+        try (InputStream input = new ByteBufferInputStream(readBytes(path))) {
+            BufferedImage image = ImageIO.read(input);
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + path);
+            }
+            return TextureAtlas.prepareImage(image, useTopLeftPixelAsTransparent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a sound out of the pack, same as SoundReader.readSound.
+     * DanoGameLab only loads sounds from a path, so each sound is written once to a temporary file
+     * which is reused on later reads.
+     *
+     * @param path name of the sound in the pack
+     * @return the loaded sound
+     */
+    @Override
+    public Sound readSound(String path) {
+        String extractedPath = extractedSounds.get(path);
+        if (extractedPath == null) {
+            extractedPath = extractSound(path);
+            extractedSounds.put(path, extractedPath);
+        }
+        return soundReader.readSound(extractedPath);
+    }
+
+    /**
+     * Writes a sound entry to a temporary file that is deleted when the game exits.
+     *
+     * @param path name of the sound in the pack
+     * @return the path of the temporary file
+     */
+    private String extractSound(String path) {
+        ByteBuffer bytes = readBytes(path);
+        try {
+            Path soundFile = Files.createTempFile(EXTRACTED_SOUND_PREFIX, EXTRACTED_SOUND_SUFFIX);
+            soundFile.toFile().deleteOnExit();
+            try (FileChannel channel = FileChannel.open(soundFile, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            return soundFile.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * An input stream over a byte buffer, letting ImageIO decode straight from the mapping.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
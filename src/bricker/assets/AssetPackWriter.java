@@ -0,0 +1,115 @@
+package bricker.assets;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build-time tool that bundles every file of an assets directory into a single asset pack.
+ * Entries are named like the relative paths the game uses, e.g. "assets/ball.png".
+ */
+public class AssetPackWriter {
+
+    private static final int VALID_ARG_COUNT = 2;
+    private static final int ASSETS_DIR_ARG = 0;
+    private static final int OUTPUT_ARG = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int INDEX_ENTRY_FIXED_SIZE = Short.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String USAGE = "usage: AssetPackWriter <assets directory> <output pack>";
+
+    /**
+     * Writes a pack containing the given files.
+     *
+     * @param names    the entry names of the files, in the same order as files
+     * @param files    the files to bundle
+     * @param packPath the pack file to create
+     */
+    public static void writePack(List<String> names, List<Path> files, Path packPath) {
+        try {
+            List<byte[]> encodedNames = new ArrayList<>();
+            long dataOffset = HEADER_SIZE;
+            for (String name : names) {
+                byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+                encodedNames.add(encodedName);
+                dataOffset += INDEX_ENTRY_FIXED_SIZE + encodedName.length;
+            }
+
+            // header and index
+            ByteBuffer index = ByteBuffer.allocate((int) dataOffset).order(AssetPack.BYTE_ORDER);
+            index.putInt(AssetPack.MAGIC);
+            index.putShort(AssetPack.FORMAT_VERSION);
+            index.putInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                long fileSize = Files.size(files.get(i));
+                index.putShort((short) encodedNames.get(i).length);
+                index.put(encodedNames.get(i));
+                index.putLong(dataOffset);
+                index.putInt((int) fileSize);
+                dataOffset += fileSize;
+            }
+            index.flip();
+
+            try (FileChannel output = FileChannel.open(packPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(output, index);
+                for (Path file : files) {
+                    writeFully(output, ByteBuffer.wrap(Files.readAllBytes(file)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the whole buffer to the channel.
+     *
+     * @param channel the channel to write to
+     * @param buffer  the bytes to write
+     * @throws IOException if writing fails
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Packs an assets directory.
+     *
+     * @param args args[0] = the assets directory, args[1] = the pack file to create
+     */
+    public static void main(String[] args) {
+        if (args.length != VALID_ARG_COUNT) {
+            System.err.println(USAGE);
+            return;
+        }
+        Path assetsDir = Paths.get(args[ASSETS_DIR_ARG]);
+        Path packPath = Paths.get(args[OUTPUT_ARG]);
+        List<Path> files = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(assetsDir)) {
+            listing.filter(Files::isRegularFile)
+                    .filter(file -> !file.toAbsolutePath().equals(packPath.toAbsolutePath()))
+                    .sorted()
+                    .forEach(file -> {
+                        files.add(file);
+                        // name entries like the relative paths the game loads them from
+                        names.add(assetsDir.getFileName() + "/" + file.getFileName());
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writePack(names, files, packPath);
+        System.out.println("Packed " + files.size() + " assets into " + packPath);
+    }
+}
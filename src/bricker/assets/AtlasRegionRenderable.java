@@ -0,0 +1,94 @@
+package bricker.assets;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * A renderable that draws a single rectangular region of a texture atlas.
+ * All regions of the same atlas share one source image, so swapping between them is only a
+ * pointer change on the renderer.
+ */
+public class AtlasRegionRenderable implements Renderable {
+
+    private static final double FULLY_OPAQUE = 1;
+    private static final double NO_ROTATION = 0;
+
+    // private fields
+    private final BufferedImage atlasImage;
+    private final int sourceX;
+    private final int sourceY;
+    private final int width;
+    private final int height;
+
+    /**
+     * Creates a renderable for a region of the atlas image
+     *
+     * @param atlasImage the shared atlas image
+     * @param sourceX    x coordinate of the region's top left corner inside the atlas
+     * @param sourceY    y coordinate of the region's top left corner inside the atlas
+     * @param width      width of the region in pixels
+     * @param height     height of the region in pixels
+     */
+    AtlasRegionRenderable(BufferedImage atlasImage, int sourceX, int sourceY, int width, int height) {
+        this.atlasImage = atlasImage;
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Draws the region scaled to the given dimensions.
+     *
+     * @param g                     the graphics to draw on
+     * @param topLeftCorner         top left corner of the drawn object in screen coordinates
+     * @param dimensions            width and height of the drawn object
+     * @param rotation              rotation of the object in degrees
+     * @param isFlippedHorizontally whether to mirror the region horizontally
+     * @param isFlippedVertically   whether to mirror the region vertically
+     * @param opaqueness            opaqueness between 0 (invisible) and 1 (fully opaque)
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        AffineTransform originalTransform = g.getTransform();
+        Composite originalComposite = g.getComposite();
+        if (opaqueness < FULLY_OPAQUE) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        }
+        // draw around the center so rotation keeps the object in place
+        float halfWidth = dimensions.x() / 2;
+        float halfHeight = dimensions.y() / 2;
+        g.translate(topLeftCorner.x() + halfWidth, topLeftCorner.y() + halfHeight);
+        if (rotation != NO_ROTATION) {
+            g.rotate(Math.toRadians(rotation));
+        }
+        // swapping the destination corners mirrors the drawn region
+        int left = Math.round(isFlippedHorizontally ? halfWidth : -halfWidth);
+        int right = Math.round(isFlippedHorizontally ? -halfWidth : halfWidth);
+        int top = Math.round(isFlippedVertically ? halfHeight : -halfHeight);
+        int bottom = Math.round(isFlippedVertically ? -halfHeight : halfHeight);
+        g.drawImage(atlasImage, left, top, right, bottom,
+                sourceX, sourceY, sourceX + width, sourceY + height, null);
+        g.setTransform(originalTransform);
+        g.setComposite(originalComposite);
+    }
+
+    /**
+     * @return the width of the region in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height of the region in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+}
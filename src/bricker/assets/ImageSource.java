@@ -0,0 +1,18 @@
+package bricker.assets;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A source of decoded images, such as loose image files or an asset pack.
+ */
+public interface ImageSource {
+
+    /**
+     * Reads and decodes an image.
+     *
+     * @param path                         the path (or pack entry name) of the image
+     * @param useTopLeftPixelAsTransparent whether to treat the top left pixel color as transparent
+     * @return the decoded ARGB image
+     */
+    BufferedImage readBufferedImage(String path, boolean useTopLeftPixelAsTransparent);
+}
@@ -0,0 +1,18 @@
+package bricker.assets;
+
+import danogl.gui.Sound;
+
+/**
+ * A source of game sounds. Has the same signature as SoundReader.readSound, so a SoundReader can be
+ * used through a method reference.
+ */
+public interface SoundSource {
+
+    /**
+     * Reads a sound.
+     *
+     * @param path the path (or pack entry name) of the wav file
+     * @return the loaded sound
+     */
+    Sound readSound(String path);
+}
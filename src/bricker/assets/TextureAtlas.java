@@ -0,0 +1,166 @@
+package bricker.assets;
+
+import danogl.gui.rendering.Renderable;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Packs several images into a single atlas image at load time, and hands out a renderable for each
+ * packed image. Images are placed on shelves sorted by height, with a transparent padding between them.
+ */
+public class TextureAtlas {
+
+    private static final int REGION_PADDING = 1;
+    private static final int TRANSPARENT_PIXEL = 0;
+    private static final int RGB_MASK = 0x00FFFFFF;
+
+    // private fields
+    private final BufferedImage atlasImage;
+    private final Map<String, AtlasRegionRenderable> regions = new HashMap<>();
+
+    /**
+     * Packs the given images into a new atlas.
+     *
+     * @param images the images to pack, keyed by the name used to look them up later
+     */
+    public TextureAtlas(Map<String, BufferedImage> images) {
+        // sort by height so each shelf wastes as little space as possible
+        List<String> names = new ArrayList<>(images.keySet());
+        names.sort(Comparator.comparingInt((String name) -> images.get(name).getHeight()).reversed());
+
+        int atlasWidth = calculateAtlasWidth(images.values());
+        int[] regionX = new int[names.size()];
+        int[] regionY = new int[names.size()];
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (int i = 0; i < names.size(); i++) {
+            BufferedImage image = images.get(names.get(i));
+            // open a new shelf when the current one is full
+            if (shelfX + image.getWidth() > atlasWidth) {
+                shelfX = 0;
+                shelfY += shelfHeight + REGION_PADDING;
+                shelfHeight = 0;
+            }
+            regionX[i] = shelfX;
+            regionY[i] = shelfY;
+            shelfX += image.getWidth() + REGION_PADDING;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+        }
+
+        this.atlasImage = new BufferedImage(atlasWidth, Math.max(1, shelfY + shelfHeight),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlasImage.createGraphics();
+        for (int i = 0; i < names.size(); i++) {
+            BufferedImage image = images.get(names.get(i));
+            g.drawImage(image, regionX[i], regionY[i], null);
+            regions.put(names.get(i), new AtlasRegionRenderable(atlasImage, regionX[i], regionY[i],
+                    image.getWidth(), image.getHeight()));
+        }
+        g.dispose();
+    }
+
+    /**
+     * Reads images from the given source and packs them into a new atlas.
+     *
+     * @param imagePaths  paths of the images to pack, each mapped to whether its top left pixel color
+     *                    should be treated as transparent (like ImageReader.readImage does)
+     * @param imageSource the source to read the images from
+     * @return the packed atlas, where every image is looked up by its path
+     */
+    public static TextureAtlas packImages(Map<String, Boolean> imagePaths, ImageSource imageSource) {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> entry : imagePaths.entrySet()) {
+            images.put(entry.getKey(), imageSource.readBufferedImage(entry.getKey(), entry.getValue()));
+        }
+        return new TextureAtlas(images);
+    }
+
+    /**
+     * Reads a loose image file from disk. Can be used as an ImageSource through a method reference.
+     *
+     * @param path                         path of the image file
+     * @param useTopLeftPixelAsTransparent whether to treat the top left pixel color as transparent
+     * @return the decoded ARGB image
+     */
+    public static BufferedImage readImageFile(String path, boolean useTopLeftPixelAsTransparent) {
+        try {
+            BufferedImage image = ImageIO.read(new File(path));
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + path);
+            }
+            return prepareImage(image, useTopLeftPixelAsTransparent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts an image to ARGB, optionally making every pixel with the top left pixel's color transparent.
+     *
+     * @param image                        the decoded image
+     * @param useTopLeftPixelAsTransparent whether to treat the top left pixel color as transparent
+     * @return an ARGB copy of the image
+     */
+    public static BufferedImage prepareImage(BufferedImage image, boolean useTopLeftPixelAsTransparent) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        if (useTopLeftPixelAsTransparent) {
+            int transparentColor = pixels[0] & RGB_MASK;
+            for (int i = 0; i < pixels.length; i++) {
+                if ((pixels[i] & RGB_MASK) == transparentColor) {
+                    pixels[i] = TRANSPARENT_PIXEL;
+                }
+            }
+        }
+        result.setRGB(0, 0, width, height, pixels, 0, width);
+        return result;
+    }
+
+    /**
+     * Returns the renderable of a packed image. Every call for the same name returns the same instance.
+     *
+     * @param name the name (path) the image was packed under
+     * @return the region renderable of the image
+     * @throws IllegalArgumentException if no image was packed under this name
+     */
+    public Renderable getRenderable(String name) {
+        AtlasRegionRenderable region = regions.get(name);
+        if (region == null) {
+            throw new IllegalArgumentException("Image is not part of the atlas: " + name);
+        }
+        return region;
+    }
+
+    /**
+     * @return the single image all the regions are drawn from
+     */
+    public BufferedImage getAtlasImage() {
+        return atlasImage;
+    }
+
+    /**
+     * Chooses a width for the atlas that keeps it roughly square, but fits the widest image.
+     *
+     * @param images the images to pack
+     * @return the atlas width in pixels
+     */
+    private static int calculateAtlasWidth(Collection<BufferedImage> images) {
+        long totalArea = 0;
+        int maxWidth = 1;
+        for (BufferedImage image : images) {
+            totalArea += (long) (image.getWidth() + REGION_PADDING) * (image.getHeight() + REGION_PADDING);
+            maxWidth = Math.max(maxWidth, image.getWidth());
+        }
+        return Math.max(maxWidth, (int) Math.ceil(Math.sqrt(totalArea)));
+    }
+}
@@ -1,10 +1,16 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.Brick;
+import bricker.particles.ParticleSystem;
+import bricker.telemetry.BrickDestroyedEvent;
+import bricker.telemetry.FrameCounters;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.util.Counter;
 
+import java.util.function.IntConsumer;
+
 /**
  * This method implements the basic collision strategy
  * Written by: Noam K
@@ -14,15 +20,26 @@ class BasicCollisionStrategy implements CollisionStrategy{
     // private fields
     private final GameObjectCollection gameObjects;
     private final Counter bricksCounter;
+    private final FrameCounters frameCounters;
+    private final ParticleSystem particleSystem;
+    private final IntConsumer removedBricks;
 
     /**
      * Creates a BasicCollisionStrategy
      * @param gameObjects the list of objects in the game
      * @param bricksCounter the updating bricks counter, allowing to change their number by reference
+     * @param frameCounters counts the brick collisions of the current frame
+     * @param particleSystem throws the debris and sparks of destroyed bricks
+     * @param removedBricks receives the index of every brick removed, e.g. to record it for rewinding
      */
-    BasicCollisionStrategy(GameObjectCollection gameObjects, Counter bricksCounter){
+    BasicCollisionStrategy(GameObjectCollection gameObjects, Counter bricksCounter,
+                           FrameCounters frameCounters, ParticleSystem particleSystem,
+                           IntConsumer removedBricks){
         this.gameObjects = gameObjects;
         this.bricksCounter = bricksCounter;
+        this.frameCounters = frameCounters;
+        this.particleSystem = particleSystem;
+        this.removedBricks = removedBricks;
     }
 
     /**
@@ -32,10 +49,18 @@ class BasicCollisionStrategy implements CollisionStrategy{
      */
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
+        frameCounters.recordBrickCollision();
         // remove object1 from the game, and decrement bricksCounter by 1 to ensure
         // only 1 decrement was made in case the brick was hit by 2 units at the same time.
         if(this.gameObjects.removeGameObject(object1, Layer.STATIC_OBJECTS)){
             bricksCounter.decrement();
+            if (object1 instanceof Brick) {
+                Brick brick = (Brick) object1;
+                brick.setDestroyed(true);
+                BrickDestroyedEvent.emit(brick.getIndex(), brick.getStrategyCode());
+                particleSystem.burst(brick.getCenter(), brick.getStrategyCode());
+                removedBricks.accept(brick.getIndex());
+            }
         }
     }
 }
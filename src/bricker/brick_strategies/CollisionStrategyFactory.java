@@ -1,148 +1,135 @@
 package bricker.brick_strategies;
 
-import danogl.GameObject;
+import bricker.assets.SoundSource;
+import bricker.assets.TextureAtlas;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.PaddleController;
+import bricker.particles.ParticleSystem;
+import bricker.telemetry.FrameCounters;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
-import danogl.gui.SoundReader;
-import danogl.gui.UserInputListener;
 import danogl.util.Counter;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
 /**
  * The factory creates a collision strategy on a random basis
  */
 public class CollisionStrategyFactory {
-    // percentages stats
-    private static final int RANDOM_BOUND = 100;
-    private static final int BOUND_WITH_DUAL_COLLISION = 50;
-    private static final int BOUND_WITHOUT_DUAL_COLLISION = 40;
-    private static final int TEN_PERCENT_CHANCE = 10;
-    private static final int TWENTY_PERCENT_CHANCE = 20;
-    private static final int THIRTY_PERCENT_CHANCE = 30;
-    private static final int FORTY_PERCENT_CHANCE = 40;
-    private static final int FIFTY_PERCENT_CHANCE = 50;
-
     // private fields
-    private final GameObjectCollection gameObjects;
-    private final ImageReader imageReader;
-    private final SoundReader soundReader;
-    private final UserInputListener inputListener;
-    private final GameObject ball;
-    private final GameObject originalPaddle;
-    private final Random random = new Random();
-    private final CollisionStrategy basicStrategy;
+    private final SplittableRandom random = new SplittableRandom();
+    private final StrategySampler strategySampler;
+    private final BasicCollisionStrategy basicStrategy;
+    private final PuckCollisionStrategy puckStrategy;
+    private final MockPaddleCollisionStrategy mockPaddleStrategy;
+    private final TurboCollisionStrategy turboStrategy;
+    private final HeartCollisionStrategy heartStrategy;
+    private final CollisionStrategy[] compiledStrategies = new CollisionStrategy[StrategyCode.MAX_CODE + 1];
 
     /**
      * Will receive all the needed parameters for creating any kind of collision strategy
      *
-     * @param gameObjects    the list of objects in the game
-     * @param imageReader    Used to read images
-     * @param soundReader    Used to read sounds
-     * @param inputListener  Used to receive user input
-     * @param ball           The ball in the game
-     * @param originalPaddle The paddle in the game
-     * @param bricksCounter  the updating bricks counter, allowing to change their number by reference
+     * @param gameObjects      the list of objects in the game
+     * @param textureAtlas     Atlas holding the game images
+     * @param soundSource      Used to read sounds
+     * @param paddleController Moves the paddles
+     * @param ball             The ball in the game
+     * @param bricksCounter    the updating bricks counter, allowing to change their number by reference
+     * @param strategySampler  samples the strategies of randomly created bricks
+     * @param frameCounters    counts the brick collisions and strategy activations of the current frame
+     * @param particleSystem   throws the debris and sparks of destroyed bricks
+     * @param removedBricks    receives the index of every removed brick
      */
     public CollisionStrategyFactory(GameObjectCollection gameObjects,
-                                    ImageReader imageReader,
-                                    SoundReader soundReader,
-                                    UserInputListener inputListener,
-                                    GameObject ball,
-                                    GameObject originalPaddle,
-                                    Counter bricksCounter) {
-        this.gameObjects = gameObjects;
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
-        this.inputListener = inputListener;
-        this.ball = ball;
-        this.originalPaddle = originalPaddle;
-        this.basicStrategy = new BasicCollisionStrategy(this.gameObjects, bricksCounter);
+                                    TextureAtlas textureAtlas,
+                                    SoundSource soundSource,
+                                    PaddleController paddleController,
+                                    Ball ball,
+                                    Counter bricksCounter,
+                                    StrategySampler strategySampler,
+                                    FrameCounters frameCounters,
+                                    ParticleSystem particleSystem,
+                                    IntConsumer removedBricks) {
+        this.strategySampler = strategySampler;
+        this.basicStrategy = new BasicCollisionStrategy(gameObjects, bricksCounter, frameCounters,
+                particleSystem, removedBricks);
+        // the special strategies hold no per brick state, so all bricks share them
+        this.puckStrategy = new PuckCollisionStrategy(gameObjects, basicStrategy, textureAtlas, soundSource,
+                frameCounters);
+        this.mockPaddleStrategy = new MockPaddleCollisionStrategy(gameObjects, basicStrategy, textureAtlas,
+                paddleController, frameCounters);
+        this.turboStrategy = new TurboCollisionStrategy(basicStrategy, textureAtlas, ball, frameCounters);
+        this.heartStrategy = new HeartCollisionStrategy(gameObjects, basicStrategy, textureAtlas,
+                frameCounters);
     }
 
     /**
-     * Randomly creates a collision strategy based on these probabilities:
-     * 50% for BasicCollisionStrategy - Only delete the brick
+     * Randomly creates a collision strategy, with the probabilities of the strategy sampler's weight
+     * table. By default 50% of the bricks get BasicCollisionStrategy, which only deletes the brick.
      * Otherwise, on top of the basic behavior the brick can receive:
-     * 10% for PuckCollisionStrategy - creates 2 puck balls at the location of the destroyed brick.
-     * 10% for MockPaddleCollisionStrategy - create a temporary paddle that follows the user's movement.
-     * 10% for TurboCollisionStrategy - temporarily change the ball to be faster
-     * 10% for HeartCollisionStrategy - a heart will fall out of the brick, catching it grants 1 HP
-     * 10% for DualCollisionStrategy - randomly select 2 of the 5 special behaviors (can only nest once)
+     * PuckCollisionStrategy - creates 2 puck balls at the location of the destroyed brick.
+     * MockPaddleCollisionStrategy - create a temporary paddle that follows the user's movement.
+     * TurboCollisionStrategy - temporarily change the ball to be faster
+     * HeartCollisionStrategy - a heart will fall out of the brick, catching it grants 1 HP
+     * or a combination of 2 or 3 of these behaviors
      *
      * @return the randomly created CollisionStrategy
      */
     public CollisionStrategy randomlyCreateCollisionStrategy() {
-        int chance = random.nextInt(RANDOM_BOUND);
-        // 50% to return basic behavior
-        if (chance < FIFTY_PERCENT_CHANCE) {
-            return basicStrategy;
-        }
-        // 50% to create special behavior
-        else {
-            // check if the special behavior will be dual in a 20% chance
-            if (shouldSpecialStrategyBeDual()) {
-                return createDualStrategy();
-            } else {
-                // return a non-dual behavior, each with a 25% chance
-                return randomlyCreateNonDualSpecialStrategy();
-            }
-        }
+        return createCollisionStrategy(rollStrategyCode());
     }
 
     /**
-     * Decides if the special strategy will become dual with a 20% chance.
+     * Randomly picks the code of a collision strategy, with the probabilities of
+     * randomlyCreateCollisionStrategy.
      *
-     * @return true if the strategy should be dual, false otherwise
+     * @return the randomly picked strategy code, see StrategyCode
      */
-    private boolean shouldSpecialStrategyBeDual() {
-        int chance = random.nextInt(BOUND_WITH_DUAL_COLLISION);
-        return chance > FORTY_PERCENT_CHANCE;
+    public int rollStrategyCode() {
+        return strategySampler.sample(random);
     }
 
-
     /**
-     * Will create a dual strategy.
-     * can contain up to 3 special strategies in case one strategy is dual again.
+     * Creates the collision strategy described by a strategy code.
+     * A brick with several special behaviors gets a compiled strategy, which removes the brick once and
+     * then applies each behavior in order. Strategies hold no per brick state, so every code is only
+     * compiled once and shared by all its bricks.
      *
-     * @return the created dual strategy
+     * @param strategyCode the code of the strategy, see StrategyCode
+     * @return the created CollisionStrategy
      */
-    private DualCollisionStrategy createDualStrategy() {
-        // Randomly create two collision strategies, first is non-dual
-        CollisionStrategy strategy1 = randomlyCreateNonDualSpecialStrategy();
-
-        // decide if the second one should be dual strategy or not.
-        // this is called twice with an "or" operator to represent each of the two special behaviors having
-        // a chance to roll a dual behavior.
-        if (shouldSpecialStrategyBeDual() || shouldSpecialStrategyBeDual()) {
-            CollisionStrategy subStrategy1 = randomlyCreateNonDualSpecialStrategy();
-            CollisionStrategy subStrategy2 = randomlyCreateNonDualSpecialStrategy();
-            DualCollisionStrategy strategy2 = new DualCollisionStrategy(subStrategy1, subStrategy2);
-            return new DualCollisionStrategy(strategy1, strategy2);
-        } else {
-            CollisionStrategy strategy2 = randomlyCreateNonDualSpecialStrategy();
-            return new DualCollisionStrategy(strategy1, strategy2);
+    public CollisionStrategy createCollisionStrategy(int strategyCode) {
+        switch (StrategyCode.effectCount(strategyCode)) {
+            case 0:
+                return basicStrategy;
+            case 1:
+                return createNonDualSpecialStrategy(StrategyCode.effectAt(strategyCode, 0));
+            default:
+                if (compiledStrategies[strategyCode] == null) {
+                    compiledStrategies[strategyCode] = new CompiledCollisionStrategy(strategyCode,
+                            basicStrategy, puckStrategy, mockPaddleStrategy, turboStrategy, heartStrategy);
+                }
+                return compiledStrategies[strategyCode];
         }
     }
 
     /**
-     * Randomly create one of the 4 special strategies (can not create dual strategy)
+     * Returns one of the 4 special strategies (can not create dual strategy)
      *
+     * @param type the special behavior
      * @return a non-dual special strategy
      */
-    private CollisionStrategy randomlyCreateNonDualSpecialStrategy() {
-        int chance = random.nextInt(BOUND_WITHOUT_DUAL_COLLISION);
-
-        if (chance < TEN_PERCENT_CHANCE) { // chance between 0 and 10, return MockPaddleCollisionStrategy
-            return new PuckCollisionStrategy(gameObjects, basicStrategy, imageReader, soundReader);
-        } else if (chance < TWENTY_PERCENT_CHANCE) { // chance between 10 and 20, return MockPaddleCollisionStrategy
-            return new MockPaddleCollisionStrategy(gameObjects, basicStrategy, imageReader, inputListener);
-        } else if (chance < THIRTY_PERCENT_CHANCE) { // chance between 20 and 30, return TurboCollisionStrategy
-            return new TurboCollisionStrategy(basicStrategy, imageReader, ball);
-        } else { // chance between 30 and 40, return HeartCollisionStrategy
-            return new HeartCollisionStrategy(gameObjects, basicStrategy, imageReader, originalPaddle);
+    private CollisionStrategy createNonDualSpecialStrategy(StrategyType type) {
+        switch (type) {
+            case PUCK:
+                return puckStrategy;
+            case MOCK_PADDLE:
+                return mockPaddleStrategy;
+            case TURBO:
+                return turboStrategy;
+            default:
+                return heartStrategy;
         }
     }
 
 }
-
@@ -0,0 +1,74 @@
+package bricker.brick_strategies;
+
+import danogl.GameObject;
+
+/**
+ * A collision strategy compiled from a strategy code when its brick is created. Upon collision the brick
+ * is removed once, and then each special behavior in the flat effect list is applied once, in order.
+ * This replaces nesting dual strategies, where every wrapped strategy repeated the basic behavior and
+ * every call went through the CollisionStrategy interface. Here all calls are made on the concrete
+ * strategies, so each call site only ever sees a single class.
+ */
+class CompiledCollisionStrategy implements CollisionStrategy {
+
+    // private fields
+    private final BasicCollisionStrategy basicStrategy;
+    private final PuckCollisionStrategy puckStrategy;
+    private final MockPaddleCollisionStrategy mockPaddleStrategy;
+    private final TurboCollisionStrategy turboStrategy;
+    private final HeartCollisionStrategy heartStrategy;
+    private final StrategyType[] effects;
+
+    /**
+     * Compiles a strategy code against the special strategies that apply its effects.
+     *
+     * @param strategyCode       the code of the strategy, see StrategyCode
+     * @param basicStrategy      removes the brick
+     * @param puckStrategy       applies the puck effect
+     * @param mockPaddleStrategy applies the mock paddle effect
+     * @param turboStrategy      applies the turbo effect
+     * @param heartStrategy      applies the heart effect
+     */
+    CompiledCollisionStrategy(int strategyCode, BasicCollisionStrategy basicStrategy,
+                              PuckCollisionStrategy puckStrategy,
+                              MockPaddleCollisionStrategy mockPaddleStrategy,
+                              TurboCollisionStrategy turboStrategy,
+                              HeartCollisionStrategy heartStrategy) {
+        this.basicStrategy = basicStrategy;
+        this.puckStrategy = puckStrategy;
+        this.mockPaddleStrategy = mockPaddleStrategy;
+        this.turboStrategy = turboStrategy;
+        this.heartStrategy = heartStrategy;
+        this.effects = new StrategyType[StrategyCode.effectCount(strategyCode)];
+        for (int i = 0; i < effects.length; i++) {
+            effects[i] = StrategyCode.effectAt(strategyCode, i);
+        }
+    }
+
+    /**
+     * Removes the brick, then applies every effect.
+     *
+     * @param object1 first object to collide
+     * @param object2 second object to collide
+     */
+    @Override
+    public void onCollision(GameObject object1, GameObject object2) {
+        basicStrategy.onCollision(object1, object2);
+        for (StrategyType effect : effects) {
+            switch (effect) {
+                case PUCK:
+                    puckStrategy.applyEffect(object1, object2);
+                    break;
+                case MOCK_PADDLE:
+                    mockPaddleStrategy.applyEffect(object1, object2);
+                    break;
+                case TURBO:
+                    turboStrategy.applyEffect(object1, object2);
+                    break;
+                default:
+                    heartStrategy.applyEffect(object1, object2);
+                    break;
+            }
+        }
+    }
+}
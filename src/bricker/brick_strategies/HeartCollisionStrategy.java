@@ -1,10 +1,13 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.EntityKind;
 import bricker.gameobjects.Heart;
+import bricker.assets.TextureAtlas;
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
+import bricker.telemetry.SpawnEvent;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -15,30 +18,28 @@ import danogl.util.Vector2;
  */
 class HeartCollisionStrategy implements CollisionStrategy {
 
-    private static final int HEART_FALLING_SPEED = 100;
-
     // private fields
     private final GameObjectCollection gameObjects;
     private final CollisionStrategy baseStrategy;
-    private final ImageReader imageReader;
-    private final GameObject originalPaddle;
+    private final TextureAtlas textureAtlas;
+    private final FrameCounters frameCounters;
 
     /**
      * Creates this type of collisionStrategy
      *
      * @param gameObjects    a list of objects in the game
      * @param baseStrategy   a base strategy to wrap
-     * @param imageReader    Used to read images
-     * @param originalPaddle the paddle in the game
+     * @param textureAtlas   Atlas holding the game images
+     * @param frameCounters  counts the strategy activations of the current frame
      */
     HeartCollisionStrategy(GameObjectCollection gameObjects,
                                   CollisionStrategy baseStrategy,
-                                  ImageReader imageReader,
-                                  GameObject originalPaddle) {
+                                  TextureAtlas textureAtlas,
+                                  FrameCounters frameCounters) {
         this.gameObjects = gameObjects;
         this.baseStrategy = baseStrategy;
-        this.imageReader = imageReader;
-        this.originalPaddle = originalPaddle;
+        this.textureAtlas = textureAtlas;
+        this.frameCounters = frameCounters;
     }
 
     /**
@@ -50,6 +51,17 @@ class HeartCollisionStrategy implements CollisionStrategy {
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
         baseStrategy.onCollision(object1, object2); // apply basic collision behavior
+        applyEffect(object1, object2);
+    }
+
+    /**
+     * Drops a heart from the brick, without the basic behavior.
+     *
+     * @param object1 the brick that was hit
+     * @param object2 the object that hit it
+     */
+    void applyEffect(GameObject object1, GameObject object2) {
+        frameCounters.recordStrategyActivation(StrategyType.HEART);
         Vector2 brickLocation = object1.getCenter();
         createHeart(brickLocation);
     }
@@ -60,13 +72,13 @@ class HeartCollisionStrategy implements CollisionStrategy {
      * @param startPosition starting position to fall from
      */
     private void createHeart(Vector2 startPosition) {
-        Renderable heartImage = imageReader.readImage(Constants.HEART_IMAGE_PATH, true); // load photo
+        Renderable heartImage = textureAtlas.getRenderable(Constants.HEART_IMAGE_PATH);
         GameObject heart = new Heart(Vector2.ZERO,
-                new Vector2(Constants.HEART_SIZE, Constants.HEART_SIZE), heartImage);
+                new Vector2(Constants.HEART_SIZE, Constants.HEART_SIZE), heartImage, EntityKind.FALLING_HEART,
+                frameCounters);
         gameObjects.addGameObject(heart);
         heart.setCenter(startPosition);
-        heart.setTag(Constants.FALLING_HEART_TAG);
-        heart.setVelocity(new Vector2(0, HEART_FALLING_SPEED));
-        heart.shouldCollideWith(originalPaddle);
+        heart.setVelocity(new Vector2(0, Constants.HEART_FALLING_SPEED));
+        SpawnEvent.emit(EntityKind.nameOf(EntityKind.FALLING_HEART));
     }
 }
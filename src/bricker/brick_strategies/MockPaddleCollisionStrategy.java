@@ -1,11 +1,14 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.EntityKind;
 import bricker.gameobjects.MockPaddle;
+import bricker.gameobjects.PaddleController;
+import bricker.assets.TextureAtlas;
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
+import bricker.telemetry.SpawnEvent;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -22,31 +25,34 @@ class MockPaddleCollisionStrategy implements CollisionStrategy {
     // private fields
     private final GameObjectCollection gameObjects;
     private final CollisionStrategy baseStrategy;
-    private final ImageReader imageReader;
-    private final UserInputListener inputListener;
+    private final TextureAtlas textureAtlas;
+    private final PaddleController paddleController;
     private final int originalPaddleWidth;
     private final int originalPaddleHeight;
     private final Vector2 windowDimensions;
+    private final FrameCounters frameCounters;
 
 
     /**
      * Constructor to create a strategy that will spawn a mock paddle
      *
-     * @param gameObjects   a list of objects in the game
-     * @param baseStrategy  a base strategy to wrap
-     * @param imageReader   Used to read images
-     * @param inputListener Used to receive input from the user
+     * @param gameObjects      a list of objects in the game
+     * @param baseStrategy     a base strategy to wrap
+     * @param textureAtlas     Atlas holding the game images
+     * @param paddleController Moves the mock paddle, like the main paddle
+     * @param frameCounters    counts the strategy activations of the current frame
      */
     MockPaddleCollisionStrategy(GameObjectCollection gameObjects,
-                                       CollisionStrategy baseStrategy, ImageReader imageReader,
-                                       UserInputListener inputListener) {
+                                       CollisionStrategy baseStrategy, TextureAtlas textureAtlas,
+                                       PaddleController paddleController, FrameCounters frameCounters) {
         this.gameObjects = gameObjects;
         this.baseStrategy = baseStrategy;
-        this.imageReader = imageReader;
-        this.inputListener = inputListener;
+        this.textureAtlas = textureAtlas;
+        this.paddleController = paddleController;
         this.originalPaddleWidth = Constants.PADDLE_WIDTH;
         this.originalPaddleHeight = Constants.PADDLE_HEIGHT;
         this.windowDimensions = new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        this.frameCounters = frameCounters;
     }
 
     /**
@@ -58,6 +64,17 @@ class MockPaddleCollisionStrategy implements CollisionStrategy {
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
         this.baseStrategy.onCollision(object1, object2); // perform basic collision behavior
+        applyEffect(object1, object2);
+    }
+
+    /**
+     * Creates the mock paddle if there is none, without the basic behavior.
+     *
+     * @param object1 the brick that was hit
+     * @param object2 the object that hit it
+     */
+    void applyEffect(GameObject object1, GameObject object2) {
+        frameCounters.recordStrategyActivation(StrategyType.MOCK_PADDLE);
         // if there's no other mock paddle, create one
         if (!isThereAnotherMockPaddle()) {
             createMockPaddle();
@@ -68,17 +85,18 @@ class MockPaddleCollisionStrategy implements CollisionStrategy {
      * handles the creation of the mock paddle
      */
     private void createMockPaddle() {
-        Renderable paddleImage = imageReader.readImage(Constants.PADDLE_IMAGE_PATH, true); // load photo
+        Renderable paddleImage = textureAtlas.getRenderable(Constants.PADDLE_IMAGE_PATH);
         GameObject mockPaddle = new MockPaddle(
                 Vector2.ZERO,
                 new Vector2(originalPaddleWidth, originalPaddleHeight),
                 paddleImage,
-                inputListener); // create object
+                paddleController,
+                frameCounters); // create object
         mockPaddle.setCenter(
                 new Vector2(windowDimensions.x() / 2,
                         windowDimensions.y() / 2)); // mockPaddle start position
-        mockPaddle.setTag(Constants.MOCK_PADDLE_TAG); // set tag of mockPaddle
         gameObjects.addGameObject(mockPaddle); // add the mockPaddle to game objects
+        SpawnEvent.emit(EntityKind.nameOf(EntityKind.MOCK_PADDLE));
     }
 
     /**
@@ -88,7 +106,7 @@ class MockPaddleCollisionStrategy implements CollisionStrategy {
      */
     private boolean isThereAnotherMockPaddle() {
         for (GameObject gameObject : gameObjects.objectsInLayer(DEFAULT)) {
-            if ((gameObject.getTag().equals(Constants.MOCK_PADDLE_TAG))) {
+            if (EntityKind.kindOf(gameObject) == EntityKind.MOCK_PADDLE) {
                 return true;
             }
         }
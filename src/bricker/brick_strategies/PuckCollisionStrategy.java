@@ -1,12 +1,15 @@
 package bricker.brick_strategies;
 
 import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
+import bricker.assets.SoundSource;
+import bricker.assets.TextureAtlas;
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
+import bricker.telemetry.SpawnEvent;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
 import danogl.gui.Sound;
-import danogl.gui.SoundReader;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -20,37 +23,36 @@ import java.util.Random;
  */
 class PuckCollisionStrategy implements CollisionStrategy {
 
-    private static final float PUCK_BALL_RATIO_FROM_ORIGINAL = 0.75F;
-    private static final String PUCK_BALL_TAG = "puckBall";
-    private static final String MOCK_BALL_IMAGE_PATH = "assets/mockBall.png";
-
     // private fields
     private final GameObjectCollection gameObjects;
     private final CollisionStrategy baseStrategy;
-    private final ImageReader imageReader;
-    private final SoundReader soundReader;
+    private final TextureAtlas textureAtlas;
+    private final SoundSource soundSource;
     private final float puckBallSize;
     private final int puckBallSpeed;
     private final Random random;
+    private final FrameCounters frameCounters;
 
     /**
      * Constructor for the PuckCollisionStrategy
      *
      * @param gameObjects  list of the objects in the game
      * @param baseStrategy a basic strategy to wrap and add more functionality on top
-     * @param imageReader  Used to read images
-     * @param soundReader  Used to read sound files
+     * @param textureAtlas Atlas holding the game images
+     * @param soundSource  Used to read sound files
+     * @param frameCounters counts the strategy activations of the current frame
      */
     PuckCollisionStrategy(GameObjectCollection gameObjects,
-                                 CollisionStrategy baseStrategy, ImageReader imageReader,
-                                 SoundReader soundReader) {
+                                 CollisionStrategy baseStrategy, TextureAtlas textureAtlas,
+                                 SoundSource soundSource, FrameCounters frameCounters) {
         this.gameObjects = gameObjects;
         this.baseStrategy = baseStrategy;
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
-        this.puckBallSize = Constants.BALL_DIMENSIONS * PUCK_BALL_RATIO_FROM_ORIGINAL;
+        this.textureAtlas = textureAtlas;
+        this.soundSource = soundSource;
+        this.puckBallSize = Constants.BALL_DIMENSIONS * Constants.PUCK_BALL_RATIO_FROM_ORIGINAL;
         this.puckBallSpeed = Constants.BALL_SPEED;
         this.random = new Random();
+        this.frameCounters = frameCounters;
     }
 
     /**
@@ -63,6 +65,17 @@ class PuckCollisionStrategy implements CollisionStrategy {
     public void onCollision(GameObject object1, GameObject object2) {
         // perform basic behavior
         baseStrategy.onCollision(object1, object2);
+        applyEffect(object1, object2);
+    }
+
+    /**
+     * Spawns the puck balls, without the basic behavior.
+     *
+     * @param object1 the brick that was hit
+     * @param object2 the object that hit it
+     */
+    void applyEffect(GameObject object1, GameObject object2) {
+        frameCounters.recordStrategyActivation(StrategyType.PUCK);
         Vector2 brickLocation = object1.getCenter();
         for (int i = 0; i < 2; i++) {
             createPuckBall(brickLocation);
@@ -76,12 +89,11 @@ class PuckCollisionStrategy implements CollisionStrategy {
      */
     private void createPuckBall(Vector2 startPosition) {
         // create ball and set its parameters
-        Renderable puckBallImage = imageReader.readImage(
-                MOCK_BALL_IMAGE_PATH, true); // load photo
-        Sound collisionSound = soundReader.readSound(Constants.BALL_COLLISION_SOUND_PATH);
+        Renderable puckBallImage = textureAtlas.getRenderable(Constants.MOCK_BALL_IMAGE_PATH);
+        Sound collisionSound = soundSource.readSound(Constants.BALL_COLLISION_SOUND_PATH);
         GameObject puckBall = new Ball(Vector2.ZERO,
                 new Vector2(puckBallSize, puckBallSize),
-                puckBallImage, collisionSound); // create object
+                puckBallImage, collisionSound, EntityKind.PUCK_BALL, frameCounters); // create object
         gameObjects.addGameObject(puckBall); // add the ball to game objects
         puckBall.setCenter(startPosition); // set ball position
         // set ball velocity - based on a random number on the upper half of a unit circle
@@ -89,6 +101,6 @@ class PuckCollisionStrategy implements CollisionStrategy {
         float velX = (float) Math.cos(angle) * puckBallSpeed;
         float velY = (float) Math.sin(angle) * puckBallSpeed;
         puckBall.setVelocity(new Vector2(velX, velY));
-        puckBall.setTag(PUCK_BALL_TAG);
+        SpawnEvent.emit(EntityKind.nameOf(EntityKind.PUCK_BALL));
     }
 }
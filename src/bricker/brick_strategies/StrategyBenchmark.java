@@ -0,0 +1,168 @@
+package bricker.brick_strategies;
+
+import bricker.assets.TextureAtlas;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
+import bricker.main.Constants;
+import bricker.particles.ParticleSystem;
+import bricker.telemetry.FrameCounters;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the cost of a single brick hit for bricks with 2 and 3 special behaviors, comparing nested
+ * dual strategies with compiled ones.
+ * The benchmark uses the turbo and mock paddle behaviors, hit by a ball that is not the main ball, so
+ * once the first mock paddle exists no objects are created and the measured time is the strategy
+ * dispatch and the brick removal attempts.
+ */
+public class StrategyBenchmark {
+
+    private static final int DEFAULT_HITS = 20_000_000;
+    private static final int HITS_ARG = 0;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int IMAGE_SIZE = 4;
+    private static final int PARTICLE_CAPACITY = 1024;
+    private static final StrategyType[] BENCHMARK_TYPES = {StrategyType.TURBO, StrategyType.MOCK_PADDLE};
+    private static final String[] IMAGE_PATHS = {Constants.PADDLE_IMAGE_PATH, Constants.HEART_IMAGE_PATH,
+            Constants.MOCK_BALL_IMAGE_PATH, Constants.RED_BALL_IMAGE_PATH};
+
+    // private fields
+    private final BasicCollisionStrategy basicStrategy;
+    private final MockPaddleCollisionStrategy mockPaddleStrategy;
+    private final TurboCollisionStrategy turboStrategy;
+    private final PuckCollisionStrategy puckStrategy;
+    private final HeartCollisionStrategy heartStrategy;
+    private final GameObject brick;
+    private final GameObject hittingBall;
+
+    /**
+     * Creates the strategies to benchmark over an empty game.
+     */
+    private StrategyBenchmark() {
+        GameObjectCollection gameObjects = new GameObjectCollection();
+        Map<String, BufferedImage> images = new HashMap<>();
+        for (String path : IMAGE_PATHS) {
+            images.put(path, new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB));
+        }
+        TextureAtlas textureAtlas = new TextureAtlas(images);
+        FrameCounters frameCounters = new FrameCounters();
+        Vector2 size = new Vector2(Constants.BALL_DIMENSIONS, Constants.BALL_DIMENSIONS);
+        Ball mainBall = new Ball(Vector2.ZERO, size, null, null, EntityKind.MAIN_BALL, frameCounters);
+
+        this.basicStrategy = new BasicCollisionStrategy(gameObjects, new Counter(0), frameCounters,
+                new ParticleSystem(new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT),
+                        PARTICLE_CAPACITY), index -> {
+                });
+        this.mockPaddleStrategy = new MockPaddleCollisionStrategy(gameObjects, basicStrategy, textureAtlas,
+                null, frameCounters);
+        this.turboStrategy = new TurboCollisionStrategy(basicStrategy, textureAtlas, mainBall, frameCounters);
+        this.puckStrategy = new PuckCollisionStrategy(gameObjects, basicStrategy, textureAtlas, path -> null,
+                frameCounters);
+        this.heartStrategy = new HeartCollisionStrategy(gameObjects, basicStrategy, textureAtlas,
+                frameCounters);
+        // the brick is never in the game, so every removal attempt fails like a repeated one would
+        this.brick = new GameObject(Vector2.ZERO, size, null);
+        // not of the main ball kind, so turbo is never activated
+        this.hittingBall = new GameObject(Vector2.ZERO, size, null);
+    }
+
+    /**
+     * @param type a special behavior
+     * @return the shared strategy of the behavior
+     */
+    private CollisionStrategy leafStrategy(StrategyType type) {
+        return type == StrategyType.TURBO ? turboStrategy : mockPaddleStrategy;
+    }
+
+    /**
+     * Creates a strategy the way the factory used to: a dual strategy, whose second strategy is itself
+     * dual for 3 behaviors.
+     *
+     * @param types the special behaviors, 2 or 3
+     * @return the nested strategy
+     */
+    private CollisionStrategy createNestedStrategy(StrategyType... types) {
+        CollisionStrategy second = types.length == 2 ? leafStrategy(types[1]) :
+                new DualCollisionStrategy(leafStrategy(types[1]), leafStrategy(types[2]));
+        return new DualCollisionStrategy(leafStrategy(types[0]), second);
+    }
+
+    /**
+     * @param types the special behaviors
+     * @return the compiled strategy
+     */
+    private CollisionStrategy createCompiledStrategy(StrategyType... types) {
+        return new CompiledCollisionStrategy(StrategyCode.of(types), basicStrategy, puckStrategy,
+                mockPaddleStrategy, turboStrategy, heartStrategy);
+    }
+
+    /**
+     * Creates strategies of every combination of the benchmark behaviors.
+     *
+     * @param effectCount number of behaviors per strategy, 2 or 3
+     * @param compiled    true for compiled strategies, false for nested dual ones
+     * @return the strategies
+     */
+    private CollisionStrategy[] createStrategies(int effectCount, boolean compiled) {
+        int typeCount = BENCHMARK_TYPES.length;
+        int combinations = effectCount == 2 ? typeCount * typeCount : typeCount * typeCount * typeCount;
+        CollisionStrategy[] strategies = new CollisionStrategy[combinations];
+        for (int i = 0; i < combinations; i++) {
+            StrategyType[] types = new StrategyType[effectCount];
+            for (int effect = 0, rest = i; effect < effectCount; effect++, rest /= typeCount) {
+                types[effect] = BENCHMARK_TYPES[rest % typeCount];
+            }
+            strategies[i] = compiled ? createCompiledStrategy(types) : createNestedStrategy(types);
+        }
+        return strategies;
+    }
+
+    /**
+     * Hits bricks with the given strategies in turn.
+     *
+     * @param strategies the strategies of the bricks
+     * @param hits       the number of hits
+     * @return the average time of a hit in nanoseconds
+     */
+    private double hitBricks(CollisionStrategy[] strategies, int hits) {
+        long start = System.nanoTime();
+        for (int hit = 0; hit < hits; hit++) {
+            strategies[hit % strategies.length].onCollision(brick, hittingBall);
+        }
+        return (double) (System.nanoTime() - start) / hits;
+    }
+
+    /**
+     * Runs the benchmark and prints the time of a single hit of every kind of brick.
+     *
+     * @param args optional: args[0] = number of hits to measure per kind of brick
+     */
+    public static void main(String[] args) {
+        int hits = args.length > HITS_ARG ? Integer.parseInt(args[HITS_ARG]) : DEFAULT_HITS;
+        StrategyBenchmark benchmark = new StrategyBenchmark();
+        CollisionStrategy[] nestedDual = benchmark.createStrategies(2, false);
+        CollisionStrategy[] nestedTriple = benchmark.createStrategies(3, false);
+        CollisionStrategy[] compiledDual = benchmark.createStrategies(2, true);
+        CollisionStrategy[] compiledTriple = benchmark.createStrategies(3, true);
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            double nestedDualTime = benchmark.hitBricks(nestedDual, hits);
+            double nestedTripleTime = benchmark.hitBricks(nestedTriple, hits);
+            double compiledDualTime = benchmark.hitBricks(compiledDual, hits);
+            double compiledTripleTime = benchmark.hitBricks(compiledTriple, hits);
+            if (round == WARMUP_ROUNDS) {
+                System.out.printf("dual:        nested %.1f ns/hit, compiled %.1f ns/hit%n",
+                        nestedDualTime, compiledDualTime);
+                System.out.printf("nested dual: nested %.1f ns/hit, compiled %.1f ns/hit%n",
+                        nestedTripleTime, compiledTripleTime);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package bricker.brick_strategies;
+
+import java.util.regex.Pattern;
+
+/**
+ * Encodes the collision strategy of a brick as a single int, so brick strategies can be stored,
+ * compared and sent around without holding strategy objects.
+ * A code holds up to 3 special behaviors in the order they are activated (a dual strategy nested inside
+ * a dual strategy holds 3). Bits 0-1 hold the number of behaviors, and every following group of 3 bits
+ * holds the ordinal of a StrategyType. The basic strategy, with no special behaviors, is 0.
+ */
+public final class StrategyCode {
+
+    /** The code of the basic strategy, which only removes the brick */
+    public static final int BASIC = 0;
+    /** Maximal number of special behaviors a single brick can have */
+    public static final int MAX_EFFECTS = 3;
+
+    private static final int COUNT_BITS = 2;
+    private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+    /** The largest value a strategy code can have */
+    public static final int MAX_CODE = (1 << (COUNT_BITS + MAX_EFFECTS * TYPE_BITS)) - 1;
+
+    private static final String BASIC_NAME = "BASIC";
+    private static final String EFFECT_SEPARATOR = "+";
+
+    private StrategyCode() {
+    }
+
+    /**
+     * Creates the code of a strategy with the given special behaviors.
+     *
+     * @param types the special behaviors, in activation order (up to 3)
+     * @return the strategy code
+     */
+    public static int of(StrategyType... types) {
+        if (types.length > MAX_EFFECTS) {
+            throw new IllegalArgumentException("A brick can have at most " + MAX_EFFECTS + " behaviors");
+        }
+        int code = types.length;
+        for (int i = 0; i < types.length; i++) {
+            code |= types[i].ordinal() << (COUNT_BITS + i * TYPE_BITS);
+        }
+        return code;
+    }
+
+    /**
+     * @param code a strategy code
+     * @return the number of special behaviors in the strategy
+     */
+    public static int effectCount(int code) {
+        return code & COUNT_MASK;
+    }
+
+    /**
+     * @param code  a strategy code
+     * @param index index of the behavior, smaller than effectCount(code)
+     * @return the ordinal of the StrategyType at the given index
+     */
+    public static int effectOrdinalAt(int code, int index) {
+        return (code >>> (COUNT_BITS + index * TYPE_BITS)) & TYPE_MASK;
+    }
+
+    /**
+     * @param code  a strategy code
+     * @param index index of the behavior, smaller than effectCount(code)
+     * @return the StrategyType at the given index
+     */
+    public static StrategyType effectAt(int code, int index) {
+        return StrategyType.fromOrdinal(effectOrdinalAt(code, index));
+    }
+
+    /**
+     * @param code a strategy code
+     * @return a readable name of the strategy, e.g. "BASIC" or "PUCK+TURBO"
+     */
+    public static String describe(int code) {
+        int count = effectCount(code);
+        if (count == 0) {
+            return BASIC_NAME;
+        }
+        StringBuilder description = new StringBuilder(effectAt(code, 0).name());
+        for (int i = 1; i < count; i++) {
+            description.append(EFFECT_SEPARATOR).append(effectAt(code, i).name());
+        }
+        return description.toString();
+    }
+
+    /**
+     * Parses a readable name of a strategy, as returned by describe.
+     *
+     * @param description the name of the strategy, e.g. "BASIC" or "PUCK+TURBO"
+     * @return the strategy code
+     * @throws IllegalArgumentException if the name is not of a strategy
+     */
+    public static int parse(String description) {
+        if (description.equals(BASIC_NAME)) {
+            return BASIC;
+        }
+        String[] names = description.split(Pattern.quote(EFFECT_SEPARATOR));
+        StrategyType[] types = new StrategyType[names.length];
+        for (int i = 0; i < names.length; i++) {
+            types[i] = StrategyType.valueOf(names[i]);
+        }
+        return of(types);
+    }
+}
@@ -0,0 +1,272 @@
+package bricker.brick_strategies;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples brick strategy codes from a weight table with an alias table, in a single random draw per
+ * brick however many strategies the table has.
+ * The table is split into equal columns, one per strategy. A column holds its own strategy with some
+ * acceptance probability and an alias strategy otherwise, so a sample picks a column and an acceptance
+ * threshold from the same uniform double.
+ * <p>
+ * Weight tables are properties files mapping strategy names, as in StrategyCode.describe, to
+ * non-negative weights, e.g. "BASIC=50" and "PUCK+TURBO=0.4". Weights need not sum to anything in
+ * particular, and strategies missing from the table are never sampled.
+ */
+public class StrategySampler {
+
+    // the mix the game always rolled with: half basic bricks, and special bricks that become dual with
+    // 18% chance, whose second behavior again has two 18% chances to become dual
+    private static final double DEFAULT_BASIC_WEIGHT = 50;
+    private static final double DEFAULT_SPECIAL_WEIGHT = 50;
+    private static final double DEFAULT_DUAL_CHANCE = 0.18;
+
+    private static final int DEFAULT_SAMPLES = 10_000_000;
+    private static final int SAMPLES_ARG = 0;
+    private static final int TABLE_ARG = 1;
+    private static final double EXACT_TOLERANCE = 1e-12;
+    private static final double MAX_SIGMAS = 5;
+    private static final int CHECK_FAILED_STATUS = 1;
+
+    // private fields
+    private final int[] codes;
+    private final double[] acceptance;
+    private final int[] aliasCodes;
+    private final double[] probabilities;
+
+    /**
+     * Builds the alias table of a weight table.
+     *
+     * @param weights the weight of every strategy code, codes with weight 0 are never sampled
+     * @throws IllegalArgumentException if a weight is negative or not finite, or all weights are 0
+     */
+    public StrategySampler(Map<Integer, Double> weights) {
+        // sorted codes, so the same table always samples the same codes from the same random draws
+        TreeMap<Integer, Double> sortedWeights = new TreeMap<>(weights);
+        double total = 0;
+        for (Map.Entry<Integer, Double> entry : sortedWeights.entrySet()) {
+            double weight = entry.getValue();
+            if (weight < 0 || !Double.isFinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight + " of " +
+                        StrategyCode.describe(entry.getKey()));
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("A weight table needs a positive weight");
+        }
+        int columns = sortedWeights.size();
+        this.codes = new int[columns];
+        this.acceptance = new double[columns];
+        this.aliasCodes = new int[columns];
+        this.probabilities = new double[columns];
+        int column = 0;
+        for (Map.Entry<Integer, Double> entry : sortedWeights.entrySet()) {
+            codes[column] = entry.getKey();
+            probabilities[column] = entry.getValue() / total;
+            column++;
+        }
+        buildAliasTable();
+    }
+
+    /**
+     * Fills the acceptance and alias of every column with Vose's method: columns over the average are
+     * repeatedly used to top up columns under it.
+     */
+    private void buildAliasTable() {
+        int columns = codes.length;
+        double[] scaled = new double[columns];
+        int[] small = new int[columns];
+        int[] large = new int[columns];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int column = 0; column < columns; column++) {
+            scaled[column] = probabilities[column] * columns;
+            aliasCodes[column] = codes[column];
+            if (scaled[column] < 1) {
+                small[smallCount++] = column;
+            } else {
+                large[largeCount++] = column;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int underFull = small[--smallCount];
+            int overFull = large[--largeCount];
+            acceptance[underFull] = scaled[underFull];
+            aliasCodes[underFull] = codes[overFull];
+            scaled[overFull] -= 1 - scaled[underFull];
+            if (scaled[overFull] < 1) {
+                small[smallCount++] = overFull;
+            } else {
+                large[largeCount++] = overFull;
+            }
+        }
+        // what is left is full up to rounding errors
+        while (largeCount > 0) {
+            acceptance[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            acceptance[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Samples a strategy code.
+     *
+     * @param random the random generator to sample with, drawn from exactly once
+     * @return the sampled strategy code, see StrategyCode
+     */
+    public int sample(RandomGenerator random) {
+        // a double below 1 times the column count stays below the column count
+        double scaled = random.nextDouble() * codes.length;
+        int column = (int) scaled;
+        return scaled - column < acceptance[column] ? codes[column] : aliasCodes[column];
+    }
+
+    /**
+     * @param code a strategy code
+     * @return the probability the weight table gives the code
+     */
+    public double getWeightProbability(int code) {
+        for (int column = 0; column < codes.length; column++) {
+            if (codes[column] == code) {
+                return probabilities[column];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the probability of a code from the alias table itself, which is the exact probability
+     * sample returns it with.
+     *
+     * @param code a strategy code
+     * @return the probability of sampling the code
+     */
+    public double getSampleProbability(int code) {
+        double probability = 0;
+        for (int column = 0; column < codes.length; column++) {
+            if (codes[column] == code) {
+                probability += acceptance[column];
+            }
+            if (aliasCodes[column] == code) {
+                probability += 1 - acceptance[column];
+            }
+        }
+        return probability / codes.length;
+    }
+
+    /**
+     * @return the codes of the table, the ones that can be sampled
+     */
+    public int[] getCodes() {
+        return codes.clone();
+    }
+
+    /**
+     * Creates a sampler of the mix the game always rolled bricks with.
+     * 50% of the bricks are basic. The rest get one of the 4 special behaviors with equal chances, or in
+     * 18% of the cases a dual behavior, whose second behavior can itself become dual, giving 3 special
+     * behaviors.
+     *
+     * @return the sampler
+     */
+    public static StrategySampler defaults() {
+        StrategyType[] types = StrategyType.values();
+        double single = 1 - DEFAULT_DUAL_CHANCE;
+        // the second behavior of a dual behavior gets two chances to become dual
+        double tripleChance = 1 - single * single;
+        double singleWeight = DEFAULT_SPECIAL_WEIGHT * single / types.length;
+        double dualWeight = DEFAULT_SPECIAL_WEIGHT * DEFAULT_DUAL_CHANCE * (1 - tripleChance) /
+                (types.length * types.length);
+        double tripleWeight = DEFAULT_SPECIAL_WEIGHT * DEFAULT_DUAL_CHANCE * tripleChance /
+                (types.length * types.length * types.length);
+
+        Map<Integer, Double> weights = new TreeMap<>();
+        weights.put(StrategyCode.BASIC, DEFAULT_BASIC_WEIGHT);
+        for (StrategyType first : types) {
+            weights.put(StrategyCode.of(first), singleWeight);
+            for (StrategyType second : types) {
+                weights.put(StrategyCode.of(first, second), dualWeight);
+                for (StrategyType third : types) {
+                    weights.put(StrategyCode.of(first, second, third), tripleWeight);
+                }
+            }
+        }
+        return new StrategySampler(weights);
+    }
+
+    /**
+     * Loads a weight table from a properties file.
+     *
+     * @param path the path of the file
+     * @return the sampler of the table
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if a strategy name or weight is invalid
+     */
+    public static StrategySampler load(Path path) throws IOException {
+        Properties table = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            table.load(reader);
+        }
+        Map<Integer, Double> weights = new TreeMap<>();
+        for (String name : table.stringPropertyNames()) {
+            weights.merge(StrategyCode.parse(name.trim()), Double.parseDouble(table.getProperty(name)),
+                    Double::sum);
+        }
+        return new StrategySampler(weights);
+    }
+
+    /**
+     * Checks a weight table: compares the exact distribution of its alias table with the weights, then
+     * samples it and compares the sample frequencies with the weights. Exits with status 1 if either
+     * is off.
+     *
+     * @param args optional: args[0] = number of samples
+     *             args[1] = path of a weight table, the default mix otherwise
+     * @throws IOException if the table can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        int samples = args.length > SAMPLES_ARG ? Integer.parseInt(args[SAMPLES_ARG]) : DEFAULT_SAMPLES;
+        StrategySampler sampler = args.length > TABLE_ARG ? load(Paths.get(args[TABLE_ARG])) : defaults();
+        int[] codes = sampler.getCodes();
+
+        double exactError = 0;
+        for (int code : codes) {
+            exactError = Math.max(exactError,
+                    Math.abs(sampler.getSampleProbability(code) - sampler.getWeightProbability(code)));
+        }
+
+        int[] counts = new int[StrategyCode.MAX_CODE + 1];
+        SplittableRandom random = new SplittableRandom(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        double nanosPerSample = (double) (System.nanoTime() - start) / samples;
+
+        double worstSigmas = 0;
+        for (int code : codes) {
+            double probability = sampler.getWeightProbability(code);
+            double deviation = Math.sqrt(samples * probability * (1 - probability));
+            if (deviation > 0) {
+                worstSigmas = Math.max(worstSigmas, Math.abs(counts[code] - samples * probability) / deviation);
+            }
+        }
+        System.out.printf("%d strategies, exact error %.3g, worst sampled deviation %.2f sigma, " +
+                "%.1f ns/sample%n", codes.length, exactError, worstSigmas, nanosPerSample);
+        if (exactError > EXACT_TOLERANCE || worstSigmas > MAX_SIGMAS) {
+            System.out.println("Weight table check failed");
+            System.exit(CHECK_FAILED_STATUS);
+        }
+    }
+}
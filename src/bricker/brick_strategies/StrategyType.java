@@ -0,0 +1,27 @@
+package bricker.brick_strategies;
+
+/**
+ * The special behaviors a brick can have on top of the basic behavior of being removed.
+ */
+public enum StrategyType {
+    /** Spawns two puck balls, see PuckCollisionStrategy */
+    PUCK,
+    /** Spawns a temporary mock paddle, see MockPaddleCollisionStrategy */
+    MOCK_PADDLE,
+    /** Turns the main ball into a turbo ball, see TurboCollisionStrategy */
+    TURBO,
+    /** Drops a collectable heart, see HeartCollisionStrategy */
+    HEART;
+
+    private static final StrategyType[] VALUES = values();
+
+    /**
+     * Returns the type with the given ordinal without allocating a copy of values().
+     *
+     * @param ordinal the ordinal of the type
+     * @return the matching type
+     */
+    public static StrategyType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -1,9 +1,12 @@
 package bricker.brick_strategies;
 
 
+import bricker.assets.TextureAtlas;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
 import danogl.GameObject;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -16,26 +19,28 @@ import danogl.util.Vector2;
  */
 class TurboCollisionStrategy implements CollisionStrategy {
 
-    private static final String RED_BALL_IMAGE_PATH = "assets/redball.png";
-
     // private fields
     private final CollisionStrategy baseStrategy;
-    private final ImageReader imageReader;
-    private final GameObject ball;
+    private final TextureAtlas textureAtlas;
+    private final Ball ball;
+    private final FrameCounters frameCounters;
 
     /**
      * This strategy makes the main ball become faster for a set amount of collision
      * in addition to removing the brick
      *
      * @param baseStrategy a basic strategy to wrap and add more functionality on top
-     * @param imageReader  Used to read images
+     * @param textureAtlas Atlas holding the game images
      * @param ball         the ball to turn turbo
+     * @param frameCounters counts the strategy activations of the current frame
      */
     TurboCollisionStrategy(CollisionStrategy baseStrategy,
-                                  ImageReader imageReader, GameObject ball) {
+                                  TextureAtlas textureAtlas, Ball ball,
+                                  FrameCounters frameCounters) {
         this.baseStrategy = baseStrategy;
-        this.imageReader = imageReader;
+        this.textureAtlas = textureAtlas;
         this.ball = ball;
+        this.frameCounters = frameCounters;
     }
 
     /**
@@ -48,8 +53,19 @@ class TurboCollisionStrategy implements CollisionStrategy {
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
         baseStrategy.onCollision(object1, object2);
-        // only activate if main ball hit object1, not mock ball or turbo ball
-        if (object2.getTag().equals(Constants.MAIN_BALL_TAG)) {
+        applyEffect(object1, object2);
+    }
+
+    /**
+     * Turns the main ball to turbo if it was the one to hit, without the basic behavior.
+     *
+     * @param object1 the brick that was hit
+     * @param object2 the object that hit it
+     */
+    void applyEffect(GameObject object1, GameObject object2) {
+        frameCounters.recordStrategyActivation(StrategyType.TURBO);
+        // only activate if main ball hit object1, not a puck ball, and the main ball is not turbo already
+        if (EntityKind.kindOf(object2) == EntityKind.MAIN_BALL && !ball.isTurbo()) {
             activateTurboBall();
         }
     }
@@ -58,11 +74,11 @@ class TurboCollisionStrategy implements CollisionStrategy {
      * This makes the ball faster for a couple of collisions.
      */
     private void activateTurboBall() {
-        this.ball.setTag(Constants.TURBO_BALL_TAG); // set the tag of the ball to turbo
+        this.ball.setTurbo(true); // mark the ball as turbo
         Vector2 originalVel = this.ball.getVelocity(); // multiply ball velocity
         this.ball.setVelocity(new Vector2(originalVel.x() * Constants.SPEED_MULTIPLIER,
                 originalVel.y() * Constants.SPEED_MULTIPLIER));
-        Renderable redBall = imageReader.readImage(RED_BALL_IMAGE_PATH, true); // load photo
+        Renderable redBall = textureAtlas.getRenderable(Constants.RED_BALL_IMAGE_PATH);
         this.ball.renderer().setRenderable(redBall);
     }
 }
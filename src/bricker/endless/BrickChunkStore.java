@@ -0,0 +1,273 @@
+package bricker.endless;
+
+import bricker.brick_strategies.StrategySampler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Off-heap storage of an endless brick field. Rows are grouped in chunks, and only a fixed number of
+ * chunks are resident, each in its own direct buffer allocated once. A chunk that is needed while all the
+ * resident slots are taken replaces the least recently used one, which is written to a page file first if
+ * any of its bricks were destroyed. Chunks that were never written are generated from the seed, so a row
+ * always holds the same bricks no matter when it is first read, and an untouched chunk never needs to be
+ * written. The field only scrolls one way, so the chunks behind it are dropped without being written.
+ * Neither memory use nor the page file grows with the number of rows, and the page file is deleted when
+ * the store is closed.
+ * <p>
+ * Every brick is a little endian short: its strategy code in the low bits, and ALIVE_BIT if it was not
+ * destroyed yet. The first byte of a chunk in the page file marks it as written, so holes in the file
+ * read as chunks that still need to be generated.
+ */
+public class BrickChunkStore {
+
+    /** Number of rows in a single chunk */
+    public static final int ROWS_PER_CHUNK = 32;
+
+    private static final short ALIVE_BIT = (short) 0x8000;
+    private static final int CODE_MASK = 0x7FFF;
+    private static final int CHUNK_HEADER_SIZE = Long.BYTES;
+    private static final byte WRITTEN_CHUNK = 1;
+    private static final long NO_CHUNK = -1;
+    private static final long ROW_SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // private fields
+    private final int bricksPerRow;
+    private final long seed;
+    private final StrategySampler strategySampler;
+    private final int chunkSize;
+    private final FileChannel pageFile;
+    private final ByteBuffer[] residentChunks;
+    private final long[] residentChunkIndices;
+    private final long[] lastUse;
+    private final boolean[] dirty;
+    private long useClock = 0;
+    private long chunksPagedOut = 0;
+    private long chunksPagedIn = 0;
+
+    /**
+     * Creates a store over a new page file, deleted when the store is closed.
+     *
+     * @param bricksPerRow    the number of bricks per single row
+     * @param seed            the seed rows are generated from
+     * @param strategySampler samples the strategies of generated bricks
+     * @param pageFile        the file chunks are paged to
+     * @param residentChunks  the number of chunks kept in memory
+     * @throws IOException if the page file can not be opened
+     */
+    public BrickChunkStore(int bricksPerRow, long seed, StrategySampler strategySampler, Path pageFile,
+                           int residentChunks) throws IOException {
+        this.bricksPerRow = bricksPerRow;
+        this.seed = seed;
+        this.strategySampler = strategySampler;
+        this.chunkSize = CHUNK_HEADER_SIZE + ROWS_PER_CHUNK * bricksPerRow * Short.BYTES;
+        this.pageFile = FileChannel.open(pageFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        this.residentChunks = new ByteBuffer[residentChunks];
+        this.residentChunkIndices = new long[residentChunks];
+        this.lastUse = new long[residentChunks];
+        this.dirty = new boolean[residentChunks];
+        for (int slot = 0; slot < residentChunks; slot++) {
+            this.residentChunks[slot] = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+            residentChunkIndices[slot] = NO_CHUNK;
+        }
+    }
+
+    /**
+     * @return the number of bricks per single row
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * @param row    index of the row, 0 being the first row of the field
+     * @param column index of the brick in the row
+     * @return true if the brick was not destroyed yet
+     */
+    public boolean isBrickAlive(long row, int column) {
+        return (readBrick(row, column) & ALIVE_BIT) != 0;
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the brick in the row
+     * @return the code of the brick's collision strategy, see StrategyCode
+     */
+    public int getStrategyCode(long row, int column) {
+        return readBrick(row, column) & CODE_MASK;
+    }
+
+    /**
+     * Marks a brick as destroyed.
+     *
+     * @param row    index of the row
+     * @param column index of the brick in the row
+     */
+    public void destroyBrick(long row, int column) {
+        int slot = residentSlot(row / ROWS_PER_CHUNK);
+        int offset = brickOffset(row, column);
+        ByteBuffer chunk = residentChunks[slot];
+        chunk.putShort(offset, (short) (chunk.getShort(offset) & ~ALIVE_BIT));
+        dirty[slot] = true;
+    }
+
+    /**
+     * Drops the resident chunks all of whose rows come before a row, without writing them. The rows before
+     * it must not be read again.
+     *
+     * @param row index of the oldest row still in use
+     */
+    public void dropRowsBefore(long row) {
+        long firstChunkInUse = row / ROWS_PER_CHUNK;
+        for (int slot = 0; slot < residentChunks.length; slot++) {
+            if (residentChunkIndices[slot] != NO_CHUNK && residentChunkIndices[slot] < firstChunkInUse) {
+                residentChunkIndices[slot] = NO_CHUNK;
+                dirty[slot] = false;
+                lastUse[slot] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return the number of chunks written to the page file
+     */
+    public long getChunksPagedOut() {
+        return chunksPagedOut;
+    }
+
+    /**
+     * @return the number of chunks read back from the page file
+     */
+    public long getChunksPagedIn() {
+        return chunksPagedIn;
+    }
+
+    /**
+     * Closes and deletes the page file. The store can not be used afterwards.
+     */
+    public void close() {
+        try {
+            pageFile.close();
+        } catch (IOException ignored) {
+            // closing either way
+        }
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the brick in the row
+     * @return the stored short of the brick
+     */
+    private short readBrick(long row, int column) {
+        return residentChunks[residentSlot(row / ROWS_PER_CHUNK)].getShort(brickOffset(row, column));
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the brick in the row
+     * @return the offset of the brick inside its chunk
+     */
+    private int brickOffset(long row, int column) {
+        return CHUNK_HEADER_SIZE + ((int) (row % ROWS_PER_CHUNK) * bricksPerRow + column) * Short.BYTES;
+    }
+
+    /**
+     * Finds the resident slot of a chunk, paging it in if needed.
+     *
+     * @param chunkIndex index of the chunk
+     * @return the slot holding the chunk
+     */
+    private int residentSlot(long chunkIndex) {
+        int leastRecentlyUsed = 0;
+        for (int slot = 0; slot < residentChunks.length; slot++) {
+            if (residentChunkIndices[slot] == chunkIndex) {
+                lastUse[slot] = ++useClock;
+                return slot;
+            }
+            if (lastUse[slot] < lastUse[leastRecentlyUsed]) {
+                leastRecentlyUsed = slot;
+            }
+        }
+        try {
+            pageOut(leastRecentlyUsed);
+            pageIn(leastRecentlyUsed, chunkIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastUse[leastRecentlyUsed] = ++useClock;
+        return leastRecentlyUsed;
+    }
+
+    /**
+     * Writes a resident chunk to the page file if it changed since it was paged in.
+     *
+     * @param slot the slot of the chunk
+     * @throws IOException if writing fails
+     */
+    private void pageOut(int slot) throws IOException {
+        if (residentChunkIndices[slot] == NO_CHUNK || !dirty[slot]) {
+            return;
+        }
+        ByteBuffer chunk = residentChunks[slot].clear();
+        long position = residentChunkIndices[slot] * chunkSize;
+        while (chunk.hasRemaining()) {
+            position += pageFile.write(chunk, position);
+        }
+        dirty[slot] = false;
+        chunksPagedOut++;
+    }
+
+    /**
+     * Reads a chunk from the page file into a slot, or generates it if it was never written.
+     *
+     * @param slot       the slot to fill
+     * @param chunkIndex index of the chunk
+     * @throws IOException if reading fails
+     */
+    private void pageIn(int slot, long chunkIndex) throws IOException {
+        ByteBuffer chunk = residentChunks[slot].clear();
+        long position = chunkIndex * chunkSize;
+        while (chunk.hasRemaining()) {
+            int read = pageFile.read(chunk, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        residentChunkIndices[slot] = chunkIndex;
+        if (chunk.position() == chunkSize && chunk.get(0) == WRITTEN_CHUNK) {
+            dirty[slot] = false;
+            chunksPagedIn++;
+            return;
+        }
+        generateChunk(chunk, chunkIndex);
+        // the same bricks are generated again if the chunk is read before any of them is destroyed
+        dirty[slot] = false;
+    }
+
+    /**
+     * Fills a chunk with the bricks generated for its rows.
+     *
+     * @param chunk      the chunk's buffer
+     * @param chunkIndex index of the chunk
+     */
+    private void generateChunk(ByteBuffer chunk, long chunkIndex) {
+        chunk.clear();
+        chunk.put(0, WRITTEN_CHUNK);
+        for (int rowInChunk = 0; rowInChunk < ROWS_PER_CHUNK; rowInChunk++) {
+            long row = chunkIndex * ROWS_PER_CHUNK + rowInChunk;
+            SplittableRandom random = new SplittableRandom(seed + row * ROW_SEED_MULTIPLIER);
+            for (int column = 0; column < bricksPerRow; column++) {
+                int code = strategySampler.sample(random);
+                chunk.putShort(brickOffset(row, column), (short) (code | ALIVE_BIT));
+            }
+        }
+    }
+}
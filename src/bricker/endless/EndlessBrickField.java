@@ -0,0 +1,194 @@
+package bricker.endless;
+
+import bricker.brick_strategies.CollisionStrategyFactory;
+import bricker.brick_strategies.StrategyCode;
+import bricker.gameobjects.Brick;
+import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+/**
+ * The brick field of the endless mode. The field keeps scrolling down, and new rows keep coming in from
+ * the top. The bricks of all the rows live in a BrickChunkStore, and only the rows inside the play area
+ * are turned into collidable bricks. The bricks are a fixed pool reused row after row, so the number of
+ * game objects does not grow however long the game runs. Rows sit on whole pixels, so their bricks are only
+ * moved, which allocates their new positions, on the frames the scroll crosses a pixel.
+ */
+public class EndlessBrickField {
+
+    private static final long NO_ROW = -1;
+
+    // private fields
+    private final GameObjectCollection gameObjects;
+    private final CollisionStrategyFactory strategyFactory;
+    private final BrickChunkStore store;
+    private final Counter bricksCount;
+    private final int bricksPerRow;
+    private final float brickWidth;
+    private final float leftPosition;
+    private final float topPosition;
+    private final float bottomLimit;
+    private final float rowSpacing;
+    private final float scrollSpeed;
+    private final Brick[] bricks;
+    private final long[] slotRows;
+    private final float[] slotTops;
+    private float scrollOffset;
+
+    /**
+     * Creates the field and its pool of bricks. No brick is in the game before the first update.
+     *
+     * @param gameObjects     the objects of the game
+     * @param strategyFactory creates the collision strategies of the bricks
+     * @param store           holds the bricks of every row
+     * @param bricksCount     counts the bricks in the game
+     * @param brickImage      image of the bricks
+     * @param brickWidth      the width of a brick
+     * @param leftPosition    the left edge of the first brick in every row
+     * @param topPosition     the top of the play area, where new rows come in
+     * @param bottomLimit     the height at which rows leave the game
+     * @param rowSpacing      the distance between the tops of two consecutive rows
+     * @param scrollSpeed     the speed the field scrolls down at, in pixels per second
+     * @param initialRows     the number of rows already in the play area when the game starts
+     * @param frameCounters   counts the collision pairs tested in the current frame
+     */
+    public EndlessBrickField(GameObjectCollection gameObjects, CollisionStrategyFactory strategyFactory,
+                             BrickChunkStore store, Counter bricksCount, Renderable brickImage,
+                             float brickWidth, float leftPosition, float topPosition, float bottomLimit,
+                             float rowSpacing, float scrollSpeed, int initialRows,
+                             FrameCounters frameCounters) {
+        this.gameObjects = gameObjects;
+        this.strategyFactory = strategyFactory;
+        this.store = store;
+        this.bricksCount = bricksCount;
+        this.bricksPerRow = store.getBricksPerRow();
+        this.brickWidth = brickWidth;
+        this.leftPosition = leftPosition;
+        this.topPosition = topPosition;
+        this.bottomLimit = bottomLimit;
+        this.rowSpacing = rowSpacing;
+        this.scrollSpeed = scrollSpeed;
+        this.scrollOffset = (initialRows - 1) * rowSpacing;
+
+        // the play area holds at most this many rows at once, each one is given a slot in the pool
+        int slots = (int) Math.ceil((bottomLimit - topPosition) / rowSpacing) + 2;
+        this.slotRows = new long[slots];
+        this.slotTops = new float[slots];
+        this.bricks = new Brick[slots * bricksPerRow];
+        for (int slot = 0; slot < slots; slot++) {
+            slotRows[slot] = NO_ROW;
+            for (int column = 0; column < bricksPerRow; column++) {
+                int index = slot * bricksPerRow + column;
+                bricks[index] = new Brick(Vector2.ZERO, new Vector2(brickWidth, Constants.BRICK_HEIGHT),
+                        brickImage, strategyFactory.createCollisionStrategy(StrategyCode.BASIC),
+                        StrategyCode.BASIC, index, frameCounters);
+            }
+        }
+    }
+
+    /**
+     * Scrolls the field, retiring the rows that left the play area and bringing in the rows that entered
+     * it.
+     *
+     * @param deltaTime the time, in seconds, since the last update
+     */
+    public void update(float deltaTime) {
+        scrollOffset += scrollSpeed * deltaTime;
+        float playAreaHeight = bottomLimit - topPosition;
+        long oldestRow = Math.max(0, (long) Math.ceil((scrollOffset - playAreaHeight) / rowSpacing));
+        long newestRow = (long) Math.floor(scrollOffset / rowSpacing);
+        for (int slot = 0; slot < slotRows.length; slot++) {
+            if (slotRows[slot] != NO_ROW && slotRows[slot] < oldestRow) {
+                retireRow(slot);
+            }
+        }
+        store.dropRowsBefore(oldestRow); // the field never scrolls back to them
+        for (long row = oldestRow; row <= newestRow; row++) {
+            int slot = (int) (row % slotRows.length);
+            if (slotRows[slot] != row) {
+                bringInRow(slot, row);
+            }
+            moveRow(slot, row);
+        }
+    }
+
+    /**
+     * Turns a row of the store into bricks in the game.
+     *
+     * @param slot the slot of the pool to use
+     * @param row  index of the row
+     */
+    private void bringInRow(int slot, long row) {
+        if (slotRows[slot] != NO_ROW) {
+            retireRow(slot);
+        }
+        slotRows[slot] = row;
+        slotTops[slot] = Float.NaN; // not placed yet
+        for (int column = 0; column < bricksPerRow; column++) {
+            Brick brick = bricks[slot * bricksPerRow + column];
+            brick.setDestroyed(!store.isBrickAlive(row, column));
+            if (brick.isDestroyed()) {
+                continue;
+            }
+            int strategyCode = store.getStrategyCode(row, column);
+            brick.setCollisionStrategy(strategyFactory.createCollisionStrategy(strategyCode), strategyCode);
+            gameObjects.addGameObject(brick, Layer.STATIC_OBJECTS);
+            bricksCount.increment();
+        }
+    }
+
+    /**
+     * Takes the bricks of a row out of the game, recording the ones that were destroyed in the store.
+     *
+     * @param slot the slot of the row in the pool
+     */
+    private void retireRow(int slot) {
+        long row = slotRows[slot];
+        for (int column = 0; column < bricksPerRow; column++) {
+            Brick brick = bricks[slot * bricksPerRow + column];
+            if (!store.isBrickAlive(row, column)) {
+                continue;
+            }
+            if (brick.isDestroyed()) {
+                store.destroyBrick(row, column);
+            } else if (gameObjects.removeGameObject(brick, Layer.STATIC_OBJECTS)) {
+                bricksCount.decrement();
+            }
+        }
+        slotRows[slot] = NO_ROW;
+    }
+
+    /**
+     * Places the bricks of a row according to the scroll offset, rounded down to a whole pixel. Does
+     * nothing if the row is already there.
+     *
+     * @param slot the slot of the row in the pool
+     * @param row  index of the row
+     */
+    private void moveRow(int slot, long row) {
+        float rowTop = (float) Math.floor(topPosition + scrollOffset - row * rowSpacing);
+        if (rowTop == slotTops[slot]) {
+            return;
+        }
+        slotTops[slot] = rowTop;
+        float brickLeft = leftPosition;
+        for (int column = 0; column < bricksPerRow; column++) {
+            Brick brick = bricks[slot * bricksPerRow + column];
+            if (!brick.isDestroyed()) {
+                brick.setTopLeftCorner(new Vector2(brickLeft, rowTop));
+            }
+            brickLeft += (int) (brickWidth + Constants.BRICKS_PADDING_SIZE);
+        }
+    }
+
+    /**
+     * Closes the store of the field.
+     */
+    public void close() {
+        store.close();
+    }
+}
@@ -1,5 +1,6 @@
 package bricker.gameobjects;
 
+import bricker.telemetry.FrameCounters;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.Sound;
@@ -10,11 +11,13 @@ import danogl.util.Vector2;
  * This class handles the creation and behavior of the ball
  * written by: Noam K
  */
-public class Ball extends GameObject {
+public class Ball extends Entity {
 
     // private fields
     private final Sound collisionSound;
     private int collisionCounter = 0; // count the number of times ball collided with another object
+    private boolean turbo = false;
+    private int turboBallHits = 0; // the collision count at which the turbo ends, 0 until it is counted
 
     /**
      * Construct a new GameObject instance.
@@ -24,10 +27,14 @@ public class Ball extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
-     * @param collisionSound sound to activate upon ball collision.
+     * @param collisionSound sound to activate upon ball collision. Can be null, in which case the ball
+     *                       collides silently.
+     * @param kind          the kind of the ball, EntityKind.MAIN_BALL or EntityKind.PUCK_BALL
+     * @param frameCounters counts the collision pairs tested in the current frame
      */
-    public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound) {
-        super(topLeftCorner, dimensions, renderable);
+    public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound,
+                int kind, FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable, kind, frameCounters);
         this.collisionSound = collisionSound;
     }
 
@@ -43,7 +50,9 @@ public class Ball extends GameObject {
         super.onCollisionEnter(other, collision);
         Vector2 newVel = getVelocity().flipped(collision.getNormal());
         setVelocity(newVel);
-        collisionSound.play();
+        if (collisionSound != null) {
+            collisionSound.play();
+        }
         collisionCounter++;
     }
 
@@ -54,4 +63,45 @@ public class Ball extends GameObject {
     public int getCollisionCounter(){
         return collisionCounter;
     }
+
+    /**
+     * A setter for the number of times the ball has collided with another object, used when restoring
+     * a saved game
+     * @param collisionCounter the number of collisions
+     */
+    public void setCollisionCounter(int collisionCounter){
+        this.collisionCounter = collisionCounter;
+    }
+
+    /**
+     * @return true while the ball is a faster turbo ball
+     */
+    public boolean isTurbo() {
+        return turbo;
+    }
+
+    /**
+     * Marks the ball as a turbo ball or as a regular one. Does not change its speed or looks.
+     *
+     * @param turbo true for a turbo ball
+     */
+    public void setTurbo(boolean turbo) {
+        this.turbo = turbo;
+    }
+
+    /**
+     * @return the collision count at which the turbo state of the ball ends, 0 until it is counted
+     */
+    public int getTurboBallHits() {
+        return turboBallHits;
+    }
+
+    /**
+     * Sets the collision count at which the turbo state of the ball ends.
+     *
+     * @param turboBallHits the collision count, 0 until the turbo state is counted
+     */
+    public void setTurboBallHits(int turboBallHits) {
+        this.turboBallHits = turboBallHits;
+    }
 }
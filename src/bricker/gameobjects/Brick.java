@@ -1,6 +1,9 @@
 package bricker.gameobjects;
 
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.StrategyCode;
+import bricker.telemetry.FrameCounters;
+import bricker.telemetry.StrategyActivationEvent;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
@@ -11,9 +14,12 @@ import danogl.util.Vector2;
  * in case a unit collided with it.
  * Written by: Noam K
  */
-public class Brick extends GameObject {
+public class Brick extends Entity {
 
-    private final CollisionStrategy collisionStrategy;
+    private final int index;
+    private CollisionStrategy collisionStrategy;
+    private int strategyCode;
+    private boolean destroyed = false;
 
     /**
      * Construct a new GameObject instance.
@@ -24,12 +30,66 @@ public class Brick extends GameObject {
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
      * @param collisionStrategy type of strategy to activate upon collision
+     * @param strategyCode  the code of the collision strategy, see StrategyCode
+     * @param index         the position of the brick in the brick grid, row by row
+     * @param frameCounters counts the collision pairs tested in the current frame
      */
-    public Brick(Vector2 topLeftCorner, Vector2 dimensions,
-                 Renderable renderable, CollisionStrategy collisionStrategy) {
-        super(topLeftCorner, dimensions, renderable);
+    public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                 CollisionStrategy collisionStrategy, int strategyCode, int index,
+                 FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable, EntityKind.BRICK, frameCounters);
 
         this.collisionStrategy = collisionStrategy;
+        this.strategyCode = strategyCode;
+        this.index = index;
+    }
+
+    /**
+     * @return the position of the brick in the brick grid, row by row
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the code of the brick's collision strategy, see StrategyCode
+     */
+    public int getStrategyCode() {
+        return strategyCode;
+    }
+
+    /**
+     * @return the brick's collision strategy
+     */
+    public CollisionStrategy getCollisionStrategy() {
+        return collisionStrategy;
+    }
+
+    /**
+     * @return true if the brick was hit and removed from the game
+     */
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Sets if the brick was removed from the game, so a brick can be put back or reused.
+     *
+     * @param destroyed true if the brick was removed from the game
+     */
+    public void setDestroyed(boolean destroyed) {
+        this.destroyed = destroyed;
+    }
+
+    /**
+     * Replaces the collision strategy of the brick, used when restoring a saved game.
+     *
+     * @param collisionStrategy type of strategy to activate upon collision
+     * @param strategyCode      the code of the collision strategy, see StrategyCode
+     */
+    public void setCollisionStrategy(CollisionStrategy collisionStrategy, int strategyCode) {
+        this.collisionStrategy = collisionStrategy;
+        this.strategyCode = strategyCode;
     }
 
     /**
@@ -41,6 +101,15 @@ public class Brick extends GameObject {
      */
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
+        StrategyActivationEvent event = new StrategyActivationEvent();
+        event.begin();
         collisionStrategy.onCollision(this, other);
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = StrategyCode.describe(strategyCode);
+            event.strategyCode = strategyCode;
+            event.hitBy = EntityKind.nameOf(EntityKind.kindOf(other));
+            event.commit();
+        }
     }
 }
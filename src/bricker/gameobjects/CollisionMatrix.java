@@ -0,0 +1,46 @@
+package bricker.gameobjects;
+
+/**
+ * Declares which kinds of entities can collide with each other, as a row of kind bits per EntityKind.
+ * Entities consult it in shouldCollideWith, which the engine calls for every candidate pair before testing
+ * their shapes, so pairs that can never interact, like a falling heart and a brick, are dropped without
+ * any geometry. The matrix is symmetric: a kind's row has the bit of every kind whose row has its bit.
+ * Objects that are not entities (the borders, the background and the UI) are of kind NONE, and only
+ * balls bounce off them.
+ */
+public final class CollisionMatrix {
+
+    // kind bits
+    private static final int NONE = 1 << EntityKind.NONE;
+    private static final int MAIN_BALL = 1 << EntityKind.MAIN_BALL;
+    private static final int PUCK_BALL = 1 << EntityKind.PUCK_BALL;
+    private static final int PADDLE = 1 << EntityKind.PADDLE;
+    private static final int MOCK_PADDLE = 1 << EntityKind.MOCK_PADDLE;
+    private static final int BRICK = 1 << EntityKind.BRICK;
+    private static final int FALLING_HEART = 1 << EntityKind.FALLING_HEART;
+    private static final int BALLS = MAIN_BALL | PUCK_BALL;
+    private static final int PADDLES = PADDLE | MOCK_PADDLE;
+
+    // a row per kind, in the order of EntityKind
+    private static final int[] COLLIDES_WITH = {
+            BALLS,                                  // none: borders only stop balls
+            NONE | BALLS | PADDLES | BRICK,         // main ball
+            NONE | BALLS | PADDLES | BRICK,         // puck ball
+            BALLS | FALLING_HEART,                  // original paddle: bounces balls and collects hearts
+            BALLS,                                  // mock paddle
+            BALLS,                                  // brick
+            PADDLE,                                 // falling heart: collected by the original paddle only
+            0};                                     // life heart: part of the lives display
+
+    private CollisionMatrix() {
+    }
+
+    /**
+     * @param kind      the kind of an entity
+     * @param otherKind the kind of the object it may collide with
+     * @return true if objects of the two kinds can collide
+     */
+    public static boolean allows(int kind, int otherKind) {
+        return (COLLIDES_WITH[kind] & (1 << otherKind)) != 0;
+    }
+}
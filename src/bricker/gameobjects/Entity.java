@@ -0,0 +1,64 @@
+package bricker.gameobjects;
+
+import bricker.telemetry.FrameCounters;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A game object of a known EntityKind, holding its kind and the kind's capabilities. Entities only collide
+ * with the kinds CollisionMatrix allows, and count the candidate pairs they accept and reject.
+ */
+public abstract class Entity extends GameObject {
+
+    // private fields
+    private final int kind;
+    private final int capabilities;
+    private final FrameCounters frameCounters;
+
+    /**
+     * Construct a new GameObject instance.
+     *
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     *                      Note that (0,0) is the top-left corner of the window.
+     * @param dimensions    Width and height in window coordinates.
+     * @param renderable    The renderable representing the object. Can be null, in which case
+     *                      the GameObject will not be rendered.
+     * @param kind          the kind of the entity, see EntityKind
+     * @param frameCounters counts the collision pairs tested in the current frame
+     */
+    protected Entity(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, int kind,
+                     FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable);
+        this.kind = kind;
+        this.capabilities = EntityKind.capabilitiesOf(kind);
+        this.frameCounters = frameCounters;
+    }
+
+    /**
+     * Filters candidate collisions through the collision matrix, before their shapes are tested.
+     *
+     * @param other The other GameObject.
+     * @return true if the kinds of the two objects can collide
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        boolean allowed = CollisionMatrix.allows(kind, EntityKind.kindOf(other));
+        frameCounters.recordCollisionPair(allowed);
+        return allowed;
+    }
+
+    /**
+     * @return the kind of the entity, see EntityKind
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the capability bits of the entity's kind, see EntityKind
+     */
+    public int getCapabilities() {
+        return capabilities;
+    }
+}
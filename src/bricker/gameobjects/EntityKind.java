@@ -0,0 +1,96 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+
+/**
+ * Identifies the kind of every game entity by a small int, and describes each kind by a bitmask of
+ * capabilities, so game logic checks what an object is with a single integer operation instead of comparing
+ * tags. Objects that are not entities, like the background, the borders and the UI, are of kind NONE and
+ * have no capabilities.
+ */
+public final class EntityKind {
+
+    // kinds
+    /** Any object that is not an entity */
+    public static final int NONE = 0;
+    /** The ball the player keeps in the game, turbo or not */
+    public static final int MAIN_BALL = 1;
+    /** A puck ball spawned by a brick */
+    public static final int PUCK_BALL = 2;
+    /** The paddle of the player */
+    public static final int PADDLE = 3;
+    /** A temporary paddle spawned by a brick */
+    public static final int MOCK_PADDLE = 4;
+    /** A brick */
+    public static final int BRICK = 5;
+    /** A heart falling from a brick, to be collected */
+    public static final int FALLING_HEART = 6;
+    /** A heart of the lives display */
+    public static final int LIFE_HEART = 7;
+    /** The number of kinds */
+    public static final int COUNT = 8;
+
+    // capabilities
+    /** Bounces around and hits bricks */
+    public static final int BALL = 1;
+    /** Costs a life when it falls out of the window */
+    public static final int COSTS_LIFE = 1 << 1;
+    /** Moved by a paddle controller */
+    public static final int MOVED_BY_PLAYER = 1 << 2;
+    /** Collects falling hearts */
+    public static final int COLLECTOR = 1 << 3;
+    /** Grants a life when a collector catches it */
+    public static final int COLLECTABLE = 1 << 4;
+    /** Destroyed by balls, activating its collision strategy */
+    public static final int BREAKABLE = 1 << 5;
+    /** Spawned by a collision strategy while the game runs */
+    public static final int SPAWNED = 1 << 6;
+
+    private static final int[] CAPABILITIES = {
+            0,
+            BALL | COSTS_LIFE,
+            BALL | SPAWNED,
+            MOVED_BY_PLAYER | COLLECTOR,
+            MOVED_BY_PLAYER | SPAWNED,
+            BREAKABLE,
+            COLLECTABLE | SPAWNED,
+            0};
+    private static final String[] NAMES = {"none", "mainBall", "puckBall", "originalPaddle", "mockPaddle",
+            "brick", "fallingHeart", "lifeHeart"};
+
+    private EntityKind() {
+    }
+
+    /**
+     * @param kind a kind
+     * @return the capabilities of the kind
+     */
+    public static int capabilitiesOf(int kind) {
+        return CAPABILITIES[kind];
+    }
+
+    /**
+     * @param kind a kind
+     * @return the name of the kind, as used in telemetry events
+     */
+    public static String nameOf(int kind) {
+        return NAMES[kind];
+    }
+
+    /**
+     * @param gameObject a game object
+     * @return the kind of the object, NONE if it is not an entity
+     */
+    public static int kindOf(GameObject gameObject) {
+        return gameObject instanceof Entity ? ((Entity) gameObject).getKind() : NONE;
+    }
+
+    /**
+     * @param gameObject   a game object
+     * @param capabilities capability bits
+     * @return true if the object has any of the capabilities
+     */
+    public static boolean has(GameObject gameObject, int capabilities) {
+        return gameObject instanceof Entity && (((Entity) gameObject).getCapabilities() & capabilities) != 0;
+    }
+}
@@ -1,7 +1,6 @@
 package bricker.gameobjects;
 
-import bricker.main.Constants;
-import danogl.GameObject;
+import bricker.telemetry.FrameCounters;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -9,7 +8,7 @@ import danogl.util.Vector2;
  * A heart object, rendered with a picture of a heart.
  * Written by: Noam K
  */
-public class Heart extends GameObject {
+public class Heart extends Entity {
 
     /**
      * Construct a new GameObject instance.
@@ -19,18 +18,11 @@ public class Heart extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
+     * @param kind          the kind of the heart, EntityKind.FALLING_HEART or EntityKind.LIFE_HEART
+     * @param frameCounters counts the collision pairs tested in the current frame
      */
-    public Heart(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-        super(topLeftCorner, dimensions, renderable);
-    }
-
-    /**
-     * Defines that the heart can only collide with the original paddle
-     * @param other The other GameObject.
-     * @return true if the tag of the unit it collided with is original paddle, else otherwise
-     */
-    @Override
-    public boolean shouldCollideWith(GameObject other) {
-        return other.getTag().equals(Constants.ORIGINAL_PADDLE_TAG);
+    public Heart(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, int kind,
+                 FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable, kind, frameCounters);
     }
 }
@@ -0,0 +1,35 @@
+package bricker.gameobjects;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Moves the paddles by the left and right arrow keys. Pressing both keeps the paddles in place.
+ */
+public class KeyboardPaddleController implements PaddleController {
+
+    private final UserInputListener inputListener;
+
+    /**
+     * @param inputListener An interface for reading user input in the current frame
+     */
+    public KeyboardPaddleController(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * @return -1 to move left, 1 to move right, 0 to stay in place
+     */
+    @Override
+    public int getDirection() {
+        int direction = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            direction--;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            direction++;
+        }
+        return direction;
+    }
+}
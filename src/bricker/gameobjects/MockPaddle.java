@@ -1,8 +1,8 @@
 package bricker.gameobjects;
 
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -12,8 +12,6 @@ import danogl.util.Vector2;
  */
 public class MockPaddle extends Paddle {
 
-    private static final int MOCK_PADDLE_MAX_COLLISIONS_NUMBER = 4;
-
     private int collisionCounter = 0;
 
     /**
@@ -24,11 +22,12 @@ public class MockPaddle extends Paddle {
      * @param dimensions      Width and height in window coordinates.
      * @param renderable      The renderable representing the object. Can be null, in which case
      *                        the GameObject will not be rendered.
-     * @param inputListener   An interface for reading user input in the current frame
+     * @param controller      Decides which way the paddle moves in every frame
+     * @param frameCounters   counts the collision pairs tested in the current frame
      */
     public MockPaddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                      UserInputListener inputListener) {
-        super(topLeftCorner, dimensions, renderable, inputListener);
+                      PaddleController controller, FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable, controller, EntityKind.MOCK_PADDLE, frameCounters);
     }
 
     /**
@@ -41,9 +40,24 @@ public class MockPaddle extends Paddle {
     public void onCollisionExit(GameObject other) {
         super.onCollisionExit(other);
         this.collisionCounter++;
-        if (collisionCounter == MOCK_PADDLE_MAX_COLLISIONS_NUMBER &&
-                this.getTag().equals(Constants.MOCK_PADDLE_TAG)) {
+        if (collisionCounter == Constants.MOCK_PADDLE_MAX_COLLISIONS_NUMBER) {
             this.setCenter(new Vector2(0, Constants.WINDOW_HEIGHT * 2));
         }
     }
+
+    /**
+     * @return the number of collisions the paddle had so far
+     */
+    public int getCollisionCounter() {
+        return collisionCounter;
+    }
+
+    /**
+     * Sets the number of collisions the paddle had so far, used when restoring a saved game.
+     *
+     * @param collisionCounter the number of collisions
+     */
+    public void setCollisionCounter(int collisionCounter) {
+        this.collisionCounter = collisionCounter;
+    }
 }
@@ -1,23 +1,19 @@
 package bricker.gameobjects;
 
 import bricker.main.Constants;
+import bricker.telemetry.FrameCounters;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
-import java.awt.event.KeyEvent;
-
 /**
- * The paddle in a game. Controlled by user through VK_Left and VK_Right
+ * The paddle in a game. Controlled by a paddle controller, normally the user through VK_Left and VK_Right.
  * cannot exceed the limits of the screen
  * Written by: Noam K
  */
-public class Paddle extends GameObject {
-
-    private static final float PADDLE_MOVEMENT_SPEED = 350;
+public class Paddle extends Entity {
 
-    private final UserInputListener inputListener;
+    private final PaddleController controller;
 
     /**
      * Construct a new GameObject instance.
@@ -27,16 +23,34 @@ public class Paddle extends GameObject {
      * @param dimensions      Width and height in window coordinates.
      * @param renderable      The renderable representing the object. Can be null, in which case
      *                        the GameObject will not be rendered.
-     * @param inputListener   An interface for reading user input in the current frame
+     * @param controller      Decides which way the paddle moves in every frame
+     * @param frameCounters   counts the collision pairs tested in the current frame
      */
     public Paddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                  UserInputListener inputListener) {
-        super(topLeftCorner, dimensions, renderable);
-        this.inputListener = inputListener;
+                  PaddleController controller, FrameCounters frameCounters) {
+        this(topLeftCorner, dimensions, renderable, controller, EntityKind.PADDLE, frameCounters);
     }
 
     /**
-     * Defines the movement of the paddle through user input with every update.
+     * Construct a paddle of a given kind.
+     *
+     * @param topLeftCorner   Position of the object, in window coordinates (pixels).
+     *                        Note that (0,0) is the top-left corner of the window.
+     * @param dimensions      Width and height in window coordinates.
+     * @param renderable      The renderable representing the object. Can be null, in which case
+     *                        the GameObject will not be rendered.
+     * @param controller      Decides which way the paddle moves in every frame
+     * @param kind            the kind of the paddle, see EntityKind
+     * @param frameCounters   counts the collision pairs tested in the current frame
+     */
+    protected Paddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                     PaddleController controller, int kind, FrameCounters frameCounters) {
+        super(topLeftCorner, dimensions, renderable, kind, frameCounters);
+        this.controller = controller;
+    }
+
+    /**
+     * Defines the movement of the paddle through the controller with every update.
      * @param deltaTime The time elapsed, in seconds, since the last frame. Can
      *                  be used to determine a new position/velocity by multiplying
      *                  this delta with the velocity/acceleration respectively
@@ -47,16 +61,9 @@ public class Paddle extends GameObject {
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        Vector2 movementDir = Vector2.ZERO; // set starting movement speed direction to 0
-
-        // read user input and move accordingly left or right
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            movementDir = movementDir.add((Vector2.LEFT));
-        }
-        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            movementDir = movementDir.add((Vector2.RIGHT));
-        }
-        setVelocity(movementDir.mult(PADDLE_MOVEMENT_SPEED));
+        // read the controller and move accordingly left or right
+        int direction = Integer.signum(controller.getDirection());
+        setVelocity(Vector2.RIGHT.mult(direction * Constants.PADDLE_MOVEMENT_SPEED));
 
         checkBoundaries(); // check for leaving boundaries
     }
@@ -0,0 +1,12 @@
+package bricker.gameobjects;
+
+/**
+ * Decides which way the paddles move in the current frame.
+ */
+public interface PaddleController {
+
+    /**
+     * @return -1 to move left, 1 to move right, 0 to stay in place
+     */
+    int getDirection();
+}
@@ -0,0 +1,97 @@
+package bricker.headless;
+
+import bricker.main.Constants;
+
+/**
+ * Compares fast-forwarding headless games with stepping them frame by frame, with the paddle staying in
+ * place. Every game is played both ways from the same seed, and the results must match: the same number of
+ * frames played, same bricks, same lives, same status and the main ball at the same place within a
+ * tolerance. Prints how many games matched and the time of a frame both ways. FastForwardCheck checks the
+ * same on a few seeds.
+ */
+public class FastForwardBenchmark {
+
+    private static final int DEFAULT_GAMES = 20_000;
+    private static final int DEFAULT_FRAMES = 3_000;
+    private static final int GAMES_ARG = 0;
+    private static final int FRAMES_ARG = 1;
+    private static final float FRAME_TIME = 1f / 60;
+    private static final float POSITION_TOLERANCE = 0.5f;
+    private static final int WARMUP_ROUNDS = 3;
+
+    // private fields
+    private final HeadlessBrickerGame steppedGame = new HeadlessBrickerGame(
+            Constants.DEFAULT_BRICKS_NUMBER_PER_ROW, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS);
+    private final HeadlessBrickerGame fastForwardedGame = new HeadlessBrickerGame(
+            Constants.DEFAULT_BRICKS_NUMBER_PER_ROW, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS);
+    private long steppedNanos;
+    private long fastForwardNanos;
+    private long steppedFrames;
+    private long fastForwardedFrames;
+    private int matchingGames;
+
+    /**
+     * Plays a game both ways and compares the results.
+     *
+     * @param seed   the seed of the game
+     * @param frames the number of frames to play
+     */
+    private void playGame(long seed, int frames) {
+        steppedGame.reset(seed);
+        long start = System.nanoTime();
+        int stepped = 0;
+        while (stepped < frames && steppedGame.getStatus() == GameStatus.RUNNING) {
+            steppedGame.step(FRAME_TIME, HeadlessBrickerGame.STAY);
+            stepped++;
+        }
+        long middle = System.nanoTime();
+        fastForwardedGame.reset(seed);
+        long fastForwarded = fastForwardedGame.fastForward(frames, FRAME_TIME);
+        long end = System.nanoTime();
+
+        steppedNanos += middle - start;
+        fastForwardNanos += end - middle;
+        steppedFrames += stepped;
+        fastForwardedFrames += fastForwarded;
+        if (stepped == fastForwarded && resultsMatch()) {
+            matchingGames++;
+        }
+    }
+
+    /**
+     * @return true if both games ended up in the same state, with the main ball within the tolerance
+     */
+    private boolean resultsMatch() {
+        return steppedGame.getBricksLeft() == fastForwardedGame.getBricksLeft() &&
+                steppedGame.getLives() == fastForwardedGame.getLives() &&
+                steppedGame.getStatus() == fastForwardedGame.getStatus() &&
+                steppedGame.getBallCount() == fastForwardedGame.getBallCount() &&
+                Math.abs(steppedGame.getBallX(HeadlessBrickerGame.MAIN_BALL) -
+                        fastForwardedGame.getBallX(HeadlessBrickerGame.MAIN_BALL)) < POSITION_TOLERANCE &&
+                Math.abs(steppedGame.getBallY(HeadlessBrickerGame.MAIN_BALL) -
+                        fastForwardedGame.getBallY(HeadlessBrickerGame.MAIN_BALL)) < POSITION_TOLERANCE;
+    }
+
+    /**
+     * Runs the comparison, printing the results of the last round.
+     *
+     * @param args optional: args[0] = number of games per round
+     *             args[1] = number of frames per game
+     */
+    public static void main(String[] args) {
+        int games = args.length > GAMES_ARG ? Integer.parseInt(args[GAMES_ARG]) : DEFAULT_GAMES;
+        int frames = args.length > FRAMES_ARG ? Integer.parseInt(args[FRAMES_ARG]) : DEFAULT_FRAMES;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            FastForwardBenchmark benchmark = new FastForwardBenchmark();
+            for (int seed = 0; seed < games; seed++) {
+                benchmark.playGame(seed, frames);
+            }
+            if (round == WARMUP_ROUNDS) {
+                System.out.printf("%d/%d games matched, stepped %.1f ns/frame, fast-forwarded %.1f ns/frame%n",
+                        benchmark.matchingGames, games,
+                        (double) benchmark.steppedNanos / benchmark.steppedFrames,
+                        (double) benchmark.fastForwardNanos / benchmark.fastForwardedFrames);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package bricker.headless;
+
+/**
+ * The status of a headless game.
+ */
+public enum GameStatus {
+    /** The game is still being played */
+    RUNNING,
+    /** All the bricks were destroyed */
+    WON,
+    /** The last life was lost */
+    LOST
+}
@@ -0,0 +1,1170 @@
+package bricker.headless;
+
+import bricker.brick_strategies.StrategyCode;
+import bricker.brick_strategies.StrategySampler;
+import bricker.brick_strategies.StrategyType;
+import bricker.main.BrickLayout;
+import bricker.main.Constants;
+
+import java.util.Arrays;
+
+/**
+ * A windowless simulation of a Bricker game, following the same rules as BrickerGameManager and the
+ * collision strategies: same window, border, brick, ball, paddle and heart geometry, same speeds, same
+ * turbo, mock paddle, puck and heart behaviors and same lives handling. Bricks are laid out by the same
+ * BrickLayout as the windowed game, and the self-check RuleParityCheck plays both games side by side and
+ * compares the outcomes of brick hits and the trajectories of the balls.
+ * Collisions follow the engine: two objects collide in the step their overlap starts, and only then. Every
+ * collision flips the velocity of the ball along the axis of least penetration and counts towards its turbo
+ * hits, so balls bounce off each other too, and a ball hitting two bricks in the same step flips twice.
+ * Objects added in a step only collide from the next one, and the engine removes objects at the end of a
+ * step, so a brick destroyed in a step still collides with the other balls that hit it in the same step,
+ * and activates its strategy again for each of them. The mock paddle counts a hit when a ball stops
+ * touching it, like MockPaddle.onCollisionExit, and a mock paddle added or removed in a step only enters
+ * or leaves the game at its end. Like Paddle.update, the paddles move with the input of the previous step
+ * before taking the input of the current one.
+ * All state lives in preallocated primitive arrays, so stepping the game never allocates. Bricks are laid
+ * out on a regular grid, which lets each ball only test the few bricks around it.
+ * <p>
+ * Between collisions everything moves in straight lines, so with a paddle that stays in place the game
+ * can also be fast-forwarded: fastForward computes when the next collision can happen and jumps straight
+ * to the frame before it, only stepping frame by frame around collisions.
+ */
+public class HeadlessBrickerGame {
+
+    /** Maximal number of balls in the game, main ball included */
+    public static final int MAX_BALLS = 64;
+    /** Maximal number of hearts falling at the same time */
+    public static final int MAX_FALLING_HEARTS = 32;
+    /** Index of the main ball, which always exists */
+    public static final int MAIN_BALL = 0;
+    /** Paddle direction for moving left */
+    public static final int MOVE_LEFT = -1;
+    /** Paddle direction for staying in place */
+    public static final int STAY = 0;
+    /** Paddle direction for moving right */
+    public static final int MOVE_RIGHT = 1;
+
+    private static final int BITS_PER_WORD = Long.SIZE;
+    private static final int PUCKS_PER_BRICK = 2;
+    // bricks destroyed in a step that are cleared one by one before the next, more clear the whole bitset
+    private static final int TRACKED_STEP_HITS = 64;
+    // axes of a collision normal
+    private static final int AXIS_NONE = 0;
+    private static final int AXIS_X = 1;
+    private static final int AXIS_Y = 2;
+    // what a ball touched in the last step, so it only collides again once it stopped touching it
+    private static final int CONTACT_LEFT_BORDER = 1;
+    private static final int CONTACT_RIGHT_BORDER = 1 << 1;
+    private static final int CONTACT_TOP_BORDER = 1 << 2;
+    private static final int CONTACT_PADDLE = 1 << 3;
+    private static final int CONTACT_MOCK_PADDLE = 1 << 4;
+    private static final float HALF = 0.5f;
+    // playing field limits, the inner edges of the left, right and top borders
+    private static final float FIELD_LEFT = Constants.BORDER_LENGTH - 1;
+    private static final float FIELD_RIGHT = Constants.WINDOW_WIDTH - Constants.BORDER_LENGTH + 1;
+    private static final float FIELD_TOP = Constants.BORDER_LENGTH;
+    // the borders, same as BrickerGameManager.createBorders
+    private static final float BORDER_OUTER_LEFT = -1;
+    private static final float SIDE_BORDER_HEIGHT = Constants.WINDOW_HEIGHT;
+    private static final float TOP_BORDER_WIDTH = Constants.WINDOW_WIDTH;
+    // paddle limits, same as Paddle.checkBoundaries, which only puts the paddle back to its rightmost
+    // position once it passed a point a pixel further
+    private static final float PADDLE_MIN_X = Constants.BORDER_LENGTH + 1;
+    private static final float PADDLE_MAX_X = Constants.WINDOW_WIDTH - Constants.PADDLE_WIDTH -
+            Constants.BORDER_LENGTH;
+    private static final float PADDLE_RIGHT_LIMIT = Constants.WINDOW_WIDTH - Constants.BORDER_LENGTH + 1;
+    private static final float PADDLE_TOP =
+            Constants.WINDOW_HEIGHT - Constants.PADDLE_POSITION_OFFSET - Constants.PADDLE_HEIGHT * HALF;
+    private static final float MOCK_PADDLE_TOP =
+            Constants.WINDOW_HEIGHT * HALF - Constants.PADDLE_HEIGHT * HALF;
+    private static final float PUCK_BALL_SIZE =
+            Constants.BALL_DIMENSIONS * Constants.PUCK_BALL_RATIO_FROM_ORIGINAL;
+    // fast-forward stops this many frames before a predicted collision, covering float rounding
+    private static final int SAFETY_FRAMES = 1;
+
+    // brick grid
+    private final int bricksPerRow;
+    private final int brickRows;
+    private final int brickCount;
+    private final float brickWidth;
+    private final int brickColumnStride;
+    private final float brickRowStride;
+    private final float[] brickLeft;
+    private final float brickTopStart;
+    private final int[] brickCodes;
+    private final long[] aliveBricks;
+    private final long[] destroyedInStep;
+    private final int[] stepHits = new int[TRACKED_STEP_HITS];
+    private final StrategySampler strategySampler;
+    private int bricksLeft;
+
+    // balls, the main ball is always at index 0
+    private final float[] ballX = new float[MAX_BALLS];
+    private final float[] ballY = new float[MAX_BALLS];
+    private final float[] ballVelX = new float[MAX_BALLS];
+    private final float[] ballVelY = new float[MAX_BALLS];
+    private final float[] ballSize = new float[MAX_BALLS];
+    private final int[] ballContacts = new int[MAX_BALLS];
+    // bit j of touchingBalls[i] is set while balls i and j touch
+    private final long[] touchingBalls = new long[MAX_BALLS];
+    private int ballCount;
+    private int mainBallCollisions;
+    private boolean turbo;
+    private int turboBallHits;
+
+    // paddles, and the direction each moves in the next step
+    private float paddleX;
+    private int paddleMoving;
+    private boolean mockPaddleActive;
+    private float mockPaddleX;
+    private int mockPaddleMoving;
+    private int mockPaddleCollisions;
+    private boolean mockPaddleSpawned;
+
+    // falling hearts
+    private final float[] heartX = new float[MAX_FALLING_HEARTS];
+    private final float[] heartY = new float[MAX_FALLING_HEARTS];
+    private int heartCount;
+
+    // game progress
+    private final ReseedableRandom random = new ReseedableRandom(0);
+    private final int startingLives;
+    private int lives;
+    private GameStatus status;
+    private long tick;
+    private final int[] strategyActivations = new int[StrategyType.values().length];
+    private int bricksDestroyedInLastStep;
+    private int livesLostInLastStep;
+    private int heartsCollectedInLastStep;
+
+    /**
+     * Creates a headless game with the given brick grid, whose bricks get the default strategy mix.
+     * The game must be reset before it is stepped.
+     *
+     * @param bricksPerRow the number of bricks per single row
+     * @param brickRows    the number of brick rows
+     */
+    public HeadlessBrickerGame(int bricksPerRow, int brickRows) {
+        this(bricksPerRow, brickRows, StrategySampler.defaults());
+    }
+
+    /**
+     * Creates a headless game with the given brick grid. The game must be reset before it is stepped.
+     *
+     * @param bricksPerRow    the number of bricks per single row
+     * @param brickRows       the number of brick rows
+     * @param strategySampler samples the strategies of the bricks on every reset
+     */
+    public HeadlessBrickerGame(int bricksPerRow, int brickRows, StrategySampler strategySampler) {
+        this(bricksPerRow, brickRows, strategySampler, Constants.DEFAULT_LIVES_AMOUNT);
+    }
+
+    /**
+     * Creates a headless game with the given brick grid and number of lives. The game must be reset before
+     * it is stepped.
+     *
+     * @param bricksPerRow    the number of bricks per single row
+     * @param brickRows       the number of brick rows
+     * @param strategySampler samples the strategies of the bricks on every reset
+     * @param lives           the number of lives every game starts with
+     */
+    public HeadlessBrickerGame(int bricksPerRow, int brickRows, StrategySampler strategySampler, int lives) {
+        this.startingLives = lives;
+        this.bricksPerRow = bricksPerRow;
+        this.brickRows = brickRows;
+        this.brickCount = bricksPerRow * brickRows;
+        // the brick layout of BrickerGameManager.createBrickRows
+        BrickLayout layout = new BrickLayout(Constants.WINDOW_WIDTH, bricksPerRow);
+        this.brickWidth = layout.getBrickWidth();
+        this.brickColumnStride = layout.getColumnStride();
+        this.brickRowStride = BrickLayout.ROW_STRIDE;
+        this.brickTopStart = BrickLayout.FIRST_ROW_TOP;
+        this.brickLeft = new float[bricksPerRow];
+        for (int col = 0; col < bricksPerRow; col++) {
+            brickLeft[col] = layout.getBrickLeft(col);
+        }
+        this.brickCodes = new int[brickCount];
+        this.aliveBricks = new long[(brickCount + BITS_PER_WORD - 1) / BITS_PER_WORD];
+        this.destroyedInStep = new long[aliveBricks.length];
+        this.strategySampler = strategySampler;
+    }
+
+    /**
+     * Starts a new game, randomly sampling the strategy of every brick like CollisionStrategyFactory does.
+     *
+     * @param seed the seed of the game, the same seed always plays the same game for the same input
+     */
+    public void reset(long seed) {
+        random.reseed(seed);
+        for (int i = 0; i < brickCount; i++) {
+            brickCodes[i] = strategySampler.sample(random);
+        }
+        resetState();
+    }
+
+    /**
+     * Starts a new game with the given brick strategies.
+     *
+     * @param seed          the seed of the game
+     * @param strategyCodes the strategy code of every brick, row by row
+     */
+    public void reset(long seed, int[] strategyCodes) {
+        random.reseed(seed);
+        System.arraycopy(strategyCodes, 0, brickCodes, 0, brickCount);
+        resetState();
+    }
+
+    /**
+     * Resets everything but the brick strategies to the start of a game.
+     */
+    private void resetState() {
+        Arrays.fill(aliveBricks, 0);
+        Arrays.fill(destroyedInStep, 0);
+        for (int i = 0; i < brickCount; i++) {
+            aliveBricks[i / BITS_PER_WORD] |= 1L << i;
+        }
+        bricksLeft = brickCount;
+
+        ballCount = 1;
+        ballSize[MAIN_BALL] = Constants.BALL_DIMENSIONS;
+        ballContacts[MAIN_BALL] = 0;
+        touchingBalls[MAIN_BALL] = 0;
+        setMainBallToCenter();
+        // randomly choose one of the diagonals, like BrickerGameManager.setBallSpeed
+        ballVelX[MAIN_BALL] = random.nextBoolean() ? -Constants.BALL_SPEED : Constants.BALL_SPEED;
+        ballVelY[MAIN_BALL] = random.nextBoolean() ? -Constants.BALL_SPEED : Constants.BALL_SPEED;
+        mainBallCollisions = 0;
+        turbo = false;
+        turboBallHits = 0;
+
+        paddleX = Constants.WINDOW_WIDTH * HALF - Constants.PADDLE_WIDTH * HALF;
+        paddleMoving = STAY;
+        mockPaddleActive = false;
+        mockPaddleCollisions = 0;
+        mockPaddleSpawned = false;
+        heartCount = 0;
+
+        lives = startingLives;
+        status = GameStatus.RUNNING;
+        tick = 0;
+        Arrays.fill(strategyActivations, 0);
+        bricksDestroyedInLastStep = 0;
+        livesLostInLastStep = 0;
+        heartsCollectedInLastStep = 0;
+    }
+
+    /**
+     * Advances the game by a single frame. Does nothing once the game was won or lost.
+     *
+     * @param deltaTime        the time, in seconds, that passed since the last step
+     * @param paddleDirection  MOVE_LEFT, STAY or MOVE_RIGHT
+     */
+    public void step(float deltaTime, int paddleDirection) {
+        clearDestroyedInStep();
+        bricksDestroyedInLastStep = 0;
+        livesLostInLastStep = 0;
+        heartsCollectedInLastStep = 0;
+        if (status != GameStatus.RUNNING) {
+            return;
+        }
+        tick++;
+        movePaddles(deltaTime, Integer.signum(paddleDirection));
+        for (int ball = 0; ball < ballCount; ball++) {
+            ballX[ball] += ballVelX[ball] * deltaTime;
+            ballY[ball] += ballVelY[ball] * deltaTime;
+        }
+        for (int heart = 0; heart < heartCount; heart++) {
+            heartY[heart] += Constants.HEART_FALLING_SPEED * deltaTime;
+        }
+        // pucks spawned in this step only collide from the next one, like objects added to the engine
+        int balls = ballCount;
+        for (int ball = 0; ball < balls; ball++) {
+            resolveBallCollisions(ball);
+        }
+        resolveBallToBallCollisions(balls);
+        updateMockPaddle();
+        checkForGameEnd();
+        removeOutOfScreenObjects();
+        checkBallState();
+        checkFallingHearts();
+    }
+
+    /**
+     * Advances the game by several frames with the paddles staying in place, skipping the collision tests
+     * of the frames in which nothing collides. The result is the same as stepping frame by frame with
+     * STAY, since skipped frames move every object with the same float additions as a step.
+     *
+     * @param frames    the number of frames to advance
+     * @param deltaTime the time, in seconds, of a single frame
+     * @return the number of frames advanced, fewer than frames only if the game was won or lost
+     */
+    public int fastForward(int frames, float deltaTime) {
+        int played = 0;
+        while (played < frames && status == GameStatus.RUNNING) {
+            int quietFrames = framesBeforeNextEvent(deltaTime, frames - played);
+            if (quietFrames > 0) {
+                skipFrames(quietFrames, deltaTime);
+                played += quietFrames;
+            }
+            if (played < frames) {
+                step(deltaTime, STAY);
+                played++;
+            }
+        }
+        return played;
+    }
+
+    /**
+     * Moves the balls and hearts along their straight lines, as if the given number of frames passed
+     * without any collision. Objects move a frame at a time, as in step, since moving them by all the
+     * frames at once rounds differently and can put a ball on the other side of an edge.
+     *
+     * @param frames    the number of frames to skip
+     * @param deltaTime the time of a single frame
+     */
+    private void skipFrames(int frames, float deltaTime) {
+        for (int ball = 0; ball < ballCount; ball++) {
+            float x = ballX[ball];
+            float y = ballY[ball];
+            float stepX = ballVelX[ball] * deltaTime;
+            float stepY = ballVelY[ball] * deltaTime;
+            for (int frame = 0; frame < frames; frame++) {
+                x += stepX;
+                y += stepY;
+            }
+            ballX[ball] = x;
+            ballY[ball] = y;
+        }
+        float heartStep = Constants.HEART_FALLING_SPEED * deltaTime;
+        for (int heart = 0; heart < heartCount; heart++) {
+            float y = heartY[heart];
+            for (int frame = 0; frame < frames; frame++) {
+                y += heartStep;
+            }
+            heartY[heart] = y;
+        }
+        tick += frames;
+    }
+
+    /**
+     * Finds how many of the coming frames surely pass without any ball bouncing or leaving the window
+     * and without any heart being collected or leaving the window, with the paddles in place. Frames are
+     * only skipped once the paddles stopped and no ball touches anything, so no ball stops touching an
+     * object during a skip.
+     *
+     * @param deltaTime the time of a single frame
+     * @param horizon   the largest number of frames worth looking at
+     * @return the number of quiet frames, at most horizon
+     */
+    private int framesBeforeNextEvent(float deltaTime, int horizon) {
+        if (paddleMoving != STAY || (mockPaddleActive && mockPaddleMoving != STAY)) {
+            return 0;
+        }
+        int quietFrames = horizon;
+        for (int ball = 0; ball < ballCount && quietFrames > 0; ball++) {
+            if (ballContacts[ball] != 0 || touchingBalls[ball] != 0) {
+                return 0;
+            }
+            quietFrames = ballFramesBeforeEvent(ball, deltaTime, quietFrames);
+            for (int other = ball + 1; other < ballCount && quietFrames > 0; other++) {
+                quietFrames = ballsFramesBeforeOverlap(ball, other, deltaTime, quietFrames);
+            }
+        }
+        float heartStep = Constants.HEART_FALLING_SPEED * deltaTime;
+        for (int heart = 0; heart < heartCount && quietFrames > 0; heart++) {
+            quietFrames = quietFrames(overlapStart(heartY[heart], heartStep, Constants.WINDOW_HEIGHT,
+                    Float.POSITIVE_INFINITY), Double.POSITIVE_INFINITY, quietFrames);
+            if (heartX[heart] >= paddleX && heartX[heart] <= paddleX + Constants.PADDLE_WIDTH) {
+                quietFrames = quietFrames(overlapStart(heartY[heart], heartStep,
+                        PADDLE_TOP - Constants.HEART_SIZE, PADDLE_TOP + Constants.PADDLE_HEIGHT),
+                        Double.POSITIVE_INFINITY, quietFrames);
+            }
+        }
+        return quietFrames;
+    }
+
+    /**
+     * Finds how many of the coming frames surely pass without a ball hitting a border, a paddle or a
+     * brick, or falling out of the window.
+     *
+     * @param ball      index of the ball
+     * @param deltaTime the time of a single frame
+     * @param horizon   the largest number of frames worth looking at
+     * @return the number of quiet frames, at most horizon
+     */
+    private int ballFramesBeforeEvent(int ball, float deltaTime, int horizon) {
+        float half = ballSize[ball] * HALF;
+        float stepX = ballVelX[ball] * deltaTime;
+        float stepY = ballVelY[ball] * deltaTime;
+        float x = ballX[ball];
+        float y = ballY[ball];
+        // borders only bounce balls moving towards them
+        int quiet = horizon;
+        if (stepX < 0) {
+            quiet = quietFrames(overlapStart(x, stepX, Float.NEGATIVE_INFINITY, FIELD_LEFT + half),
+                    Double.POSITIVE_INFINITY, quiet);
+        } else if (stepX > 0) {
+            quiet = quietFrames(overlapStart(x, stepX, FIELD_RIGHT - half, Float.POSITIVE_INFINITY),
+                    Double.POSITIVE_INFINITY, quiet);
+        }
+        // and balls only fall out of the window moving down
+        if (stepY < 0) {
+            quiet = quietFrames(overlapStart(y, stepY, Float.NEGATIVE_INFINITY, FIELD_TOP + half),
+                    Double.POSITIVE_INFINITY, quiet);
+        } else if (stepY > 0) {
+            quiet = quietFrames(overlapStart(y, stepY, Constants.WINDOW_HEIGHT, Float.POSITIVE_INFINITY),
+                    Double.POSITIVE_INFINITY, quiet);
+        }
+        quiet = rectangleFramesBeforeOverlap(ball, stepX, stepY, paddleX, PADDLE_TOP,
+                Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT, quiet);
+        if (mockPaddleActive) {
+            quiet = rectangleFramesBeforeOverlap(ball, stepX, stepY, mockPaddleX, MOCK_PADDLE_TOP,
+                    Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT, quiet);
+        }
+
+        // only the bricks in the grid cells the ball sweeps through until then can be hit
+        int sweptFrames = quiet + SAFETY_FRAMES + 1;
+        float top = Math.min(y, y + stepY * sweptFrames) - half;
+        float bottom = Math.max(y, y + stepY * sweptFrames) + half;
+        float left = Math.min(x, x + stepX * sweptFrames) - half;
+        float right = Math.max(x, x + stepX * sweptFrames) + half;
+        int firstRow = Math.max(0, (int) Math.floor((top - brickTopStart - Constants.BRICK_HEIGHT) /
+                brickRowStride) + 1);
+        int lastRow = Math.min(brickRows - 1, (int) Math.floor((bottom - brickTopStart) / brickRowStride));
+        int firstCol = Math.max(0, (int) Math.floor((left - brickLeft[0] - brickWidth) /
+                brickColumnStride) + 1);
+        int lastCol = Math.min(bricksPerRow - 1, (int) Math.floor((right - brickLeft[0]) / brickColumnStride));
+        for (int row = firstRow; row <= lastRow && quiet > 0; row++) {
+            float brickTop = brickTopStart + row * brickRowStride;
+            for (int col = firstCol; col <= lastCol && quiet > 0; col++) {
+                if (isBrickAlive(row * bricksPerRow + col)) {
+                    quiet = rectangleFramesBeforeOverlap(ball, stepX, stepY, brickLeft[col], brickTop,
+                            brickWidth, Constants.BRICK_HEIGHT, quiet);
+                }
+            }
+        }
+        return quiet;
+    }
+
+    /**
+     * Finds how many of the coming frames surely pass before a ball overlaps a rectangle, like
+     * overlapAxis tests.
+     *
+     * @param ball    index of the ball
+     * @param stepX   the horizontal movement of the ball in a single frame
+     * @param stepY   the vertical movement of the ball in a single frame
+     * @param left    left edge of the rectangle
+     * @param top     top edge of the rectangle
+     * @param width   width of the rectangle
+     * @param height  height of the rectangle
+     * @param horizon the largest number of frames worth looking at
+     * @return the number of quiet frames, at most horizon
+     */
+    private int rectangleFramesBeforeOverlap(int ball, float stepX, float stepY, float left, float top,
+                                             float width, float height, int horizon) {
+        float half = ballSize[ball] * HALF;
+        float lowX = left - half;
+        float highX = left + width + half;
+        float lowY = top - half;
+        float highY = top + height + half;
+        double start = Math.max(overlapStart(ballX[ball], stepX, lowX, highX),
+                overlapStart(ballY[ball], stepY, lowY, highY));
+        double end = Math.min(overlapEnd(ballX[ball], stepX, lowX, highX),
+                overlapEnd(ballY[ball], stepY, lowY, highY));
+        return quietFrames(start, end, horizon);
+    }
+
+    /**
+     * Finds how many of the coming frames surely pass before two balls overlap.
+     *
+     * @param ball      index of a ball
+     * @param other     index of the other ball
+     * @param deltaTime the time of a single frame
+     * @param horizon   the largest number of frames worth looking at
+     * @return the number of quiet frames, at most horizon
+     */
+    private int ballsFramesBeforeOverlap(int ball, int other, float deltaTime, int horizon) {
+        // the other ball as seen from the ball, which overlaps it within a square around the ball
+        float reach = (ballSize[ball] + ballSize[other]) * HALF;
+        float offsetX = ballX[other] - ballX[ball];
+        float offsetY = ballY[other] - ballY[ball];
+        float stepX = (ballVelX[other] - ballVelX[ball]) * deltaTime;
+        float stepY = (ballVelY[other] - ballVelY[ball]) * deltaTime;
+        double start = Math.max(overlapStart(offsetX, stepX, -reach, reach),
+                overlapStart(offsetY, stepY, -reach, reach));
+        double end = Math.min(overlapEnd(offsetX, stepX, -reach, reach),
+                overlapEnd(offsetY, stepY, -reach, reach));
+        return quietFrames(start, end, horizon);
+    }
+
+    /**
+     * @param position the current position along an axis
+     * @param step     the movement along the axis in a single frame
+     * @param low      the low end of a range on the axis
+     * @param high     the high end of the range
+     * @return the time, in frames, at which the position enters the range, negative infinity if it is
+     * already inside and never leaves, positive infinity if it never enters
+     */
+    private static double overlapStart(float position, float step, float low, float high) {
+        if (step == 0) {
+            return position > low && position < high ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return ((double) (step > 0 ? low : high) - position) / step;
+    }
+
+    /**
+     * @param position the current position along an axis
+     * @param step     the movement along the axis in a single frame
+     * @param low      the low end of a range on the axis
+     * @param high     the high end of the range
+     * @return the time, in frames, at which the position leaves the range, positive infinity if it never
+     * does
+     */
+    private static double overlapEnd(float position, float step, float low, float high) {
+        if (step == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return ((double) (step > 0 ? high : low) - position) / step;
+    }
+
+    /**
+     * @param start   the time, in frames, at which an overlap starts
+     * @param end     the time, in frames, at which the overlap ends
+     * @param horizon the largest number of frames worth looking at
+     * @return how many of the coming frames surely pass before the overlap, at most horizon
+     */
+    private static int quietFrames(double start, double end, int horizon) {
+        if (start >= end || end <= 0) {
+            return horizon;
+        }
+        double quiet = Math.floor(start) - SAFETY_FRAMES;
+        return quiet <= 0 ? 0 : (int) Math.min(horizon, quiet);
+    }
+
+    /**
+     * Moves the main paddle and the mock paddle (which follows the same input) within the borders, in the
+     * direction of the last input, and then takes the new input.
+     *
+     * @param deltaTime       the time that passed since the last step
+     * @param paddleDirection -1, 0 or 1
+     */
+    private void movePaddles(float deltaTime, int paddleDirection) {
+        float speed = Constants.PADDLE_MOVEMENT_SPEED * deltaTime;
+        paddleX = clampPaddle(paddleX + paddleMoving * speed);
+        paddleMoving = paddleDirection;
+        if (mockPaddleActive) {
+            mockPaddleX = clampPaddle(mockPaddleX + mockPaddleMoving * speed);
+            mockPaddleMoving = paddleDirection;
+        }
+    }
+
+    /**
+     * @param x a paddle's left edge
+     * @return the closest left edge that keeps the paddle inside the borders
+     */
+    private static float clampPaddle(float x) {
+        if (x < PADDLE_MIN_X) {
+            return PADDLE_MIN_X;
+        }
+        return x + Constants.PADDLE_WIDTH > PADDLE_RIGHT_LIMIT ? PADDLE_MAX_X : x;
+    }
+
+    /**
+     * Collides a ball with the borders, paddles and bricks it overlaps, activating brick strategies. A ball
+     * keeps touching a border or a paddle for a few steps after bouncing off it, and only collides with it
+     * again once it stopped touching it. A brick is destroyed by its first collision.
+     *
+     * @param ball index of the ball
+     */
+    private void resolveBallCollisions(int ball) {
+        int touching = collideWithSolid(ball, BORDER_OUTER_LEFT, 0, Constants.BORDER_LENGTH,
+                SIDE_BORDER_HEIGHT, CONTACT_LEFT_BORDER);
+        touching |= collideWithSolid(ball, FIELD_RIGHT, 0, Constants.BORDER_LENGTH, SIDE_BORDER_HEIGHT,
+                CONTACT_RIGHT_BORDER);
+        touching |= collideWithSolid(ball, BORDER_OUTER_LEFT, 0, TOP_BORDER_WIDTH, Constants.BORDER_LENGTH,
+                CONTACT_TOP_BORDER);
+        touching |= collideWithSolid(ball, paddleX, PADDLE_TOP, Constants.PADDLE_WIDTH,
+                Constants.PADDLE_HEIGHT, CONTACT_PADDLE);
+        if (mockPaddleActive) {
+            touching |= collideWithSolid(ball, mockPaddleX, MOCK_PADDLE_TOP, Constants.PADDLE_WIDTH,
+                    Constants.PADDLE_HEIGHT, CONTACT_MOCK_PADDLE);
+        }
+        if ((ballContacts[ball] & ~touching & CONTACT_MOCK_PADDLE) != 0) {
+            mockPaddleCollisions++;
+        }
+        ballContacts[ball] = touching;
+
+        // only the bricks in the grid cells around the ball can be hit
+        float half = ballSize[ball] * HALF;
+        float top = ballY[ball] - half;
+        float bottom = ballY[ball] + half;
+        int firstRow = Math.max(0, (int) Math.floor((top - brickTopStart - Constants.BRICK_HEIGHT) /
+                brickRowStride) + 1);
+        int lastRow = Math.min(brickRows - 1, (int) Math.floor((bottom - brickTopStart) / brickRowStride));
+        if (firstRow > lastRow) {
+            return;
+        }
+        float left = ballX[ball] - half;
+        float right = ballX[ball] + half;
+        int firstCol = Math.max(0, (int) Math.floor((left - brickLeft[0] - brickWidth) /
+                brickColumnStride) + 1);
+        int lastCol = Math.min(bricksPerRow - 1, (int) Math.floor((right - brickLeft[0]) / brickColumnStride));
+        for (int row = firstRow; row <= lastRow; row++) {
+            float brickTop = brickTopStart + row * brickRowStride;
+            for (int col = firstCol; col <= lastCol; col++) {
+                int brick = row * bricksPerRow + col;
+                if (!isBrickAlive(brick) && !isDestroyedInStep(brick)) {
+                    continue;
+                }
+                int axis = overlapAxis(ball, brickLeft[col], brickTop, brickWidth, Constants.BRICK_HEIGHT);
+                if (axis != AXIS_NONE) {
+                    bounce(ball, axis);
+                    hitBrick(brick, ball, brickLeft[col] + brickWidth * HALF,
+                            brickTop + Constants.BRICK_HEIGHT * HALF);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collides the balls that started touching each other in this step. Both balls of a pair bounce along
+     * the axis of least penetration between them.
+     *
+     * @param balls the number of balls that collide in this step, the pucks spawned in it excluded
+     */
+    private void resolveBallToBallCollisions(int balls) {
+        for (int ball = 0; ball < balls; ball++) {
+            for (int other = ball + 1; other < balls; other++) {
+                float otherHalf = ballSize[other] * HALF;
+                int axis = overlapAxis(ball, ballX[other] - otherHalf, ballY[other] - otherHalf,
+                        otherHalf * 2, otherHalf * 2);
+                long otherBit = 1L << other;
+                if (axis == AXIS_NONE) {
+                    touchingBalls[ball] &= ~otherBit;
+                    touchingBalls[other] &= ~(1L << ball);
+                } else if ((touchingBalls[ball] & otherBit) == 0) {
+                    touchingBalls[ball] |= otherBit;
+                    touchingBalls[other] |= 1L << ball;
+                    bounce(ball, axis);
+                    bounce(other, axis);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collides a ball with a rectangle that stays in the game, if the ball overlaps it and did not touch it
+     * in the last step.
+     *
+     * @param ball    index of the ball
+     * @param left    left edge of the rectangle
+     * @param top     top edge of the rectangle
+     * @param width   width of the rectangle
+     * @param height  height of the rectangle
+     * @param contact the contact bit of the rectangle
+     * @return the contact bit if the ball overlaps the rectangle, 0 otherwise
+     */
+    private int collideWithSolid(int ball, float left, float top, float width, float height, int contact) {
+        int axis = overlapAxis(ball, left, top, width, height);
+        if (axis == AXIS_NONE) {
+            return 0;
+        }
+        if ((ballContacts[ball] & contact) == 0) {
+            bounce(ball, axis);
+        }
+        return contact;
+    }
+
+    /**
+     * Tests a ball against a rectangle.
+     *
+     * @param ball   index of the ball
+     * @param left   left edge of the rectangle
+     * @param top    top edge of the rectangle
+     * @param width  width of the rectangle
+     * @param height height of the rectangle
+     * @return the axis of least penetration, or AXIS_NONE if the ball does not overlap the rectangle
+     */
+    private int overlapAxis(int ball, float left, float top, float width, float height) {
+        float half = ballSize[ball] * HALF;
+        float penetrationX = Math.min(ballX[ball] + half - left, left + width - (ballX[ball] - half));
+        float penetrationY = Math.min(ballY[ball] + half - top, top + height - (ballY[ball] - half));
+        if (penetrationX <= 0 || penetrationY <= 0) {
+            return AXIS_NONE;
+        }
+        return penetrationX < penetrationY ? AXIS_X : AXIS_Y;
+    }
+
+    /**
+     * Flips the velocity of a ball along the normal of a collision, like Ball.onCollisionEnter.
+     *
+     * @param ball index of the ball
+     * @param axis the axis of the collision normal
+     */
+    private void bounce(int ball, int axis) {
+        if (axis == AXIS_X) {
+            ballVelX[ball] = -ballVelX[ball];
+        } else {
+            ballVelY[ball] = -ballVelY[ball];
+        }
+        countBallCollision(ball);
+    }
+
+    /**
+     * Adds the mock paddle spawned in this step to the game, or removes the mock paddle once it was hit as
+     * many times as it can be.
+     */
+    private void updateMockPaddle() {
+        if (mockPaddleActive && mockPaddleCollisions >= Constants.MOCK_PADDLE_MAX_COLLISIONS_NUMBER) {
+            mockPaddleActive = false;
+            clearMockPaddleContacts();
+        } else if (mockPaddleSpawned) {
+            mockPaddleActive = true;
+            mockPaddleX = Constants.WINDOW_WIDTH * HALF - Constants.PADDLE_WIDTH * HALF;
+            mockPaddleMoving = STAY;
+            mockPaddleCollisions = 0;
+            clearMockPaddleContacts();
+        }
+        mockPaddleSpawned = false;
+    }
+
+    /**
+     * Forgets which balls touch the mock paddle, when it leaves the game or a new one enters it.
+     */
+    private void clearMockPaddleContacts() {
+        for (int ball = 0; ball < ballCount; ball++) {
+            ballContacts[ball] &= ~CONTACT_MOCK_PADDLE;
+        }
+    }
+
+    /**
+     * Counts a collision of the main ball, like Ball.getCollisionCounter.
+     *
+     * @param ball index of the ball that collided
+     */
+    private void countBallCollision(int ball) {
+        if (ball == MAIN_BALL) {
+            mainBallCollisions++;
+        }
+    }
+
+    /**
+     * Removes a brick, unless it was already removed in this step, and activates its special behaviors,
+     * like the collision strategies do.
+     *
+     * @param brick   index of the brick
+     * @param ball    index of the ball that hit it
+     * @param centerX x coordinate of the brick's center
+     * @param centerY y coordinate of the brick's center
+     */
+    private void hitBrick(int brick, int ball, float centerX, float centerY) {
+        if (isBrickAlive(brick)) {
+            aliveBricks[brick / BITS_PER_WORD] &= ~(1L << brick);
+            destroyedInStep[brick / BITS_PER_WORD] |= 1L << brick;
+            if (bricksDestroyedInLastStep < TRACKED_STEP_HITS) {
+                stepHits[bricksDestroyedInLastStep] = brick;
+            }
+            bricksLeft--;
+            bricksDestroyedInLastStep++;
+        }
+        int code = brickCodes[brick];
+        for (int i = 0; i < StrategyCode.effectCount(code); i++) {
+            int effect = StrategyCode.effectOrdinalAt(code, i);
+            strategyActivations[effect]++;
+            switch (StrategyType.fromOrdinal(effect)) {
+                case PUCK:
+                    for (int puck = 0; puck < PUCKS_PER_BRICK; puck++) {
+                        spawnPuckBall(centerX, centerY);
+                    }
+                    break;
+                case MOCK_PADDLE:
+                    // joins the game at the end of the step, if there is no mock paddle yet
+                    mockPaddleSpawned |= !mockPaddleActive;
+                    break;
+                case TURBO:
+                    // only the main ball in its normal state turns turbo
+                    if (ball == MAIN_BALL && !turbo) {
+                        turbo = true;
+                        ballVelX[MAIN_BALL] *= Constants.SPEED_MULTIPLIER;
+                        ballVelY[MAIN_BALL] *= Constants.SPEED_MULTIPLIER;
+                    }
+                    break;
+                default:
+                    if (heartCount < MAX_FALLING_HEARTS) {
+                        heartX[heartCount] = centerX;
+                        heartY[heartCount] = centerY;
+                        heartCount++;
+                    }
+            }
+        }
+    }
+
+    /**
+     * @param brick index of the brick
+     * @return true if the brick was destroyed in the current step
+     */
+    private boolean isDestroyedInStep(int brick) {
+        return (destroyedInStep[brick / BITS_PER_WORD] & (1L << brick)) != 0;
+    }
+
+    /**
+     * Forgets the bricks destroyed in the last step.
+     */
+    private void clearDestroyedInStep() {
+        if (bricksDestroyedInLastStep > TRACKED_STEP_HITS) {
+            Arrays.fill(destroyedInStep, 0);
+            return;
+        }
+        for (int i = 0; i < bricksDestroyedInLastStep; i++) {
+            destroyedInStep[stepHits[i] / BITS_PER_WORD] = 0;
+        }
+    }
+
+    /**
+     * Spawns a puck ball moving in a random direction, like PuckCollisionStrategy.
+     *
+     * @param centerX x coordinate to spawn at
+     * @param centerY y coordinate to spawn at
+     */
+    private void spawnPuckBall(float centerX, float centerY) {
+        if (ballCount == MAX_BALLS) {
+            return;
+        }
+        double angle = random.nextDouble() * Math.PI;
+        ballX[ballCount] = centerX;
+        ballY[ballCount] = centerY;
+        ballVelX[ballCount] = (float) Math.cos(angle) * Constants.BALL_SPEED;
+        ballVelY[ballCount] = (float) Math.sin(angle) * Constants.BALL_SPEED;
+        ballSize[ballCount] = PUCK_BALL_SIZE;
+        ballContacts[ballCount] = 0;
+        touchingBalls[ballCount] = 0;
+        ballCount++;
+    }
+
+    /**
+     * Checks for a win or for the main ball falling, like BrickerGameManager.checkForGameEnd.
+     */
+    private void checkForGameEnd() {
+        if (bricksLeft == 0) {
+            status = GameStatus.WON;
+        }
+        if (ballY[MAIN_BALL] > Constants.WINDOW_HEIGHT) {
+            lives--;
+            livesLostInLastStep++;
+            setMainBallToCenter();
+            if (lives == 0) {
+                status = GameStatus.LOST;
+            }
+        }
+    }
+
+    /**
+     * Removes puck balls and hearts that fell out of the window.
+     */
+    private void removeOutOfScreenObjects() {
+        for (int ball = ballCount - 1; ball > MAIN_BALL; ball--) {
+            if (ballY[ball] > Constants.WINDOW_HEIGHT) {
+                removeBall(ball);
+            }
+        }
+        for (int heart = heartCount - 1; heart >= 0; heart--) {
+            if (heartY[heart] > Constants.WINDOW_HEIGHT) {
+                removeHeart(heart);
+            }
+        }
+    }
+
+    /**
+     * Starts and ends the turbo state of the main ball, like BrickerGameManager.checkBallState.
+     */
+    private void checkBallState() {
+        if (turbo && turboBallHits == 0) {
+            turboBallHits = mainBallCollisions + Constants.MAX_TURBO_BALL_HITS;
+            return;
+        }
+        if (turboBallHits == mainBallCollisions && mainBallCollisions != 0) {
+            turboBallHits = 0;
+            turbo = false;
+            ballVelX[MAIN_BALL] /= Constants.SPEED_MULTIPLIER;
+            ballVelY[MAIN_BALL] /= Constants.SPEED_MULTIPLIER;
+        }
+    }
+
+    /**
+     * Collects hearts that overlap the main paddle, like BrickerGameManager.checkFallingHearts.
+     */
+    private void checkFallingHearts() {
+        for (int heart = heartCount - 1; heart >= 0; heart--) {
+            boolean xOverlap = heartX[heart] >= paddleX && heartX[heart] <= paddleX + Constants.PADDLE_WIDTH;
+            boolean yOverlap = heartY[heart] + Constants.HEART_SIZE >= PADDLE_TOP &&
+                    heartY[heart] <= PADDLE_TOP + Constants.PADDLE_HEIGHT;
+            if (xOverlap && yOverlap) {
+                if (lives < Constants.MAX_HEARTS_AMOUNT) {
+                    lives++;
+                }
+                heartsCollectedInLastStep++;
+                removeHeart(heart);
+                return; // like the windowed game, collect a single heart per frame
+            }
+        }
+    }
+
+    /**
+     * Puts the main ball at the center of the window, keeping its velocity.
+     */
+    private void setMainBallToCenter() {
+        ballX[MAIN_BALL] = Constants.WINDOW_WIDTH * HALF;
+        ballY[MAIN_BALL] = Constants.WINDOW_HEIGHT * HALF;
+    }
+
+    /**
+     * Removes a puck ball by moving the last ball into its place.
+     *
+     * @param ball index of the ball to remove
+     */
+    private void removeBall(int ball) {
+        int last = --ballCount;
+        ballX[ball] = ballX[last];
+        ballY[ball] = ballY[last];
+        ballVelX[ball] = ballVelX[last];
+        ballVelY[ball] = ballVelY[last];
+        ballSize[ball] = ballSize[last];
+        ballContacts[ball] = ballContacts[last];
+        touchingBalls[ball] = touchingBalls[last] & ~(1L << ball);
+        for (int other = 0; other < ballCount; other++) {
+            long touching = touchingBalls[other] & ~(1L << ball);
+            if ((touching & (1L << last)) != 0) {
+                touching = (touching & ~(1L << last)) | (other == ball ? 0 : 1L << ball);
+            }
+            touchingBalls[other] = touching;
+        }
+    }
+
+    /**
+     * Removes a falling heart by moving the last heart into its place.
+     *
+     * @param heart index of the heart to remove
+     */
+    private void removeHeart(int heart) {
+        int last = --heartCount;
+        heartX[heart] = heartX[last];
+        heartY[heart] = heartY[last];
+    }
+
+    /**
+     * @return the number of bricks per single row
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * @return the number of brick rows
+     */
+    public int getBrickRows() {
+        return brickRows;
+    }
+
+    /**
+     * @return the total number of bricks at the start of the game
+     */
+    public int getBrickCount() {
+        return brickCount;
+    }
+
+    /**
+     * @return the number of bricks not yet destroyed
+     */
+    public int getBricksLeft() {
+        return bricksLeft;
+    }
+
+    /**
+     * @param brick index of the brick, row by row
+     * @return true if the brick was not destroyed yet
+     */
+    public boolean isBrickAlive(int brick) {
+        return (aliveBricks[brick / BITS_PER_WORD] & (1L << brick)) != 0;
+    }
+
+    /**
+     * @param brick index of the brick, row by row
+     * @return the strategy code of the brick, see StrategyCode
+     */
+    public int getBrickStrategyCode(int brick) {
+        return brickCodes[brick];
+    }
+
+    /**
+     * Copies the alive state of all the bricks as a bitset, bit i of word i / 64 being brick i.
+     *
+     * @param destination array of at least getAliveWordCount() words
+     * @param offset      index in destination to copy the first word to
+     */
+    public void copyAliveBricks(long[] destination, int offset) {
+        System.arraycopy(aliveBricks, 0, destination, offset, aliveBricks.length);
+    }
+
+    /**
+     * @return the number of 64 bit words in the brick alive bitset
+     */
+    public int getAliveWordCount() {
+        return aliveBricks.length;
+    }
+
+    /**
+     * @return the number of balls in the game, the main ball being index 0 and the rest being pucks
+     */
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return x coordinate of the ball's center
+     */
+    public float getBallX(int ball) {
+        return ballX[ball];
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return y coordinate of the ball's center
+     */
+    public float getBallY(int ball) {
+        return ballY[ball];
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return width and height of the ball
+     */
+    public float getBallSize(int ball) {
+        return ballSize[ball];
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return horizontal velocity of the ball
+     */
+    public float getBallVelocityX(int ball) {
+        return ballVelX[ball];
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return vertical velocity of the ball
+     */
+    public float getBallVelocityY(int ball) {
+        return ballVelY[ball];
+    }
+
+    /**
+     * @return true if the main ball is in its turbo state
+     */
+    public boolean isTurbo() {
+        return turbo;
+    }
+
+    /**
+     * @return the number of collisions of the main ball, like Ball.getCollisionCounter
+     */
+    public int getMainBallCollisions() {
+        return mainBallCollisions;
+    }
+
+    /**
+     * @return the left edge of the main paddle
+     */
+    public float getPaddleX() {
+        return paddleX;
+    }
+
+    /**
+     * @return true if a mock paddle is in the game
+     */
+    public boolean isMockPaddleActive() {
+        return mockPaddleActive;
+    }
+
+    /**
+     * @return the left edge of the mock paddle, meaningful only while it is active
+     */
+    public float getMockPaddleX() {
+        return mockPaddleX;
+    }
+
+    /**
+     * @return the number of hearts currently falling
+     */
+    public int getFallingHeartCount() {
+        return heartCount;
+    }
+
+    /**
+     * @param heart index of the heart
+     * @return x coordinate of the heart's center
+     */
+    public float getHeartX(int heart) {
+        return heartX[heart];
+    }
+
+    /**
+     * @param heart index of the heart
+     * @return y coordinate of the heart's center
+     */
+    public float getHeartY(int heart) {
+        return heartY[heart];
+    }
+
+    /**
+     * @return the number of lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * @return the status of the game
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of steps played since the last reset
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @param type a special behavior
+     * @return how many times this behavior was activated since the last reset
+     */
+    public int getStrategyActivations(StrategyType type) {
+        return strategyActivations[type.ordinal()];
+    }
+
+    /**
+     * @return the number of bricks destroyed in the last step
+     */
+    public int getBricksDestroyedInLastStep() {
+        return bricksDestroyedInLastStep;
+    }
+
+    /**
+     * @return the number of lives lost in the last step
+     */
+    public int getLivesLostInLastStep() {
+        return livesLostInLastStep;
+    }
+
+    /**
+     * @return the number of hearts collected in the last step
+     */
+    public int getHeartsCollectedInLastStep() {
+        return heartsCollectedInLastStep;
+    }
+}
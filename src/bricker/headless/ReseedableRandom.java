@@ -0,0 +1,50 @@
+package bricker.headless;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A SplitMix64 random generator that can be seeded again in place, so a game can be reset any number of
+ * times without allocating a new generator. Produces the same sequence of longs as a SplittableRandom
+ * created with the same seed.
+ */
+public class ReseedableRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long FIRST_MIX_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final long SECOND_MIX_MULTIPLIER = 0x94D049BB133111EBL;
+    private static final int FIRST_SHIFT = 30;
+    private static final int SECOND_SHIFT = 27;
+    private static final int THIRD_SHIFT = 31;
+
+    // private fields
+    private long state;
+
+    /**
+     * Creates a generator with the given seed.
+     *
+     * @param seed the seed
+     */
+    public ReseedableRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Restarts the generator from a seed, as if it was just created with it.
+     *
+     * @param seed the seed
+     */
+    public void reseed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * @return the next random long
+     */
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> FIRST_SHIFT)) * FIRST_MIX_MULTIPLIER;
+        z = (z ^ (z >>> SECOND_SHIFT)) * SECOND_MIX_MULTIPLIER;
+        return z ^ (z >>> THIRD_SHIFT);
+    }
+}
@@ -0,0 +1,143 @@
+package bricker.levels;
+
+import bricker.brick_strategies.StrategySampler;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A run of generated levels over the same brick grid, played one after the other. Every level has its own
+ * seed, split from the campaign's seed in level order, so the same seed always gives the same campaign.
+ * <p>
+ * While a level is played, the next one is generated on a background thread, so moving on when a level is
+ * cleared only waits for a level that is already there. The first level is kept, so starting the campaign
+ * again is just as fast.
+ */
+public class Campaign implements AutoCloseable {
+
+    private static final String PRELOAD_THREAD_NAME = "bricker-level-preload";
+
+    // private fields
+    private final int bricksPerRow;
+    private final int rows;
+    private final long[] levelSeeds;
+    private final StrategySampler strategySampler;
+    private final ExecutorService preloader;
+    private final Level firstLevel;
+    private int levelIndex = 0;
+    private CompletableFuture<Level> nextLevel;
+
+    /**
+     * Creates a campaign, generating its first level and starting to preload the second.
+     *
+     * @param seed            the seed all levels of the campaign are generated from
+     * @param levelCount      the number of levels
+     * @param bricksPerRow    the number of cells per single row of every level
+     * @param rows            the number of rows of every level
+     * @param strategySampler samples the strategies of the bricks
+     */
+    public Campaign(long seed, int levelCount, int bricksPerRow, int rows, StrategySampler strategySampler) {
+        this.bricksPerRow = bricksPerRow;
+        this.rows = rows;
+        this.strategySampler = strategySampler;
+        this.levelSeeds = new long[levelCount];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int level = 0; level < levelCount; level++) {
+            levelSeeds[level] = random.nextLong();
+        }
+        this.preloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, PRELOAD_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.firstLevel = generate(0);
+        preload();
+    }
+
+    /**
+     * @return the first level, which the campaign starts with
+     */
+    public Level getFirstLevel() {
+        return firstLevel;
+    }
+
+    /**
+     * @return the number of the level being played, starting at 1
+     */
+    public int getLevelNumber() {
+        return levelIndex + 1;
+    }
+
+    /**
+     * @return the number of levels
+     */
+    public int getLevelCount() {
+        return levelSeeds.length;
+    }
+
+    /**
+     * @return true if the level being played is not the last one
+     */
+    public boolean hasNextLevel() {
+        return levelIndex + 1 < levelSeeds.length;
+    }
+
+    /**
+     * Moves on to the next level, and starts preloading the one after it. Only waits if the next level is
+     * still being generated.
+     *
+     * @return the next level
+     * @throws IllegalStateException if the level being played is the last one
+     */
+    public Level nextLevel() {
+        if (!hasNextLevel()) {
+            throw new IllegalStateException("Level " + getLevelNumber() + " is the last of the campaign");
+        }
+        Level level = nextLevel.join();
+        levelIndex++;
+        preload();
+        return level;
+    }
+
+    /**
+     * Starts the campaign again from its first level.
+     *
+     * @return the first level
+     */
+    public Level restart() {
+        if (levelIndex != 0) {
+            nextLevel.cancel(false);
+            levelIndex = 0;
+            preload();
+        }
+        return firstLevel;
+    }
+
+    /**
+     * Stops the preloading thread.
+     */
+    @Override
+    public void close() {
+        preloader.shutdownNow();
+    }
+
+    /**
+     * Starts generating the level after the one being played, if there is one.
+     */
+    private void preload() {
+        if (hasNextLevel()) {
+            int next = levelIndex + 1;
+            nextLevel = CompletableFuture.supplyAsync(() -> generate(next), preloader);
+        }
+    }
+
+    /**
+     * @param index index of the level in the campaign
+     * @return the generated level
+     */
+    private Level generate(int index) {
+        return new LevelGenerator(levelSeeds[index], strategySampler).generate(bricksPerRow, rows);
+    }
+}
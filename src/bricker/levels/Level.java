@@ -0,0 +1,93 @@
+package bricker.levels;
+
+import java.util.Arrays;
+
+/**
+ * A brick layout: a grid of cells, each either empty or holding a brick with a collision strategy.
+ * Cells are stored row by row in a single short array, so even levels of millions of bricks are compact.
+ */
+public class Level {
+
+    private static final short EMPTY = -1;
+
+    // private fields
+    private final int bricksPerRow;
+    private final int rows;
+    private final short[] cells;
+
+    /**
+     * Creates an empty level.
+     *
+     * @param bricksPerRow the number of cells per single row
+     * @param rows         the number of rows
+     */
+    public Level(int bricksPerRow, int rows) {
+        this.bricksPerRow = bricksPerRow;
+        this.rows = rows;
+        this.cells = new short[Math.multiplyExact(bricksPerRow, rows)];
+        Arrays.fill(cells, EMPTY);
+    }
+
+    /**
+     * @return the number of cells per single row
+     */
+    public int getBricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the cell in the row
+     * @return true if the cell holds a brick
+     */
+    public boolean hasBrick(int row, int column) {
+        return cells[row * bricksPerRow + column] != EMPTY;
+    }
+
+    /**
+     * @param row    index of the row
+     * @param column index of the cell in the row, which holds a brick
+     * @return the code of the brick's collision strategy, see StrategyCode
+     */
+    public int getStrategyCode(int row, int column) {
+        return cells[row * bricksPerRow + column];
+    }
+
+    /**
+     * Puts a brick in a cell.
+     *
+     * @param row          index of the row
+     * @param column       index of the cell in the row
+     * @param strategyCode the code of the brick's collision strategy, see StrategyCode
+     */
+    public void setBrick(int row, int column, int strategyCode) {
+        cells[row * bricksPerRow + column] = (short) strategyCode;
+    }
+
+    /**
+     * @return the number of bricks in the level
+     */
+    public int countBricks() {
+        int count = 0;
+        for (short cell : cells) {
+            if (cell != EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return a checksum of the layout and strategies, equal for equal levels
+     */
+    public int checksum() {
+        return Arrays.hashCode(cells);
+    }
+}
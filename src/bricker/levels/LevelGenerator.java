@@ -0,0 +1,208 @@
+package bricker.levels;
+
+import bricker.brick_strategies.StrategyCode;
+import bricker.brick_strategies.StrategySampler;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Procedurally generates shaped brick levels from a seed.
+ * The level is cut into regions of a few rows. Every region gets its own random generator, split from the
+ * seed in region order, and its own shape: solid, solid with random gaps, clusters of bricks in empty
+ * space, or solid with special strategies only. Regions are generated in parallel, and since each region
+ * only ever draws from its own generator, the same seed always gives the same level on any number of
+ * cores.
+ */
+public class LevelGenerator {
+
+    private static final int REGION_ROWS = 4;
+    private static final int SHAPE_BOUND = 100;
+    private static final int SOLID_CHANCE = 35;
+    private static final int GAPS_CHANCE = 65;
+    private static final int CLUSTERS_CHANCE = 90;
+    private static final int GAP_PERCENT = 30;
+    private static final int MAX_CLUSTERS = 4;
+    private static final int MIN_CLUSTER_RADIUS = 1;
+    private static final int MAX_CLUSTER_RADIUS = 4;
+    private static final int DEFAULT_BRICKS_PER_ROW = 1000;
+    private static final int DEFAULT_ROWS = 1000;
+    private static final int SEED_ARG = 0;
+    private static final int BRICKS_PER_ROW_ARG = 1;
+    private static final int ROWS_ARG = 2;
+    private static final int RUNS = 3;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * The shape of a single region.
+     */
+    private enum RegionShape {
+        SOLID, GAPS, CLUSTERS, STRATEGY_RICH
+    }
+
+    // private fields
+    private final long seed;
+    private final StrategySampler strategySampler;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed            the seed all levels of this generator are generated from
+     * @param strategySampler samples the strategies of the bricks
+     */
+    public LevelGenerator(long seed, StrategySampler strategySampler) {
+        this.seed = seed;
+        this.strategySampler = strategySampler;
+    }
+
+    /**
+     * Generates a level, using all the available cores.
+     *
+     * @param bricksPerRow the number of cells per single row
+     * @param rows         the number of rows
+     * @return the generated level
+     */
+    public Level generate(int bricksPerRow, int rows) {
+        Level level = new Level(bricksPerRow, rows);
+        int regionCount = (rows + REGION_ROWS - 1) / REGION_ROWS;
+        SplittableRandom[] regionRandoms = new SplittableRandom[regionCount];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int region = 0; region < regionCount; region++) {
+            regionRandoms[region] = root.split();
+        }
+        IntStream.range(0, regionCount).parallel().forEach(region -> generateRegion(level, region,
+                regionRandoms[region]));
+        return level;
+    }
+
+    /**
+     * Fills the rows of a single region.
+     *
+     * @param level  the level to fill
+     * @param region index of the region
+     * @param random the region's own random generator
+     */
+    private void generateRegion(Level level, int region, SplittableRandom random) {
+        int firstRow = region * REGION_ROWS;
+        int lastRow = Math.min(level.getRows(), firstRow + REGION_ROWS);
+        switch (rollShape(random)) {
+            case SOLID:
+                fillRows(level, firstRow, lastRow, random, 0, false);
+                break;
+            case GAPS:
+                fillRows(level, firstRow, lastRow, random, GAP_PERCENT, false);
+                break;
+            case CLUSTERS:
+                fillClusters(level, firstRow, lastRow, random);
+                break;
+            default:
+                fillRows(level, firstRow, lastRow, random, 0, true);
+                break;
+        }
+    }
+
+    /**
+     * @param random the region's random generator
+     * @return the shape of the region
+     */
+    private static RegionShape rollShape(SplittableRandom random) {
+        int chance = random.nextInt(SHAPE_BOUND);
+        if (chance < SOLID_CHANCE) {
+            return RegionShape.SOLID;
+        } else if (chance < GAPS_CHANCE) {
+            return RegionShape.GAPS;
+        } else if (chance < CLUSTERS_CHANCE) {
+            return RegionShape.CLUSTERS;
+        }
+        return RegionShape.STRATEGY_RICH;
+    }
+
+    /**
+     * Fills rows with bricks, leaving random gaps.
+     *
+     * @param level       the level to fill
+     * @param firstRow    the first row to fill
+     * @param lastRow     the row after the last row to fill
+     * @param random      the region's random generator
+     * @param gapPercent  the chance, in percent, of every cell to stay empty
+     * @param specialOnly true to give every brick a special strategy
+     */
+    private void fillRows(Level level, int firstRow, int lastRow, SplittableRandom random,
+                          int gapPercent, boolean specialOnly) {
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int column = 0; column < level.getBricksPerRow(); column++) {
+                if (gapPercent > 0 && random.nextInt(SHAPE_BOUND) < gapPercent) {
+                    continue;
+                }
+                int code = specialOnly ? rollSpecialCode(random) : strategySampler.sample(random);
+                level.setBrick(row, column, code);
+            }
+        }
+    }
+
+    /**
+     * Fills a few round clusters of bricks, leaving the rest of the rows empty.
+     *
+     * @param level    the level to fill
+     * @param firstRow the first row of the region
+     * @param lastRow  the row after the last row of the region
+     * @param random   the region's random generator
+     */
+    private void fillClusters(Level level, int firstRow, int lastRow, SplittableRandom random) {
+        int clusters = 1 + random.nextInt(MAX_CLUSTERS);
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            int centerRow = firstRow + random.nextInt(lastRow - firstRow);
+            int centerColumn = random.nextInt(level.getBricksPerRow());
+            int radius = random.nextInt(MIN_CLUSTER_RADIUS, MAX_CLUSTER_RADIUS + 1);
+            // a cluster is clipped to its region, so regions never touch each other's cells
+            for (int row = Math.max(firstRow, centerRow - radius);
+                 row < Math.min(lastRow, centerRow + radius + 1); row++) {
+                for (int column = Math.max(0, centerColumn - radius);
+                     column < Math.min(level.getBricksPerRow(), centerColumn + radius + 1); column++) {
+                    int rowDistance = row - centerRow;
+                    int columnDistance = column - centerColumn;
+                    if (rowDistance * rowDistance + columnDistance * columnDistance <= radius * radius &&
+                            !level.hasBrick(row, column)) {
+                        level.setBrick(row, column, strategySampler.sample(random));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples strategy codes until one with a special behavior comes up.
+     *
+     * @param random the region's random generator
+     * @return a strategy code with at least one special behavior
+     */
+    private int rollSpecialCode(SplittableRandom random) {
+        int code;
+        do {
+            code = strategySampler.sample(random);
+        } while (code == StrategyCode.BASIC);
+        return code;
+    }
+
+    /**
+     * Generates a large level and prints how long it took and its checksum, which is the same for the
+     * same seed on every run.
+     *
+     * @param args optional: args[0] = seed
+     *             args[1] = bricks per row
+     *             args[2] = number of rows
+     */
+    public static void main(String[] args) {
+        long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : 0;
+        int bricksPerRow = args.length > BRICKS_PER_ROW_ARG ?
+                Integer.parseInt(args[BRICKS_PER_ROW_ARG]) : DEFAULT_BRICKS_PER_ROW;
+        int rows = args.length > ROWS_ARG ? Integer.parseInt(args[ROWS_ARG]) : DEFAULT_ROWS;
+        LevelGenerator generator = new LevelGenerator(seed, StrategySampler.defaults());
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            Level level = generator.generate(bricksPerRow, rows);
+            System.out.printf("%dx%d level: %d bricks in %.1f ms, checksum %08x%n", bricksPerRow, rows,
+                    level.countBricks(), (System.nanoTime() - start) / NANOS_PER_MILLI, level.checksum());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package bricker.main;
+
+/**
+ * Where the bricks of a grid go in the window: a row is split into bricks of equal width between the side
+ * borders with padding between them, and rows are stacked down from the top border. Columns are a whole
+ * number of pixels apart. The windowed and the headless game both lay their bricks out with it.
+ */
+public class BrickLayout {
+
+    /** Left edge of the first brick of every row */
+    public static final int FIRST_BRICK_LEFT = Constants.BORDER_LENGTH + Constants.BRICKS_PADDING_SIZE;
+    /** Top edge of the first row */
+    public static final float FIRST_ROW_TOP = Constants.BORDER_LENGTH + Constants.BRICKS_PADDING_SIZE;
+    /** Distance between the top edges of two adjacent rows */
+    public static final float ROW_STRIDE = Constants.BRICK_HEIGHT + (float) Constants.BRICKS_PADDING_SIZE / 2;
+
+    // private fields
+    private final float brickWidth;
+    private final int columnStride;
+
+    /**
+     * Computes the layout of a number of bricks per row.
+     *
+     * @param windowWidth  the width of the window
+     * @param bricksPerRow the number of bricks per single row
+     */
+    public BrickLayout(float windowWidth, int bricksPerRow) {
+        float windowWidthWithoutBorders = windowWidth -
+                (2 * Constants.BORDER_LENGTH) - (2 * Constants.BRICKS_PADDING_SIZE);
+        this.brickWidth = (windowWidthWithoutBorders / bricksPerRow) - Constants.BRICKS_PADDING_SIZE +
+                (float) Constants.BRICKS_PADDING_SIZE / bricksPerRow;
+        this.columnStride = (int) (brickWidth + Constants.BRICKS_PADDING_SIZE);
+    }
+
+    /**
+     * @return the width of a brick
+     */
+    public float getBrickWidth() {
+        return brickWidth;
+    }
+
+    /**
+     * @return the distance between the left edges of two adjacent bricks of a row, in whole pixels
+     */
+    public int getColumnStride() {
+        return columnStride;
+    }
+
+    /**
+     * @param column index of a column
+     * @return the left edge of the bricks of the column
+     */
+    public float getBrickLeft(int column) {
+        return FIRST_BRICK_LEFT + column * columnStride;
+    }
+
+    /**
+     * @param row index of a row
+     * @return the top edge of the bricks of the row
+     */
+    public float getRowTop(int row) {
+        return FIRST_ROW_TOP + row * ROW_STRIDE;
+    }
+}
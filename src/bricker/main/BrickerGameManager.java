@@ -1,21 +1,48 @@
 package bricker.main;
 
+import bricker.agent.AgentChannel;
+import bricker.assets.AssetPack;
+import bricker.assets.ImageSource;
+import bricker.assets.SoundSource;
+import bricker.assets.TextureAtlas;
 import bricker.brick_strategies.*;
+import bricker.endless.BrickChunkStore;
+import bricker.endless.EndlessBrickField;
 import bricker.gameobjects.*;
+import bricker.levels.Campaign;
+import bricker.levels.Level;
+import bricker.levels.LevelGenerator;
+import bricker.particles.ParticleSystem;
+import bricker.telemetry.DespawnEvent;
+import bricker.telemetry.FrameCounters;
+import bricker.telemetry.FramePhasesEvent;
+import bricker.telemetry.FrameRecorder;
+import bricker.telemetry.GameResetEvent;
+import bricker.telemetry.LivesChangedEvent;
+import bricker.telemetry.MemoryAccounting;
+import bricker.telemetry.MemoryReport;
+import bricker.telemetry.PerformanceOverlay;
+import bricker.telemetry.TelemetryStream;
+import bricker.telemetry.TurboEvent;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
 import danogl.gui.*;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
-import danogl.gui.rendering.TextRenderable;
 import danogl.util.Counter;
 import danogl.util.Vector2;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 
 import static danogl.collisions.Layer.*;
@@ -32,76 +59,133 @@ public class BrickerGameManager extends GameManager {
     private static final int VALID_ARG_COUNT = 2;
     private static final int FIRST_ARG = 0;
     private static final int SECOND_ARG = 1;
-
-    // Border creation constants
-    private static final String BORDER_TAG = "Border";
+    private static final String ENDLESS_ARG = "endless";
+    private static final String LEVEL_ARG = "level";
+    private static final int LEVEL_SEED_ARG = 1;
+    private static final int LEVEL_BRICKS_PER_ROW_ARG = 2;
+    private static final int LEVEL_ROWS_ARG = 3;
+    private static final int LEVEL_WITH_GRID_ARG_COUNT = 4;
+    private static final String CAMPAIGN_ARG = "campaign";
+    private static final int CAMPAIGN_SEED_ARG = 1;
+    private static final int CAMPAIGN_LEVELS_ARG = 2;
+    private static final int CAMPAIGN_BRICKS_PER_ROW_ARG = 3;
+    private static final int CAMPAIGN_ROWS_ARG = 4;
+    private static final int CAMPAIGN_WITH_GRID_ARG_COUNT = 5;
+    private static final int DEFAULT_CAMPAIGN_LEVELS = 5;
 
     // Ball constants
     private static final float BALL_POSITION_MULT_FROM_WINDOW_DIMENSIONS = 0.5f;
-    private static final int MAX_TURBO_BALL_HITS = 6;
-
-    // Paddle Constants
-    private static final int PADDLE_POSITION_OFFSET = 30;
 
     // Bricks creation constants
-    private static final int DEFAULT_BRICKS_NUMBER_PER_ROW = 8;
-    private static final int DEFAULT_NUMBER_OF_BRICK_ROWS = 7;
-    private static final int BRICK_HEIGHT = 15;
-    private static final int BRICKS_PADDING_SIZE = 15;
-    private static final String BRICK_TAG = "Brick";
     private static final int R_VAL_FOR_BROWN = 78;
     private static final int G_VAL_FOR_BROWN = 55;
     private static final int B_VAL_FOR_BROWN = 8;
 
-    // Numeric life constants
-    private static final int NUMERIC_Y_POSITION_OFFSET = 21;
-    private static final int NUMERIC_LIVES_SIZE = 15;
-    private static final int NUMERIC_LIVES_X_POSITION = 10;
-    private static final int ONE_LIFE_LEFT = 1;
-    private static final int ZERO_LIFE_LEFT = 0;
-    private static final int TWO_LIVES_LEFT = 2;
-
-    // Graphical life constants
-    private static final int HEART_Y_POSITION_OFFSET = 22;
-    private static final int HEART_PADDING = 7;
-    private static final int MAX_HEARTS_AMOUNT = 4;
-
-    // Default number of lives
-    private static final int DEFAULT_LIVES_AMOUNT = 3;
+    // Endless mode constants
+    private static final float ENDLESS_SCROLL_SPEED = 6;
+    private static final int ENDLESS_RESIDENT_CHUNKS = 4;
+    private static final String ENDLESS_PAGE_FILE_PREFIX = "bricker-endless";
+    private static final String ENDLESS_PAGE_FILE_SUFFIX = ".chunks";
 
-    // User messages constants
-    private static final String WIN_PROMPT = "You win!";
-    private static final String LOSE_PROMPT = "You lose!";
-    private static final String ASK_IF_PLAY_AGAIN = " Play again?";
+    // User keys constants
+    private static final int INSTANT_WIN_KEY = KeyEvent.VK_W;
 
     // Images paths
     private static final String BACKGROUND_IMAGE_PATH = "assets/DARK_BG2_small.jpeg";
-    private static final String BALL_IMAGE_PATH = "assets/ball.png";
     private static final String BRICK_IMAGE_PATH = "assets/brick.png";
+    private static final String[] SPRITE_IMAGE_PATHS = {Constants.BALL_IMAGE_PATH, BRICK_IMAGE_PATH,
+            Constants.PADDLE_IMAGE_PATH, Constants.HEART_IMAGE_PATH, Constants.MOCK_BALL_IMAGE_PATH,
+            Constants.RED_BALL_IMAGE_PATH};
+
+    // Asset pack, can be replaced (e.g. by an alternate skin) through a system property
+    private static final String ASSET_PACK_PROPERTY = "bricker.assetPack";
+    private static final String DEFAULT_ASSET_PACK_PATH = "assets/bricker.pack";
+
+    // Brick strategy weights, can be rebalanced through a weight table file
+    private static final String STRATEGY_WEIGHTS_PROPERTY = "bricker.strategyWeights";
+    private static final String DEFAULT_STRATEGY_WEIGHTS_PATH = "assets/strategy_weights.properties";
+
+    // Telemetry is only streamed when a port is given through a system property
+    private static final String TELEMETRY_PORT_PROPERTY = "bricker.telemetryPort";
 
-    // frame rate
+    // The memory report is only printed at the end of every game when asked for through a system property
+    private static final String MEMORY_REPORT_PROPERTY = "bricker.memoryReport";
+
+    // An external agent only drives the paddle when a channel file is given through a system property
+    private static final String AGENT_CHANNEL_PROPERTY = "bricker.agentChannel";
+    private static final int AGENT_CHANNEL_SLOTS = 8;
+    private static final int BRICKS_PER_ALIVE_WORD = Long.SIZE;
+
+    // The last seconds of frames are dumped to a file whenever a frame goes over budget, into the temporary
+    // directory unless another is given, keeping only the newest files
+    private static final String FRAME_BUDGET_PROPERTY = "bricker.frameBudgetMillis";
+    private static final int DEFAULT_FRAME_BUDGET_MILLIS = 50;
+    private static final String SPIKE_SECONDS_PROPERTY = "bricker.spikeSeconds";
+    private static final int DEFAULT_SPIKE_SECONDS = 5;
+    private static final String SPIKE_DIRECTORY_PROPERTY = "bricker.spikeDirectory";
+    private static final String TEMP_DIRECTORY_PROPERTY = "java.io.tmpdir";
+    private static final String SPIKE_FILES_PROPERTY = "bricker.spikeFiles";
+    private static final int DEFAULT_SPIKE_FILES = 10;
+
+    // Performance overlay, shown and hidden by a key
+    private static final int OVERLAY_KEY = KeyEvent.VK_F3;
+
+    // Brick destruction effects, with a hard cap on the particles alive at the same time
+    private static final int MAX_PARTICLES = 4096;
+
+    // frame rate, paced by a fixed target, uncapped or adaptive, as given through a system property
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
     private static final int TARGET_FRAMERATE = 60;
+    private static final String FRAME_PACING_PROPERTY = "bricker.framePacing";
+    private static final String PACING_REPORT_PROPERTY = "bricker.pacingReport";
 
     // private fields for the game creation
     private final int numberOfBricksPerRow;
     private final int numberOfBrickRows;
+    private final boolean endlessMode;
+    private final Campaign campaign;
+    private Level level;
     private Vector2 windowDimension;
     private WindowController windowController;
     private UserInputListener inputListener;
     private final Counter bricksCount;
-    private SoundReader soundReader;
-    private ImageReader imageReader;
+    private SoundSource soundSource;
+    private TextureAtlas textureAtlas;
+    private CollisionStrategyFactory strategyFactory;
+    private StrategySampler strategySampler;
+    private Brick[] bricks;
+    private EndlessBrickField endlessBrickField;
+    private ParticleSystem particleSystem;
+
+    // telemetry fields
+    private final FrameCounters frameCounters = new FrameCounters();
+    private final MemoryAccounting memoryAccounting = new MemoryAccounting();
+    private final PerformanceOverlay performanceOverlay = new PerformanceOverlay(frameCounters);
+    private final FrameRecorder frameRecorder = new FrameRecorder(
+            Integer.getInteger(FRAME_BUDGET_PROPERTY, DEFAULT_FRAME_BUDGET_MILLIS),
+            Integer.getInteger(SPIKE_SECONDS_PROPERTY, DEFAULT_SPIKE_SECONDS),
+            Paths.get(System.getProperty(SPIKE_DIRECTORY_PROPERTY,
+                    System.getProperty(TEMP_DIRECTORY_PROPERTY))),
+            Integer.getInteger(SPIKE_FILES_PROPERTY, DEFAULT_SPIKE_FILES));
+    private final int[] entitiesByKind = new int[EntityKind.COUNT];
+    private boolean overlayKeyDown = false;
+    private TelemetryStream telemetryStream;
+    private long frameNumber = 0;
+    private final FramePacer framePacer = loadFramePacer();
+
+    // agent fields
+    private AgentChannel agentChannel;
+    private PaddleController paddleController;
 
     // ball behavior fields
     private Paddle originalPaddle;
     private Ball ball;
-    private int turboBallHits = 0;
 
-    // lives handling fields
-    private int currLivesAmount = 0;
-    private final List<Heart> heartList = new ArrayList<>();
-    private TextRenderable numericLivesAmount;
-    private int nextHeartXPosition = NUMERIC_LIVES_SIZE + HEART_PADDING;
+    // lives, snapshots and end of game fields
+    private final LivesDisplay lives = new LivesDisplay(frameCounters);
+    private final SnapshotManager snapshots;
+    private final EndOfGameFlow endOfGameFlow = new EndOfGameFlow(this::resetGameInPlace);
+    private boolean instantWinKeyDown = false;
 
 
     /**
@@ -114,10 +198,71 @@ public class BrickerGameManager extends GameManager {
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions,
                               int numberOfBricksPerRow, int numberOfBrickRows) {
+        this(windowTitle, windowDimensions, numberOfBricksPerRow, numberOfBrickRows, false);
+    }
+
+    /**
+     * Constructor for Bricker game, in the regular or the endless mode. In the endless mode the bricks
+     * keep scrolling down and new rows keep coming, so the game can not be won.
+     *
+     * @param windowTitle          the title for the game window
+     * @param windowDimensions     the dimensions of the game window
+     * @param numberOfBricksPerRow the number of bricks per single row
+     * @param numberOfBrickRows    the number of brick rows, in the endless mode the rows at the start
+     * @param endlessMode          true for the endless mode
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions,
+                              int numberOfBricksPerRow, int numberOfBrickRows, boolean endlessMode) {
         super(windowTitle, windowDimensions);
         this.numberOfBricksPerRow = numberOfBricksPerRow;
         this.numberOfBrickRows = numberOfBrickRows;
+        this.endlessMode = endlessMode;
+        this.campaign = null;
+        this.level = null;
         this.bricksCount = new Counter(0); // initialize bricks count to 0
+        this.snapshots = new SnapshotManager(numberOfBricksPerRow, numberOfBrickRows, endlessMode, bricksCount,
+                lives, frameCounters);
+    }
+
+    /**
+     * Constructor for Bricker game over a generated level. The bricks are laid out as in the level,
+     * and keep their layout and strategies when the game is restarted.
+     *
+     * @param windowTitle      the title for the game window
+     * @param windowDimensions the dimensions of the game window
+     * @param level            the level to play
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, Level level) {
+        super(windowTitle, windowDimensions);
+        this.numberOfBricksPerRow = level.getBricksPerRow();
+        this.numberOfBrickRows = level.getRows();
+        this.endlessMode = false;
+        this.campaign = null;
+        this.level = level;
+        this.bricksCount = new Counter(0); // initialize bricks count to 0
+        this.snapshots = new SnapshotManager(numberOfBricksPerRow, numberOfBrickRows, endlessMode, bricksCount,
+                lives, frameCounters);
+    }
+
+    /**
+     * Constructor for Bricker game over a campaign of generated levels. Clearing a level moves on to the
+     * next one in place, keeping the lives, and the campaign starts again from its first level when the
+     * game is restarted.
+     *
+     * @param windowTitle      the title for the game window
+     * @param windowDimensions the dimensions of the game window
+     * @param campaign         the campaign to play, whose levels all share the same brick grid
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, Campaign campaign) {
+        super(windowTitle, windowDimensions);
+        this.level = campaign.getFirstLevel();
+        this.numberOfBricksPerRow = level.getBricksPerRow();
+        this.numberOfBrickRows = level.getRows();
+        this.endlessMode = false;
+        this.campaign = campaign;
+        this.bricksCount = new Counter(0); // initialize bricks count to 0
+        this.snapshots = new SnapshotManager(numberOfBricksPerRow, numberOfBrickRows, endlessMode, bricksCount,
+                lives, frameCounters);
     }
 
     /**
@@ -128,9 +273,14 @@ public class BrickerGameManager extends GameManager {
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions) {
         super(windowTitle, windowDimensions);
-        this.numberOfBricksPerRow = DEFAULT_BRICKS_NUMBER_PER_ROW;
-        this.numberOfBrickRows = DEFAULT_NUMBER_OF_BRICK_ROWS;
+        this.numberOfBricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+        this.numberOfBrickRows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+        this.endlessMode = false;
+        this.campaign = null;
+        this.level = null;
         this.bricksCount = new Counter(0); // initialize bricks count to 0
+        this.snapshots = new SnapshotManager(numberOfBricksPerRow, numberOfBrickRows, endlessMode, bricksCount,
+                lives, frameCounters);
 
     }
 
@@ -153,18 +303,209 @@ public class BrickerGameManager extends GameManager {
                                SoundReader soundReader,
                                UserInputListener inputListener,
                                WindowController windowController) {
+        GameResetEvent resetEvent = new GameResetEvent();
+        resetEvent.begin();
         this.windowController = windowController;
         this.inputListener = inputListener;
-        this.soundReader = soundReader;
-        this.imageReader = imageReader;
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
 
         windowDimension = windowController.getWindowDimensions(); // get window dimensions
+        if (textureAtlas == null) {
+            // the assets outlive resets, so images are only read and packed once
+            loadAssets(soundReader);
+        }
+        if (strategySampler == null) {
+            this.strategySampler = loadStrategySampler();
+            openTelemetryStream();
+            openAgentChannel();
+        }
+        this.paddleController = agentChannel != null ? agentChannel :
+                new KeyboardPaddleController(inputListener);
         createGameObjects();
-        this.turboBallHits = 0;
-        this.currLivesAmount = 0;
         // add hearts to the screen (numeric and graphic)
         handleLivesSetting();
+        endOfGameFlow.attach(gameObjects(), windowController, inputListener);
+        snapshots.attach(gameObjects(), inputListener, textureAtlas, soundSource, paddleController, ball,
+                originalPaddle, strategyFactory, bricks);
+        memoryAccounting.resetAllocations();
+        commitResetEvent(resetEvent, false);
+    }
+
+    /**
+     * Starts a new game in the running game, keeping its objects and assets. Only the alive state and
+     * strategies of the bricks, the balls, the paddles and the lives are set again, through the snapshot
+     * restore. The endless mode has no fixed brick grid, so it is initialized again instead. A campaign
+     * starts again from its first level.
+     */
+    void resetGameInPlace() {
+        if (endlessMode) {
+            windowController.resetGame();
+            return;
+        }
+        if (campaign != null) {
+            level = campaign.restart();
+        }
+        startInPlace(Constants.DEFAULT_LIVES_AMOUNT);
+    }
+
+    /**
+     * Drops the loaded assets, so the next initialization of the game reads and packs the images again as
+     * the first one did.
+     */
+    void dropAssets() {
+        textureAtlas = null;
+    }
+
+    /**
+     * Moves on to the next level of the campaign in place, keeping the lives. The level was preloaded while
+     * the cleared one was played, so only the bricks that differ between the levels are touched.
+     */
+    private void startNextLevel() {
+        level = campaign.nextLevel();
+        startInPlace(lives.getLives());
+    }
+
+    /**
+     * Lays out the bricks of the current level, or new random strategies without a level, and puts the
+     * balls and paddles back at the start, through the snapshot restore.
+     *
+     * @param livesAmount the lives to start with
+     */
+    private void startInPlace(int livesAmount) {
+        GameResetEvent resetEvent = new GameResetEvent();
+        resetEvent.begin();
+        particleSystem.clear();
+        setBallToCenter();
+        setBallSpeed();
+        snapshots.startNewGame(level, livesAmount, new Vector2(windowDimension.x() / 2,
+                (int) windowDimension.y() - Constants.PADDLE_POSITION_OFFSET));
+        memoryAccounting.resetAllocations();
+        commitResetEvent(resetEvent, true);
+    }
+
+    /**
+     * Records the start of a new game if the reset event is enabled.
+     *
+     * @param resetEvent the event, begun when the reset started
+     * @param inPlace    true if the running game was reset in place, false if the game was initialized
+     */
+    private void commitResetEvent(GameResetEvent resetEvent, boolean inPlace) {
+        resetEvent.end();
+        if (resetEvent.shouldCommit()) {
+            resetEvent.inPlace = inPlace;
+            resetEvent.bricks = bricksCount.value();
+            resetEvent.commit();
+        }
+    }
+
+    /**
+     * Loads the game assets from the asset pack if there is one, or from loose files otherwise,
+     * and packs the background and all sprites of the game into a single texture atlas. The loose files
+     * are used if the pack or one of its images can not be read.
+     *
+     * @param soundReader the reader used for loose sound files
+     */
+    private void loadAssets(SoundReader soundReader) {
+        Path assetPackPath = Paths.get(System.getProperty(ASSET_PACK_PROPERTY, DEFAULT_ASSET_PACK_PATH));
+        if (Files.isRegularFile(assetPackPath)) {
+            try {
+                AssetPack assetPack = new AssetPack(assetPackPath, soundReader);
+                this.textureAtlas = packGameImages(assetPack);
+                this.soundSource = assetPack;
+                return;
+            } catch (UncheckedIOException | IllegalStateException | IllegalArgumentException e) {
+                System.err.println("Using the loose asset files, can not read asset pack " + assetPackPath +
+                        ": " + e.getMessage());
+            }
+        }
+        this.textureAtlas = packGameImages(TextureAtlas::readImageFile);
+        this.soundSource = soundReader::readSound;
+    }
+
+    /**
+     * Packs the background and all sprites of the game into a single texture atlas.
+     *
+     * @param imageSource the source of the images
+     * @return the texture atlas
+     */
+    private static TextureAtlas packGameImages(ImageSource imageSource) {
+        Map<String, Boolean> imagePaths = new LinkedHashMap<>();
+        imagePaths.put(BACKGROUND_IMAGE_PATH, false);
+        for (String spriteImagePath : SPRITE_IMAGE_PATHS) {
+            imagePaths.put(spriteImagePath, true);
+        }
+        return TextureAtlas.packImages(imagePaths, imageSource);
+    }
+
+    /**
+     * Loads the weight table of brick strategies if there is one. The default mix is used if there is no
+     * table or it can not be loaded.
+     *
+     * @return the sampler of brick strategies
+     */
+    private static StrategySampler loadStrategySampler() {
+        Path weightsPath = Paths.get(System.getProperty(STRATEGY_WEIGHTS_PROPERTY,
+                DEFAULT_STRATEGY_WEIGHTS_PATH));
+        if (!Files.isRegularFile(weightsPath)) {
+            return StrategySampler.defaults();
+        }
+        try {
+            return StrategySampler.load(weightsPath);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Using the default strategy weights, can not load " + weightsPath + ": " +
+                    e.getMessage());
+            return StrategySampler.defaults();
+        }
+    }
+
+    /**
+     * Starts streaming telemetry if a telemetry port was given. The game runs without telemetry if the
+     * port can not be parsed or bound.
+     */
+    private void openTelemetryStream() {
+        String port = System.getProperty(TELEMETRY_PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        try {
+            telemetryStream = new TelemetryStream(Integer.parseInt(port));
+        } catch (NumberFormatException e) {
+            System.err.println("Telemetry disabled, can not parse port " + port);
+        } catch (IOException e) {
+            System.err.println("Telemetry disabled, can not listen on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the telemetry and closes the channel of the external agent, if they were opened.
+     */
+    private void closeExternalConnections() {
+        if (telemetryStream != null) {
+            telemetryStream.close();
+            telemetryStream = null;
+        }
+        if (agentChannel != null) {
+            agentChannel.close();
+            agentChannel = null;
+        }
+    }
+
+    /**
+     * Opens the channel of an external agent if a channel file was given, handing the paddle to the agent.
+     * The paddle is played from the keyboard if the file can not be opened.
+     */
+    private void openAgentChannel() {
+        String path = System.getProperty(AGENT_CHANNEL_PROPERTY);
+        if (path == null) {
+            return;
+        }
+        int aliveWordCount = endlessMode ? 0 : (numberOfBricksPerRow * numberOfBrickRows +
+                BRICKS_PER_ALIVE_WORD - 1) / BRICKS_PER_ALIVE_WORD;
+        try {
+            agentChannel = new AgentChannel(Paths.get(path), AGENT_CHANNEL_SLOTS, aliveWordCount);
+        } catch (IOException e) {
+            System.err.println("Agent disabled, can not open channel " + path + ": " + e.getMessage());
+        }
     }
 
     /**
@@ -175,6 +516,7 @@ public class BrickerGameManager extends GameManager {
         createBorders(); // add borders
         createBall(); // create ball
         createPaddle(); // create paddles
+        createParticleSystem(); // create the brick destruction effects
         createBricks(); // create brick
     }
 
@@ -182,14 +524,21 @@ public class BrickerGameManager extends GameManager {
      * Handles the lives setting at the start of a new game, setting up numeric and graphic life count.
      */
     private void handleLivesSetting() {
-        numericLivesAmount = new TextRenderable(Integer.toString(0));
-        nextHeartXPosition = NUMERIC_LIVES_X_POSITION +
-                NUMERIC_LIVES_SIZE + HEART_PADDING;
-        resetHeartListToDefault();
-        GameObject livesCount = new GameObject(new Vector2(NUMERIC_LIVES_X_POSITION,
-                windowDimension.y() - NUMERIC_Y_POSITION_OFFSET),
-                new Vector2(NUMERIC_LIVES_SIZE, NUMERIC_LIVES_SIZE), numericLivesAmount);
-        this.gameObjects().addGameObject(livesCount, UI); // Add numeric lives count to UI layer
+        GameObject livesCount = lives.attach(gameObjects(), textureAtlas, windowDimension);
+        // the overlay is stacked above the numeric lives count
+        performanceOverlay.attach(gameObjects(), livesCount.getTopLeftCorner());
+    }
+
+    /**
+     * Runs the game until its window is closed, then stops the telemetry and the external agent.
+     */
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            closeExternalConnections();
+        }
     }
 
     /**
@@ -204,12 +553,121 @@ public class BrickerGameManager extends GameManager {
      */
     @Override
     public void update(float deltaTime) {
-        windowController.setTargetFramerate(TARGET_FRAMERATE);
+        framePacer.applyTo(windowController);
+        frameRecorder.beginFrame(frameNumber, deltaTime);
+        if (endOfGameFlow.isGameEnded()) {
+            // the game stays frozen behind the end screen, but keeps running
+            endOfGameFlow.checkEndScreenKeys();
+        } else if (snapshots.isRewinding()) {
+            snapshots.rewindStep(deltaTime); // the game runs backwards while the rewind key is held
+        } else {
+            snapshots.recordRewindFrame(deltaTime);
+            updateGame(deltaTime);
+        }
+        checkOverlayKey(); // handles showing and hiding the performance overlay
+        if (telemetryStream != null) {
+            telemetryStream.publishFrame(frameNumber, deltaTime, gameObjects(), frameCounters);
+        }
+        if (agentChannel != null) {
+            publishAgentFrame();
+        }
+        frameNumber++;
+        framePacer.recordFrame(deltaTime);
+        performanceOverlay.recordFrame(deltaTime, framePacer.getDeadlineSeconds(), framePacer.getDescription());
+        memoryAccounting.recordFrame();
+        recordFrameState();
+        frameCounters.reset();
+    }
+
+    /**
+     * Plays a frame of the game: moves and collides the objects, and checks for the end of the game, lost
+     * objects, the ball state, collected hearts and the snapshot keys.
+     *
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    private void updateGame(float deltaTime) {
+        if (endlessBrickField != null) {
+            endlessBrickField.update(deltaTime); // scroll the bricks before they collide
+        }
+        FramePhasesEvent phasesEvent = new FramePhasesEvent();
+        phasesEvent.begin();
+        long updateStart = System.nanoTime();
         super.update(deltaTime);
+        long gameEndCheckStart = System.nanoTime();
         checkForGameEnd(); // check if the game ended with every update
+        long outOfScreenCheckStart = System.nanoTime();
         checkForOutOfScreenObject(); // check if any object fell out of the screen;
+        long ballStateCheckStart = System.nanoTime();
         checkBallState(); // handles special ball conditions
+        long fallingHeartsCheckStart = System.nanoTime();
         checkFallingHearts(); // handles collecting falling hearts
+        long fallingHeartsCheckEnd = System.nanoTime();
+        phasesEvent.end();
+        if (phasesEvent.shouldCommit()) {
+            phasesEvent.frame = frameNumber;
+            phasesEvent.objectsUpdate = gameEndCheckStart - updateStart;
+            phasesEvent.gameEndCheck = outOfScreenCheckStart - gameEndCheckStart;
+            phasesEvent.outOfScreenCheck = ballStateCheckStart - outOfScreenCheckStart;
+            phasesEvent.ballStateCheck = fallingHeartsCheckStart - ballStateCheckStart;
+            phasesEvent.fallingHeartsCheck = fallingHeartsCheckEnd - fallingHeartsCheckStart;
+            phasesEvent.deltaTime = (long) (deltaTime * NANOS_PER_SECOND);
+            phasesEvent.commit();
+        }
+        frameRecorder.put(FrameRecorder.OBJECTS_UPDATE, gameEndCheckStart - updateStart);
+        frameRecorder.put(FrameRecorder.GAME_END_CHECK, outOfScreenCheckStart - gameEndCheckStart);
+        frameRecorder.put(FrameRecorder.OUT_OF_SCREEN_CHECK, ballStateCheckStart - outOfScreenCheckStart);
+        frameRecorder.put(FrameRecorder.BALL_STATE_CHECK, fallingHeartsCheckStart - ballStateCheckStart);
+        frameRecorder.put(FrameRecorder.FALLING_HEARTS_CHECK, fallingHeartsCheckEnd - fallingHeartsCheckStart);
+        snapshots.checkSnapshotKeys(); // handles quick save and restore
+    }
+
+    /**
+     * Completes the flight record of the frame with the entity counts, lives, allocated bytes and paddle
+     * input, and the counters of the frame.
+     */
+    private void recordFrameState() {
+        frameRecorder.put(FrameRecorder.BRICKS, bricksCount.value());
+        frameRecorder.put(FrameRecorder.BALLS,
+                entitiesByKind[EntityKind.MAIN_BALL] + entitiesByKind[EntityKind.PUCK_BALL]);
+        frameRecorder.put(FrameRecorder.FALLING_HEARTS, entitiesByKind[EntityKind.FALLING_HEART]);
+        frameRecorder.put(FrameRecorder.MOCK_PADDLES, entitiesByKind[EntityKind.MOCK_PADDLE]);
+        frameRecorder.put(FrameRecorder.LIVES, lives.getLives());
+        frameRecorder.put(FrameRecorder.ALLOCATED_BYTES, memoryAccounting.getLastFrameBytes());
+        frameRecorder.put(FrameRecorder.PADDLE_DIRECTION, paddleController.getDirection());
+        frameRecorder.endFrame(frameCounters);
+    }
+
+    /**
+     * Accounts for the memory of the running game: the live count and estimated retained bytes of every
+     * kind of entity, and the bytes allocated per frame since the game started. Walks all the game objects,
+     * so it is meant for occasional queries.
+     *
+     * @return the memory report
+     */
+    public MemoryReport takeMemoryReport() {
+        return memoryAccounting.takeReport(gameObjects());
+    }
+
+    /**
+     * Publishes the state of the current frame to the external agent.
+     */
+    private void publishAgentFrame() {
+        int slot = agentChannel.beginFrame(frameNumber);
+        Vector2 ballCenter = ball.getCenter();
+        Vector2 ballVelocity = ball.getVelocity();
+        agentChannel.putState(slot, ballCenter.x(), ballCenter.y(), ballVelocity.x(), ballVelocity.y(),
+                originalPaddle.getTopLeftCorner().x(), lives.getLives(), bricksCount.value());
+        for (int word = 0; word < agentChannel.getAliveWordCount(); word++) {
+            long aliveBits = 0;
+            int end = Math.min(bricks.length, (word + 1) * BRICKS_PER_ALIVE_WORD);
+            for (int index = word * BRICKS_PER_ALIVE_WORD; index < end; index++) {
+                if (bricks[index] != null && !bricks[index].isDestroyed()) {
+                    aliveBits |= 1L << index;
+                }
+            }
+            agentChannel.putAliveWord(slot, word, aliveBits);
+        }
+        agentChannel.endFrame(slot, frameNumber);
     }
 
     /**
@@ -217,7 +675,7 @@ public class BrickerGameManager extends GameManager {
      */
     private void checkFallingHearts() {
         for (GameObject gameObject : this.gameObjects().objectsInLayer(DEFAULT)) {
-            if (gameObject.getTag().equals(Constants.FALLING_HEART_TAG)) {
+            if (EntityKind.has(gameObject, EntityKind.COLLECTABLE)) {
                 float heartXPosition = gameObject.getCenter().x();
                 float heartYPosition = gameObject.getCenter().y();
 
@@ -232,8 +690,13 @@ public class BrickerGameManager extends GameManager {
 
                 if (xOverlap && yOverlap) {
                     // Heart and paddle overlap; add a life and remove the heart
-                    addSingleLife();
+                    int livesBefore = lives.getLives();
+                    lives.addSingleLife();
                     gameObjects().removeGameObject(gameObject);
+                    DespawnEvent.emit(EntityKind.nameOf(EntityKind.FALLING_HEART), DespawnEvent.COLLECTED);
+                    if (lives.getLives() != livesBefore) {
+                        LivesChangedEvent.emit(lives.getLives() - livesBefore, lives.getLives());
+                    }
                     break; // Exit loop after handling collision
                 }
             }
@@ -245,85 +708,148 @@ public class BrickerGameManager extends GameManager {
      * turbo mode and for how long
      */
     private void checkBallState() {
-        if (this.ball.getTag().equals(Constants.TURBO_BALL_TAG) && turboBallHits == 0) {
-            this.turboBallHits = (this.ball).getCollisionCounter() + MAX_TURBO_BALL_HITS;
+        if (this.ball.isTurbo() && ball.getTurboBallHits() == 0) {
+            this.ball.setTurboBallHits((this.ball).getCollisionCounter() + Constants.MAX_TURBO_BALL_HITS);
+            TurboEvent.emit(true, ball.getTurboBallHits());
             return;
         }
-        if (turboBallHits == (this.ball).getCollisionCounter() &&
+        if (ball.getTurboBallHits() == (this.ball).getCollisionCounter() &&
                 (this.ball).getCollisionCounter() != 0) {
-            turboBallHits = 0; //reset turbo ball hits counter
-            this.ball.setTag(Constants.MAIN_BALL_TAG);
+            TurboEvent.emit(false, ball.getTurboBallHits());
+            ball.setTurboBallHits(0); //reset turbo ball hits counter
+            this.ball.setTurbo(false);
             // we need to get its original sign of velocity and divide by the multiplier we added
             Vector2 turboVelocity = this.ball.getVelocity();
             this.ball.setVelocity(new Vector2(turboVelocity.x() / Constants.SPEED_MULTIPLIER,
                     turboVelocity.y() / Constants.SPEED_MULTIPLIER));
-            Renderable ballImage = imageReader.readImage(BALL_IMAGE_PATH, true); // load photo
-            this.ball.renderer().setRenderable(ballImage);
+            this.ball.renderer().setRenderable(textureAtlas.getRenderable(Constants.BALL_IMAGE_PATH));
         }
     }
 
     /**
-     * Checks for objects that are out of the window and removes them from game list.
+     * Checks for objects that are out of the window and removes them from game list. Counts the objects
+     * that stay in the game by kind, for the frame recorder.
      */
     private void checkForOutOfScreenObject() {
+        Arrays.fill(entitiesByKind, 0);
         for (GameObject gameObject : this.gameObjects().objectsInLayer(DEFAULT)) {
+            int kind = EntityKind.kindOf(gameObject);
             if (gameObject.getCenter().y() > windowDimension.y()) {
                 this.gameObjects().removeGameObject(gameObject);
+                DespawnEvent.emit(EntityKind.nameOf(kind), DespawnEvent.OUT_OF_SCREEN);
+            } else {
+                entitiesByKind[kind]++;
             }
         }
     }
 
     /**
      * Check if no lives are left or if no bricks are left.
-     * Asks the user if he wants to play another game in case game has ended.
+     * Ends the game in case game has ended, as the end of game policy sets.
      */
     private void checkForGameEnd() {
         double ballHeight = ball.getCenter().y();
-        String prompt = "";
+        boolean won = false;
+        boolean lost = false;
         // Check if there's a win state
-        if (bricksCount.value() == 0 || inputListener.isKeyPressed(KeyEvent.VK_W)) {
+        if ((bricksCount.value() == 0 && !endlessMode) || checkInstantWinKey()) {
+            if (campaign != null && campaign.hasNextLevel()) {
+                // the level is cleared, the campaign goes on
+                startNextLevel();
+                return;
+            }
             // no bricks left OR user pressed W, we won
-            prompt = WIN_PROMPT;
+            won = true;
         }
         // Check if there's a loss state
         if (ballHeight > windowDimension.y()) {
             // remove single heart
-            boolean moreLives = removeSingleLife();
-            updateNumericLivesCount();
+            boolean moreLives = lives.removeSingleLife();
+            LivesChangedEvent.emit(-1, lives.getLives());
             setBallToCenter();
             // we lost - no more lives left
-            if (!moreLives) {
-                prompt = LOSE_PROMPT;
-            }
+            lost = !moreLives;
+        }
+        if (won || lost) {
+            endGame(!lost);
         }
-        // check if a game ending message was received
-        checkIfPlayAgain(prompt);
     }
 
     /**
-     * This method checks if windowController should play another game based on
-     * if it received a prompt indicating at a win or a loss
+     * Checks if the instant win key was pressed. Holding the key down only wins once, so a key held
+     * through the end of a game does not win the next game too.
      *
-     * @param prompt win/loss prompt will ask user for play a game, empty string will not
-     */
-    private void checkIfPlayAgain(String prompt) {
-        if (!prompt.isEmpty()) {
-            prompt += ASK_IF_PLAY_AGAIN;
-            if (windowController.openYesNoDialog(prompt)) {
-                // play again
-                windowController.resetGame();
-            } else {
-                // the user pressed "No"
-                windowController.closeWindow();
+     * @return true if the key was pressed since the last frame
+     */
+    private boolean checkInstantWinKey() {
+        boolean instantWinPressed = inputListener.isKeyPressed(INSTANT_WIN_KEY);
+        boolean pressedNow = instantWinPressed && !instantWinKeyDown;
+        instantWinKeyDown = instantWinPressed;
+        return pressedNow;
+    }
+
+    /**
+     * Prints the reports of the game that ended if they were asked for, and ends it with a win or a loss
+     * as the end of game flow sets.
+     *
+     * @param won true if the game was won, false if it was lost
+     */
+    private void endGame(boolean won) {
+        if (Boolean.getBoolean(MEMORY_REPORT_PROPERTY)) {
+            System.out.print(takeMemoryReport());
+        }
+        if (Boolean.getBoolean(PACING_REPORT_PROPERTY)) {
+            System.out.println(framePacer.takeGameReport());
+        }
+        endOfGameFlow.endGame(won);
+    }
+
+    /**
+     * Reads how the frame rate is paced: a target frame rate, "uncapped" or "adaptive". A fixed target of
+     * 60 frames per second is used if no pacing was given, or it is unknown.
+     *
+     * @return the frame pacer
+     */
+    private static FramePacer loadFramePacer() {
+        String pacing = System.getProperty(FRAME_PACING_PROPERTY);
+        if (pacing == null) {
+            return new FramePacer(PacingMode.FIXED, TARGET_FRAMERATE);
+        }
+        try {
+            return new FramePacer(PacingMode.valueOf(pacing.toUpperCase()), TARGET_FRAMERATE);
+        } catch (IllegalArgumentException e) {
+            // not a mode name, so a target frame rate
+        }
+        try {
+            int framerate = Integer.parseInt(pacing);
+            if (framerate > 0) {
+                return new FramePacer(PacingMode.FIXED, framerate);
             }
+        } catch (NumberFormatException e) {
+            // neither a mode name nor a frame rate
         }
+        System.err.println("Running at " + TARGET_FRAMERATE + " frames per second, unknown frame pacing: " +
+                pacing);
+        return new FramePacer(PacingMode.FIXED, TARGET_FRAMERATE);
+    }
+
+    /**
+     * Adds the particle system of the brick destruction effects above the game objects. Its particles
+     * are allocated once, and only cleared for a new game.
+     */
+    private void createParticleSystem() {
+        if (particleSystem == null) {
+            particleSystem = new ParticleSystem(windowDimension, MAX_PARTICLES);
+        }
+        particleSystem.clear();
+        this.gameObjects().addGameObject(particleSystem, FOREGROUND);
     }
 
     /**
      * Creates background for the game in the background layer that follow camera movement.
      */
     private void createBackground() {
-        Renderable backgroundImage = imageReader.readImage(BACKGROUND_IMAGE_PATH, false);
+        Renderable backgroundImage = textureAtlas.getRenderable(BACKGROUND_IMAGE_PATH);
         GameObject background = new GameObject(Vector2.LEFT, this.windowDimension, backgroundImage);
         background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         this.gameObjects().addGameObject(background, BACKGROUND);
@@ -334,16 +860,15 @@ public class BrickerGameManager extends GameManager {
      */
     private void createBall() {
         // create ball and set its parameters
-        Renderable ballImage = imageReader.readImage(BALL_IMAGE_PATH, true); // load photo
-        Sound collisionSound = soundReader.readSound(Constants.BALL_COLLISION_SOUND_PATH);
+        Renderable ballImage = textureAtlas.getRenderable(Constants.BALL_IMAGE_PATH);
+        Sound collisionSound = soundSource.readSound(Constants.BALL_COLLISION_SOUND_PATH);
         Ball ball = new Ball(Vector2.ZERO,
                 new Vector2(Constants.BALL_DIMENSIONS, Constants.BALL_DIMENSIONS),
-                ballImage, collisionSound); // create object
+                ballImage, collisionSound, EntityKind.MAIN_BALL, frameCounters); // create object
         // randomly change ball direction
         this.ball = ball;
         setBallToCenter();
         setBallSpeed();
-        ball.setTag(Constants.MAIN_BALL_TAG);
         this.gameObjects().addGameObject(ball); // add the ball to game objects
     }
 
@@ -378,17 +903,15 @@ public class BrickerGameManager extends GameManager {
         float windowHeight = windowDimension.y();
 
         // create paddle and set its parameters
-        Renderable paddleImage = imageReader.readImage(
-                Constants.PADDLE_IMAGE_PATH, true); // load photo
+        Renderable paddleImage = textureAtlas.getRenderable(Constants.PADDLE_IMAGE_PATH);
 
         Paddle paddle = new Paddle(Vector2.ZERO,
                 new Vector2(Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT), paddleImage,
-                inputListener); // create object
-        paddle.setTag(Constants.ORIGINAL_PADDLE_TAG);
+                paddleController, frameCounters); // create object
         this.originalPaddle = paddle;
         paddle.setCenter(
                 new Vector2(windowWidth / 2,
-                        (int) windowHeight - PADDLE_POSITION_OFFSET)); // paddle start position
+                        (int) windowHeight - Constants.PADDLE_POSITION_OFFSET)); // paddle start position
         gameObjects().addGameObject(paddle); // add the paddle to game objects
     }
 
@@ -418,10 +941,6 @@ public class BrickerGameManager extends GameManager {
         this.gameObjects().addGameObject(leftBorder, STATIC_OBJECTS);
         this.gameObjects().addGameObject(rightBorder, STATIC_OBJECTS);
         this.gameObjects().addGameObject(topBorder, STATIC_OBJECTS);
-        // set their tags
-        leftBorder.setTag(BORDER_TAG);
-        rightBorder.setTag(BORDER_TAG);
-        topBorder.setTag(BORDER_TAG);
     }
 
     /**
@@ -430,131 +949,143 @@ public class BrickerGameManager extends GameManager {
     private void createBricks() {
         this.bricksCount.reset(); // reset brickCount before adding new bricks
 
-        // calculate brick width and height
-        float brickWidth = calculateBrickWidth();
-        float brickHeightPosition = Constants.BORDER_LENGTH + BRICKS_PADDING_SIZE;
+        BrickLayout layout = new BrickLayout(windowDimension.x(), numberOfBricksPerRow);
 
         // create bricks and add them to the game
-        Renderable brickImage = imageReader.readImage(BRICK_IMAGE_PATH, true); // load photo
-        CollisionStrategyFactory strategyFactory = new CollisionStrategyFactory(gameObjects(), imageReader,
-                soundReader, inputListener, ball, originalPaddle, bricksCount);
+        Renderable brickImage = textureAtlas.getRenderable(BRICK_IMAGE_PATH);
+        this.strategyFactory = new CollisionStrategyFactory(gameObjects(), textureAtlas, soundSource,
+                paddleController, ball, bricksCount, strategySampler, frameCounters, particleSystem,
+                snapshots::recordRemovedBrick);
+        if (endlessMode) {
+            createEndlessBrickField(layout, brickImage);
+            return;
+        }
+        this.bricks = new Brick[numberOfBricksPerRow * numberOfBrickRows];
 
-        createBrickRows(brickWidth, brickHeightPosition, strategyFactory, brickImage);
+        createBrickRows(layout, strategyFactory, brickImage);
     }
 
     /**
-     * Handles the iteration that creates bricks and adds them to the game
+     * Creates the scrolling brick field of the endless mode, over a new page file. The field of a
+     * previous game is closed, which deletes its page file.
      *
-     * @param brickWidth          the width of each brick
-     * @param brickHeightPosition the height of each bricks
-     * @param strategyFactory     factory that creates a collision strategy for each brick
-     * @param brickImage          image of the bricks
+     * @param layout     the layout of the brick rows
+     * @param brickImage image of the bricks
      */
-    private void createBrickRows(float brickWidth, float brickHeightPosition,
-                                 CollisionStrategyFactory strategyFactory, Renderable brickImage) {
-        for (int row = 0; row < this.numberOfBrickRows; row++) {
-            int brickLeftCornerPosition = Constants.BORDER_LENGTH + BRICKS_PADDING_SIZE;
+    private void createEndlessBrickField(BrickLayout layout, Renderable brickImage) {
+        if (endlessBrickField != null) {
+            endlessBrickField.close();
+        }
+        BrickChunkStore store;
+        try {
+            Path pageFile = Files.createTempFile(ENDLESS_PAGE_FILE_PREFIX, ENDLESS_PAGE_FILE_SUFFIX);
+            store = new BrickChunkStore(numberOfBricksPerRow, new Random().nextLong(), strategySampler,
+                    pageFile, ENDLESS_RESIDENT_CHUNKS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // rows leave the game before they reach the paddle
+        float bottomLimit = originalPaddle.getTopLeftCorner().y() - Constants.BRICK_HEIGHT -
+                BrickLayout.ROW_STRIDE;
+        this.endlessBrickField = new EndlessBrickField(gameObjects(), strategyFactory, store, bricksCount,
+                brickImage, layout.getBrickWidth(), BrickLayout.FIRST_BRICK_LEFT, BrickLayout.FIRST_ROW_TOP,
+                bottomLimit, BrickLayout.ROW_STRIDE,
+                ENDLESS_SCROLL_SPEED, numberOfBrickRows, frameCounters);
+        endlessBrickField.update(0);
+    }
 
+    /**
+     * Handles the iteration that creates bricks and adds them to the game. With a generated level the
+     * bricks and their strategies are taken from the level, and its empty cells stay empty. A campaign
+     * creates a brick in every cell, so that any of its levels can be laid out by adding and removing
+     * bricks, and only adds the bricks of its current level.
+     *
+     * @param layout          the layout of the brick rows
+     * @param strategyFactory factory that creates a collision strategy for each brick
+     * @param brickImage      image of the bricks
+     */
+    private void createBrickRows(BrickLayout layout, CollisionStrategyFactory strategyFactory,
+                                 Renderable brickImage) {
+        for (int row = 0; row < this.numberOfBrickRows; row++) {
             for (int col = 0; col < this.numberOfBricksPerRow; col++) {
-                // create a random strategy
-                CollisionStrategy collisionStrategy = strategyFactory.randomlyCreateCollisionStrategy();
+                boolean inLevel = level == null || level.hasBrick(row, col);
+                if (!inLevel && campaign == null) {
+                    continue;
+                }
+                // create a random strategy, unless the level sets it
+                int strategyCode = inLevel && level != null ? level.getStrategyCode(row, col) :
+                        strategyFactory.rollStrategyCode();
+                CollisionStrategy collisionStrategy = strategyFactory.createCollisionStrategy(strategyCode);
                 // create brick
-                GameObject brick = new Brick(new Vector2(brickLeftCornerPosition, brickHeightPosition),
-                        new Vector2(brickWidth, BRICK_HEIGHT),
-                        brickImage, collisionStrategy);
+                int brickIndex = row * numberOfBricksPerRow + col;
+                Brick brick = new Brick(new Vector2(layout.getBrickLeft(col), layout.getRowTop(row)),
+                        new Vector2(layout.getBrickWidth(), Constants.BRICK_HEIGHT),
+                        brickImage, collisionStrategy, strategyCode, brickIndex, frameCounters);
+                bricks[brickIndex] = brick;
+                if (!inLevel) {
+                    brick.setDestroyed(true);
+                    continue;
+                }
                 // add the ball to game objects
                 this.gameObjects().addGameObject(brick, STATIC_OBJECTS);
-                //update position
-                brickLeftCornerPosition +=
-                        (int) (brickWidth + BRICKS_PADDING_SIZE);
-                brick.setTag(BRICK_TAG); // set tag
                 bricksCount.increment(); // increase brickCount by 1 for each brick created
             }
-            // update height of next row
-            brickHeightPosition += (BRICK_HEIGHT + (float) BRICKS_PADDING_SIZE / 2);
         }
     }
 
     /**
-     * Calculates the width of a brick according to number of bricks per row and the
-     * width of the window
-     *
-     * @return the width of the brick
+     * Shows or hides the performance overlay when the overlay key is pressed. Holding the key down only
+     * acts once.
      */
-    private float calculateBrickWidth() {
-        float windowWidth = windowDimension.x();
-        float windowWidthWithoutBorders = windowWidth -
-                (2 * Constants.BORDER_LENGTH) - (2 * BRICKS_PADDING_SIZE);
-        return (windowWidthWithoutBorders / this.numberOfBricksPerRow) -
-                BRICKS_PADDING_SIZE +
-                (float) BRICKS_PADDING_SIZE / this.numberOfBricksPerRow;
+    private void checkOverlayKey() {
+        boolean overlayPressed = inputListener.isKeyPressed(OVERLAY_KEY);
+        if (overlayPressed && !overlayKeyDown) {
+            performanceOverlay.toggle();
+        }
+        overlayKeyDown = overlayPressed;
     }
 
     /**
-     * Resets the live count to 0 and adds the default lives amount
+     * Saves the running game to a file.
+     *
+     * @param path the file to write
+     * @throws IOException if writing fails
      */
-    private void resetHeartListToDefault() {
-        // clear any leftover hearts from the game and from heartList
-        int heartsLeft = currLivesAmount;
-        for (int i = 0; i < heartsLeft; i++) {
-            removeSingleLife(); // Remove all hearts from the screen
-        }
-        for (int i = 0; i < DEFAULT_LIVES_AMOUNT; i++) {
-            addSingleLife(); // add defaultLivesAmount of hearts
-        }
+    public void saveSnapshotFile(Path path) throws IOException {
+        snapshots.saveSnapshotFile(path);
     }
 
     /**
-     * Updates the numeric representation of the current lives amount
+     * Restores the running game from a file written by saveSnapshotFile.
+     *
+     * @param path the file to read
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the file is not a snapshot of a game with the same brick grid
      */
-    private void updateNumericLivesCount() {
-        // update the numeric lives count to the current lives amount
-        numericLivesAmount.setString(Integer.toString(currLivesAmount));
-        // color the number according to the number of lives
-        if (currLivesAmount == ONE_LIFE_LEFT || currLivesAmount == ZERO_LIFE_LEFT) {
-            numericLivesAmount.setColor(Color.red);
-        } else if (currLivesAmount == TWO_LIVES_LEFT) {
-            numericLivesAmount.setColor(Color.yellow);
-        } else {
-            numericLivesAmount.setColor(Color.green);
-        }
+    public void restoreSnapshotFile(Path path) throws IOException {
+        snapshots.restoreSnapshotFile(path);
     }
 
     /**
-     * Increase lives amount by 1 in case the max amount was not reached yet.
+     * Captures the full state of the running game.
+     *
+     * @param snapshot the snapshot to overwrite
+     * @throws IllegalStateException in the endless mode
      */
-    private void addSingleLife() {
-        if (currLivesAmount == MAX_HEARTS_AMOUNT) {
-            return;
-        }
-        // render heart image
-        Renderable heartImage = imageReader.readImage(Constants.HEART_IMAGE_PATH, true); // load photo
-        Heart heart = new Heart(new Vector2(nextHeartXPosition,
-                windowDimension.y() - HEART_Y_POSITION_OFFSET),
-                new Vector2(Constants.HEART_SIZE, Constants.HEART_SIZE), heartImage);
-        heartList.add(heart);
-        this.gameObjects().addGameObject(heart, UI); // add heart to the gameObject UI layer
-        currLivesAmount++;
-        // update position of next heart
-        this.nextHeartXPosition += HEART_PADDING + Constants.HEART_SIZE;
-        updateNumericLivesCount();
+    public void saveSnapshot(GameSnapshot snapshot) {
+        snapshots.saveSnapshot(snapshot);
     }
 
     /**
-     * Decrease lives amount by 1
+     * Puts the running game in the state of a snapshot, without initializing the game again.
+     * Bricks are only added, removed or given a new strategy where they differ from the snapshot.
      *
-     * @return false in case it was the last heart removed, true otherwise
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot is of a game with a different brick grid
+     * @throws IllegalStateException    in the endless mode
      */
-    private boolean removeSingleLife() {
-        currLivesAmount--;
-        if (currLivesAmount == 0) {
-            return false;
-        }
-        this.gameObjects().removeGameObject(heartList.get(heartList.size() - 1), UI); // remove it from the game
-        heartList.remove(heartList.size() - 1); // pop the heart out of the list
-        updateNumericLivesCount();
-        nextHeartXPosition -= (Constants.HEART_SIZE + HEART_PADDING); // update the location of the next heart
-        return true;
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        snapshots.restoreSnapshot(snapshot);
     }
 
     /**
@@ -562,8 +1093,50 @@ public class BrickerGameManager extends GameManager {
      *
      * @param args optional: args[0] = bricks per row
      *             args[1] = number of rows
+     *             or args[0] = "endless" for the endless mode
+     *             or args[0] = "level", args[1] = seed of a generated level,
+     *             optionally args[2] = bricks per row and args[3] = number of rows of the level
+     *             or args[0] = "campaign", args[1] = seed of a campaign of generated levels,
+     *             optionally args[2] = number of levels, args[3] = bricks per row and args[4] = number of
+     *             rows of every level
      */
     public static void main(String[] args) {
+        if (args.length > CAMPAIGN_SEED_ARG && args[FIRST_ARG].equals(CAMPAIGN_ARG)) {
+            int levels = args.length > CAMPAIGN_LEVELS_ARG ? Integer.parseInt(args[CAMPAIGN_LEVELS_ARG]) :
+                    DEFAULT_CAMPAIGN_LEVELS;
+            int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+            int rows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+            if (args.length == CAMPAIGN_WITH_GRID_ARG_COUNT) {
+                bricksPerRow = Integer.parseInt(args[CAMPAIGN_BRICKS_PER_ROW_ARG]);
+                rows = Integer.parseInt(args[CAMPAIGN_ROWS_ARG]);
+            }
+            try (Campaign campaign = new Campaign(Long.parseLong(args[CAMPAIGN_SEED_ARG]), levels,
+                    bricksPerRow, rows, loadStrategySampler())) {
+                new BrickerGameManager(GAME_TITLE,
+                        new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT), campaign).run();
+            }
+            return;
+        }
+        if (args.length > LEVEL_SEED_ARG && args[FIRST_ARG].equals(LEVEL_ARG)) {
+            int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+            int rows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+            if (args.length == LEVEL_WITH_GRID_ARG_COUNT) {
+                bricksPerRow = Integer.parseInt(args[LEVEL_BRICKS_PER_ROW_ARG]);
+                rows = Integer.parseInt(args[LEVEL_ROWS_ARG]);
+            }
+            LevelGenerator generator = new LevelGenerator(Long.parseLong(args[LEVEL_SEED_ARG]),
+                    loadStrategySampler());
+            Level level = generator.generate(bricksPerRow, rows);
+            new BrickerGameManager(GAME_TITLE, new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT),
+                    level).run();
+            return;
+        }
+        if (args.length == 1 && args[FIRST_ARG].equals(ENDLESS_ARG)) {
+            new BrickerGameManager(GAME_TITLE, new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT),
+                    Constants.DEFAULT_BRICKS_NUMBER_PER_ROW, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS,
+                    true).run();
+            return;
+        }
         // parameters given were number of bricks per row, number of rows
         if (args.length == VALID_ARG_COUNT) {
             int numOfBricksPerRow = Integer.parseInt(args[FIRST_ARG]);
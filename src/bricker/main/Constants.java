@@ -21,34 +21,58 @@ public class Constants {
     public static final int BALL_SPEED = 200;
     /** Multiplier for the ball speed */
     public static final float SPEED_MULTIPLIER = 1.4F;
-    /** Tag of the game ball in its normal state */
-    public static final String MAIN_BALL_TAG = "mainBall";
-    /** Tag of the game ball in its turbo state */
-    public static final String TURBO_BALL_TAG = "turboBall";
+    /** Number of collisions the ball stays in its turbo state */
+    public static final int MAX_TURBO_BALL_HITS = 6;
+    /** Size of a puck ball relative to the main ball */
+    public static final float PUCK_BALL_RATIO_FROM_ORIGINAL = 0.75F;
 
     // Paddle constants
     /** Width of the game paddle */
     public static final int PADDLE_WIDTH = 100;
     /** Height of the game paddle */
     public static final int PADDLE_HEIGHT = 15;
-    /** Tag of the game main paddle */
-    public static final String ORIGINAL_PADDLE_TAG = "originalPaddle";
-    /** Tag of the game mock paddle */
-    public static final String MOCK_PADDLE_TAG = "mockPaddle";
+    /** Speed of the paddles when moved by the user */
+    public static final float PADDLE_MOVEMENT_SPEED = 350;
+    /** Distance of the main paddle's center from the bottom of the window */
+    public static final int PADDLE_POSITION_OFFSET = 30;
+    /** Number of collisions after which the mock paddle disappears */
+    public static final int MOCK_PADDLE_MAX_COLLISIONS_NUMBER = 4;
+
+    // Bricks
+    /** Default number of bricks in a single row */
+    public static final int DEFAULT_BRICKS_NUMBER_PER_ROW = 8;
+    /** Default number of brick rows */
+    public static final int DEFAULT_NUMBER_OF_BRICK_ROWS = 7;
+    /** Height of a brick */
+    public static final int BRICK_HEIGHT = 15;
+    /** Padding between bricks, and between the bricks and the borders */
+    public static final int BRICKS_PADDING_SIZE = 15;
+
+    // Lives
+    /** Number of lives at the start of a game */
+    public static final int DEFAULT_LIVES_AMOUNT = 3;
+    /** Maximal number of lives */
+    public static final int MAX_HEARTS_AMOUNT = 4;
 
     // Falling Heart constants
     /** Size of hearts in the game */
     public static final int HEART_SIZE = 17;
-    /** Tag of the collectable falling hearts in the game */
-    public static final String FALLING_HEART_TAG = "fallingHeart";
+    /** Falling speed of collectable hearts */
+    public static final int HEART_FALLING_SPEED = 100;
 
     // Images and sounds
     /** Path to the sound a ball makes upon collision */
     public static final String BALL_COLLISION_SOUND_PATH = "assets/blop.wav";
+    /** Path to the image of the ball */
+    public static final String BALL_IMAGE_PATH = "assets/ball.png";
     /** Path to the image of a paddle */
     public static final String PADDLE_IMAGE_PATH = "assets/paddle.png";
     /** Path to the image of a heart */
     public static final String HEART_IMAGE_PATH = "assets/heart.png";
+    /** Path to the image of a puck ball */
+    public static final String MOCK_BALL_IMAGE_PATH = "assets/mockBall.png";
+    /** Path to the image of the ball in its turbo state */
+    public static final String RED_BALL_IMAGE_PATH = "assets/redball.png";
 
 
 }
@@ -0,0 +1,139 @@
+package bricker.main;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+
+import static danogl.collisions.Layer.UI;
+
+/**
+ * What happens when a game is won or lost. The end of a game is shown in the game without stopping its
+ * loop, asking the player whether to play again, or for unattended runs the next game starts right away or
+ * the game exits, as set through system properties. The game also exits once a maximal number of games,
+ * if one was given, was played.
+ */
+class EndOfGameFlow {
+
+    // User messages constants
+    private static final String WIN_PROMPT = "You win!";
+    private static final String LOSE_PROMPT = "You lose!";
+    private static final String ASK_IF_PLAY_AGAIN = " Play again? (Y/N)";
+
+    private static final String END_OF_GAME_PROPERTY = "bricker.endOfGame";
+    private static final String MAX_GAMES_PROPERTY = "bricker.maxGames";
+    private static final int UNLIMITED_GAMES = 0;
+    private static final int PLAY_AGAIN_KEY = KeyEvent.VK_Y;
+    private static final int QUIT_KEY = KeyEvent.VK_N;
+    private static final int END_SCREEN_WIDTH = 300;
+    private static final int END_SCREEN_HEIGHT = 40;
+    private static final float END_SCREEN_POSITION_MULT_FROM_WINDOW_DIMENSIONS = 0.5f;
+
+    // private fields
+    private final EndOfGamePolicy endOfGamePolicy = loadEndOfGamePolicy();
+    private final int maxGames = Integer.getInteger(MAX_GAMES_PROPERTY, UNLIMITED_GAMES);
+    private final Runnable nextGame;
+    private GameObjectCollection gameObjects;
+    private WindowController windowController;
+    private UserInputListener inputListener;
+    private int gamesPlayed = 0;
+    private boolean gameEnded = false;
+    private GameObject endScreen;
+    private TextRenderable endScreenText;
+
+    /**
+     * Creates the end of game flow of a game that was not initialized yet.
+     *
+     * @param nextGame starts the next game in the running game
+     */
+    EndOfGameFlow(Runnable nextGame) {
+        this.nextGame = nextGame;
+    }
+
+    /**
+     * Creates the end screen of a new initialization of the game, a line of text in the middle of the
+     * window that is only added to the game when the game ends.
+     *
+     * @param gameObjects      the objects of the game
+     * @param windowController the window of the game, closed when the game exits
+     * @param inputListener    reads the keys pressed on the end screen
+     */
+    void attach(GameObjectCollection gameObjects, WindowController windowController,
+                UserInputListener inputListener) {
+        this.gameObjects = gameObjects;
+        this.windowController = windowController;
+        this.inputListener = inputListener;
+        gameEnded = false;
+        endScreenText = new TextRenderable("");
+        endScreenText.setColor(Color.WHITE);
+        endScreen = new GameObject(Vector2.ZERO, new Vector2(END_SCREEN_WIDTH, END_SCREEN_HEIGHT),
+                endScreenText);
+        endScreen.setCenter(windowController.getWindowDimensions().mult(
+                END_SCREEN_POSITION_MULT_FROM_WINDOW_DIMENSIONS));
+    }
+
+    /**
+     * @return true while the end screen is shown, when the game stays frozen behind it
+     */
+    boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    /**
+     * Ends the game with a win or a loss. The game exits once the maximal number of games was played,
+     * and otherwise the end of game policy decides between asking the player through the end screen,
+     * starting the next game and exiting.
+     *
+     * @param won true if the game was won, false if it was lost
+     */
+    void endGame(boolean won) {
+        gamesPlayed++;
+        boolean lastGame = maxGames != UNLIMITED_GAMES && gamesPlayed >= maxGames;
+        if (endOfGamePolicy == EndOfGamePolicy.EXIT || lastGame) {
+            windowController.closeWindow();
+        } else if (endOfGamePolicy == EndOfGamePolicy.RESTART) {
+            nextGame.run();
+        } else {
+            endScreenText.setString((won ? WIN_PROMPT : LOSE_PROMPT) + ASK_IF_PLAY_AGAIN);
+            gameObjects.addGameObject(endScreen, UI);
+            gameEnded = true;
+        }
+    }
+
+    /**
+     * Plays again when the play again key is pressed on the end screen, and exits when the quit key is.
+     */
+    void checkEndScreenKeys() {
+        if (inputListener.isKeyPressed(PLAY_AGAIN_KEY)) {
+            gameObjects.removeGameObject(endScreen, UI);
+            gameEnded = false;
+            nextGame.run();
+        } else if (inputListener.isKeyPressed(QUIT_KEY)) {
+            windowController.closeWindow();
+        }
+    }
+
+    /**
+     * Reads the end of game policy. The player is asked if no policy was given, or it is unknown.
+     *
+     * @return the end of game policy
+     */
+    private static EndOfGamePolicy loadEndOfGamePolicy() {
+        String name = System.getProperty(END_OF_GAME_PROPERTY);
+        if (name == null) {
+            return EndOfGamePolicy.ASK;
+        }
+        try {
+            return EndOfGamePolicy.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Asking the player at the end of every game, unknown end of game policy: " +
+                    name);
+            return EndOfGamePolicy.ASK;
+        }
+    }
+}
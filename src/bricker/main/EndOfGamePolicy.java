@@ -0,0 +1,13 @@
+package bricker.main;
+
+/**
+ * What happens when a game is won or lost.
+ */
+public enum EndOfGamePolicy {
+    /** Shows the end screen in the game, and waits for the player to play again or quit */
+    ASK,
+    /** Starts the next game right away, for unattended runs such as soak tests */
+    RESTART,
+    /** Closes the game, for unattended runs of a single game */
+    EXIT
+}
@@ -0,0 +1,158 @@
+package bricker.main;
+
+import bricker.telemetry.FramePacingStats;
+import danogl.gui.WindowController;
+
+/**
+ * Chooses the target frame rate of the engine and measures how well frames are paced against it. The
+ * target is only handed to the engine when it changes.
+ * <p>
+ * A frame misses its deadline when it takes more than a quarter of an interval longer than the target
+ * interval, which leaves room for the timer but not for a frame the display would show a refresh late.
+ * Uncapped frames have no deadline. The adaptive mode starts at 60 and checks the frames every couple of
+ * seconds: it steps down to the next common refresh rate when too many frames missed, and tries the next
+ * rate up when none did, but not for a while after stepping down. Every try up that fails doubles that
+ * while, so the pacer settles on a rate instead of bouncing between two.
+ * Game speed does not depend on the mode, since all motion is scaled by the frame time.
+ */
+public class FramePacer {
+
+    // a target no display reaches, so the engine never waits between frames
+    private static final int UNCAPPED_FRAMERATE = Integer.MAX_VALUE;
+    private static final int[] ADAPTIVE_FRAMERATES = {30, 60, 90, 120, 144, 240};
+    private static final int ADAPTIVE_START_INDEX = 1;
+    private static final float MISSED_DEADLINE_INTERVALS = 1.25f;
+    private static final float ADAPT_SECONDS = 2;
+    private static final float HOLD_SECONDS = 10;
+    private static final float MAX_HOLD_SECONDS = 160;
+    private static final double STEP_DOWN_MISSED_PERCENT = 5;
+    private static final String FIXED_FORMAT = "fixed %d Hz";
+    private static final String UNCAPPED_DESCRIPTION = "uncapped";
+    private static final String ADAPTIVE_FORMAT = "adaptive %d Hz";
+
+    // private fields
+    private final PacingMode mode;
+    private final FramePacingStats gameStats = new FramePacingStats();
+    private final FramePacingStats adaptStats = new FramePacingStats();
+    private int targetFramerate;
+    private int adaptiveIndex = ADAPTIVE_START_INDEX;
+    private int appliedFramerate = 0;
+    private float adaptSeconds = 0;
+    private float holdSeconds = 0;
+    private float holdAfterFailedTry = HOLD_SECONDS;
+    private boolean tryingUp = false;
+    private String description;
+
+    /**
+     * Creates a pacer.
+     *
+     * @param mode           the pacing mode
+     * @param fixedFramerate the target frame rate of the fixed mode, ignored by the other modes
+     */
+    public FramePacer(PacingMode mode, int fixedFramerate) {
+        this.mode = mode;
+        switch (mode) {
+            case UNCAPPED:
+                setTarget(UNCAPPED_FRAMERATE);
+                break;
+            case ADAPTIVE:
+                setTarget(ADAPTIVE_FRAMERATES[adaptiveIndex]);
+                break;
+            default:
+                setTarget(fixedFramerate);
+        }
+    }
+
+    /**
+     * Hands the target frame rate to the engine if it changed since it was last handed.
+     *
+     * @param windowController the controller of the game window
+     */
+    public void applyTo(WindowController windowController) {
+        if (appliedFramerate != targetFramerate) {
+            windowController.setTargetFramerate(targetFramerate);
+            appliedFramerate = targetFramerate;
+        }
+    }
+
+    /**
+     * Accounts for a frame, and in the adaptive mode changes the target once enough frames were seen.
+     *
+     * @param deltaTime the frame time, in seconds
+     */
+    public void recordFrame(float deltaTime) {
+        float deadlineSeconds = getDeadlineSeconds();
+        gameStats.record(deltaTime, deadlineSeconds);
+        if (mode != PacingMode.ADAPTIVE) {
+            return;
+        }
+        adaptStats.record(deltaTime, deadlineSeconds);
+        adaptSeconds += deltaTime;
+        holdSeconds = Math.max(0, holdSeconds - deltaTime);
+        if (adaptSeconds < ADAPT_SECONDS) {
+            return;
+        }
+        if (adaptStats.getMissedPercent() > STEP_DOWN_MISSED_PERCENT && adaptiveIndex > 0) {
+            adaptiveIndex--;
+            holdSeconds = tryingUp ? holdAfterFailedTry : HOLD_SECONDS;
+            holdAfterFailedTry = tryingUp ? Math.min(holdAfterFailedTry * 2, MAX_HOLD_SECONDS) : HOLD_SECONDS;
+            tryingUp = false;
+        } else if (adaptStats.getMissedFrames() == 0 && holdSeconds == 0 &&
+                adaptiveIndex < ADAPTIVE_FRAMERATES.length - 1) {
+            adaptiveIndex++;
+            tryingUp = true;
+        } else {
+            tryingUp = false;
+        }
+        setTarget(ADAPTIVE_FRAMERATES[adaptiveIndex]);
+        adaptStats.reset();
+        adaptSeconds = 0;
+    }
+
+    /**
+     * @return the longest a frame may take before it counts as missed, in seconds, 0 when uncapped
+     */
+    public float getDeadlineSeconds() {
+        return mode == PacingMode.UNCAPPED ? 0 : MISSED_DEADLINE_INTERVALS / targetFramerate;
+    }
+
+    /**
+     * @return the mode and current target, e.g. "fixed 144 Hz"
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Describes the pacing of the frames since the last report, and starts accounting anew.
+     *
+     * @return the mode and the pacing statistics
+     */
+    public String takeGameReport() {
+        String report = description + ": " + gameStats;
+        gameStats.reset();
+        return report;
+    }
+
+    /**
+     * Sets the target frame rate, to be handed to the engine by the next applyTo.
+     *
+     * @param framerate the target frame rate
+     */
+    private void setTarget(int framerate) {
+        if (framerate == targetFramerate) {
+            return;
+        }
+        targetFramerate = framerate;
+        switch (mode) {
+            case UNCAPPED:
+                description = UNCAPPED_DESCRIPTION;
+                break;
+            case ADAPTIVE:
+                description = String.format(ADAPTIVE_FORMAT, framerate);
+                break;
+            default:
+                description = String.format(FIXED_FORMAT, framerate);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package bricker.main;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The full state of a running game, as captured by BrickerGameManager: which bricks are alive and their
+ * strategy codes, all the balls with their turbo state and collision counts, the paddles, the falling
+ * hearts and the lives. A snapshot can be reused, and is written to and read from a compact little
+ * endian binary form.
+ */
+public class GameSnapshot {
+
+    private static final int MAGIC = 0x42524B53;
+    private static final short VERSION = 1;
+    private static final int INITIAL_CAPACITY = 8;
+    /** Number of floats stored per ball: center and velocity */
+    static final int BALL_FLOATS = 4;
+    /** Number of floats stored per falling heart: center */
+    static final int HEART_FLOATS = 2;
+    private static final int PUCK_BYTES = BALL_FLOATS * Float.BYTES + Integer.BYTES;
+    private static final int HEART_BYTES = HEART_FLOATS * Float.BYTES;
+
+    // package private fields, read and written by the game manager
+    int bricksPerRow;
+    int brickRows;
+    long[] aliveBricks = new long[0];
+    short[] strategyCodes = new short[0];
+    int lives;
+    int turboBallHits;
+    final float[] mainBall = new float[BALL_FLOATS];
+    int mainBallCollisions;
+    boolean turbo;
+    float paddleX;
+    float paddleY;
+    boolean mockPaddleActive;
+    float mockPaddleX;
+    float mockPaddleY;
+    int mockPaddleCollisions;
+    int puckCount;
+    float[] pucks = new float[INITIAL_CAPACITY * BALL_FLOATS];
+    int[] puckCollisions = new int[INITIAL_CAPACITY];
+    int heartCount;
+    float[] hearts = new float[INITIAL_CAPACITY * HEART_FLOATS];
+
+    /**
+     * Sizes the brick arrays for a brick grid, reusing them if they are already large enough.
+     *
+     * @param bricksPerRow the number of bricks per single row
+     * @param brickRows    the number of brick rows
+     */
+    void setBrickGrid(int bricksPerRow, int brickRows) {
+        this.bricksPerRow = bricksPerRow;
+        this.brickRows = brickRows;
+        int brickCount = bricksPerRow * brickRows;
+        int wordCount = (brickCount + Long.SIZE - 1) / Long.SIZE;
+        if (aliveBricks.length != wordCount) {
+            aliveBricks = new long[wordCount];
+        }
+        if (strategyCodes.length != brickCount) {
+            strategyCodes = new short[brickCount];
+        }
+    }
+
+    /**
+     * @param brick index of a brick
+     * @return true if the brick is alive
+     */
+    boolean isBrickAlive(int brick) {
+        return (aliveBricks[brick / Long.SIZE] & (1L << brick)) != 0;
+    }
+
+    /**
+     * Marks a brick as alive.
+     *
+     * @param brick index of the brick
+     */
+    void setBrickAlive(int brick) {
+        aliveBricks[brick / Long.SIZE] |= 1L << brick;
+    }
+
+    /**
+     * Makes room for a number of pucks, keeping the existing ones.
+     *
+     * @param count the number of pucks
+     */
+    void ensurePuckCapacity(int count) {
+        if (puckCollisions.length < count) {
+            int capacity = Math.max(count, puckCollisions.length * 2);
+            pucks = Arrays.copyOf(pucks, capacity * BALL_FLOATS);
+            puckCollisions = Arrays.copyOf(puckCollisions, capacity);
+        }
+    }
+
+    /**
+     * Makes room for a number of falling hearts, keeping the existing ones.
+     *
+     * @param count the number of falling hearts
+     */
+    void ensureHeartCapacity(int count) {
+        if (hearts.length < count * HEART_FLOATS) {
+            hearts = Arrays.copyOf(hearts, Math.max(count, hearts.length) * HEART_FLOATS);
+        }
+    }
+
+    /**
+     * @return the number of bytes writeTo needs for this snapshot
+     */
+    public int getEncodedSize() {
+        return Integer.BYTES + Short.BYTES + 2 * Integer.BYTES
+                + aliveBricks.length * Long.BYTES + strategyCodes.length * Short.BYTES
+                + 2 * Integer.BYTES
+                + BALL_FLOATS * Float.BYTES + Integer.BYTES + Byte.BYTES
+                + 2 * Float.BYTES
+                + Byte.BYTES + 2 * Float.BYTES + Integer.BYTES
+                + Integer.BYTES + puckCount * (BALL_FLOATS * Float.BYTES + Integer.BYTES)
+                + Integer.BYTES + heartCount * HEART_FLOATS * Float.BYTES;
+    }
+
+    /**
+     * Writes the snapshot in binary form.
+     *
+     * @param out the buffer to write to, with at least getEncodedSize bytes remaining
+     */
+    public void writeTo(ByteBuffer out) {
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putInt(bricksPerRow);
+        out.putInt(brickRows);
+        for (long word : aliveBricks) {
+            out.putLong(word);
+        }
+        for (short code : strategyCodes) {
+            out.putShort(code);
+        }
+        out.putInt(lives);
+        out.putInt(turboBallHits);
+        putFloats(out, mainBall, BALL_FLOATS);
+        out.putInt(mainBallCollisions);
+        out.put((byte) (turbo ? 1 : 0));
+        out.putFloat(paddleX);
+        out.putFloat(paddleY);
+        out.put((byte) (mockPaddleActive ? 1 : 0));
+        out.putFloat(mockPaddleX);
+        out.putFloat(mockPaddleY);
+        out.putInt(mockPaddleCollisions);
+        out.putInt(puckCount);
+        putFloats(out, pucks, puckCount * BALL_FLOATS);
+        for (int puck = 0; puck < puckCount; puck++) {
+            out.putInt(puckCollisions[puck]);
+        }
+        out.putInt(heartCount);
+        putFloats(out, hearts, heartCount * HEART_FLOATS);
+        out.order(order);
+    }
+
+    /**
+     * Overwrites this snapshot with one read from its binary form. The brick grid and the numbers of
+     * pucks and hearts are checked against the bytes left in the buffer before any array is sized for
+     * them, so a corrupt or foreign file can not make the game allocate huge or negative arrays.
+     *
+     * @param in the buffer to read from
+     * @throws IllegalArgumentException if the buffer does not hold a valid snapshot
+     */
+    public void readFrom(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC || in.getShort() != VERSION) {
+                throw new IllegalArgumentException("Not a Bricker game snapshot");
+            }
+            int bricksPerRow = in.getInt();
+            int brickRows = in.getInt();
+            long brickCount = (long) bricksPerRow * brickRows;
+            long wordCount = (brickCount + Long.SIZE - 1) / Long.SIZE;
+            if (bricksPerRow < 0 || brickRows < 0 || brickCount > Integer.MAX_VALUE ||
+                    wordCount * Long.BYTES + brickCount * Short.BYTES > in.remaining()) {
+                throw new IllegalArgumentException("Corrupt Bricker game snapshot");
+            }
+            setBrickGrid(bricksPerRow, brickRows);
+            for (int i = 0; i < aliveBricks.length; i++) {
+                aliveBricks[i] = in.getLong();
+            }
+            for (int i = 0; i < strategyCodes.length; i++) {
+                strategyCodes[i] = in.getShort();
+            }
+            lives = in.getInt();
+            turboBallHits = in.getInt();
+            getFloats(in, mainBall, BALL_FLOATS);
+            mainBallCollisions = in.getInt();
+            turbo = in.get() != 0;
+            paddleX = in.getFloat();
+            paddleY = in.getFloat();
+            mockPaddleActive = in.get() != 0;
+            mockPaddleX = in.getFloat();
+            mockPaddleY = in.getFloat();
+            mockPaddleCollisions = in.getInt();
+            puckCount = in.getInt();
+            if (puckCount < 0 || puckCount > in.remaining() / PUCK_BYTES) {
+                throw new IllegalArgumentException("Corrupt Bricker game snapshot");
+            }
+            ensurePuckCapacity(puckCount);
+            getFloats(in, pucks, puckCount * BALL_FLOATS);
+            for (int puck = 0; puck < puckCount; puck++) {
+                puckCollisions[puck] = in.getInt();
+            }
+            heartCount = in.getInt();
+            if (heartCount < 0 || heartCount > in.remaining() / HEART_BYTES) {
+                throw new IllegalArgumentException("Corrupt Bricker game snapshot");
+            }
+            ensureHeartCapacity(heartCount);
+            getFloats(in, hearts, heartCount * HEART_FLOATS);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated Bricker game snapshot", e);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Writes the first floats of an array.
+     *
+     * @param out    the buffer to write to
+     * @param values the array
+     * @param count  the number of floats to write
+     */
+    private static void putFloats(ByteBuffer out, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            out.putFloat(values[i]);
+        }
+    }
+
+    /**
+     * Reads floats into the start of an array.
+     *
+     * @param in     the buffer to read from
+     * @param values the array
+     * @param count  the number of floats to read
+     */
+    private static void getFloats(ByteBuffer in, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getFloat();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package bricker.main;
+
+import bricker.assets.TextureAtlas;
+import bricker.gameobjects.EntityKind;
+import bricker.gameobjects.Heart;
+import bricker.telemetry.FrameCounters;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static danogl.collisions.Layer.UI;
+
+/**
+ * The lives of the player, shown at the bottom left of the window as a number colored by how many lives
+ * are left, followed by a heart per life.
+ */
+class LivesDisplay {
+
+    // Numeric life constants
+    private static final int NUMERIC_Y_POSITION_OFFSET = 21;
+    private static final int NUMERIC_LIVES_SIZE = 15;
+    private static final int NUMERIC_LIVES_X_POSITION = 10;
+    private static final int ONE_LIFE_LEFT = 1;
+    private static final int ZERO_LIFE_LEFT = 0;
+    private static final int TWO_LIVES_LEFT = 2;
+
+    // Graphical life constants
+    private static final int HEART_Y_POSITION_OFFSET = 22;
+    private static final int HEART_PADDING = 7;
+
+    // private fields
+    private final FrameCounters frameCounters;
+    private final List<Heart> heartList = new ArrayList<>();
+    private GameObjectCollection gameObjects;
+    private TextureAtlas textureAtlas;
+    private Vector2 windowDimensions;
+    private TextRenderable numericLivesAmount;
+    private int currLivesAmount = 0;
+    private int nextHeartXPosition = NUMERIC_LIVES_X_POSITION + NUMERIC_LIVES_SIZE + HEART_PADDING;
+
+    /**
+     * Creates the lives of a game that was not initialized yet.
+     *
+     * @param frameCounters counts the collision pairs tested in the current frame
+     */
+    LivesDisplay(FrameCounters frameCounters) {
+        this.frameCounters = frameCounters;
+    }
+
+    /**
+     * Places the lives in a new initialization of the game, setting up the numeric and graphic life count
+     * with the default amount of lives.
+     *
+     * @param gameObjects      the objects of the game
+     * @param textureAtlas     the atlas holding the heart image
+     * @param windowDimensions the dimensions of the game window
+     * @return the numeric life count, added to the UI layer
+     */
+    GameObject attach(GameObjectCollection gameObjects, TextureAtlas textureAtlas, Vector2 windowDimensions) {
+        this.gameObjects = gameObjects;
+        this.textureAtlas = textureAtlas;
+        this.windowDimensions = windowDimensions;
+        currLivesAmount = 0;
+        numericLivesAmount = new TextRenderable(Integer.toString(0));
+        restore(Constants.DEFAULT_LIVES_AMOUNT);
+        GameObject livesCount = new GameObject(new Vector2(NUMERIC_LIVES_X_POSITION,
+                windowDimensions.y() - NUMERIC_Y_POSITION_OFFSET),
+                new Vector2(NUMERIC_LIVES_SIZE, NUMERIC_LIVES_SIZE), numericLivesAmount);
+        gameObjects.addGameObject(livesCount, UI); // Add numeric lives count to UI layer
+        return livesCount;
+    }
+
+    /**
+     * @return the current amount of lives
+     */
+    int getLives() {
+        return currLivesAmount;
+    }
+
+    /**
+     * Increase lives amount by 1 in case the max amount was not reached yet.
+     */
+    void addSingleLife() {
+        if (currLivesAmount == Constants.MAX_HEARTS_AMOUNT) {
+            return;
+        }
+        // render heart image
+        Renderable heartImage = textureAtlas.getRenderable(Constants.HEART_IMAGE_PATH);
+        Heart heart = new Heart(new Vector2(nextHeartXPosition,
+                windowDimensions.y() - HEART_Y_POSITION_OFFSET),
+                new Vector2(Constants.HEART_SIZE, Constants.HEART_SIZE), heartImage, EntityKind.LIFE_HEART,
+                frameCounters);
+        heartList.add(heart);
+        gameObjects.addGameObject(heart, UI); // add heart to the gameObject UI layer
+        currLivesAmount++;
+        // update position of next heart
+        this.nextHeartXPosition += HEART_PADDING + Constants.HEART_SIZE;
+        updateNumericLivesCount();
+    }
+
+    /**
+     * Decrease lives amount by 1. The heart of the last life stays on the screen.
+     *
+     * @return false in case it was the last heart removed, true otherwise
+     */
+    boolean removeSingleLife() {
+        currLivesAmount--;
+        if (currLivesAmount == 0) {
+            updateNumericLivesCount();
+            return false;
+        }
+        gameObjects.removeGameObject(heartList.get(heartList.size() - 1), UI); // remove it from the game
+        heartList.remove(heartList.size() - 1); // pop the heart out of the list
+        updateNumericLivesCount();
+        nextHeartXPosition -= (Constants.HEART_SIZE + HEART_PADDING); // update the location of the next heart
+        return true;
+    }
+
+    /**
+     * Replaces the graphic and numeric lives with a given amount of lives.
+     *
+     * @param lives the amount of lives
+     */
+    void restore(int lives) {
+        for (Heart heart : heartList) {
+            gameObjects.removeGameObject(heart, UI);
+        }
+        heartList.clear();
+        currLivesAmount = 0;
+        nextHeartXPosition = NUMERIC_LIVES_X_POSITION + NUMERIC_LIVES_SIZE + HEART_PADDING;
+        for (int i = 0; i < lives; i++) {
+            addSingleLife();
+        }
+        updateNumericLivesCount();
+    }
+
+    /**
+     * Updates the numeric representation of the current lives amount
+     */
+    private void updateNumericLivesCount() {
+        // update the numeric lives count to the current lives amount
+        numericLivesAmount.setString(Integer.toString(currLivesAmount));
+        // color the number according to the number of lives
+        if (currLivesAmount == ONE_LIFE_LEFT || currLivesAmount == ZERO_LIFE_LEFT) {
+            numericLivesAmount.setColor(Color.red);
+        } else if (currLivesAmount == TWO_LIVES_LEFT) {
+            numericLivesAmount.setColor(Color.yellow);
+        } else {
+            numericLivesAmount.setColor(Color.green);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package bricker.main;
+
+/**
+ * How the frame rate of the game is paced.
+ */
+public enum PacingMode {
+    /** A fixed target frame rate, e.g. 60, or 144 or 240 for high refresh displays */
+    FIXED,
+    /** No cap at all, for measuring the highest frame rate the game reaches */
+    UNCAPPED,
+    /** The highest of the common refresh rates the game keeps up with, changed as the load changes */
+    ADAPTIVE
+}
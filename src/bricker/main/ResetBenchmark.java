@@ -0,0 +1,149 @@
+package bricker.main;
+
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+/**
+ * Measures how long starting a new game takes in a running game window, in three ways: initializing the
+ * game again with its images read and packed again, as the first initialization does, initializing it
+ * again with the images already packed, and restarting it in place. Every way is timed over a number of
+ * restarts, one per frame, after a few unmeasured ones, and the window closes once all were measured.
+ */
+public class ResetBenchmark extends BrickerGameManager {
+
+    private static final String TITLE = "Bricker reset benchmark";
+    private static final int BRICKS_PER_ROW_ARG = 0;
+    private static final int ROWS_ARG = 1;
+    private static final int RESETS_ARG = 2;
+    private static final int DEFAULT_RESETS = 30;
+    private static final int WARMUP_RESETS = 5;
+    private static final int FULL_WITH_IMAGES = 0;
+    private static final int FULL = 1;
+    private static final int IN_PLACE = 2;
+    private static final int WAYS = 3;
+    private static final String[] WAY_NAMES = {"initializeGame reading images", "initializeGame",
+            "in place"};
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double PERCENT = 100;
+
+    // private fields
+    private final int bricksPerRow;
+    private final int rows;
+    private final int resets;
+    private final long[] measuredNanos = new long[WAYS];
+    private WindowController windowController;
+    private int way = FULL_WITH_IMAGES;
+    private int wayResets = 0;
+    private boolean initializationRequested = false;
+
+    /**
+     * @param bricksPerRow the number of bricks per single row
+     * @param rows         the number of brick rows
+     * @param resets       the number of measured restarts of every way
+     */
+    private ResetBenchmark(int bricksPerRow, int rows, int resets) {
+        super(TITLE, new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT), bricksPerRow, rows);
+        this.bricksPerRow = bricksPerRow;
+        this.rows = rows;
+        this.resets = resets;
+    }
+
+    /**
+     * Initializes the game, timing the initialization if the benchmark asked for it.
+     *
+     * @param imageReader      reads images from disk
+     * @param soundReader      reads sounds from disk
+     * @param inputListener    reads the keys pressed
+     * @param windowController the window of the game
+     */
+    @Override
+    public void initializeGame(ImageReader imageReader, SoundReader soundReader,
+                               UserInputListener inputListener, WindowController windowController) {
+        long start = System.nanoTime();
+        super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        long elapsed = System.nanoTime() - start;
+        this.windowController = windowController;
+        if (initializationRequested) {
+            initializationRequested = false;
+            recordReset(elapsed);
+        }
+    }
+
+    /**
+     * Starts a new game in the current way instead of playing a frame.
+     *
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        if (way == WAYS || initializationRequested) {
+            return;
+        }
+        if (way == IN_PLACE) {
+            long start = System.nanoTime();
+            resetGameInPlace();
+            recordReset(System.nanoTime() - start);
+            return;
+        }
+        if (way == FULL_WITH_IMAGES) {
+            dropAssets();
+        }
+        initializationRequested = true;
+        windowController.resetGame();
+    }
+
+    /**
+     * Counts a restart in the current way, moving on to the next way once all its restarts were done, and
+     * reporting once all ways were measured.
+     *
+     * @param nanos the time the restart took
+     */
+    private void recordReset(long nanos) {
+        if (wayResets >= WARMUP_RESETS) {
+            measuredNanos[way] += nanos;
+        }
+        wayResets++;
+        if (wayResets < WARMUP_RESETS + resets) {
+            return;
+        }
+        way++;
+        wayResets = 0;
+        if (way == WAYS) {
+            report();
+            windowController.closeWindow();
+        }
+    }
+
+    /**
+     * Prints the mean time of every way and the in place time as a share of the initializations.
+     */
+    private void report() {
+        System.out.printf("%dx%d bricks, mean of %d restarts:%n", bricksPerRow, rows, resets);
+        for (int measuredWay = 0; measuredWay < WAYS; measuredWay++) {
+            System.out.printf("  %-30s %9.3f ms%n", WAY_NAMES[measuredWay],
+                    measuredNanos[measuredWay] / NANOS_PER_MILLI / resets);
+        }
+        System.out.printf("in place takes %.1f%% of initializeGame reading images, %.1f%% of initializeGame%n",
+                PERCENT * measuredNanos[IN_PLACE] / measuredNanos[FULL_WITH_IMAGES],
+                PERCENT * measuredNanos[IN_PLACE] / measuredNanos[FULL]);
+    }
+
+    /**
+     * Runs the benchmark in a game window.
+     *
+     * @param args optional: args[0] = number of bricks per row
+     *             args[1] = number of brick rows
+     *             args[2] = number of measured restarts of every way
+     */
+    public static void main(String[] args) {
+        int bricksPerRow = args.length > BRICKS_PER_ROW_ARG ? Integer.parseInt(args[BRICKS_PER_ROW_ARG]) :
+                Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+        int rows = args.length > ROWS_ARG ? Integer.parseInt(args[ROWS_ARG]) :
+                Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+        int resets = args.length > RESETS_ARG ? Integer.parseInt(args[RESETS_ARG]) : DEFAULT_RESETS;
+        new ResetBenchmark(bricksPerRow, rows, resets).run();
+    }
+}
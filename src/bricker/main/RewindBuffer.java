@@ -0,0 +1,139 @@
+package bricker.main;
+
+import java.util.function.IntConsumer;
+
+/**
+ * The last seconds of a game, kept so play can be rewound. The recording is cut into segments of a fixed
+ * length of time, so it covers the same seconds of play at any frame rate. Every segment starts with a
+ * keyframe of the small, fast changing state: the balls, the paddles, the falling hearts, the turbo state
+ * and the lives. During the segment only the deltas of the brick field are recorded, as the indices of the
+ * bricks removed in it. The brick field itself is never copied, since rewinding always starts from the
+ * running game: a rewind step puts back the bricks removed in the newest segment and returns its keyframe.
+ * Both the keyframes and the removed bricks are kept in bounded rings, and the oldest segments are dropped
+ * when either is full, so the buffer has a fixed size whatever the size of the brick field.
+ */
+public class RewindBuffer {
+
+    // private fields
+    private final float secondsPerKeyframe;
+    private final GameSnapshot[] keyframes;
+    private final long[] segmentRemovalStarts;
+    private final int[] removedBricks;
+    private int newestSegment = -1;
+    private int segmentCount = 0;
+    private float secondsInSegment = 0;
+    private long removalCount = 0;
+
+    /**
+     * Creates an empty rewind buffer.
+     *
+     * @param segmentCapacity    the largest number of segments kept
+     * @param secondsPerKeyframe the length of a segment, in seconds
+     * @param removalCapacity    the largest number of removed bricks kept over all the segments
+     */
+    public RewindBuffer(int segmentCapacity, float secondsPerKeyframe, int removalCapacity) {
+        this.secondsPerKeyframe = secondsPerKeyframe;
+        this.keyframes = new GameSnapshot[segmentCapacity];
+        this.segmentRemovalStarts = new long[segmentCapacity];
+        this.removedBricks = new int[removalCapacity];
+        for (int segment = 0; segment < segmentCapacity; segment++) {
+            keyframes[segment] = new GameSnapshot();
+        }
+    }
+
+    /**
+     * Starts recording a frame. Once the current segment is long enough the frame starts a new segment,
+     * whose keyframe the caller must fill with the state at the start of the frame.
+     *
+     * @param deltaTime the time of the frame, in seconds
+     * @return the keyframe to fill if the frame starts a segment, null otherwise
+     */
+    GameSnapshot startFrame(float deltaTime) {
+        if (segmentCount > 0 && secondsInSegment < secondsPerKeyframe) {
+            secondsInSegment += deltaTime;
+            return null;
+        }
+        newestSegment = (newestSegment + 1) % keyframes.length;
+        segmentCount = Math.min(segmentCount + 1, keyframes.length);
+        segmentRemovalStarts[newestSegment] = removalCount;
+        secondsInSegment = deltaTime;
+        return keyframes[newestSegment];
+    }
+
+    /**
+     * Records a brick removed in the current frame. Segments are dropped from the oldest while their
+     * removed bricks would be overwritten, and if the current segment alone removed more bricks than the
+     * buffer holds, the whole recording is dropped.
+     *
+     * @param brick index of the removed brick
+     */
+    public void recordRemovedBrick(int brick) {
+        if (segmentCount == 0) {
+            return;
+        }
+        while (segmentCount > 0 &&
+                removalCount - segmentRemovalStarts[oldestSegment()] >= removedBricks.length) {
+            segmentCount--;
+        }
+        if (segmentCount == 0) {
+            clear();
+            return;
+        }
+        removedBricks[(int) (removalCount % removedBricks.length)] = brick;
+        removalCount++;
+    }
+
+    /**
+     * @return true if there is a recorded segment to rewind to
+     */
+    public boolean canRewind() {
+        return segmentCount > 0;
+    }
+
+    /**
+     * Rewinds the newest segment: hands back the bricks removed in it, newest first, and drops it. The next
+     * recorded frame starts a new segment.
+     *
+     * @param restoredBricks receives the index of every brick to put back in the game
+     * @return the keyframe of the dropped segment, the state to put the other objects back in, valid until
+     * the next recorded frame
+     * @throws IllegalStateException if there is nothing to rewind
+     */
+    GameSnapshot rewind(IntConsumer restoredBricks) {
+        if (!canRewind()) {
+            throw new IllegalStateException("Nothing to rewind");
+        }
+        long segmentStart = segmentRemovalStarts[newestSegment];
+        for (long removal = removalCount - 1; removal >= segmentStart; removal--) {
+            restoredBricks.accept(removedBricks[(int) (removal % removedBricks.length)]);
+        }
+        removalCount = segmentStart;
+        GameSnapshot keyframe = keyframes[newestSegment];
+        newestSegment = (newestSegment - 1 + keyframes.length) % keyframes.length;
+        segmentCount--;
+        secondsInSegment = secondsPerKeyframe;
+        return keyframe;
+    }
+
+    /**
+     * Drops the whole recording, when the game is reset or restored and its past no longer applies.
+     */
+    public void clear() {
+        segmentCount = 0;
+        secondsInSegment = 0;
+    }
+
+    /**
+     * @return the recorded time that can be rewound, in seconds
+     */
+    public float getRecordedSeconds() {
+        return segmentCount == 0 ? 0 : (segmentCount - 1) * secondsPerKeyframe + secondsInSegment;
+    }
+
+    /**
+     * @return index of the oldest recorded segment
+     */
+    private int oldestSegment() {
+        return (newestSegment - segmentCount + 1 + keyframes.length) % keyframes.length;
+    }
+}
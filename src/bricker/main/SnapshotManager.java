@@ -0,0 +1,540 @@
+package bricker.main;
+
+import bricker.assets.SoundSource;
+import bricker.assets.TextureAtlas;
+import bricker.brick_strategies.CollisionStrategyFactory;
+import bricker.gameobjects.*;
+import bricker.levels.Level;
+import bricker.telemetry.FrameCounters;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.UserInputListener;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static danogl.collisions.Layer.DEFAULT;
+import static danogl.collisions.Layer.STATIC_OBJECTS;
+
+/**
+ * Captures the running game into snapshots and puts it back into them without initializing it again: the
+ * quick save and restore through a file, rewinding the last seconds of play while a key is held, and
+ * starting a new game or level in place. Snapshots hold a fixed brick grid, so the endless mode has none.
+ */
+class SnapshotManager {
+
+    // Quick save and restore of the running game
+    private static final String SNAPSHOT_FILE_PATH = "bricker.save";
+    private static final int SAVE_SNAPSHOT_KEY = KeyEvent.VK_F5;
+    private static final int RESTORE_SNAPSHOT_KEY = KeyEvent.VK_F9;
+
+    // Rewind of the last seconds of play, while a key is held, at a few times the speed of play
+    private static final int REWIND_KEY = KeyEvent.VK_BACK_SPACE;
+    private static final int REWIND_SECONDS = 5;
+    private static final int REWIND_KEYFRAMES_PER_SECOND = 15;
+    private static final float REWIND_SECONDS_PER_KEYFRAME = 1f / REWIND_KEYFRAMES_PER_SECOND;
+    private static final int REWIND_SEGMENTS = REWIND_SECONDS * REWIND_KEYFRAMES_PER_SECOND;
+    private static final int REWIND_SPEED = 4;
+    private static final int REWIND_REMOVED_BRICKS = 1 << 18;
+
+    // private fields
+    private final int numberOfBricksPerRow;
+    private final int numberOfBrickRows;
+    private final boolean endlessMode;
+    private final Counter bricksCount;
+    private final LivesDisplay lives;
+    private final FrameCounters frameCounters;
+    private final GameSnapshot quickSnapshot = new GameSnapshot();
+    private final GameSnapshot newGameSnapshot = new GameSnapshot();
+    private ByteBuffer snapshotBuffer = ByteBuffer.allocate(0);
+    private boolean snapshotKeyDown = false;
+    private final RewindBuffer rewindBuffer = new RewindBuffer(REWIND_SEGMENTS, REWIND_SECONDS_PER_KEYFRAME,
+            REWIND_REMOVED_BRICKS);
+    private float rewindSeconds = 0;
+    private GameObjectCollection gameObjects;
+    private UserInputListener inputListener;
+    private TextureAtlas textureAtlas;
+    private SoundSource soundSource;
+    private PaddleController paddleController;
+    private Ball ball;
+    private Paddle originalPaddle;
+    private CollisionStrategyFactory strategyFactory;
+    private Brick[] bricks;
+    // the grid cells that have a brick, the bricks in the game and the strategy code of every brick, kept
+    // next to the bricks so a restore only touches the bricks that differ from the snapshot
+    private long[] brickCells;
+    private long[] bricksInGame;
+    private short[] brickStrategyCodes;
+
+    /**
+     * Creates the snapshots of a game that was not initialized yet.
+     *
+     * @param numberOfBricksPerRow the number of bricks per single row
+     * @param numberOfBrickRows    the number of brick rows
+     * @param endlessMode          true for the endless mode, which has no snapshots
+     * @param bricksCount          counts the bricks in the game
+     * @param lives                the lives of the player
+     * @param frameCounters        counts the collision pairs tested in the current frame
+     */
+    SnapshotManager(int numberOfBricksPerRow, int numberOfBrickRows, boolean endlessMode, Counter bricksCount,
+                    LivesDisplay lives, FrameCounters frameCounters) {
+        this.numberOfBricksPerRow = numberOfBricksPerRow;
+        this.numberOfBrickRows = numberOfBrickRows;
+        this.endlessMode = endlessMode;
+        this.bricksCount = bricksCount;
+        this.lives = lives;
+        this.frameCounters = frameCounters;
+    }
+
+    /**
+     * Takes the objects of a new initialization of the game, and drops the recorded past of the previous
+     * one.
+     *
+     * @param gameObjects      the objects of the game
+     * @param inputListener    reads the snapshot and rewind keys
+     * @param textureAtlas     the atlas holding the images of the restored objects
+     * @param soundSource      the source of the sounds of the restored balls
+     * @param paddleController moves the restored mock paddle
+     * @param ball             the main ball
+     * @param paddle           the paddle of the player
+     * @param strategyFactory  creates the collision strategies of restored bricks
+     * @param bricks           the bricks by index, null in the endless mode
+     */
+    void attach(GameObjectCollection gameObjects, UserInputListener inputListener, TextureAtlas textureAtlas,
+                SoundSource soundSource, PaddleController paddleController, Ball ball, Paddle paddle,
+                CollisionStrategyFactory strategyFactory, Brick[] bricks) {
+        this.gameObjects = gameObjects;
+        this.inputListener = inputListener;
+        this.textureAtlas = textureAtlas;
+        this.soundSource = soundSource;
+        this.paddleController = paddleController;
+        this.ball = ball;
+        this.originalPaddle = paddle;
+        this.strategyFactory = strategyFactory;
+        this.bricks = bricks;
+        if (bricks != null) {
+            mirrorBricks();
+        }
+        rewindBuffer.clear();
+        rewindSeconds = 0;
+    }
+
+    /**
+     * Copies which cells have a brick, which bricks are in the game and their strategy codes from the
+     * bricks of a new initialization of the game.
+     */
+    private void mirrorBricks() {
+        int wordCount = (bricks.length + Long.SIZE - 1) / Long.SIZE;
+        brickCells = new long[wordCount];
+        bricksInGame = new long[wordCount];
+        brickStrategyCodes = new short[bricks.length];
+        for (int index = 0; index < bricks.length; index++) {
+            Brick brick = bricks[index];
+            // the empty cells of a generated level have no brick
+            if (brick == null) {
+                continue;
+            }
+            brickCells[index / Long.SIZE] |= 1L << index;
+            if (!brick.isDestroyed()) {
+                bricksInGame[index / Long.SIZE] |= 1L << index;
+            }
+            brickStrategyCodes[index] = (short) brick.getStrategyCode();
+        }
+    }
+
+    /**
+     * Records a brick removed from the game in the current frame, so rewinding can put it back.
+     *
+     * @param index the index of the brick
+     */
+    void recordRemovedBrick(int index) {
+        if (bricksInGame != null) {
+            bricksInGame[index / Long.SIZE] &= ~(1L << index);
+        }
+        rewindBuffer.recordRemovedBrick(index);
+    }
+
+    /**
+     * @return true while the rewind key is held, in any mode but the endless one
+     */
+    boolean isRewinding() {
+        return !endlessMode && inputListener.isKeyPressed(REWIND_KEY);
+    }
+
+    /**
+     * Starts recording the frame for rewinding, capturing the state of the balls, paddles, hearts and lives
+     * when the frame starts a new segment. The endless mode has no fixed brick grid, so it is not recorded.
+     *
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    void recordRewindFrame(float deltaTime) {
+        rewindSeconds = 0;
+        if (endlessMode) {
+            return;
+        }
+        GameSnapshot keyframe = rewindBuffer.startFrame(deltaTime);
+        if (keyframe != null) {
+            captureDynamicState(keyframe);
+        }
+    }
+
+    /**
+     * Rewinds the recorded segments the frame covers at the rewind speed, if there are any: puts back the
+     * bricks removed in them and the other objects in their state at the start of the oldest of them.
+     * Segments have a fixed length of time, so rewinding goes at the same speed at any frame rate. Only the
+     * bricks removed since then are touched, so a step costs the same however large the brick field is.
+     *
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    void rewindStep(float deltaTime) {
+        rewindSeconds += deltaTime * REWIND_SPEED;
+        GameSnapshot keyframe = null;
+        while (rewindSeconds >= REWIND_SECONDS_PER_KEYFRAME && rewindBuffer.canRewind()) {
+            rewindSeconds -= REWIND_SECONDS_PER_KEYFRAME;
+            keyframe = rewindBuffer.rewind(index -> {
+                Brick brick = bricks[index];
+                if (brick.isDestroyed()) {
+                    gameObjects.addGameObject(brick, STATIC_OBJECTS);
+                    brick.setDestroyed(false);
+                    bricksInGame[index / Long.SIZE] |= 1L << index;
+                    bricksCount.increment();
+                }
+            });
+        }
+        if (keyframe != null) {
+            restoreDynamicState(keyframe);
+        }
+    }
+
+    /**
+     * Saves the game to the snapshot file when the save key is pressed, and restores it from the file when
+     * the restore key is pressed. Holding a key down only acts once.
+     */
+    void checkSnapshotKeys() {
+        boolean savePressed = inputListener.isKeyPressed(SAVE_SNAPSHOT_KEY);
+        boolean restorePressed = inputListener.isKeyPressed(RESTORE_SNAPSHOT_KEY);
+        if (!snapshotKeyDown) {
+            try {
+                if (savePressed) {
+                    saveSnapshotFile(Paths.get(SNAPSHOT_FILE_PATH));
+                } else if (restorePressed && Files.isRegularFile(Paths.get(SNAPSHOT_FILE_PATH))) {
+                    restoreSnapshotFile(Paths.get(SNAPSHOT_FILE_PATH));
+                }
+            } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }
+        snapshotKeyDown = savePressed || restorePressed;
+    }
+
+    /**
+     * Saves the running game to a file.
+     *
+     * @param path the file to write
+     * @throws IOException if writing fails
+     */
+    void saveSnapshotFile(Path path) throws IOException {
+        saveSnapshot(quickSnapshot);
+        int size = quickSnapshot.getEncodedSize();
+        if (snapshotBuffer.capacity() < size) {
+            snapshotBuffer = ByteBuffer.allocate(size);
+        }
+        snapshotBuffer.clear();
+        quickSnapshot.writeTo(snapshotBuffer);
+        snapshotBuffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshotBuffer.hasRemaining()) {
+                channel.write(snapshotBuffer);
+            }
+        }
+    }
+
+    /**
+     * Restores the running game from a file written by saveSnapshotFile.
+     *
+     * @param path the file to read
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the file is not a snapshot of a game with the same brick grid
+     */
+    void restoreSnapshotFile(Path path) throws IOException {
+        quickSnapshot.readFrom(ByteBuffer.wrap(Files.readAllBytes(path)));
+        restoreSnapshot(quickSnapshot);
+    }
+
+    /**
+     * Lays out the bricks of a level, or new random strategies without a level, and puts the lives, the
+     * paddle and the ball, which was already put at the start, back into a new game. The new strategies
+     * are rolled into the snapshot, so only the bricks whose strategy changed are touched.
+     *
+     * @param level        the level to lay out, null for new random strategies
+     * @param livesAmount  the lives to start with
+     * @param paddleCenter the start position of the paddle
+     */
+    void startNewGame(Level level, int livesAmount, Vector2 paddleCenter) {
+        newGameSnapshot.setBrickGrid(numberOfBricksPerRow, numberOfBrickRows);
+        Arrays.fill(newGameSnapshot.aliveBricks, 0);
+        for (int index = 0; index < bricks.length; index++) {
+            if (bricks[index] == null) {
+                continue;
+            }
+            int row = index / numberOfBricksPerRow;
+            int column = index % numberOfBricksPerRow;
+            // a new random strategy, unless the level sets it
+            if (level == null) {
+                newGameSnapshot.setBrickAlive(index);
+                newGameSnapshot.strategyCodes[index] = (short) strategyFactory.rollStrategyCode();
+            } else if (level.hasBrick(row, column)) {
+                newGameSnapshot.setBrickAlive(index);
+                newGameSnapshot.strategyCodes[index] = (short) level.getStrategyCode(row, column);
+            } else {
+                // a campaign brick that is not in this level keeps its strategy
+                newGameSnapshot.strategyCodes[index] = brickStrategyCodes[index];
+            }
+        }
+        newGameSnapshot.lives = livesAmount;
+        newGameSnapshot.turboBallHits = 0;
+        captureBall(ball, newGameSnapshot.mainBall, 0);
+        newGameSnapshot.mainBallCollisions = 0;
+        newGameSnapshot.turbo = false;
+        newGameSnapshot.paddleX = paddleCenter.x();
+        newGameSnapshot.paddleY = paddleCenter.y();
+        newGameSnapshot.mockPaddleActive = false;
+        newGameSnapshot.puckCount = 0;
+        newGameSnapshot.heartCount = 0;
+        restoreSnapshot(newGameSnapshot);
+    }
+
+    /**
+     * Snapshots hold a fixed brick grid, which the endless mode does not have.
+     *
+     * @throws IllegalStateException in the endless mode
+     */
+    private void checkSnapshotSupported() {
+        if (endlessMode) {
+            throw new IllegalStateException("Snapshots are not supported in the endless mode");
+        }
+    }
+
+    /**
+     * Captures the full state of the running game.
+     *
+     * @param snapshot the snapshot to overwrite
+     * @throws IllegalStateException in the endless mode
+     */
+    void saveSnapshot(GameSnapshot snapshot) {
+        checkSnapshotSupported();
+        snapshot.setBrickGrid(numberOfBricksPerRow, numberOfBrickRows);
+        System.arraycopy(bricksInGame, 0, snapshot.aliveBricks, 0, bricksInGame.length);
+        System.arraycopy(brickStrategyCodes, 0, snapshot.strategyCodes, 0, brickStrategyCodes.length);
+        captureDynamicState(snapshot);
+    }
+
+    /**
+     * Captures the state of everything but the bricks: the lives, the balls, the paddles and the falling
+     * hearts.
+     *
+     * @param snapshot the snapshot to overwrite, whose brick arrays are left as they are
+     */
+    private void captureDynamicState(GameSnapshot snapshot) {
+        snapshot.lives = lives.getLives();
+        snapshot.turboBallHits = ball.getTurboBallHits();
+        captureBall(ball, snapshot.mainBall, 0);
+        snapshot.mainBallCollisions = ball.getCollisionCounter();
+        snapshot.turbo = ball.isTurbo();
+        snapshot.paddleX = originalPaddle.getCenter().x();
+        snapshot.paddleY = originalPaddle.getCenter().y();
+
+        snapshot.mockPaddleActive = false;
+        snapshot.puckCount = 0;
+        snapshot.heartCount = 0;
+        for (GameObject gameObject : gameObjects.objectsInLayer(DEFAULT)) {
+            int kind = EntityKind.kindOf(gameObject);
+            if (kind == EntityKind.MOCK_PADDLE) {
+                snapshot.mockPaddleActive = true;
+                snapshot.mockPaddleX = gameObject.getCenter().x();
+                snapshot.mockPaddleY = gameObject.getCenter().y();
+                snapshot.mockPaddleCollisions = ((MockPaddle) gameObject).getCollisionCounter();
+            } else if (kind == EntityKind.PUCK_BALL) {
+                snapshot.ensurePuckCapacity(snapshot.puckCount + 1);
+                captureBall(gameObject, snapshot.pucks, snapshot.puckCount * GameSnapshot.BALL_FLOATS);
+                snapshot.puckCollisions[snapshot.puckCount++] = ((Ball) gameObject).getCollisionCounter();
+            } else if (kind == EntityKind.FALLING_HEART) {
+                snapshot.ensureHeartCapacity(snapshot.heartCount + 1);
+                int offset = snapshot.heartCount * GameSnapshot.HEART_FLOATS;
+                snapshot.hearts[offset] = gameObject.getCenter().x();
+                snapshot.hearts[offset + 1] = gameObject.getCenter().y();
+                snapshot.heartCount++;
+            }
+        }
+    }
+
+    /**
+     * Writes the center and velocity of a ball into an array.
+     *
+     * @param ball   the ball
+     * @param values the array
+     * @param offset the index of the first value
+     */
+    private static void captureBall(GameObject ball, float[] values, int offset) {
+        values[offset] = ball.getCenter().x();
+        values[offset + 1] = ball.getCenter().y();
+        values[offset + 2] = ball.getVelocity().x();
+        values[offset + 3] = ball.getVelocity().y();
+    }
+
+    /**
+     * Puts the running game in the state of a snapshot, without initializing the game again.
+     * Bricks are only added, removed or given a new strategy where they differ from the snapshot.
+     *
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot is of a game with a different brick grid
+     * @throws IllegalStateException    in the endless mode
+     */
+    void restoreSnapshot(GameSnapshot snapshot) {
+        checkSnapshotSupported();
+        if (snapshot.bricksPerRow != numberOfBricksPerRow || snapshot.brickRows != numberOfBrickRows) {
+            throw new IllegalArgumentException("Snapshot of a " + snapshot.bricksPerRow + "x" +
+                    snapshot.brickRows + " brick grid can not be restored into a " + numberOfBricksPerRow +
+                    "x" + numberOfBrickRows + " game");
+        }
+        restoreBricks(snapshot);
+        restoreDynamicState(snapshot);
+        // the game left its recorded past
+        rewindBuffer.clear();
+    }
+
+    /**
+     * Puts everything but the bricks in the state of a snapshot: the lives, the balls, the paddles and the
+     * falling hearts.
+     *
+     * @param snapshot the snapshot to restore, whose brick arrays are ignored
+     */
+    private void restoreDynamicState(GameSnapshot snapshot) {
+        // the dynamic objects are few, so they are simply created again
+        for (GameObject gameObject : gameObjects.objectsInLayer(DEFAULT)) {
+            if (EntityKind.has(gameObject, EntityKind.SPAWNED)) {
+                gameObjects.removeGameObject(gameObject);
+            }
+        }
+        for (int puck = 0; puck < snapshot.puckCount; puck++) {
+            createPuckBall(snapshot.pucks, puck * GameSnapshot.BALL_FLOATS, snapshot.puckCollisions[puck]);
+        }
+        for (int heart = 0; heart < snapshot.heartCount; heart++) {
+            createFallingHeart(new Vector2(snapshot.hearts[heart * GameSnapshot.HEART_FLOATS],
+                    snapshot.hearts[heart * GameSnapshot.HEART_FLOATS + 1]));
+        }
+        if (snapshot.mockPaddleActive) {
+            createMockPaddle(new Vector2(snapshot.mockPaddleX, snapshot.mockPaddleY),
+                    snapshot.mockPaddleCollisions);
+        }
+
+        ball.setCenter(new Vector2(snapshot.mainBall[0], snapshot.mainBall[1]));
+        ball.setVelocity(new Vector2(snapshot.mainBall[2], snapshot.mainBall[3]));
+        ball.setCollisionCounter(snapshot.mainBallCollisions);
+        ball.setTurbo(snapshot.turbo);
+        ball.renderer().setRenderable(textureAtlas.getRenderable(
+                snapshot.turbo ? Constants.RED_BALL_IMAGE_PATH : Constants.BALL_IMAGE_PATH));
+        ball.setTurboBallHits(snapshot.turboBallHits);
+        originalPaddle.setCenter(new Vector2(snapshot.paddleX, snapshot.paddleY));
+        if (snapshot.lives != lives.getLives()) {
+            lives.restore(snapshot.lives);
+        }
+    }
+
+    /**
+     * Adds, removes and sets the strategies of bricks to match a snapshot. The bricks in the game and their
+     * strategies are compared through their copies in flat arrays, so the bricks that already match the
+     * snapshot are never touched.
+     *
+     * @param snapshot the snapshot to restore
+     */
+    private void restoreBricks(GameSnapshot snapshot) {
+        int bricksAlive = 0;
+        for (int word = 0; word < bricksInGame.length; word++) {
+            long alive = snapshot.aliveBricks[word] & brickCells[word];
+            for (long removed = bricksInGame[word] & ~alive; removed != 0; removed &= removed - 1) {
+                Brick brick = bricks[word * Long.SIZE + Long.numberOfTrailingZeros(removed)];
+                gameObjects.removeGameObject(brick, STATIC_OBJECTS);
+                brick.setDestroyed(true);
+            }
+            bricksAlive += Long.bitCount(alive);
+        }
+        for (int index = 0; index < brickStrategyCodes.length; index++) {
+            short strategyCode = snapshot.strategyCodes[index];
+            if (brickStrategyCodes[index] != strategyCode && bricks[index] != null) {
+                bricks[index].setCollisionStrategy(strategyFactory.createCollisionStrategy(strategyCode),
+                        strategyCode);
+                brickStrategyCodes[index] = strategyCode;
+            }
+        }
+        for (int word = 0; word < bricksInGame.length; word++) {
+            long alive = snapshot.aliveBricks[word] & brickCells[word];
+            for (long added = alive & ~bricksInGame[word]; added != 0; added &= added - 1) {
+                Brick brick = bricks[word * Long.SIZE + Long.numberOfTrailingZeros(added)];
+                gameObjects.addGameObject(brick, STATIC_OBJECTS);
+                brick.setDestroyed(false);
+            }
+            bricksInGame[word] = alive;
+        }
+        bricksCount.reset();
+        bricksCount.increaseBy(bricksAlive);
+    }
+
+    /**
+     * Creates a puck ball, as restored from a snapshot.
+     *
+     * @param values     center and velocity of the puck
+     * @param offset     the index of the puck's first value
+     * @param collisions the number of collisions the puck had
+     */
+    private void createPuckBall(float[] values, int offset, int collisions) {
+        float puckBallSize = Constants.BALL_DIMENSIONS * Constants.PUCK_BALL_RATIO_FROM_ORIGINAL;
+        Ball puckBall = new Ball(Vector2.ZERO, new Vector2(puckBallSize, puckBallSize),
+                textureAtlas.getRenderable(Constants.MOCK_BALL_IMAGE_PATH),
+                soundSource.readSound(Constants.BALL_COLLISION_SOUND_PATH), EntityKind.PUCK_BALL,
+                frameCounters);
+        gameObjects.addGameObject(puckBall);
+        puckBall.setCenter(new Vector2(values[offset], values[offset + 1]));
+        puckBall.setVelocity(new Vector2(values[offset + 2], values[offset + 3]));
+        puckBall.setCollisionCounter(collisions);
+    }
+
+    /**
+     * Creates a falling heart, as restored from a snapshot.
+     *
+     * @param center the center of the heart
+     */
+    private void createFallingHeart(Vector2 center) {
+        Heart heart = new Heart(Vector2.ZERO, new Vector2(Constants.HEART_SIZE, Constants.HEART_SIZE),
+                textureAtlas.getRenderable(Constants.HEART_IMAGE_PATH), EntityKind.FALLING_HEART,
+                frameCounters);
+        gameObjects.addGameObject(heart);
+        heart.setCenter(center);
+        heart.setVelocity(new Vector2(0, Constants.HEART_FALLING_SPEED));
+    }
+
+    /**
+     * Creates the mock paddle, as restored from a snapshot.
+     *
+     * @param center     the center of the paddle
+     * @param collisions the number of collisions the paddle had
+     */
+    private void createMockPaddle(Vector2 center, int collisions) {
+        MockPaddle mockPaddle = new MockPaddle(Vector2.ZERO,
+                new Vector2(Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT),
+                textureAtlas.getRenderable(Constants.PADDLE_IMAGE_PATH), paddleController, frameCounters);
+        mockPaddle.setCenter(center);
+        mockPaddle.setCollisionCounter(collisions);
+        gameObjects.addGameObject(mockPaddle);
+    }
+}
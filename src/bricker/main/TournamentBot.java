@@ -0,0 +1,44 @@
+package bricker.main;
+
+import bricker.headless.HeadlessBrickerGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The paddle players a tournament can pit against its configurations.
+ */
+public enum TournamentBot {
+    /** Never moves the paddle, so its games can be fast-forwarded */
+    STAY,
+    /** Moves the paddle towards the main ball */
+    FOLLOW,
+    /** Moves the paddle in a random direction every frame */
+    RANDOM;
+
+    private static final float PADDLE_DEAD_ZONE = 10;
+    private static final float HALF = 0.5f;
+
+    /**
+     * Decides where the paddle moves in the next frame.
+     *
+     * @param game   the game being played
+     * @param random the random generator of the game's bot
+     * @return HeadlessBrickerGame.MOVE_LEFT, STAY or MOVE_RIGHT
+     */
+    public int direction(HeadlessBrickerGame game, RandomGenerator random) {
+        switch (this) {
+            case FOLLOW:
+                float paddleCenter = game.getPaddleX() + Constants.PADDLE_WIDTH * HALF;
+                float ballX = game.getBallX(HeadlessBrickerGame.MAIN_BALL);
+                if (ballX < paddleCenter - PADDLE_DEAD_ZONE) {
+                    return HeadlessBrickerGame.MOVE_LEFT;
+                }
+                return ballX > paddleCenter + PADDLE_DEAD_ZONE ? HeadlessBrickerGame.MOVE_RIGHT :
+                        HeadlessBrickerGame.STAY;
+            case RANDOM:
+                return random.nextInt(HeadlessBrickerGame.MOVE_LEFT, HeadlessBrickerGame.MOVE_RIGHT + 1);
+            default:
+                return HeadlessBrickerGame.STAY;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategySampler;
+import bricker.headless.HeadlessBrickerGame;
+
+/**
+ * A single point of a tournament's configuration grid: the brick grid, the lives, the strategy weights
+ * and the bot every game of the configuration is played with.
+ */
+public class TournamentConfig {
+
+    private static final String DESCRIPTION_FORMAT = "bricksPerRow=%d rows=%d lives=%d weights=%s bot=%s";
+
+    // private fields
+    private final int bricksPerRow;
+    private final int rows;
+    private final int lives;
+    private final String weightsName;
+    private final StrategySampler strategySampler;
+    private final TournamentBot bot;
+
+    /**
+     * Creates a configuration.
+     *
+     * @param bricksPerRow    the number of bricks per single row
+     * @param rows            the number of brick rows
+     * @param lives           the number of lives every game starts with
+     * @param weightsName     the name of the strategy weight table, as given on the command line
+     * @param strategySampler samples the strategies of the bricks from the weight table
+     * @param bot             the paddle player
+     */
+    public TournamentConfig(int bricksPerRow, int rows, int lives, String weightsName,
+                            StrategySampler strategySampler, TournamentBot bot) {
+        this.bricksPerRow = bricksPerRow;
+        this.rows = rows;
+        this.lives = lives;
+        this.weightsName = weightsName;
+        this.strategySampler = strategySampler;
+        this.bot = bot;
+    }
+
+    /**
+     * @return a new game of this configuration, to be reset before every game
+     */
+    public HeadlessBrickerGame createGame() {
+        return new HeadlessBrickerGame(bricksPerRow, rows, strategySampler, lives);
+    }
+
+    /**
+     * @return the paddle player
+     */
+    public TournamentBot getBot() {
+        return bot;
+    }
+
+    /**
+     * @return the configuration as a single line, e.g. "bricksPerRow=8 rows=7 lives=3 weights=default
+     * bot=FOLLOW"
+     */
+    @Override
+    public String toString() {
+        return String.format(DESCRIPTION_FORMAT, bricksPerRow, rows, lives, weightsName, bot);
+    }
+}
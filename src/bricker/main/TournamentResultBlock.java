@@ -0,0 +1,91 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+
+/**
+ * The results of up to a fixed number of tournament games, column by column, filled by a single worker
+ * and written to the results file as a single row group. Blocks are reused, so a tournament of any length
+ * holds a fixed number of them.
+ */
+class TournamentResultBlock {
+
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+
+    // package private columns, read by the result writer
+    final long[] seeds;
+    final int[] configs;
+    final byte[] outcomes;
+    final int[] frames;
+    final long[] wallNanos;
+    final int[] bricksDestroyed;
+    final float[] bricksPerSecond;
+    final int[][] strategyActivations;
+    // private fields
+    private int rows = 0;
+
+    /**
+     * Creates an empty block.
+     *
+     * @param capacity the number of games the block can hold
+     */
+    TournamentResultBlock(int capacity) {
+        this.seeds = new long[capacity];
+        this.configs = new int[capacity];
+        this.outcomes = new byte[capacity];
+        this.frames = new int[capacity];
+        this.wallNanos = new long[capacity];
+        this.bricksDestroyed = new int[capacity];
+        this.bricksPerSecond = new float[capacity];
+        this.strategyActivations = new int[STRATEGY_TYPES.length][capacity];
+    }
+
+    /**
+     * @return the number of games in the block
+     */
+    int getRows() {
+        return rows;
+    }
+
+    /**
+     * Sets the number of games in the block, after its columns were filled directly.
+     *
+     * @param rows the number of games
+     */
+    void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Empties the block, for the next games.
+     */
+    void clear() {
+        rows = 0;
+    }
+
+    /**
+     * Appends a game to the block.
+     *
+     * @param seed                the seed of the game
+     * @param config              index of the game's configuration
+     * @param outcome             the status the game ended with, RUNNING if it hit the frame limit
+     * @param gameFrames          the number of frames played
+     * @param gameWallNanos       the wall time it took to play, in nanoseconds
+     * @param gameBricksDestroyed the number of bricks destroyed
+     * @param gameBricksPerSecond bricks destroyed per second of game time
+     * @param activations         the number of activations of every strategy type, by ordinal
+     */
+    void add(long seed, int config, byte outcome, int gameFrames, long gameWallNanos, int gameBricksDestroyed,
+             float gameBricksPerSecond, int[] activations) {
+        seeds[rows] = seed;
+        configs[rows] = config;
+        outcomes[rows] = outcome;
+        frames[rows] = gameFrames;
+        wallNanos[rows] = gameWallNanos;
+        bricksDestroyed[rows] = gameBricksDestroyed;
+        bricksPerSecond[rows] = gameBricksPerSecond;
+        for (StrategyType type : STRATEGY_TYPES) {
+            strategyActivations[type.ordinal()][rows] = activations[type.ordinal()];
+        }
+        rows++;
+    }
+}
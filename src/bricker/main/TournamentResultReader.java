@@ -0,0 +1,270 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+import bricker.headless.GameStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the columnar results file of a TournamentRunner, a row group at a time. Running main prints a
+ * summary line per configuration, or converts the file to CSV.
+ */
+public class TournamentResultReader implements AutoCloseable {
+
+    private static final int RESULTS_ARG = 0;
+    private static final int CSV_ARG = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int TRAILER_BYTES = Integer.BYTES * 2;
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    private static final GameStatus[] GAME_STATUSES = GameStatus.values();
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double PERCENT = 100;
+    private static final String SUMMARY_FORMAT = "%10d games %5.1f%% won %5.1f%% lost %5.1f%% timeout " +
+            "%8.0f frames %6.2f bricks/s %8.1f us/game  strategies/game";
+    private static final String ACTIVATION_FORMAT = " %s %.2f";
+
+    // private fields
+    private final FileChannel channel;
+    private final List<String> configDescriptions = new ArrayList<>();
+    private final long[] groupOffsets;
+    private final int[] groupRows;
+    private final long rows;
+    private ByteBuffer buffer = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Opens a results file and reads its footer.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file can not be read, or is not a results file of this version
+     */
+    public TournamentResultReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = readAt(0, HEADER_BYTES);
+        boolean validHeader = header.getInt() == TournamentResultWriter.MAGIC &&
+                header.getInt() == TournamentResultWriter.VERSION;
+        ByteBuffer trailer = readAt(channel.size() - TRAILER_BYTES, TRAILER_BYTES);
+        int footerBytes = trailer.getInt();
+        if (!validHeader || trailer.getInt() != TournamentResultWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Not a tournament results file: " + path);
+        }
+        ByteBuffer footer = readAt(channel.size() - TRAILER_BYTES - footerBytes, footerBytes);
+        int configs = footer.getInt();
+        for (int config = 0; config < configs; config++) {
+            configDescriptions.add(getString(footer));
+        }
+        int columns = footer.getInt();
+        String[] expectedNames = TournamentResultWriter.columnNames();
+        for (int column = 0; column < columns; column++) {
+            footer.get();
+            String name = getString(footer);
+            if (column >= expectedNames.length || !name.equals(expectedNames[column])) {
+                channel.close();
+                throw new IOException("Unexpected column " + name + " in " + path);
+            }
+        }
+        int groups = footer.getInt();
+        this.groupOffsets = new long[groups];
+        this.groupRows = new int[groups];
+        for (int group = 0; group < groups; group++) {
+            groupOffsets[group] = footer.getLong();
+            groupRows[group] = footer.getInt();
+        }
+        this.rows = footer.getLong();
+    }
+
+    /**
+     * @return the description of every configuration, by index
+     */
+    public List<String> getConfigDescriptions() {
+        return configDescriptions;
+    }
+
+    /**
+     * @return the number of row groups in the file
+     */
+    public int getGroupCount() {
+        return groupOffsets.length;
+    }
+
+    /**
+     * @return the largest number of games in a single row group
+     */
+    public int getMaxGroupRows() {
+        return Arrays.stream(groupRows).max().orElse(0);
+    }
+
+    /**
+     * @return the number of games in the file
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Reads a row group into a block.
+     *
+     * @param group index of the row group
+     * @param block a block of at least getMaxGroupRows games, whose previous games are overwritten
+     * @throws IOException if reading fails
+     */
+    public void readGroup(int group, TournamentResultBlock block) throws IOException {
+        ByteBuffer bytes = readAt(groupOffsets[group],
+                Integer.BYTES + groupRows[group] * TournamentResultWriter.ROW_BYTES);
+        int groupRowCount = bytes.getInt();
+        for (int row = 0; row < groupRowCount; row++) {
+            block.seeds[row] = bytes.getLong();
+        }
+        for (int row = 0; row < groupRowCount; row++) {
+            block.configs[row] = bytes.getInt();
+        }
+        bytes.get(block.outcomes, 0, groupRowCount);
+        for (int row = 0; row < groupRowCount; row++) {
+            block.frames[row] = bytes.getInt();
+        }
+        for (int row = 0; row < groupRowCount; row++) {
+            block.wallNanos[row] = bytes.getLong();
+        }
+        for (int row = 0; row < groupRowCount; row++) {
+            block.bricksDestroyed[row] = bytes.getInt();
+        }
+        for (int row = 0; row < groupRowCount; row++) {
+            block.bricksPerSecond[row] = bytes.getFloat();
+        }
+        for (int[] activations : block.strategyActivations) {
+            for (int row = 0; row < groupRowCount; row++) {
+                activations[row] = bytes.getInt();
+            }
+        }
+        block.setRows(groupRowCount);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads bytes of the file into the reusable buffer.
+     *
+     * @param position the position in the file of the first byte
+     * @param length   the number of bytes
+     * @return the buffer, holding exactly the bytes read
+     * @throws IOException if the file ends before all the bytes were read
+     */
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated tournament results file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * @param bytes a buffer positioned at a string
+     * @return the string, read past
+     */
+    private static String getString(ByteBuffer bytes) {
+        byte[] utf8 = new byte[bytes.getInt()];
+        bytes.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prints a summary line per configuration of a results file, or converts it to CSV.
+     *
+     * @param args args[0] = the path of a columnar results file
+     *             optional: args[1] = the path of a CSV file to convert the results to
+     * @throws IOException if reading or writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length <= RESULTS_ARG) {
+            System.err.println("usage: TournamentResultReader <results file> [<csv file>]");
+            return;
+        }
+        try (TournamentResultReader reader = new TournamentResultReader(Paths.get(args[RESULTS_ARG]))) {
+            TournamentResultBlock block = new TournamentResultBlock(reader.getMaxGroupRows());
+            if (args.length > CSV_ARG) {
+                try (TournamentResultWriter writer = new TournamentResultWriter(Paths.get(args[CSV_ARG]),
+                        reader.getConfigDescriptions())) {
+                    for (int group = 0; group < reader.getGroupCount(); group++) {
+                        reader.readGroup(group, block);
+                        writer.write(block);
+                    }
+                }
+                return;
+            }
+            printSummary(reader, block);
+        }
+    }
+
+    /**
+     * Prints the outcome rates and average game of every configuration.
+     *
+     * @param reader the results
+     * @param block  a block large enough for any row group
+     * @throws IOException if reading fails
+     */
+    private static void printSummary(TournamentResultReader reader, TournamentResultBlock block)
+            throws IOException {
+        int configs = reader.getConfigDescriptions().size();
+        long[] games = new long[configs];
+        long[][] outcomes = new long[configs][GAME_STATUSES.length];
+        long[] frames = new long[configs];
+        long[] wallNanos = new long[configs];
+        double[] bricksPerSecond = new double[configs];
+        long[][] activations = new long[configs][STRATEGY_TYPES.length];
+        for (int group = 0; group < reader.getGroupCount(); group++) {
+            reader.readGroup(group, block);
+            for (int row = 0; row < block.getRows(); row++) {
+                int config = block.configs[row];
+                games[config]++;
+                outcomes[config][block.outcomes[row]]++;
+                frames[config] += block.frames[row];
+                wallNanos[config] += block.wallNanos[row];
+                bricksPerSecond[config] += block.bricksPerSecond[row];
+                for (StrategyType type : STRATEGY_TYPES) {
+                    activations[config][type.ordinal()] += block.strategyActivations[type.ordinal()][row];
+                }
+            }
+        }
+        for (int config = 0; config < configs; config++) {
+            System.out.println(reader.getConfigDescriptions().get(config));
+            if (games[config] == 0) {
+                continue;
+            }
+            double count = games[config];
+            StringBuilder line = new StringBuilder(String.format(SUMMARY_FORMAT, games[config],
+                    PERCENT * outcomes[config][GameStatus.WON.ordinal()] / count,
+                    PERCENT * outcomes[config][GameStatus.LOST.ordinal()] / count,
+                    PERCENT * outcomes[config][GameStatus.RUNNING.ordinal()] / count,
+                    frames[config] / count, bricksPerSecond[config] / count,
+                    wallNanos[config] / count / NANOS_PER_MICRO));
+            for (StrategyType type : STRATEGY_TYPES) {
+                line.append(String.format(ACTIVATION_FORMAT, type,
+                        activations[config][type.ordinal()] / count));
+            }
+            System.out.println(line);
+        }
+    }
+}
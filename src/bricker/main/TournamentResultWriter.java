@@ -0,0 +1,333 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams tournament results to a file, a block at a time, so the results of any number of games take a
+ * fixed amount of memory. Paths ending with ".csv" get a CSV file with a header line and a line per game.
+ * Any other path gets a columnar file, read by TournamentResultReader:
+ * <pre>
+ * header:    int MAGIC, int VERSION
+ * row group: int rows, then every column in the order of columnNames, each as rows values
+ * footer:    int configs, every configuration description as a string
+ *            int columns, every column as a byte type and a string name
+ *            int groups, every row group as a long file offset and an int row count
+ *            long total rows
+ * trailer:   int footer length, int MAGIC
+ * </pre>
+ * All values are little endian, and strings are an int byte length followed by UTF-8 bytes. Row groups
+ * are in the order blocks were written, which is not necessarily the order of seeds.
+ */
+public class TournamentResultWriter implements Closeable {
+
+    /** First and last int of a columnar results file */
+    public static final int MAGIC = 0x42524B54;
+    /** Version of the columnar layout */
+    public static final int VERSION = 1;
+    /** Column type of 64 bit integers */
+    public static final byte LONG_COLUMN = 0;
+    /** Column type of 32 bit integers */
+    public static final byte INT_COLUMN = 1;
+    /** Column type of 8 bit integers */
+    public static final byte BYTE_COLUMN = 2;
+    /** Column type of 32 bit floats */
+    public static final byte FLOAT_COLUMN = 3;
+
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    // bytes of a single game in a row group, a value of every column
+    static final int ROW_BYTES = Long.BYTES + Integer.BYTES + Byte.BYTES + Integer.BYTES + Long.BYTES +
+            Integer.BYTES + Float.BYTES + Integer.BYTES * STRATEGY_TYPES.length;
+
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String[] FIXED_COLUMN_NAMES = {"seed", "config", "outcome", "frames", "wall_nanos",
+            "bricks_destroyed", "bricks_per_second"};
+    private static final byte[] FIXED_COLUMN_TYPES = {LONG_COLUMN, INT_COLUMN, BYTE_COLUMN, INT_COLUMN,
+            LONG_COLUMN, INT_COLUMN, FLOAT_COLUMN};
+    private static final String ACTIVATIONS_COLUMN_PREFIX = "activations_";
+    private static final int INITIAL_GROUPS = 64;
+    private static final char CSV_SEPARATOR = ',';
+    private static final char CSV_QUOTE = '"';
+
+    // private fields
+    private final List<String> configDescriptions;
+    private final boolean csv;
+    private final FileChannel channel;
+    private final BufferedWriter csvWriter;
+    private String[] quotedDescriptions = null;
+    private ByteBuffer buffer = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+    private long[] groupOffsets = new long[INITIAL_GROUPS];
+    private int[] groupRows = new int[INITIAL_GROUPS];
+    private int groups = 0;
+    private long rowsWritten = 0;
+
+    /**
+     * Creates the results file, replacing any file at the path.
+     *
+     * @param path               the path of the file
+     * @param configDescriptions the description of every configuration, by index
+     * @throws IOException if the file can not be created
+     */
+    public TournamentResultWriter(Path path, List<String> configDescriptions) throws IOException {
+        this.configDescriptions = configDescriptions;
+        this.csv = path.toString().endsWith(CSV_EXTENSION);
+        if (csv) {
+            this.channel = null;
+            this.csvWriter = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writeCsvHeader();
+        } else {
+            this.csvWriter = null;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(header);
+        }
+    }
+
+    /**
+     * @return the names of all the columns, in the order they are written
+     */
+    public static String[] columnNames() {
+        String[] names = Arrays.copyOf(FIXED_COLUMN_NAMES, FIXED_COLUMN_NAMES.length + STRATEGY_TYPES.length);
+        for (StrategyType type : STRATEGY_TYPES) {
+            names[FIXED_COLUMN_NAMES.length + type.ordinal()] =
+                    ACTIVATIONS_COLUMN_PREFIX + type.name().toLowerCase();
+        }
+        return names;
+    }
+
+    /**
+     * @return the types of all the columns, in the order they are written
+     */
+    public static byte[] columnTypes() {
+        byte[] types = Arrays.copyOf(FIXED_COLUMN_TYPES, FIXED_COLUMN_TYPES.length + STRATEGY_TYPES.length);
+        Arrays.fill(types, FIXED_COLUMN_TYPES.length, types.length, INT_COLUMN);
+        return types;
+    }
+
+    /**
+     * Appends the games of a block to the file, as a single row group.
+     *
+     * @param block the block
+     * @throws IOException if writing fails
+     */
+    public void write(TournamentResultBlock block) throws IOException {
+        if (block.getRows() == 0) {
+            return;
+        }
+        if (csv) {
+            writeCsvRows(block);
+        } else {
+            writeRowGroup(block);
+        }
+        rowsWritten += block.getRows();
+    }
+
+    /**
+     * @return the number of games written so far
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Writes the footer of a columnar file, and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (csv) {
+            csvWriter.close();
+            return;
+        }
+        try {
+            writeFooter();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the column names, one per column.
+     *
+     * @throws IOException if writing fails
+     */
+    private void writeCsvHeader() throws IOException {
+        String[] names = columnNames();
+        for (int column = 0; column < names.length; column++) {
+            if (column > 0) {
+                csvWriter.write(CSV_SEPARATOR);
+            }
+            csvWriter.write(names[column]);
+        }
+        csvWriter.newLine();
+    }
+
+    /**
+     * Writes a line per game of a block. The config column holds the configuration's description, quoted
+     * so that it may hold separators and line breaks.
+     *
+     * @param block the block
+     * @throws IOException if writing fails
+     */
+    private void writeCsvRows(TournamentResultBlock block) throws IOException {
+        if (quotedDescriptions == null) {
+            quotedDescriptions = new String[configDescriptions.size()];
+            for (int config = 0; config < quotedDescriptions.length; config++) {
+                quotedDescriptions[config] = quoteCsv(configDescriptions.get(config));
+            }
+        }
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < block.getRows(); row++) {
+            line.setLength(0);
+            line.append(block.seeds[row]).append(CSV_SEPARATOR)
+                    .append(quotedDescriptions[block.configs[row]])
+                    .append(CSV_SEPARATOR).append(TournamentRunner.outcomeName(block.outcomes[row]))
+                    .append(CSV_SEPARATOR).append(block.frames[row])
+                    .append(CSV_SEPARATOR).append(block.wallNanos[row])
+                    .append(CSV_SEPARATOR).append(block.bricksDestroyed[row])
+                    .append(CSV_SEPARATOR).append(block.bricksPerSecond[row]);
+            for (int[] activations : block.strategyActivations) {
+                line.append(CSV_SEPARATOR).append(activations[row]);
+            }
+            csvWriter.append(line);
+            csvWriter.newLine();
+        }
+    }
+
+    /**
+     * Quotes a CSV value, doubling the quotes inside it.
+     *
+     * @param value the value
+     * @return the quoted value
+     */
+    static String quoteCsv(String value) {
+        String quote = String.valueOf(CSV_QUOTE);
+        return quote + value.replace(quote, quote + quote) + quote;
+    }
+
+    /**
+     * Writes the columns of a block, one after the other, remembering where the group starts.
+     *
+     * @param block the block
+     * @throws IOException if writing fails
+     */
+    private void writeRowGroup(TournamentResultBlock block) throws IOException {
+        int rows = block.getRows();
+        ensureBuffer(Integer.BYTES + rows * ROW_BYTES);
+        buffer.putInt(rows);
+        for (int row = 0; row < rows; row++) {
+            buffer.putLong(block.seeds[row]);
+        }
+        for (int row = 0; row < rows; row++) {
+            buffer.putInt(block.configs[row]);
+        }
+        buffer.put(block.outcomes, 0, rows);
+        for (int row = 0; row < rows; row++) {
+            buffer.putInt(block.frames[row]);
+        }
+        for (int row = 0; row < rows; row++) {
+            buffer.putLong(block.wallNanos[row]);
+        }
+        for (int row = 0; row < rows; row++) {
+            buffer.putInt(block.bricksDestroyed[row]);
+        }
+        for (int row = 0; row < rows; row++) {
+            buffer.putFloat(block.bricksPerSecond[row]);
+        }
+        for (int[] activations : block.strategyActivations) {
+            for (int row = 0; row < rows; row++) {
+                buffer.putInt(activations[row]);
+            }
+        }
+        buffer.flip();
+
+        if (groups == groupOffsets.length) {
+            groupOffsets = Arrays.copyOf(groupOffsets, groups * 2);
+            groupRows = Arrays.copyOf(groupRows, groups * 2);
+        }
+        groupOffsets[groups] = channel.position();
+        groupRows[groups] = rows;
+        groups++;
+        writeFully(buffer);
+    }
+
+    /**
+     * Writes the configurations, the columns and the row groups, followed by the trailer.
+     *
+     * @throws IOException if writing fails
+     */
+    private void writeFooter() throws IOException {
+        String[] names = columnNames();
+        byte[] types = columnTypes();
+        byte[][] configBytes = new byte[configDescriptions.size()][];
+        int footerBytes = Integer.BYTES;
+        for (int config = 0; config < configBytes.length; config++) {
+            configBytes[config] = configDescriptions.get(config).getBytes(StandardCharsets.UTF_8);
+            footerBytes += Integer.BYTES + configBytes[config].length;
+        }
+        byte[][] nameBytes = new byte[names.length][];
+        footerBytes += Integer.BYTES;
+        for (int column = 0; column < names.length; column++) {
+            nameBytes[column] = names[column].getBytes(StandardCharsets.UTF_8);
+            footerBytes += Byte.BYTES + Integer.BYTES + nameBytes[column].length;
+        }
+        footerBytes += Integer.BYTES + groups * (Long.BYTES + Integer.BYTES) + Long.BYTES;
+
+        ensureBuffer(footerBytes + Integer.BYTES * 2);
+        buffer.putInt(configBytes.length);
+        for (byte[] description : configBytes) {
+            buffer.putInt(description.length).put(description);
+        }
+        buffer.putInt(names.length);
+        for (int column = 0; column < names.length; column++) {
+            buffer.put(types[column]).putInt(nameBytes[column].length).put(nameBytes[column]);
+        }
+        buffer.putInt(groups);
+        for (int group = 0; group < groups; group++) {
+            buffer.putLong(groupOffsets[group]).putInt(groupRows[group]);
+        }
+        buffer.putLong(rowsWritten);
+        buffer.putInt(footerBytes).putInt(MAGIC);
+        buffer.flip();
+        writeFully(buffer);
+    }
+
+    /**
+     * Clears the buffer, growing it first if it can not hold the given number of bytes.
+     *
+     * @param bytes the number of bytes about to be written
+     */
+    private void ensureBuffer(int bytes) {
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer to the file.
+     *
+     * @param bytes the buffer
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
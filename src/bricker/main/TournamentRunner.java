@@ -0,0 +1,305 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategySampler;
+import bricker.brick_strategies.StrategyType;
+import bricker.headless.GameStatus;
+import bricker.headless.HeadlessBrickerGame;
+import bricker.headless.ReseedableRandom;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Plays a batch tournament of headless games: every configuration of a grid (bricks per row, rows, lives,
+ * strategy weights and bot) against every seed of a range, on all the available cores, writing a row per
+ * game to a results file.
+ * <p>
+ * Work is handed out in blocks of consecutive seeds of a single configuration. A worker plays a block into
+ * a TournamentResultBlock taken from a fixed pool and queues it, and the calling thread writes queued
+ * blocks to the file and returns them to the pool, so memory stays fixed however many games are played.
+ * Games of the STAY bot are fast-forwarded, the others are stepped frame by frame. Every game ends when it
+ * is won, lost, or reaches the frame limit. If a worker fails, the other workers stop after their current
+ * block and the tournament fails with the worker's error, instead of waiting for a block that never comes.
+ */
+public class TournamentRunner {
+
+    private static final String USAGE = "usage: TournamentRunner out=<results file, .csv for CSV> " +
+            "seeds=<count or first-last> [bricksPerRow=8,10,...] [rows=7,...] [lives=3,...] " +
+            "[weights=default,<weight table>,...] [bot=stay,follow,random] [frames=<limit>] [threads=<n>]";
+    private static final String KEY_VALUE_SEPARATOR = "=";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String RANGE_SEPARATOR = "-";
+    private static final String OUT_KEY = "out";
+    private static final String SEEDS_KEY = "seeds";
+    private static final String BRICKS_PER_ROW_KEY = "bricksPerRow";
+    private static final String ROWS_KEY = "rows";
+    private static final String LIVES_KEY = "lives";
+    private static final String WEIGHTS_KEY = "weights";
+    private static final String BOT_KEY = "bot";
+    private static final String FRAMES_KEY = "frames";
+    private static final String THREADS_KEY = "threads";
+    private static final String DEFAULT_WEIGHTS = "default";
+    private static final String TIMEOUT_OUTCOME = "timeout";
+    private static final GameStatus[] GAME_STATUSES = GameStatus.values();
+
+    private static final float FRAME_TIME = 1f / 60;
+    private static final int DEFAULT_FRAME_LIMIT = 5 * 60 * 60;
+    private static final int BLOCK_ROWS = 4096;
+    private static final int BLOCKS_PER_THREAD = 2;
+    private static final int PROGRESS_BLOCKS = 256;
+    private static final long WORKER_CHECK_MILLIS = 100;
+    private static final long BOT_SEED_SALT = 0x5DEECE66DL;
+    private static final String WORKER_NAME = "bricker-tournament-worker-";
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+
+    // private fields
+    private final List<TournamentConfig> configs;
+    private final long firstSeed;
+    private final long seedCount;
+    private final int frameLimit;
+    private final int threads;
+    private final long blockCount;
+    private final AtomicLong nextBlock = new AtomicLong();
+    private final BlockingQueue<TournamentResultBlock> freeBlocks;
+    private final BlockingQueue<TournamentResultBlock> fullBlocks;
+    private final AtomicReference<Throwable> workerFailure = new AtomicReference<>();
+
+    /**
+     * Prepares a tournament.
+     *
+     * @param configs    the configurations to play
+     * @param firstSeed  the first seed every configuration is played with
+     * @param seedCount  the number of consecutive seeds every configuration is played with
+     * @param frameLimit the most frames a game is played for
+     * @param threads    the number of worker threads
+     */
+    public TournamentRunner(List<TournamentConfig> configs, long firstSeed, long seedCount, int frameLimit,
+                            int threads) {
+        this.configs = configs;
+        this.firstSeed = firstSeed;
+        this.seedCount = seedCount;
+        this.frameLimit = frameLimit;
+        this.threads = threads;
+        long blocksPerConfig = (seedCount + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        this.blockCount = blocksPerConfig * configs.size();
+        int poolSize = threads * BLOCKS_PER_THREAD;
+        this.freeBlocks = new ArrayBlockingQueue<>(poolSize);
+        this.fullBlocks = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            freeBlocks.add(new TournamentResultBlock(BLOCK_ROWS));
+        }
+    }
+
+    /**
+     * Plays the whole tournament, writing the results as blocks are done.
+     *
+     * @param writer the results file
+     * @throws IOException           if writing fails
+     * @throws InterruptedException  if interrupted while waiting for the workers
+     * @throws IllegalStateException if a worker failed, caused by the worker's error
+     */
+    public void run(TournamentResultWriter writer) throws IOException, InterruptedException {
+        for (int worker = 0; worker < threads; worker++) {
+            Thread thread = new Thread(this::runWorker, WORKER_NAME + worker);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long start = System.nanoTime();
+        for (long written = 1; written <= blockCount; written++) {
+            TournamentResultBlock block = fullBlocks.poll(WORKER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            while (block == null) {
+                Throwable failure = workerFailure.get();
+                if (failure != null) {
+                    throw new IllegalStateException("A tournament worker failed", failure);
+                }
+                block = fullBlocks.poll(WORKER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            writer.write(block);
+            freeBlocks.put(block);
+            if (written % PROGRESS_BLOCKS == 0) {
+                double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+                System.err.printf("%d games, %.0f games/s%n", writer.getRowsWritten(),
+                        writer.getRowsWritten() / seconds);
+            }
+        }
+    }
+
+    /**
+     * Plays blocks until none are left. An error in a game or configuration is recorded for run to fail
+     * with, and stops the other workers from taking new blocks.
+     */
+    private void runWorker() {
+        HeadlessBrickerGame[] games = new HeadlessBrickerGame[configs.size()];
+        ReseedableRandom botRandom = new ReseedableRandom(0);
+        int[] activations = new int[STRATEGY_TYPES.length];
+        try {
+            for (long block = nextBlock.getAndIncrement(); block < blockCount;
+                 block = nextBlock.getAndIncrement()) {
+                // neighboring blocks are of different configurations, so all configurations progress together
+                int config = (int) (block % configs.size());
+                long blockFirstSeed = firstSeed + block / configs.size() * BLOCK_ROWS;
+                long blockEndSeed = Math.min(blockFirstSeed + BLOCK_ROWS, firstSeed + seedCount);
+                if (games[config] == null) {
+                    games[config] = configs.get(config).createGame();
+                }
+                TournamentResultBlock results = freeBlocks.take();
+                results.clear();
+                for (long seed = blockFirstSeed; seed < blockEndSeed; seed++) {
+                    HeadlessBrickerGame game = games[config];
+                    long gameStart = System.nanoTime();
+                    playGame(game, configs.get(config).getBot(), seed, botRandom);
+                    long gameNanos = System.nanoTime() - gameStart;
+                    for (StrategyType type : STRATEGY_TYPES) {
+                        activations[type.ordinal()] = game.getStrategyActivations(type);
+                    }
+                    int bricksDestroyed = game.getBrickCount() - game.getBricksLeft();
+                    float gameSeconds = game.getTick() * FRAME_TIME;
+                    results.add(seed, config, (byte) game.getStatus().ordinal(), (int) game.getTick(),
+                            gameNanos, bricksDestroyed, gameSeconds == 0 ? 0 : bricksDestroyed / gameSeconds,
+                            activations);
+                }
+                fullBlocks.put(results);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            workerFailure.compareAndSet(null, e);
+            nextBlock.set(blockCount);
+        }
+    }
+
+    /**
+     * Plays a single game until it is won, lost or reaches the frame limit.
+     *
+     * @param game      the game, reset to the seed
+     * @param bot       the paddle player
+     * @param seed      the seed of the game
+     * @param botRandom the random generator of the bot, reseeded from the seed
+     */
+    private void playGame(HeadlessBrickerGame game, TournamentBot bot, long seed, ReseedableRandom botRandom) {
+        game.reset(seed);
+        if (bot == TournamentBot.STAY) {
+            game.fastForward(frameLimit, FRAME_TIME);
+            return;
+        }
+        botRandom.reseed(seed ^ BOT_SEED_SALT);
+        for (int frame = 0; frame < frameLimit && game.getStatus() == GameStatus.RUNNING; frame++) {
+            game.step(FRAME_TIME, bot.direction(game, botRandom));
+        }
+    }
+
+    /**
+     * @param outcome the outcome of a game, the ordinal of the GameStatus it ended with
+     * @return the name of the outcome, "timeout" for games that reached the frame limit
+     */
+    static String outcomeName(int outcome) {
+        GameStatus status = GAME_STATUSES[outcome];
+        return status == GameStatus.RUNNING ? TIMEOUT_OUTCOME : status.name().toLowerCase();
+    }
+
+    /**
+     * Builds a configuration for every combination of the values of the list options.
+     *
+     * @param options the options given on the command line
+     * @return the configurations, in a fixed order
+     * @throws IOException if a weight table can not be read
+     */
+    private static List<TournamentConfig> buildConfigs(Map<String, String> options) throws IOException {
+        String[] bricksPerRowValues = listOption(options, BRICKS_PER_ROW_KEY,
+                Constants.DEFAULT_BRICKS_NUMBER_PER_ROW);
+        String[] rowsValues = listOption(options, ROWS_KEY, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS);
+        String[] livesValues = listOption(options, LIVES_KEY, Constants.DEFAULT_LIVES_AMOUNT);
+        String[] weightsValues = options.getOrDefault(WEIGHTS_KEY, DEFAULT_WEIGHTS).split(LIST_SEPARATOR);
+        String[] botValues = options.getOrDefault(BOT_KEY, TournamentBot.FOLLOW.name()).split(LIST_SEPARATOR);
+
+        List<TournamentConfig> configs = new ArrayList<>();
+        for (String weights : weightsValues) {
+            StrategySampler sampler = weights.equals(DEFAULT_WEIGHTS) ? StrategySampler.defaults() :
+                    StrategySampler.load(Paths.get(weights));
+            for (String bricksPerRow : bricksPerRowValues) {
+                for (String rows : rowsValues) {
+                    for (String lives : livesValues) {
+                        for (String bot : botValues) {
+                            configs.add(new TournamentConfig(Integer.parseInt(bricksPerRow),
+                                    Integer.parseInt(rows), Integer.parseInt(lives), weights, sampler,
+                                    TournamentBot.valueOf(bot.toUpperCase())));
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * @param options      the options given on the command line
+     * @param key          the key of a list option
+     * @param defaultValue the single value of the list if the option was not given
+     * @return the values of the option
+     */
+    private static String[] listOption(Map<String, String> options, String key, int defaultValue) {
+        return options.getOrDefault(key, Integer.toString(defaultValue)).split(LIST_SEPARATOR);
+    }
+
+    /**
+     * Runs a tournament and prints how long it took.
+     *
+     * @param args key=value options, see USAGE. List options take comma separated values, and every
+     *             combination of their values is a configuration.
+     * @throws IOException          if a weight table can not be read or the results can not be written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.split(KEY_VALUE_SEPARATOR, 2);
+            if (keyValue.length == 2) {
+                options.put(keyValue[0], keyValue[1]);
+            }
+        }
+        if (!options.containsKey(OUT_KEY) || !options.containsKey(SEEDS_KEY)) {
+            System.err.println(USAGE);
+            return;
+        }
+        String seeds = options.get(SEEDS_KEY);
+        long firstSeed = 0;
+        long seedCount;
+        if (seeds.contains(RANGE_SEPARATOR)) {
+            String[] range = seeds.split(RANGE_SEPARATOR, 2);
+            firstSeed = Long.parseLong(range[0]);
+            seedCount = Long.parseLong(range[1]) - firstSeed + 1;
+        } else {
+            seedCount = Long.parseLong(seeds);
+        }
+        int frameLimit = options.containsKey(FRAMES_KEY) ? Integer.parseInt(options.get(FRAMES_KEY)) :
+                DEFAULT_FRAME_LIMIT;
+        int threads = options.containsKey(THREADS_KEY) ? Integer.parseInt(options.get(THREADS_KEY)) :
+                Runtime.getRuntime().availableProcessors();
+
+        List<TournamentConfig> configs = buildConfigs(options);
+        List<String> descriptions = new ArrayList<>();
+        for (TournamentConfig config : configs) {
+            descriptions.add(config.toString());
+        }
+        Path out = Paths.get(options.get(OUT_KEY));
+        long start = System.nanoTime();
+        try (TournamentResultWriter writer = new TournamentResultWriter(out, descriptions)) {
+            new TournamentRunner(configs, firstSeed, seedCount, frameLimit, threads).run(writer);
+            double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+            System.out.printf("%d games of %d configurations in %.1f s (%.0f games/s) on %d threads, " +
+                    "written to %s%n", writer.getRowsWritten(), configs.size(), seconds,
+                    writer.getRowsWritten() / seconds, threads, out);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package bricker.particles;
+
+import bricker.brick_strategies.StrategyType;
+
+import java.awt.*;
+
+/**
+ * The kinds of bursts a destroyed brick throws: debris for every brick, and sparks of their own color and
+ * motion for each special behavior the brick had.
+ */
+enum ParticleBurst {
+    /** Brown chunks of the brick, falling */
+    DEBRIS(12, 40, 140, 0.9f, 4, 500, new Color(78, 55, 8)),
+    /** Light sparks for the puck balls, spreading */
+    PUCK(10, 80, 200, 0.5f, 2, 0, new Color(220, 220, 255)),
+    /** Cyan sparks for the mock paddle, drifting down */
+    MOCK_PADDLE(10, 60, 160, 0.6f, 2, 250, new Color(80, 220, 230)),
+    /** Fast orange sparks for the turbo ball */
+    TURBO(16, 150, 320, 0.4f, 2, 0, new Color(255, 120, 30)),
+    /** Pink sparks for the heart, floating up */
+    HEART(8, 20, 70, 1.2f, 3, -60, new Color(240, 80, 140));
+
+    // private fields
+    private final int count;
+    private final float minSpeed;
+    private final float maxSpeed;
+    private final float lifeSeconds;
+    private final int size;
+    private final float gravity;
+    private final Color color;
+
+    /**
+     * @param count       the number of particles in a burst
+     * @param minSpeed    the slowest a particle starts, in pixels per second
+     * @param maxSpeed    the fastest a particle starts, in pixels per second
+     * @param lifeSeconds how long a particle lives
+     * @param size        the side of a particle, in pixels
+     * @param gravity     downwards acceleration of a particle, in pixels per second squared
+     * @param color       the color of a particle
+     */
+    ParticleBurst(int count, float minSpeed, float maxSpeed, float lifeSeconds, int size, float gravity,
+                  Color color) {
+        this.count = count;
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+        this.lifeSeconds = lifeSeconds;
+        this.size = size;
+        this.gravity = gravity;
+        this.color = color;
+    }
+
+    /**
+     * @param type a special behavior of a brick
+     * @return the sparks of the behavior
+     */
+    static ParticleBurst sparksOf(StrategyType type) {
+        switch (type) {
+            case PUCK:
+                return PUCK;
+            case MOCK_PADDLE:
+                return MOCK_PADDLE;
+            case TURBO:
+                return TURBO;
+            default:
+                return HEART;
+        }
+    }
+
+    /**
+     * @return the number of particles in a burst
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the slowest a particle starts, in pixels per second
+     */
+    float getMinSpeed() {
+        return minSpeed;
+    }
+
+    /**
+     * @return the fastest a particle starts, in pixels per second
+     */
+    float getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * @return how long a particle lives, in seconds
+     */
+    float getLifeSeconds() {
+        return lifeSeconds;
+    }
+
+    /**
+     * @return the side of a particle, in pixels
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * @return downwards acceleration of a particle, in pixels per second squared
+     */
+    float getGravity() {
+        return gravity;
+    }
+
+    /**
+     * @return the color of a particle
+     */
+    Color getColor() {
+        return color;
+    }
+}
@@ -0,0 +1,223 @@
+package bricker.particles;
+
+import bricker.brick_strategies.StrategyCode;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The particle effects of destroyed bricks, as a single game object covering the window. Particles are not
+ * game objects: each is a slot in preallocated primitive arrays, all of them are moved in one loop per
+ * frame and drawn in one pass, batched by color. Particles fade by darkening into the dark background
+ * through shades created up front, so nothing is allocated once the system is created. The capacity is a
+ * hard cap, bursts that do not fit are cut short.
+ */
+public class ParticleSystem extends GameObject {
+
+    private static final ParticleBurst[] BURSTS = ParticleBurst.values();
+    private static final int FADE_STEPS = 8;
+    private static final double FULL_TURN = 2 * Math.PI;
+
+    // private fields, a slot per particle, live particles packed at the start
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] age;
+    private final byte[] burst;
+    private final Color[] palette = new Color[BURSTS.length * FADE_STEPS];
+    // draw batches, live particles ordered by palette color through a counting sort
+    private final short[] colorOf;
+    private final int[] drawOrder;
+    private final int[] colorStarts = new int[palette.length + 1];
+    private final SplittableRandom random = new SplittableRandom();
+    private int liveCount = 0;
+
+    /**
+     * Creates an empty particle system.
+     *
+     * @param windowDimensions the dimensions of the game window
+     * @param capacity         the largest number of particles alive at the same time
+     */
+    public ParticleSystem(Vector2 windowDimensions, int capacity) {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.velocityX = new float[capacity];
+        this.velocityY = new float[capacity];
+        this.age = new float[capacity];
+        this.burst = new byte[capacity];
+        this.colorOf = new short[capacity];
+        this.drawOrder = new int[capacity];
+        for (ParticleBurst particleBurst : BURSTS) {
+            Color color = particleBurst.getColor();
+            for (int step = 0; step < FADE_STEPS; step++) {
+                // opaque shades, translucent fills take a slow path of Java2D that allocates per fill
+                palette[particleBurst.ordinal() * FADE_STEPS + step] = new Color(
+                        color.getRed() * (step + 1) / FADE_STEPS, color.getGreen() * (step + 1) / FADE_STEPS,
+                        color.getBlue() * (step + 1) / FADE_STEPS);
+            }
+        }
+        renderer().setRenderable(this::draw);
+    }
+
+    /**
+     * Throws the bursts of a destroyed brick: debris, and sparks for each of its special behaviors.
+     *
+     * @param center       the center of the brick
+     * @param strategyCode the code of the brick's collision strategy, see StrategyCode
+     */
+    public void burst(Vector2 center, int strategyCode) {
+        emit(ParticleBurst.DEBRIS, center.x(), center.y());
+        for (int effect = 0; effect < StrategyCode.effectCount(strategyCode); effect++) {
+            emit(ParticleBurst.sparksOf(StrategyCode.effectAt(strategyCode, effect)), center.x(), center.y());
+        }
+    }
+
+    /**
+     * Removes all the particles, for a new game.
+     */
+    public void clear() {
+        liveCount = 0;
+    }
+
+    /**
+     * @return the number of particles alive
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Particles never collide.
+     *
+     * @param other the other object
+     * @return false
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * Ages and moves all the particles. A particle that lived out its burst's life is replaced by the last
+     * live particle, so the live particles stay packed.
+     *
+     * @param deltaTime the time, in seconds, since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        int particle = 0;
+        while (particle < liveCount) {
+            ParticleBurst particleBurst = BURSTS[burst[particle]];
+            age[particle] += deltaTime;
+            if (age[particle] >= particleBurst.getLifeSeconds()) {
+                liveCount--;
+                copy(liveCount, particle);
+                continue;
+            }
+            velocityY[particle] += particleBurst.getGravity() * deltaTime;
+            x[particle] += velocityX[particle] * deltaTime;
+            y[particle] += velocityY[particle] * deltaTime;
+            particle++;
+        }
+    }
+
+    /**
+     * Adds the particles of a burst around a point, as many as there is room for.
+     *
+     * @param particleBurst the kind of burst
+     * @param centerX       x of the point
+     * @param centerY       y of the point
+     */
+    private void emit(ParticleBurst particleBurst, float centerX, float centerY) {
+        int count = Math.min(particleBurst.getCount(), x.length - liveCount);
+        for (int added = 0; added < count; added++) {
+            double angle = random.nextDouble(FULL_TURN);
+            double speed = random.nextDouble(particleBurst.getMinSpeed(), particleBurst.getMaxSpeed());
+            x[liveCount] = centerX;
+            y[liveCount] = centerY;
+            velocityX[liveCount] = (float) (Math.cos(angle) * speed);
+            velocityY[liveCount] = (float) (Math.sin(angle) * speed);
+            age[liveCount] = 0;
+            burst[liveCount] = (byte) particleBurst.ordinal();
+            liveCount++;
+        }
+    }
+
+    /**
+     * Copies a particle over another.
+     *
+     * @param from slot of the copied particle
+     * @param to   slot of the overwritten particle
+     */
+    private void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        age[to] = age[from];
+        burst[to] = burst[from];
+    }
+
+    /**
+     * Draws all the particles as squares darkening with age, in a single batch per color: the particles
+     * are ordered by their color first, so the color of the graphics is set at most once per burst kind
+     * and fade step. Matches Renderable.render.
+     *
+     * @param g                     the graphics to draw on
+     * @param topLeftCorner         top left corner of the window in screen coordinates
+     * @param dimensions            the dimensions of the window
+     * @param rotation              ignored
+     * @param isFlippedHorizontally ignored
+     * @param isFlippedVertically   ignored
+     * @param opaqueness            ignored, particles fade with their own age
+     */
+    private void draw(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                      boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        sortByColor();
+        Color originalColor = g.getColor();
+        for (int color = 0; color < palette.length; color++) {
+            if (colorStarts[color] == colorStarts[color + 1]) {
+                continue;
+            }
+            g.setColor(palette[color]);
+            for (int index = colorStarts[color]; index < colorStarts[color + 1]; index++) {
+                int particle = drawOrder[index];
+                int size = BURSTS[burst[particle]].getSize();
+                g.fillRect((int) (topLeftCorner.x() + x[particle]) - size / 2,
+                        (int) (topLeftCorner.y() + y[particle]) - size / 2, size, size);
+            }
+        }
+        g.setColor(originalColor);
+    }
+
+    /**
+     * Orders the live particles by the palette color of their burst and age, into drawOrder, with the
+     * particles of every color starting at colorStarts.
+     */
+    private void sortByColor() {
+        Arrays.fill(colorStarts, 0);
+        for (int particle = 0; particle < liveCount; particle++) {
+            ParticleBurst particleBurst = BURSTS[burst[particle]];
+            int step = (int) ((1 - age[particle] / particleBurst.getLifeSeconds()) * FADE_STEPS);
+            int color = burst[particle] * FADE_STEPS + Math.min(step, FADE_STEPS - 1);
+            colorOf[particle] = (short) color;
+            colorStarts[color + 1]++;
+        }
+        for (int color = 0; color < palette.length; color++) {
+            colorStarts[color + 1] += colorStarts[color];
+        }
+        // places every particle after those of lower colors, moving the start of its color as it goes
+        for (int particle = 0; particle < liveCount; particle++) {
+            drawOrder[colorStarts[colorOf[particle]]++] = particle;
+        }
+        // the starts were moved to the ends of their colors, which are the starts of the next colors
+        System.arraycopy(colorStarts, 0, colorStarts, 1, palette.length);
+        colorStarts[0] = 0;
+    }
+}
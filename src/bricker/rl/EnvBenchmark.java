@@ -0,0 +1,66 @@
+package bricker.rl;
+
+import bricker.headless.HeadlessBrickerGame;
+import bricker.main.Constants;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures the throughput of a VectorizedBrickerEnv, in environment steps per second, with random paddle
+ * actions drawn before the measurement.
+ */
+public class EnvBenchmark {
+
+    private static final int DEFAULT_ENVS = 1024;
+    private static final int DEFAULT_STEPS = 20_000;
+    private static final int ENVS_ARG = 0;
+    private static final int STEPS_ARG = 1;
+    private static final int THREADS_ARG = 2;
+    private static final int ACTION_SETS = 64;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double MILLION = 1e6;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional: args[0] = number of environments
+     *             args[1] = number of steps per round
+     *             args[2] = number of threads, all the available processors otherwise
+     */
+    public static void main(String[] args) {
+        int envs = args.length > ENVS_ARG ? Integer.parseInt(args[ENVS_ARG]) : DEFAULT_ENVS;
+        int steps = args.length > STEPS_ARG ? Integer.parseInt(args[STEPS_ARG]) : DEFAULT_STEPS;
+        int threads = args.length > THREADS_ARG ? Integer.parseInt(args[THREADS_ARG]) :
+                Runtime.getRuntime().availableProcessors();
+
+        int[][] actionSets = new int[ACTION_SETS][envs];
+        SplittableRandom random = new SplittableRandom(0);
+        for (int[] actions : actionSets) {
+            for (int env = 0; env < envs; env++) {
+                actions[env] = random.nextInt(HeadlessBrickerGame.MOVE_LEFT,
+                        HeadlessBrickerGame.MOVE_RIGHT + 1);
+            }
+        }
+
+        try (VectorizedBrickerEnv env = new VectorizedBrickerEnv(envs, Constants.DEFAULT_BRICKS_NUMBER_PER_ROW,
+                Constants.DEFAULT_NUMBER_OF_BRICK_ROWS, threads)) {
+            env.reset(0);
+            for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                long episodes = 0;
+                long start = System.nanoTime();
+                for (int step = 0; step < steps; step++) {
+                    env.step(actionSets[step % ACTION_SETS]);
+                    for (boolean done : env.getDones()) {
+                        episodes += done ? 1 : 0;
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+                if (round == WARMUP_ROUNDS) {
+                    System.out.printf("%d envs on %d threads: %.2f million env steps/s, %d episodes ended%n",
+                            envs, threads, (double) envs * steps / seconds / MILLION, episodes);
+                }
+            }
+        }
+    }
+}
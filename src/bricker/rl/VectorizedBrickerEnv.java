@@ -0,0 +1,289 @@
+package bricker.rl;
+
+import bricker.headless.GameStatus;
+import bricker.headless.HeadlessBrickerGame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A batch of headless Bricker games for training paddle agents, stepped together gym style.
+ * Every environment is a HeadlessBrickerGame, which plays by the rules of BrickerGameManager and the
+ * collision strategies frame by frame, as RuleParityCheck compares with the windowed game. A step takes
+ * one paddle action per environment and fills preallocated arrays with the observation, reward and done
+ * flag of every environment. An environment whose game ended is reset to a new episode within the same
+ * step, so its observation is already of the new episode.
+ * <p>
+ * The environments are split into equal slices, each stepped by its own worker thread, with the calling
+ * thread stepping the first slice. Workers are parked between steps, and stepping allocates nothing.
+ */
+public class VectorizedBrickerEnv implements AutoCloseable {
+
+    /** Observation index of the main ball's center x */
+    public static final int BALL_X = 0;
+    /** Observation index of the main ball's center y */
+    public static final int BALL_Y = 1;
+    /** Observation index of the main ball's horizontal velocity */
+    public static final int BALL_VELOCITY_X = 2;
+    /** Observation index of the main ball's vertical velocity */
+    public static final int BALL_VELOCITY_Y = 3;
+    /** Observation index of the paddle's left edge */
+    public static final int PADDLE_X = 4;
+    /** Observation index of the mock paddle's left edge, negative while there is no mock paddle */
+    public static final int MOCK_PADDLE_X = 5;
+    /** Observation index of 1 while the main ball is turbo, 0 otherwise */
+    public static final int TURBO = 6;
+    /** Observation index of the number of balls, main ball included */
+    public static final int BALL_COUNT = 7;
+    /** Observation index of the number of lives left */
+    public static final int LIVES = 8;
+    /** Observation index of the number of bricks left */
+    public static final int BRICKS_LEFT = 9;
+    /** Number of floats in the observation of a single environment */
+    public static final int OBSERVATION_SIZE = 10;
+
+    private static final float FRAME_TIME = 1f / 60;
+    private static final float BRICK_REWARD = 1;
+    private static final float LIFE_LOST_REWARD = -10;
+    private static final float HEART_REWARD = 1;
+    private static final float NO_MOCK_PADDLE = -1;
+    private static final String WORKER_NAME = "bricker-env-worker-";
+    private static final String CLOSED_MESSAGE = "The environments can not be stepped after they were closed";
+
+    // private fields
+    private final int envCount;
+    private final int aliveWordCount;
+    private final HeadlessBrickerGame[] games;
+    private final long[] episodes;
+    private final float[] observations;
+    private final long[] aliveBricks;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final int slices;
+    private final Thread[] workers;
+    private final AtomicInteger pendingWorkers = new AtomicInteger();
+    private volatile long stepGeneration = 0;
+    private volatile boolean closed = false;
+    private volatile Thread steppingThread;
+    private int[] actions;
+    private long seed;
+
+    /**
+     * Creates the environments and starts their worker threads. The environments must be reset before
+     * they are stepped.
+     *
+     * @param envCount     the number of environments
+     * @param bricksPerRow the number of bricks per single row
+     * @param brickRows    the number of brick rows
+     * @param threads      the number of threads stepping the environments, the calling thread included
+     */
+    public VectorizedBrickerEnv(int envCount, int bricksPerRow, int brickRows, int threads) {
+        this.envCount = envCount;
+        this.games = new HeadlessBrickerGame[envCount];
+        for (int env = 0; env < envCount; env++) {
+            games[env] = new HeadlessBrickerGame(bricksPerRow, brickRows);
+        }
+        this.aliveWordCount = games[0].getAliveWordCount();
+        this.episodes = new long[envCount];
+        this.observations = new float[envCount * OBSERVATION_SIZE];
+        this.aliveBricks = new long[envCount * aliveWordCount];
+        this.rewards = new float[envCount];
+        this.dones = new boolean[envCount];
+        this.slices = Math.max(1, Math.min(threads, envCount));
+        this.workers = new Thread[slices - 1];
+        for (int worker = 0; worker < workers.length; worker++) {
+            int slice = worker + 1;
+            workers[worker] = new Thread(() -> runWorker(slice), WORKER_NAME + slice);
+            workers[worker].setDaemon(true);
+            workers[worker].start();
+        }
+    }
+
+    /**
+     * Starts a new episode in every environment. Environment i plays seed + i first, and the following
+     * episodes of all environments never repeat a seed.
+     *
+     * @param seed the seed of the batch
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        for (int env = 0; env < envCount; env++) {
+            episodes[env] = 0;
+            games[env].reset(episodeSeed(env));
+            rewards[env] = 0;
+            dones[env] = false;
+            writeObservation(env);
+        }
+    }
+
+    /**
+     * Steps every environment by a single frame, filling the observations, alive bricks, rewards and done
+     * flags.
+     *
+     * @param actions the paddle action of every environment: HeadlessBrickerGame.MOVE_LEFT, STAY or
+     *                MOVE_RIGHT
+     * @throws IllegalStateException if the batch was closed, also while stepping
+     */
+    public void step(int[] actions) {
+        if (closed) {
+            throw new IllegalStateException(CLOSED_MESSAGE);
+        }
+        this.actions = actions;
+        this.steppingThread = Thread.currentThread();
+        pendingWorkers.set(workers.length);
+        // the volatile write publishes the actions to the workers
+        stepGeneration++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        stepSlice(0);
+        while (pendingWorkers.get() > 0) {
+            // workers exit without counting down once the batch is closed
+            if (closed) {
+                throw new IllegalStateException(CLOSED_MESSAGE);
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Steps a slice of the environments on every step, until the batch is closed.
+     *
+     * @param slice index of the slice
+     */
+    private void runWorker(int slice) {
+        long steppedGeneration = 0;
+        while (!closed) {
+            long generation = stepGeneration;
+            if (generation == steppedGeneration) {
+                LockSupport.park(this);
+                continue;
+            }
+            steppedGeneration = generation;
+            stepSlice(slice);
+            if (pendingWorkers.decrementAndGet() == 0) {
+                LockSupport.unpark(steppingThread);
+            }
+        }
+    }
+
+    /**
+     * @param slice index of the slice
+     */
+    private void stepSlice(int slice) {
+        int end = (int) ((long) envCount * (slice + 1) / slices);
+        for (int env = (int) ((long) envCount * slice / slices); env < end; env++) {
+            stepEnv(env);
+        }
+    }
+
+    /**
+     * Steps a single environment, starting a new episode if its game ended.
+     *
+     * @param env index of the environment
+     */
+    private void stepEnv(int env) {
+        HeadlessBrickerGame game = games[env];
+        game.step(FRAME_TIME, actions[env]);
+        rewards[env] = game.getBricksDestroyedInLastStep() * BRICK_REWARD +
+                game.getLivesLostInLastStep() * LIFE_LOST_REWARD +
+                game.getHeartsCollectedInLastStep() * HEART_REWARD;
+        dones[env] = game.getStatus() != GameStatus.RUNNING;
+        if (dones[env]) {
+            episodes[env]++;
+            game.reset(episodeSeed(env));
+        }
+        writeObservation(env);
+    }
+
+    /**
+     * @param env index of the environment
+     * @return the seed of the environment's current episode
+     */
+    private long episodeSeed(int env) {
+        return seed + env + episodes[env] * envCount;
+    }
+
+    /**
+     * Copies the state of an environment's game into the observation arrays.
+     *
+     * @param env index of the environment
+     */
+    private void writeObservation(int env) {
+        HeadlessBrickerGame game = games[env];
+        int offset = env * OBSERVATION_SIZE;
+        observations[offset + BALL_X] = game.getBallX(HeadlessBrickerGame.MAIN_BALL);
+        observations[offset + BALL_Y] = game.getBallY(HeadlessBrickerGame.MAIN_BALL);
+        observations[offset + BALL_VELOCITY_X] = game.getBallVelocityX(HeadlessBrickerGame.MAIN_BALL);
+        observations[offset + BALL_VELOCITY_Y] = game.getBallVelocityY(HeadlessBrickerGame.MAIN_BALL);
+        observations[offset + PADDLE_X] = game.getPaddleX();
+        observations[offset + MOCK_PADDLE_X] =
+                game.isMockPaddleActive() ? game.getMockPaddleX() : NO_MOCK_PADDLE;
+        observations[offset + TURBO] = game.isTurbo() ? 1 : 0;
+        observations[offset + BALL_COUNT] = game.getBallCount();
+        observations[offset + LIVES] = game.getLives();
+        observations[offset + BRICKS_LEFT] = game.getBricksLeft();
+        game.copyAliveBricks(aliveBricks, env * aliveWordCount);
+    }
+
+    /**
+     * @return the number of environments
+     */
+    public int getEnvCount() {
+        return envCount;
+    }
+
+    /**
+     * @return the number of 64 bit words in the brick alive bitset of a single environment
+     */
+    public int getAliveWordCount() {
+        return aliveWordCount;
+    }
+
+    /**
+     * @return the observations of all environments, OBSERVATION_SIZE floats each, updated in place by
+     * every step
+     */
+    public float[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return the brick alive bitsets of all environments, getAliveWordCount() words each, updated in
+     * place by every step
+     */
+    public long[] getAliveBricks() {
+        return aliveBricks;
+    }
+
+    /**
+     * @return the reward of every environment in the last step, updated in place by every step
+     */
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * @return for every environment, true if its episode ended in the last step, updated in place by
+     * every step
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * Stops the worker threads. The batch can not be stepped afterwards, and a step waiting for the workers
+     * when the batch is closed throws.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        Thread stepping = steppingThread;
+        if (stepping != null) {
+            LockSupport.unpark(stepping);
+        }
+    }
+}
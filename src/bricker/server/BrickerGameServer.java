@@ -0,0 +1,234 @@
+package bricker.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An authoritative Bricker server. Every connected client gets its own headless game, which the server
+ * steps at a fixed tick rate using the paddle input the client sends. After every tick the client is
+ * sent a snapshot of its game, delta compressed against the latest snapshot it acknowledged.
+ * The server runs on a single thread with non-blocking channels, and never waits for a slow client:
+ * snapshots that can not be written are dropped, and the next one is encoded against the last
+ * acknowledged snapshot.
+ * <p>
+ * Every session seeds its games from its own random generator, split from the server's seed, so sessions
+ * never replay each other's games and servers with different seeds play different games.
+ */
+public class BrickerGameServer implements Runnable {
+
+    /** Tick rate meaning "tick as fast as possible" */
+    public static final int UNCAPPED_TICK_RATE = 0;
+
+    private static final float SIMULATED_TICK_TIME = 1f / 60;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    // private fields
+    private final int port;
+    private final int ticksPerSecond;
+    private final int bricksPerRow;
+    private final int brickRows;
+    private final SplittableRandom sessionSeeds;
+    private final List<GameSession> sessions = new CopyOnWriteArrayList<>();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running = false;
+    private int nextSessionId = 0;
+
+    /**
+     * Creates a server. It only starts listening when open is called.
+     *
+     * @param port           the port to listen on, 0 for any free port
+     * @param ticksPerSecond ticks to simulate per second, or UNCAPPED_TICK_RATE
+     * @param bricksPerRow   the number of bricks per single row in every game
+     * @param brickRows      the number of brick rows in every game
+     * @param seed           seed of the server, from which the games of every session are seeded
+     */
+    public BrickerGameServer(int port, int ticksPerSecond, int bricksPerRow, int brickRows, long seed) {
+        this.port = port;
+        this.ticksPerSecond = ticksPerSecond;
+        this.bricksPerRow = bricksPerRow;
+        this.brickRows = brickRows;
+        this.sessionSeeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     *
+     * @throws IOException if the port can not be bound
+     */
+    public void open() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+    }
+
+    /**
+     * @return the port the server listens on, after open was called
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Runs the server loop until stop is called.
+     */
+    @Override
+    public void run() {
+        long tickIntervalNanos = ticksPerSecond == UNCAPPED_TICK_RATE ? 0 : NANOS_PER_SECOND / ticksPerSecond;
+        long nextTickNanos = System.nanoTime();
+        try {
+            while (running) {
+                long waitNanos = nextTickNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    selector.select(Math.max(1, waitNanos / NANOS_PER_MILLI));
+                } else {
+                    selector.selectNow();
+                }
+                handleSelectedKeys();
+                if (System.nanoTime() >= nextTickNanos) {
+                    tickSessions();
+                    nextTickNanos += tickIntervalNanos;
+                    // do not try to catch up on ticks missed by more than a whole tick
+                    nextTickNanos = Math.max(nextTickNanos, System.nanoTime() - tickIntervalNanos);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Stops the server loop, closing all the connections.
+     */
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * @return the statistics of every connected session
+     */
+    public List<SessionStats> getSessionStats() {
+        List<SessionStats> stats = new ArrayList<>();
+        for (GameSession session : sessions) {
+            stats.add(session.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Accepts new clients, reads input and writes pending snapshots.
+     *
+     * @throws IOException if accepting a client fails
+     */
+    private void handleSelectedKeys() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                acceptClient();
+                continue;
+            }
+            GameSession session = (GameSession) key.attachment();
+            try {
+                if (key.isReadable() && !session.readInput()) {
+                    closeSession(session);
+                    continue;
+                }
+                if (key.isWritable() && !session.flush()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (IOException e) {
+                closeSession(session);
+            }
+        }
+    }
+
+    /**
+     * Accepts a pending client and starts a session for it.
+     *
+     * @throws IOException if accepting fails
+     */
+    private void acceptClient() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        int sessionId = nextSessionId++;
+        GameSession session = new GameSession(sessionId, channel, bricksPerRow, brickRows,
+                sessionSeeds.split());
+        channel.register(selector, SelectionKey.OP_READ, session);
+        sessions.add(session);
+    }
+
+    /**
+     * Simulates a tick of every session, waiting for the socket to be writable where a snapshot could not
+     * be fully written.
+     */
+    private void tickSessions() {
+        for (GameSession session : sessions) {
+            SelectionKey key = session.getChannel().keyFor(selector);
+            try {
+                boolean writePending = session.tick(SIMULATED_TICK_TIME);
+                key.interestOps(writePending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE :
+                        SelectionKey.OP_READ);
+            } catch (IOException e) {
+                closeSession(session);
+            }
+        }
+    }
+
+    /**
+     * Closes a session's connection and forgets it.
+     *
+     * @param session the session to close
+     */
+    private void closeSession(GameSession session) {
+        sessions.remove(session);
+        try {
+            session.getChannel().close();
+        } catch (IOException ignored) {
+            // the connection is gone either way
+        }
+    }
+
+    /**
+     * Closes all the sessions and the listening channel.
+     */
+    private void closeAll() {
+        for (GameSession session : sessions) {
+            closeSession(session);
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down either way
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package bricker.server;
+
+import bricker.headless.GameStatus;
+import bricker.headless.HeadlessBrickerGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.SplittableRandom;
+
+/**
+ * A single client's game on the server: the authoritative headless game, the history of snapshots sent
+ * to the client and the connection buffers.
+ * <p>
+ * The history holds the last snapshots sent, in the order they were sent, and the client keeps the last
+ * snapshots it received the same way. A snapshot is only sent while fewer than a history's worth of sent
+ * snapshots wait for an acknowledgement, so sending follows the rate at which the client acknowledges.
+ * The acknowledged snapshot, the base of the deltas, is then always still in both histories, however far
+ * the simulation runs ahead of the client.
+ */
+class GameSession {
+
+    private static final int SNAPSHOT_HISTORY = LoopbackClient.SNAPSHOT_HISTORY;
+    // the acknowledged snapshot stays in the history while at most this many newer ones are sent
+    private static final int MAX_UNACKNOWLEDGED_SNAPSHOTS = SNAPSHOT_HISTORY - 1;
+    private static final long NO_SNAPSHOT = -1;
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final int INPUT_MESSAGE_LENGTH = Byte.BYTES + SnapshotCodec.INPUT_PAYLOAD_SIZE;
+
+    // private fields
+    private final int id;
+    private final SocketChannel channel;
+    private final HeadlessBrickerGame game;
+    private final StateSnapshot[] history = new StateSnapshot[SNAPSHOT_HISTORY];
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final ByteBuffer writeBuffer;
+    private final long startNanos;
+    private final SplittableRandom seeds;
+    private int tick = 0;
+    private long sentSnapshots = 0;
+    private int acknowledgedTick = SnapshotCodec.NO_TICK;
+    private long acknowledgedSnapshot = NO_SNAPSHOT;
+    private int paddleDirection = HeadlessBrickerGame.STAY;
+    private boolean writePending = false;
+
+    // statistics, written by the server thread only
+    private volatile long ticks = 0;
+    private volatile long bytesSent = 0;
+    private volatile long droppedSnapshots = 0;
+
+    /**
+     * Creates a session and starts its first game.
+     *
+     * @param id           id of the session
+     * @param channel      the client's connection
+     * @param bricksPerRow the number of bricks per single row
+     * @param brickRows    the number of brick rows
+     * @param seeds        draws the seed of every game of the session
+     */
+    GameSession(int id, SocketChannel channel, int bricksPerRow, int brickRows, SplittableRandom seeds) {
+        this.id = id;
+        this.channel = channel;
+        this.seeds = seeds;
+        this.game = new HeadlessBrickerGame(bricksPerRow, brickRows);
+        game.reset(seeds.nextLong());
+        for (int i = 0; i < SNAPSHOT_HISTORY; i++) {
+            history[i] = new StateSnapshot(game.getAliveWordCount());
+        }
+        this.writeBuffer = ByteBuffer.allocateDirect(
+                SnapshotCodec.maxMessageSize(game.getAliveWordCount(), HeadlessBrickerGame.MAX_BALLS));
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Simulates a single tick and sends its snapshot, delta compressed against the latest snapshot the
+     * client acknowledged. If the previous snapshot was not fully sent yet, or the client is too far
+     * behind in acknowledging, this one is dropped.
+     *
+     * @param deltaTime the simulated time of a tick
+     * @return true if the snapshot is still waiting to be written
+     * @throws IOException if writing to the client fails
+     */
+    boolean tick(float deltaTime) throws IOException {
+        game.step(deltaTime, paddleDirection);
+        if (game.getStatus() != GameStatus.RUNNING) {
+            // keep playing, the client sees the bricks come back in the next delta
+            game.reset(seeds.nextLong());
+        }
+        tick++;
+        ticks++;
+        if (writePending || sentSnapshots - 1 - acknowledgedSnapshot >= MAX_UNACKNOWLEDGED_SNAPSHOTS) {
+            droppedSnapshots++;
+            return writePending;
+        }
+        StateSnapshot current = history[(int) (sentSnapshots % SNAPSHOT_HISTORY)];
+        current.captureFrom(game, tick);
+        writeBuffer.clear();
+        SnapshotCodec.encode(current, acknowledgedSnapshot == NO_SNAPSHOT ? null :
+                history[(int) (acknowledgedSnapshot % SNAPSHOT_HISTORY)], writeBuffer);
+        writeBuffer.flip();
+        sentSnapshots++;
+        bytesSent += writeBuffer.remaining();
+        return flush();
+    }
+
+    /**
+     * Moves the acknowledged snapshot forward to the sent snapshot of the given tick. Acknowledgements can
+     * arrive out of date, and ticks that were never sent are ignored.
+     *
+     * @param acknowledged the tick the client acknowledged
+     */
+    private void acknowledge(int acknowledged) {
+        if (acknowledged <= acknowledgedTick || acknowledged > tick) {
+            return;
+        }
+        for (long sent = sentSnapshots - 1; sent > acknowledgedSnapshot &&
+                sent >= sentSnapshots - SNAPSHOT_HISTORY; sent--) {
+            if (history[(int) (sent % SNAPSHOT_HISTORY)].tick == acknowledged) {
+                acknowledgedTick = acknowledged;
+                acknowledgedSnapshot = sent;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes as much of the pending snapshot as the socket accepts without blocking.
+     *
+     * @return true if part of the snapshot is still waiting to be written
+     * @throws IOException if writing to the client fails
+     */
+    boolean flush() throws IOException {
+        channel.write(writeBuffer);
+        writePending = writeBuffer.hasRemaining();
+        return writePending;
+    }
+
+    /**
+     * Reads input messages from the client without blocking, keeping the latest paddle direction and
+     * acknowledged tick. The message lengths come from the client, so a message that could not fit in the
+     * read buffer, or an input message whose length is not that of its payload, is malformed.
+     *
+     * @return false if the client closed the connection or sent a malformed message
+     * @throws IOException if reading from the client fails
+     */
+    boolean readInput() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            return false;
+        }
+        readBuffer.flip();
+        while (readBuffer.remaining() >= SnapshotCodec.MESSAGE_HEADER_SIZE) {
+            int length = readBuffer.getInt(readBuffer.position());
+            byte type = readBuffer.get(readBuffer.position() + Integer.BYTES);
+            if (length < Byte.BYTES || length > readBuffer.capacity() - Integer.BYTES ||
+                    (type == SnapshotCodec.INPUT_MESSAGE && length != INPUT_MESSAGE_LENGTH)) {
+                return false;
+            }
+            if (readBuffer.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            readBuffer.getInt();
+            readBuffer.get();
+            if (type == SnapshotCodec.INPUT_MESSAGE) {
+                acknowledge(readBuffer.getInt());
+                paddleDirection = Integer.signum(readBuffer.get());
+            } else {
+                readBuffer.position(readBuffer.position() + length - Byte.BYTES);
+            }
+        }
+        readBuffer.compact();
+        return true;
+    }
+
+    /**
+     * @return the client's connection
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the statistics of this session
+     */
+    SessionStats getStats() {
+        return new SessionStats(id, ticks, bytesSent, droppedSnapshots, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,228 @@
+package bricker.server;
+
+import bricker.headless.HeadlessBrickerGame;
+import bricker.main.Constants;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A stand-in thin client for BrickerGameServer. Decodes the snapshots it receives, acknowledges them,
+ * and drives the paddle by following the main ball.
+ * Running main starts a server and several clients over loopback and reports the statistics of every
+ * session.
+ */
+public class LoopbackClient implements Runnable {
+
+    /** Number of received snapshots kept as possible delta bases, the server sends no further ahead */
+    static final int SNAPSHOT_HISTORY = 64;
+    private static final float PADDLE_DEAD_ZONE = 10;
+    private static final int DEFAULT_CLIENTS = 4;
+    private static final int DEFAULT_SECONDS = 5;
+    private static final int DEFAULT_TICK_RATE = 60;
+    private static final int CLIENTS_ARG = 0;
+    private static final int SECONDS_ARG = 1;
+    private static final int TICK_RATE_ARG = 2;
+    private static final int SEED_ARG = 3;
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    // private fields
+    private final SocketChannel channel;
+    private final StateSnapshot[] history;
+    private final ByteBuffer header = ByteBuffer.allocate(SnapshotCodec.MESSAGE_HEADER_SIZE);
+    private final ByteBuffer payload;
+    private final ByteBuffer input = ByteBuffer.allocate(
+            SnapshotCodec.MESSAGE_HEADER_SIZE + SnapshotCodec.INPUT_PAYLOAD_SIZE);
+    private StateSnapshot latest;
+    private long received = 0;
+    private volatile long snapshotsReceived = 0;
+    private volatile long fullSnapshotsReceived = 0;
+    private volatile long bytesReceived = 0;
+
+    /**
+     * Connects a client to a server on the loopback interface.
+     *
+     * @param port         the server's port
+     * @param bricksPerRow the number of bricks per single row in the server's games
+     * @param brickRows    the number of brick rows in the server's games
+     * @throws IOException if connecting fails
+     */
+    public LoopbackClient(int port, int bricksPerRow, int brickRows) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        channel.socket().setTcpNoDelay(true);
+        int aliveWordCount = (bricksPerRow * brickRows + Long.SIZE - 1) / Long.SIZE;
+        this.history = new StateSnapshot[SNAPSHOT_HISTORY];
+        for (int i = 0; i < SNAPSHOT_HISTORY; i++) {
+            history[i] = new StateSnapshot(aliveWordCount);
+        }
+        this.payload = ByteBuffer.allocate(
+                SnapshotCodec.maxMessageSize(aliveWordCount, HeadlessBrickerGame.MAX_BALLS));
+    }
+
+    /**
+     * Receives snapshots and answers each with input, until the connection closes.
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                readFully(header.clear());
+                int length = header.getInt(0);
+                byte type = header.get(Integer.BYTES);
+                payload.clear().limit(length - Byte.BYTES);
+                readFully(payload);
+                payload.flip();
+                bytesReceived += Integer.BYTES + length;
+                if (type == SnapshotCodec.SNAPSHOT_MESSAGE) {
+                    receiveSnapshot();
+                    sendInput();
+                }
+            }
+        } catch (IOException e) {
+            // the server closed the connection
+        }
+    }
+
+    /**
+     * Decodes the snapshot in the payload buffer against the base it names, which is one of the last
+     * snapshots received.
+     */
+    private void receiveSnapshot() {
+        int baseTick = SnapshotCodec.peekBaseTick(payload);
+        StateSnapshot base = null;
+        if (baseTick != SnapshotCodec.NO_TICK) {
+            base = findReceivedSnapshot(baseTick);
+        } else {
+            fullSnapshotsReceived++;
+        }
+        StateSnapshot result = history[(int) (received % SNAPSHOT_HISTORY)];
+        received++;
+        SnapshotCodec.decode(payload, base, result);
+        latest = result;
+        snapshotsReceived++;
+    }
+
+    /**
+     * @param tick the tick of a snapshot
+     * @return the received snapshot of the tick
+     * @throws IllegalStateException if the snapshot is no longer in the history
+     */
+    private StateSnapshot findReceivedSnapshot(int tick) {
+        for (long index = received - 1; index >= 0 && index >= received - SNAPSHOT_HISTORY; index--) {
+            StateSnapshot snapshot = history[(int) (index % SNAPSHOT_HISTORY)];
+            if (snapshot.getTick() == tick) {
+                return snapshot;
+            }
+        }
+        throw new IllegalStateException("Missing base snapshot " + tick);
+    }
+
+    /**
+     * Acknowledges the latest snapshot and moves the paddle towards the main ball.
+     *
+     * @throws IOException if writing fails
+     */
+    private void sendInput() throws IOException {
+        float paddleCenter = latest.getPaddleX() + Constants.PADDLE_WIDTH / 2f;
+        float ballX = latest.getBallX(HeadlessBrickerGame.MAIN_BALL);
+        int direction = HeadlessBrickerGame.STAY;
+        if (ballX < paddleCenter - PADDLE_DEAD_ZONE) {
+            direction = HeadlessBrickerGame.MOVE_LEFT;
+        } else if (ballX > paddleCenter + PADDLE_DEAD_ZONE) {
+            direction = HeadlessBrickerGame.MOVE_RIGHT;
+        }
+        input.clear();
+        SnapshotCodec.encodeInput(latest.getTick(), direction, input);
+        input.flip();
+        while (input.hasRemaining()) {
+            channel.write(input);
+        }
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param buffer the buffer to fill
+     * @throws IOException if the connection closes or reading fails
+     */
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // closing either way
+        }
+    }
+
+    /**
+     * @return the latest decoded snapshot, or null if none was received yet
+     */
+    public StateSnapshot getLatestSnapshot() {
+        return latest;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("client: %d snapshots (%d full), %d bytes received",
+                snapshotsReceived, fullSnapshotsReceived, bytesReceived);
+    }
+
+    /**
+     * Runs a server with several loopback clients and prints the statistics of every session.
+     *
+     * @param args optional: args[0] = number of clients
+     *             args[1] = seconds to run
+     *             args[2] = server ticks per second, 0 for uncapped
+     *             args[3] = seed of the server, a random seed otherwise
+     * @throws Exception if the server or a client fails to start
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > CLIENTS_ARG ? Integer.parseInt(args[CLIENTS_ARG]) : DEFAULT_CLIENTS;
+        int seconds = args.length > SECONDS_ARG ? Integer.parseInt(args[SECONDS_ARG]) : DEFAULT_SECONDS;
+        int tickRate = args.length > TICK_RATE_ARG ? Integer.parseInt(args[TICK_RATE_ARG]) : DEFAULT_TICK_RATE;
+        long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : new SplittableRandom().nextLong();
+
+        System.out.println("server seed: " + seed);
+        BrickerGameServer server = new BrickerGameServer(0, tickRate,
+                Constants.DEFAULT_BRICKS_NUMBER_PER_ROW, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS, seed);
+        server.open();
+        Thread serverThread = new Thread(server, "bricker-server");
+        serverThread.start();
+
+        List<LoopbackClient> loopbackClients = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            LoopbackClient client = new LoopbackClient(server.getLocalPort(),
+                    Constants.DEFAULT_BRICKS_NUMBER_PER_ROW, Constants.DEFAULT_NUMBER_OF_BRICK_ROWS);
+            loopbackClients.add(client);
+            new Thread(client, "bricker-client-" + i).start();
+        }
+        Thread.sleep(seconds * MILLIS_PER_SECOND);
+
+        for (SessionStats stats : server.getSessionStats()) {
+            System.out.println(stats);
+        }
+        for (LoopbackClient client : loopbackClients) {
+            System.out.println(client);
+            client.close();
+        }
+        server.stop();
+        serverThread.join();
+    }
+}
@@ -0,0 +1,82 @@
+package bricker.server;
+
+/**
+ * Statistics of a single game session on the server, at the moment they were taken.
+ */
+public class SessionStats {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    // private fields
+    private final int sessionId;
+    private final long ticks;
+    private final long bytesSent;
+    private final long droppedSnapshots;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the statistics of a session.
+     *
+     * @param sessionId        id of the session
+     * @param ticks            number of ticks the session simulated
+     * @param bytesSent        number of snapshot bytes sent to the client
+     * @param droppedSnapshots number of snapshots skipped because the client was not reading or
+     *                         acknowledging fast enough
+     * @param elapsedNanos     time since the session started
+     */
+    SessionStats(int sessionId, long ticks, long bytesSent, long droppedSnapshots, long elapsedNanos) {
+        this.sessionId = sessionId;
+        this.ticks = ticks;
+        this.bytesSent = bytesSent;
+        this.droppedSnapshots = droppedSnapshots;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return id of the session
+     */
+    public int getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return number of ticks the session simulated
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return number of snapshot bytes sent to the client
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return number of snapshots skipped because the client was not reading or acknowledging fast enough
+     */
+    public long getDroppedSnapshots() {
+        return droppedSnapshots;
+    }
+
+    /**
+     * @return average number of bytes sent per tick
+     */
+    public double getBytesPerTick() {
+        return ticks == 0 ? 0 : (double) bytesSent / ticks;
+    }
+
+    /**
+     * @return average number of ticks simulated per second
+     */
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticks * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("session %d: %d ticks, %.1f ticks/s, %.1f bytes/tick, %d dropped snapshots",
+                sessionId, ticks, getTicksPerSecond(), getBytesPerTick(), droppedSnapshots);
+    }
+}
@@ -0,0 +1,251 @@
+package bricker.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes snapshots as deltas against a base snapshot the client already has, and decodes them back.
+ * A snapshot message holds its tick, the tick of its base (or NO_TICK for a full snapshot) and a bit mask
+ * of the sections that follow. Against a base, unchanged sections are left out, and the brick section
+ * only lists the bitset words that changed (as a gap-encoded word index and the XOR of the two words).
+ */
+public final class SnapshotCodec {
+
+    /** Tick value meaning "no snapshot" */
+    public static final int NO_TICK = -1;
+
+    /** Message type of a snapshot, sent from the server to a client */
+    public static final byte SNAPSHOT_MESSAGE = 1;
+    /** Message type of paddle input, sent from a client to the server */
+    public static final byte INPUT_MESSAGE = 2;
+    /** Size of a message header: payload length and message type */
+    public static final int MESSAGE_HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+    /** Size of an input message payload: acknowledged tick and paddle direction */
+    public static final int INPUT_PAYLOAD_SIZE = Integer.BYTES + Byte.BYTES;
+
+    private static final int BRICKS_SECTION = 1;
+    private static final int BALLS_SECTION = 1 << 1;
+    private static final int PADDLES_SECTION = 1 << 2;
+    private static final int LIVES_SECTION = 1 << 3;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * Computes the largest possible size of a snapshot message, full or delta.
+     *
+     * @param aliveWordCount number of 64 bit words in the brick alive bitset
+     * @param maxBalls       maximal number of balls in a snapshot
+     * @return the size in bytes
+     */
+    public static int maxMessageSize(int aliveWordCount, int maxBalls) {
+        int headerAndTicks = MESSAGE_HEADER_SIZE + 2 * Integer.BYTES + Byte.BYTES;
+        int bricks = MAX_VARINT_SIZE + aliveWordCount * (MAX_VARINT_SIZE + Long.BYTES);
+        int balls = Byte.BYTES + maxBalls * 2 * Short.BYTES;
+        int paddles = 2 * Short.BYTES + Byte.BYTES;
+        return headerAndTicks + bricks + balls + paddles + Byte.BYTES;
+    }
+
+    /**
+     * Writes a snapshot message, delta compressed against a base.
+     *
+     * @param current the snapshot to send
+     * @param base    a snapshot the receiver already has, or null to send a full snapshot
+     * @param out     the buffer to write the whole message (header included) into
+     */
+    public static void encode(StateSnapshot current, StateSnapshot base, ByteBuffer out) {
+        int messageStart = out.position();
+        out.position(messageStart + MESSAGE_HEADER_SIZE);
+        out.putInt(current.tick);
+        out.putInt(base == null ? NO_TICK : base.tick);
+        int sectionsPosition = out.position();
+        out.put((byte) 0);
+
+        int sections = 0;
+        if (base == null) {
+            sections = BRICKS_SECTION | BALLS_SECTION | PADDLES_SECTION | LIVES_SECTION;
+            putVarInt(out, current.aliveBricks.length);
+            for (long word : current.aliveBricks) {
+                out.putLong(word);
+            }
+        } else if (encodeBrickDelta(current, base, out)) {
+            sections |= BRICKS_SECTION;
+        }
+        if (base == null || !sameBalls(current, base)) {
+            sections |= BALLS_SECTION;
+            out.put((byte) current.ballCount);
+            for (int ball = 0; ball < current.ballCount; ball++) {
+                out.putShort(current.ballX[ball]);
+                out.putShort(current.ballY[ball]);
+            }
+        }
+        if (base == null || current.paddleX != base.paddleX ||
+                current.mockPaddleActive != base.mockPaddleActive || current.mockPaddleX != base.mockPaddleX) {
+            sections |= PADDLES_SECTION;
+            out.putShort(current.paddleX);
+            out.put((byte) (current.mockPaddleActive ? 1 : 0));
+            out.putShort(current.mockPaddleX);
+        }
+        if (base == null || current.lives != base.lives) {
+            sections |= LIVES_SECTION;
+            out.put((byte) current.lives);
+        }
+        out.put(sectionsPosition, (byte) sections);
+        out.putInt(messageStart, out.position() - messageStart - Integer.BYTES);
+        out.put(messageStart + Integer.BYTES, SNAPSHOT_MESSAGE);
+    }
+
+    /**
+     * Writes the changed words of the brick bitset, if any.
+     *
+     * @param current the snapshot to send
+     * @param base    the base snapshot
+     * @param out     the buffer to write to
+     * @return true if a brick section was written
+     */
+    private static boolean encodeBrickDelta(StateSnapshot current, StateSnapshot base, ByteBuffer out) {
+        int changedWords = 0;
+        for (int i = 0; i < current.aliveBricks.length; i++) {
+            if (current.aliveBricks[i] != base.aliveBricks[i]) {
+                changedWords++;
+            }
+        }
+        if (changedWords == 0) {
+            return false;
+        }
+        putVarInt(out, changedWords);
+        int previousIndex = 0;
+        for (int i = 0; i < current.aliveBricks.length; i++) {
+            long changedBits = current.aliveBricks[i] ^ base.aliveBricks[i];
+            if (changedBits != 0) {
+                putVarInt(out, i - previousIndex);
+                out.putLong(changedBits);
+                previousIndex = i;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param current a snapshot
+     * @param base    another snapshot
+     * @return true if both snapshots have the same balls at the same positions
+     */
+    private static boolean sameBalls(StateSnapshot current, StateSnapshot base) {
+        if (current.ballCount != base.ballCount) {
+            return false;
+        }
+        for (int ball = 0; ball < current.ballCount; ball++) {
+            if (current.ballX[ball] != base.ballX[ball] || current.ballY[ball] != base.ballY[ball]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the tick of the base a snapshot payload was encoded against.
+     *
+     * @param payload a snapshot payload, positioned at its start (after the message header)
+     * @return the base tick, or NO_TICK for a full snapshot
+     */
+    public static int peekBaseTick(ByteBuffer payload) {
+        return payload.getInt(payload.position() + Integer.BYTES);
+    }
+
+    /**
+     * Decodes a snapshot payload.
+     *
+     * @param payload the snapshot payload, positioned at its start (after the message header)
+     * @param base    the base snapshot the payload was encoded against, ignored for a full snapshot
+     * @param result  the snapshot to decode into, can not be the base itself
+     */
+    public static void decode(ByteBuffer payload, StateSnapshot base, StateSnapshot result) {
+        int tick = payload.getInt();
+        boolean full = payload.getInt() == NO_TICK;
+        int sections = payload.get();
+        if (!full) {
+            result.copyFrom(base);
+        }
+        result.tick = tick;
+        if ((sections & BRICKS_SECTION) != 0) {
+            if (full) {
+                int wordCount = getVarInt(payload);
+                for (int i = 0; i < wordCount; i++) {
+                    result.aliveBricks[i] = payload.getLong();
+                }
+            } else {
+                int changedWords = getVarInt(payload);
+                int index = 0;
+                for (int i = 0; i < changedWords; i++) {
+                    index += getVarInt(payload);
+                    result.aliveBricks[index] ^= payload.getLong();
+                }
+            }
+        }
+        if ((sections & BALLS_SECTION) != 0) {
+            result.ballCount = Byte.toUnsignedInt(payload.get());
+            for (int ball = 0; ball < result.ballCount; ball++) {
+                result.ballX[ball] = payload.getShort();
+                result.ballY[ball] = payload.getShort();
+            }
+        }
+        if ((sections & PADDLES_SECTION) != 0) {
+            result.paddleX = payload.getShort();
+            result.mockPaddleActive = payload.get() != 0;
+            result.mockPaddleX = payload.getShort();
+        }
+        if ((sections & LIVES_SECTION) != 0) {
+            result.lives = payload.get();
+        }
+    }
+
+    /**
+     * Writes an input message.
+     *
+     * @param acknowledgedTick the latest snapshot tick the client decoded, or NO_TICK
+     * @param paddleDirection  the paddle direction, -1, 0 or 1
+     * @param out              the buffer to write the whole message (header included) into
+     */
+    public static void encodeInput(int acknowledgedTick, int paddleDirection, ByteBuffer out) {
+        out.putInt(Byte.BYTES + INPUT_PAYLOAD_SIZE);
+        out.put(INPUT_MESSAGE);
+        out.putInt(acknowledgedTick);
+        out.put((byte) paddleDirection);
+    }
+
+    /**
+     * Writes a non-negative int using 7 bits per byte.
+     *
+     * @param out   the buffer to write to
+     * @param value the value to write
+     */
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            out.put((byte) ((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION));
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads an int written by putVarInt.
+     *
+     * @param in the buffer to read from
+     * @return the read value
+     */
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = in.get();
+            value |= (current & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        } while ((current & VARINT_CONTINUATION) != 0);
+        return value;
+    }
+}
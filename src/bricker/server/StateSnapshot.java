@@ -0,0 +1,149 @@
+package bricker.server;
+
+import bricker.headless.HeadlessBrickerGame;
+
+/**
+ * The state of a game at a single tick, as sent to clients: brick alive bitset, ball and paddle
+ * positions and lives. Positions are quantized to fixed point shorts, so two snapshots can be compared
+ * exactly and encoded compactly. Snapshots are preallocated and overwritten in place.
+ */
+public class StateSnapshot {
+
+    /** Number of quantization steps per pixel */
+    public static final float POSITION_SCALE = 4;
+
+    // package private fields, read and written by the codec
+    int tick;
+    int lives;
+    short paddleX;
+    boolean mockPaddleActive;
+    short mockPaddleX;
+    int ballCount;
+    final short[] ballX = new short[HeadlessBrickerGame.MAX_BALLS];
+    final short[] ballY = new short[HeadlessBrickerGame.MAX_BALLS];
+    final long[] aliveBricks;
+
+    /**
+     * Creates an empty snapshot.
+     *
+     * @param aliveWordCount number of 64 bit words in the brick alive bitset
+     */
+    public StateSnapshot(int aliveWordCount) {
+        this.aliveBricks = new long[aliveWordCount];
+        this.tick = SnapshotCodec.NO_TICK;
+    }
+
+    /**
+     * Overwrites this snapshot with the current state of a game.
+     *
+     * @param game the game to capture
+     * @param tick the tick number of the snapshot
+     */
+    public void captureFrom(HeadlessBrickerGame game, int tick) {
+        this.tick = tick;
+        this.lives = game.getLives();
+        this.paddleX = quantize(game.getPaddleX());
+        this.mockPaddleActive = game.isMockPaddleActive();
+        this.mockPaddleX = mockPaddleActive ? quantize(game.getMockPaddleX()) : 0;
+        this.ballCount = game.getBallCount();
+        for (int ball = 0; ball < ballCount; ball++) {
+            ballX[ball] = quantize(game.getBallX(ball));
+            ballY[ball] = quantize(game.getBallY(ball));
+        }
+        game.copyAliveBricks(aliveBricks, 0);
+    }
+
+    /**
+     * Overwrites this snapshot with another one.
+     *
+     * @param other the snapshot to copy
+     */
+    public void copyFrom(StateSnapshot other) {
+        this.tick = other.tick;
+        this.lives = other.lives;
+        this.paddleX = other.paddleX;
+        this.mockPaddleActive = other.mockPaddleActive;
+        this.mockPaddleX = other.mockPaddleX;
+        this.ballCount = other.ballCount;
+        System.arraycopy(other.ballX, 0, ballX, 0, ballCount);
+        System.arraycopy(other.ballY, 0, ballY, 0, ballCount);
+        System.arraycopy(other.aliveBricks, 0, aliveBricks, 0, aliveBricks.length);
+    }
+
+    /**
+     * @param position a position in pixels
+     * @return the position in fixed point
+     */
+    private static short quantize(float position) {
+        return (short) Math.round(position * POSITION_SCALE);
+    }
+
+    /**
+     * @return the tick number of the snapshot
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the number of lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * @return the left edge of the main paddle in pixels
+     */
+    public float getPaddleX() {
+        return paddleX / POSITION_SCALE;
+    }
+
+    /**
+     * @return true if a mock paddle is in the game
+     */
+    public boolean isMockPaddleActive() {
+        return mockPaddleActive;
+    }
+
+    /**
+     * @return the left edge of the mock paddle in pixels
+     */
+    public float getMockPaddleX() {
+        return mockPaddleX / POSITION_SCALE;
+    }
+
+    /**
+     * @return the number of balls, the main ball being index 0
+     */
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return x coordinate of the ball's center in pixels
+     */
+    public float getBallX(int ball) {
+        return ballX[ball] / POSITION_SCALE;
+    }
+
+    /**
+     * @param ball index of the ball
+     * @return y coordinate of the ball's center in pixels
+     */
+    public float getBallY(int ball) {
+        return ballY[ball] / POSITION_SCALE;
+    }
+
+    /**
+     * @return the number of bricks still alive
+     */
+    public int countAliveBricks() {
+        int count = 0;
+        for (long word : aliveBricks) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,48 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyCode;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a brick removed from the game.
+ */
+@Name("bricker.BrickDestroyed")
+@Label("Brick Destroyed")
+@Category("Bricker")
+@Description("A brick was hit and removed from the game")
+@StackTrace(false)
+public class BrickDestroyedEvent extends Event {
+
+    /** The position of the brick in the brick grid, row by row */
+    @Label("Brick Index")
+    public int brickIndex;
+
+    /** The behaviors of the brick's collision strategy */
+    @Label("Strategy")
+    public String strategy;
+
+    /** The code of the brick's collision strategy, see StrategyCode */
+    @Label("Strategy Code")
+    public int strategyCode;
+
+    /**
+     * Records the event if it is enabled.
+     *
+     * @param brickIndex   the position of the brick in the brick grid
+     * @param strategyCode the code of the brick's collision strategy
+     */
+    public static void emit(int brickIndex, int strategyCode) {
+        BrickDestroyedEvent event = new BrickDestroyedEvent();
+        if (event.shouldCommit()) {
+            event.brickIndex = brickIndex;
+            event.strategy = StrategyCode.describe(strategyCode);
+            event.strategyCode = strategyCode;
+            event.commit();
+        }
+    }
+}
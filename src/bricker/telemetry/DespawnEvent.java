@@ -0,0 +1,47 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a puck ball, falling heart or mock paddle removed from the game.
+ */
+@Name("bricker.Despawn")
+@Label("Object Despawned")
+@Category("Bricker")
+@Description("A puck ball, falling heart or mock paddle was removed from the game")
+@StackTrace(false)
+public class DespawnEvent extends Event {
+
+    /** Reason of an object that left the screen */
+    public static final String OUT_OF_SCREEN = "out of screen";
+    /** Reason of a heart caught by the paddle */
+    public static final String COLLECTED = "collected";
+
+    /** The tag of the removed object */
+    @Label("Object")
+    public String objectTag;
+
+    /** Why the object was removed */
+    @Label("Reason")
+    public String reason;
+
+    /**
+     * Records the event if it is enabled.
+     *
+     * @param objectTag the tag of the removed object
+     * @param reason    why the object was removed
+     */
+    public static void emit(String objectTag, String reason) {
+        DespawnEvent event = new DespawnEvent();
+        if (event.shouldCommit()) {
+            event.objectTag = objectTag;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+}
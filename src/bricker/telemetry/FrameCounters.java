@@ -0,0 +1,86 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyType;
+
+/**
+ * Counts game events that happen during a single frame: collision pairs tested, bricks hit and special
+ * strategies activated. The entities and collision strategies report to it, and the game manager resets it
+ * at the end of every frame.
+ */
+public class FrameCounters {
+
+    // private fields
+    private int collisionPairs = 0;
+    private int rejectedCollisionPairs = 0;
+    private int brickCollisions = 0;
+    private final int[] strategyActivations = new int[StrategyType.values().length];
+
+    /**
+     * Counts a candidate collision pair tested by an entity against the collision matrix.
+     *
+     * @param allowed true if the pair may collide, false if it was rejected
+     */
+    public void recordCollisionPair(boolean allowed) {
+        collisionPairs++;
+        if (!allowed) {
+            rejectedCollisionPairs++;
+        }
+    }
+
+    /**
+     * Counts a collision with a brick.
+     */
+    public void recordBrickCollision() {
+        brickCollisions++;
+    }
+
+    /**
+     * Counts the activation of a special strategy.
+     *
+     * @param type the activated behavior
+     */
+    public void recordStrategyActivation(StrategyType type) {
+        strategyActivations[type.ordinal()]++;
+    }
+
+    /**
+     * @return the number of collision pairs tested this frame
+     */
+    public int getCollisionPairs() {
+        return collisionPairs;
+    }
+
+    /**
+     * @return the number of collision pairs rejected this frame, without testing their shapes
+     */
+    public int getRejectedCollisionPairs() {
+        return rejectedCollisionPairs;
+    }
+
+    /**
+     * @return the number of brick collisions this frame
+     */
+    public int getBrickCollisions() {
+        return brickCollisions;
+    }
+
+    /**
+     * @param type a special behavior
+     * @return the number of times it was activated this frame
+     */
+    public int getStrategyActivations(StrategyType type) {
+        return strategyActivations[type.ordinal()];
+    }
+
+    /**
+     * Clears all the counters, for the next frame.
+     */
+    public void reset() {
+        collisionPairs = 0;
+        rejectedCollisionPairs = 0;
+        brickCollisions = 0;
+        for (int i = 0; i < strategyActivations.length; i++) {
+            strategyActivations[i] = 0;
+        }
+    }
+}
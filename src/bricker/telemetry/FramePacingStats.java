@@ -0,0 +1,103 @@
+package bricker.telemetry;
+
+/**
+ * Frame pacing statistics over a run of frames: the mean frame time, the jitter as the standard deviation
+ * of the frame times, the worst frame, and the frames that missed their deadline. Recording a frame only
+ * adds to a few sums.
+ */
+public class FramePacingStats {
+
+    private static final double MILLIS_PER_SECOND = 1000;
+    private static final double PERCENT = 100;
+    private static final String SUMMARY_FORMAT =
+            "%d frames, mean %.2f ms, jitter %.2f ms, worst %.2f ms, missed %d (%.1f%%)";
+
+    // private fields
+    private int frames = 0;
+    private int missedFrames = 0;
+    private double frameSeconds = 0;
+    private double squaredFrameSeconds = 0;
+    private float worstFrameSeconds = 0;
+
+    /**
+     * Accounts for a frame.
+     *
+     * @param deltaTime       the frame time, in seconds
+     * @param deadlineSeconds the longest the frame may take before it counts as missed, 0 for no deadline
+     */
+    public void record(float deltaTime, float deadlineSeconds) {
+        frames++;
+        frameSeconds += deltaTime;
+        squaredFrameSeconds += (double) deltaTime * deltaTime;
+        worstFrameSeconds = Math.max(worstFrameSeconds, deltaTime);
+        if (deadlineSeconds > 0 && deltaTime > deadlineSeconds) {
+            missedFrames++;
+        }
+    }
+
+    /**
+     * Clears what was accounted.
+     */
+    public void reset() {
+        frames = 0;
+        missedFrames = 0;
+        frameSeconds = 0;
+        squaredFrameSeconds = 0;
+        worstFrameSeconds = 0;
+    }
+
+    /**
+     * @return the number of frames accounted
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return the number of frames that missed their deadline
+     */
+    public int getMissedFrames() {
+        return missedFrames;
+    }
+
+    /**
+     * @return the percentage of frames that missed their deadline
+     */
+    public double getMissedPercent() {
+        return frames == 0 ? 0 : PERCENT * missedFrames / frames;
+    }
+
+    /**
+     * @return the mean frame time, in milliseconds
+     */
+    public double getMeanMillis() {
+        return frames == 0 ? 0 : frameSeconds / frames * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * @return the standard deviation of the frame times, in milliseconds
+     */
+    public double getJitterMillis() {
+        if (frames == 0) {
+            return 0;
+        }
+        double mean = frameSeconds / frames;
+        return Math.sqrt(Math.max(0, squaredFrameSeconds / frames - mean * mean)) * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * @return the longest frame time, in milliseconds
+     */
+    public double getWorstMillis() {
+        return worstFrameSeconds * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * @return the statistics as a single line
+     */
+    @Override
+    public String toString() {
+        return String.format(SUMMARY_FORMAT, frames, getMeanMillis(), getJitterMillis(), getWorstMillis(),
+                missedFrames, getMissedPercent());
+    }
+}
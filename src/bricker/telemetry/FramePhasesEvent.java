@@ -0,0 +1,54 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning a single frame update of the game, with the time of every phase.
+ */
+@Name("bricker.FramePhases")
+@Label("Frame Phases")
+@Category("Bricker")
+@Description("A single frame update of the game manager, with the time spent in each of its phases")
+@StackTrace(false)
+public class FramePhasesEvent extends Event {
+
+    /** The frame number */
+    @Label("Frame")
+    public long frame;
+
+    /** The frame time the engine reported */
+    @Label("Delta Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long deltaTime;
+
+    /** Time updating and colliding the game objects */
+    @Label("Objects Update")
+    @Timespan(Timespan.NANOSECONDS)
+    public long objectsUpdate;
+
+    /** Time checking for a win or a lost life */
+    @Label("Game End Check")
+    @Timespan(Timespan.NANOSECONDS)
+    public long gameEndCheck;
+
+    /** Time removing objects that left the screen */
+    @Label("Out Of Screen Check")
+    @Timespan(Timespan.NANOSECONDS)
+    public long outOfScreenCheck;
+
+    /** Time handling the turbo state of the ball */
+    @Label("Ball State Check")
+    @Timespan(Timespan.NANOSECONDS)
+    public long ballStateCheck;
+
+    /** Time collecting falling hearts */
+    @Label("Falling Hearts Check")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fallingHeartsCheck;
+}
@@ -0,0 +1,302 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyType;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An always-on flight recorder of the last few seconds of frames, for catching stutters that can not be
+ * reproduced. Every frame is a fixed record of long fields in a ring: the phase timings of the frame update,
+ * entity counts, collision and strategy counters, garbage collections, allocated bytes and the paddle input.
+ * <p>
+ * When a frame takes longer than the budget, either between frames or within the update, the frames of the
+ * recorded window up to it are copied aside and written to a CSV file by a short-lived thread, so the game
+ * thread never waits for the disk. Another dump only starts once a full window passed, so a single stutter
+ * writes a single file. Only the newest few dump files are kept in the dump directory; older ones,
+ * earlier runs' included, are deleted by the writing thread. Recording a frame writes the ring in place and
+ * allocates nothing; garbage collections are counted by a notification listener, so reading them costs a
+ * single volatile read.
+ */
+public class FrameRecorder {
+
+    // fields of a frame record
+    /** The frame number */
+    public static final int FRAME = 0;
+    /** System.nanoTime when the frame update started */
+    public static final int START = 1;
+    /** The frame time the engine reported, in nanoseconds */
+    public static final int DELTA_TIME = 2;
+    /** The whole frame update, in nanoseconds */
+    public static final int UPDATE = 3;
+    /** Updating and colliding the game objects, in nanoseconds */
+    public static final int OBJECTS_UPDATE = 4;
+    /** Checking for a win or a lost life, in nanoseconds */
+    public static final int GAME_END_CHECK = 5;
+    /** Removing objects that left the screen, in nanoseconds */
+    public static final int OUT_OF_SCREEN_CHECK = 6;
+    /** Handling the turbo state of the ball, in nanoseconds */
+    public static final int BALL_STATE_CHECK = 7;
+    /** Collecting falling hearts, in nanoseconds */
+    public static final int FALLING_HEARTS_CHECK = 8;
+    /** Bricks in the game */
+    public static final int BRICKS = 9;
+    /** Balls in the game, main ball included */
+    public static final int BALLS = 10;
+    /** Hearts falling */
+    public static final int FALLING_HEARTS = 11;
+    /** Mock paddles in the game */
+    public static final int MOCK_PADDLES = 12;
+    /** Lives left */
+    public static final int LIVES = 13;
+    /** Bytes the game thread allocated in the previous frame, MemoryReport.UNSUPPORTED if not measured */
+    public static final int ALLOCATED_BYTES = 14;
+    /** Paddle direction commanded by the controller: -1, 0 or 1 */
+    public static final int PADDLE_DIRECTION = 15;
+
+    private static final int COLLISION_PAIRS = 16;
+    private static final int BRICK_COLLISIONS = 17;
+    private static final int GC_COUNT = 18;
+    private static final int GC_PAUSE = 19;
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    private static final int FIRST_ACTIVATIONS = 20;
+    private static final int FIELD_COUNT = FIRST_ACTIVATIONS + STRATEGY_TYPES.length;
+    private static final String[] FIELD_NAMES = {"frame", "start_ms", "delta_time_ns", "update_ns",
+            "objects_update_ns", "game_end_check_ns", "out_of_screen_check_ns", "ball_state_check_ns",
+            "falling_hearts_check_ns", "bricks", "balls", "falling_hearts", "mock_paddles", "lives",
+            "allocated_bytes", "paddle_direction", "collision_pairs", "brick_collisions", "gc_count",
+            "gc_pause_ns"};
+    private static final String ACTIVATIONS_PREFIX = "activations_";
+
+    // frames kept per second of the window, enough for every paced frame rate, uncapped the window is shorter
+    private static final int MAX_FRAMES_PER_SECOND = 240;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final double NANOS_PER_MILLI_DOUBLE = 1e6;
+    private static final String DUMP_FILE_FORMAT = "bricker-spike-%d.csv";
+    private static final String DUMP_FILE_GLOB = "bricker-spike-*.csv";
+    private static final String DUMP_THREAD_NAME = "bricker-spike-dump";
+    private static final String START_FORMAT = "%.3f";
+    private static final String SEPARATOR = ",";
+
+    // private fields
+    private final long budgetNanos;
+    private final long windowNanos;
+    private final Path directory;
+    private final int maxDumpFiles;
+    private final int capacity;
+    private final long[] ring;
+    private final long[] dump;
+    private final AtomicLong gcCount = new AtomicLong();
+    private final AtomicLong gcPauseNanos = new AtomicLong();
+    private volatile boolean dumping = false;
+    private int slot = 0;
+    private long recordedFrames = 0;
+    private long nextDumpNanos = Long.MIN_VALUE;
+    private int dumpFrames = 0;
+    private long dumpedSpikeFrame = 0;
+
+    /**
+     * Creates a recorder and starts counting garbage collections.
+     *
+     * @param budgetMillis  the longest a frame may take before the window is dumped, in milliseconds
+     * @param windowSeconds the seconds of frames kept and dumped
+     * @param directory     the directory dump files are written to, created on the first dump
+     * @param maxDumpFiles  the most dump files kept in the directory, the oldest are deleted past it
+     */
+    public FrameRecorder(int budgetMillis, int windowSeconds, Path directory, int maxDumpFiles) {
+        this.budgetNanos = budgetMillis * NANOS_PER_MILLI;
+        this.windowNanos = windowSeconds * NANOS_PER_SECOND;
+        this.directory = directory;
+        this.maxDumpFiles = maxDumpFiles;
+        this.capacity = windowSeconds * MAX_FRAMES_PER_SECOND;
+        this.ring = new long[capacity * FIELD_COUNT];
+        this.dump = new long[capacity * FIELD_COUNT];
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (garbageCollector instanceof NotificationEmitter) {
+                ((NotificationEmitter) garbageCollector).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+                            notification.getType())) {
+                        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                                (CompositeData) notification.getUserData());
+                        gcCount.incrementAndGet();
+                        gcPauseNanos.addAndGet(info.getGcInfo().getDuration() * NANOS_PER_MILLI);
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    /**
+     * Starts the record of a frame, overwriting the oldest frame in the ring. Fields that are not set in
+     * the frame are left 0. Must be called at the start of the frame update.
+     *
+     * @param frame     the frame number
+     * @param deltaTime the frame time the engine reported, in seconds
+     */
+    public void beginFrame(long frame, float deltaTime) {
+        slot = (int) (recordedFrames % capacity) * FIELD_COUNT;
+        Arrays.fill(ring, slot, slot + FIELD_COUNT, 0);
+        ring[slot + FRAME] = frame;
+        ring[slot + START] = System.nanoTime();
+        ring[slot + DELTA_TIME] = (long) (deltaTime * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Sets a field of the current frame.
+     *
+     * @param field the field, one of the public field indexes
+     * @param value its value
+     */
+    public void put(int field, long value) {
+        ring[slot + field] = value;
+    }
+
+    /**
+     * Completes the record of the current frame, and dumps the window if the frame went over budget. Must
+     * be called at the end of the frame update, before the frame counters are reset.
+     *
+     * @param frameCounters the counters of the current frame
+     */
+    public void endFrame(FrameCounters frameCounters) {
+        long now = System.nanoTime();
+        ring[slot + UPDATE] = now - ring[slot + START];
+        ring[slot + COLLISION_PAIRS] = frameCounters.getCollisionPairs();
+        ring[slot + BRICK_COLLISIONS] = frameCounters.getBrickCollisions();
+        for (StrategyType type : STRATEGY_TYPES) {
+            ring[slot + FIRST_ACTIVATIONS + type.ordinal()] = frameCounters.getStrategyActivations(type);
+        }
+        ring[slot + GC_COUNT] = gcCount.get();
+        ring[slot + GC_PAUSE] = gcPauseNanos.get();
+        recordedFrames++;
+
+        boolean overBudget = ring[slot + DELTA_TIME] > budgetNanos || ring[slot + UPDATE] > budgetNanos;
+        if (overBudget && now >= nextDumpNanos && !dumping) {
+            startDump(now);
+        }
+    }
+
+    /**
+     * Copies the frames of the window, oldest first, and writes them on a new thread.
+     *
+     * @param now the current System.nanoTime
+     */
+    private void startDump(long now) {
+        dumpFrames = 0;
+        long frames = Math.min(recordedFrames, capacity);
+        for (long age = frames - 1; age >= 0; age--) {
+            int source = (int) ((recordedFrames - 1 - age) % capacity) * FIELD_COUNT;
+            if (now - ring[source + START] <= windowNanos) {
+                System.arraycopy(ring, source, dump, dumpFrames * FIELD_COUNT, FIELD_COUNT);
+                dumpFrames++;
+            }
+        }
+        dumpedSpikeFrame = ring[slot + FRAME];
+        nextDumpNanos = now + windowNanos;
+        dumping = true;
+        Thread writer = new Thread(this::writeDump, DUMP_THREAD_NAME);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes the copied frames to a CSV file named after the frame that went over budget, a line per frame
+     * with start times relative to that frame, then deletes the oldest dump files past the maximal number.
+     */
+    private void writeDump() {
+        Path path = directory.resolve(String.format(DUMP_FILE_FORMAT, dumpedSpikeFrame));
+        long spikeStart = dump[(dumpFrames - 1) * FIELD_COUNT + START];
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Failed to write frame spike dump, can not create " + directory + ": " +
+                    e.getMessage());
+            dumping = false;
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            StringBuilder line = new StringBuilder(String.join(SEPARATOR, FIELD_NAMES));
+            for (StrategyType type : STRATEGY_TYPES) {
+                line.append(SEPARATOR).append(ACTIVATIONS_PREFIX).append(type.name().toLowerCase());
+            }
+            writer.append(line);
+            writer.newLine();
+            for (int frame = 0; frame < dumpFrames; frame++) {
+                line.setLength(0);
+                int base = frame * FIELD_COUNT;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    if (field > 0) {
+                        line.append(SEPARATOR);
+                    }
+                    if (field == START) {
+                        line.append(String.format(START_FORMAT,
+                                (dump[base + START] - spikeStart) / NANOS_PER_MILLI_DOUBLE));
+                    } else {
+                        line.append(dump[base + field]);
+                    }
+                }
+                writer.append(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write frame spike dump " + path + ": " + e.getMessage());
+        }
+        try {
+            deleteOldDumps();
+        } finally {
+            dumping = false;
+        }
+    }
+
+    /**
+     * Deletes the oldest dump files of the directory, by modification time, until at most the maximal
+     * number of them is left.
+     */
+    private void deleteOldDumps() {
+        List<Path> dumps = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, DUMP_FILE_GLOB)) {
+            for (Path file : files) {
+                dumps.add(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Can not list old frame spike dumps in " + directory + ": " + e.getMessage());
+            return;
+        }
+        if (dumps.size() <= maxDumpFiles) {
+            return;
+        }
+        dumps.sort(Comparator.comparingLong(FrameRecorder::modifiedMillis));
+        for (Path old : dumps.subList(0, dumps.size() - maxDumpFiles)) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                System.err.println("Can not delete old frame spike dump " + old + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param file a file
+     * @return the time the file was last modified, in milliseconds, 0 if it can not be read
+     */
+    private static long modifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the start of a new game, either by a full initialization of the game
+ * or by resetting the running game in place.
+ */
+@Name("bricker.GameReset")
+@Label("Game Reset")
+@Category("Bricker")
+@Description("A new game started, by initializing the game or by resetting the running game in place")
+@StackTrace(false)
+public class GameResetEvent extends Event {
+
+    /** True if the running game was reset in place, false if the game was initialized */
+    @Label("In Place")
+    public boolean inPlace;
+
+    /** The number of bricks the new game starts with */
+    @Label("Bricks")
+    public int bricks;
+}
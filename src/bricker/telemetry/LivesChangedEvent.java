@@ -0,0 +1,42 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a life lost or gained.
+ */
+@Name("bricker.LivesChanged")
+@Label("Lives Changed")
+@Category("Bricker")
+@Description("A life was lost when the ball fell, or gained by catching a heart")
+@StackTrace(false)
+public class LivesChangedEvent extends Event {
+
+    /** -1 for a lost life, 1 for a gained one */
+    @Label("Change")
+    public int change;
+
+    /** The number of lives after the change */
+    @Label("Lives")
+    public int lives;
+
+    /**
+     * Records the event if it is enabled.
+     *
+     * @param change -1 for a lost life, 1 for a gained one
+     * @param lives  the number of lives after the change
+     */
+    public static void emit(int change, int lives) {
+        LivesChangedEvent event = new LivesChangedEvent();
+        if (event.shouldCommit()) {
+            event.change = change;
+            event.lives = lives;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.EntityKind;
+import bricker.gameobjects.Heart;
+import danogl.GameObject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Accounts for the memory of the game: measures the bytes the game thread allocates every frame, and
+ * reports the live count and estimated retained bytes of every kind of entity on demand.
+ * <p>
+ * Entities are grouped by class, with balls and hearts also split by entity kind, and the collision strategies
+ * of the live bricks are accounted once per strategy object under their own class. Retained bytes are
+ * estimated once per class and report, from the first entity of the class, as all entities of a class own
+ * the same objects. Measuring a frame costs a single call into the JVM and allocates nothing, while
+ * reports walk all the game objects and are meant for occasional queries.
+ */
+public class MemoryAccounting {
+
+    private static final String KIND_FORMAT = "%s[%s]";
+    private static final String STRATEGY_FORMAT = "CollisionStrategy[%s]";
+
+    // private fields
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private long frameStartBytes;
+    private long frames = 0;
+    private long lastFrameBytes = 0;
+    private long totalAllocatedBytes = 0;
+    private long maxFrameBytes = 0;
+
+    /**
+     * Creates the accounting, measuring allocations from now on if the JVM supports it.
+     */
+    public MemoryAccounting() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            this.allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.allocationBean = null;
+        }
+        resetAllocations();
+    }
+
+    /**
+     * Ends a frame, measuring the bytes the calling thread allocated since the previous frame ended.
+     * Must be called by the game thread.
+     */
+    public void recordFrame() {
+        if (allocationBean == null) {
+            return;
+        }
+        long allocatedBytes = allocationBean.getCurrentThreadAllocatedBytes();
+        lastFrameBytes = allocatedBytes - frameStartBytes;
+        frameStartBytes = allocatedBytes;
+        totalAllocatedBytes += lastFrameBytes;
+        maxFrameBytes = Math.max(maxFrameBytes, lastFrameBytes);
+        frames++;
+    }
+
+    /**
+     * @return bytes the game thread allocated in the last recorded frame, MemoryReport.UNSUPPORTED if the
+     * JVM can not measure them
+     */
+    public long getLastFrameBytes() {
+        return allocationBean == null ? MemoryReport.UNSUPPORTED : lastFrameBytes;
+    }
+
+    /**
+     * Clears the allocation rates, for a new game. Must be called by the game thread.
+     */
+    public void resetAllocations() {
+        frames = 0;
+        lastFrameBytes = 0;
+        totalAllocatedBytes = 0;
+        maxFrameBytes = 0;
+        if (allocationBean != null) {
+            frameStartBytes = allocationBean.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Accounts for all the live entities of the game.
+     *
+     * @param gameObjects the objects of the game
+     * @return the report of the entities and the allocation rates
+     */
+    public MemoryReport takeReport(Iterable<GameObject> gameObjects) {
+        MemoryReport report = allocationBean == null ?
+                new MemoryReport(frames, MemoryReport.UNSUPPORTED, MemoryReport.UNSUPPORTED,
+                        MemoryReport.UNSUPPORTED) :
+                new MemoryReport(frames, lastFrameBytes, totalAllocatedBytes, maxFrameBytes);
+        IdentityHashMap<Class<?>, Long> bytesPerClass = new IdentityHashMap<>();
+        Set<CollisionStrategy> strategies = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GameObject gameObject : gameObjects) {
+            long bytes = bytesPerClass.computeIfAbsent(gameObject.getClass(),
+                    type -> RetainedSizeEstimator.estimate(gameObject));
+            report.addEntity(kindOf(gameObject), bytes);
+            if (gameObject instanceof Brick) {
+                strategies.add(((Brick) gameObject).getCollisionStrategy());
+            }
+        }
+        for (CollisionStrategy strategy : strategies) {
+            report.addEntity(String.format(STRATEGY_FORMAT, strategy.getClass().getSimpleName()),
+                    RetainedSizeEstimator.estimate(strategy));
+        }
+        return report;
+    }
+
+    /**
+     * @param gameObject a game object
+     * @return the kind the object is accounted under
+     */
+    private static String kindOf(GameObject gameObject) {
+        String className = gameObject.getClass().getSimpleName();
+        if (gameObject instanceof Ball || gameObject instanceof Heart) {
+            return String.format(KIND_FORMAT, className, EntityKind.nameOf(EntityKind.kindOf(gameObject)));
+        }
+        return className;
+    }
+}
@@ -0,0 +1,139 @@
+package bricker.telemetry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The memory taken by the game at a single point in time: the live count and estimated retained bytes of
+ * every kind of entity, and the bytes the game thread allocated per frame since the game started.
+ */
+public class MemoryReport {
+
+    /** Allocation values when the JVM can not measure allocated bytes */
+    public static final long UNSUPPORTED = -1;
+
+    private static final int COUNT = 0;
+    private static final int BYTES = 1;
+    private static final String HEADER_FORMAT = "%-48s %10s %14s %12s%n";
+    private static final String ROW_FORMAT = "%-48s %10d %14d %12.1f%n";
+    private static final String ALLOCATION_FORMAT =
+            "allocated: %d frames, %d bytes last frame, %.1f bytes/frame average, %d bytes max%n";
+
+    // private fields
+    private final Map<String, long[]> kinds = new TreeMap<>();
+    private final long frames;
+    private final long lastFrameBytes;
+    private final long totalAllocatedBytes;
+    private final long maxFrameBytes;
+    private long totalBytes = 0;
+
+    /**
+     * Creates a report without entities.
+     *
+     * @param frames              the number of frames measured
+     * @param lastFrameBytes      bytes allocated in the last frame, UNSUPPORTED if not measured
+     * @param totalAllocatedBytes bytes allocated in all measured frames, UNSUPPORTED if not measured
+     * @param maxFrameBytes       most bytes allocated in a single frame, UNSUPPORTED if not measured
+     */
+    MemoryReport(long frames, long lastFrameBytes, long totalAllocatedBytes, long maxFrameBytes) {
+        this.frames = frames;
+        this.lastFrameBytes = lastFrameBytes;
+        this.totalAllocatedBytes = totalAllocatedBytes;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    /**
+     * Counts a live entity.
+     *
+     * @param kind  the kind of the entity
+     * @param bytes the estimated bytes it retains
+     */
+    void addEntity(String kind, long bytes) {
+        long[] values = kinds.computeIfAbsent(kind, k -> new long[BYTES + 1]);
+        values[COUNT]++;
+        values[BYTES] += bytes;
+        totalBytes += bytes;
+    }
+
+    /**
+     * @return the kinds of entities alive, by name
+     */
+    public Set<String> getKinds() {
+        return kinds.keySet();
+    }
+
+    /**
+     * @param kind a kind of entity
+     * @return the number of live entities of the kind
+     */
+    public long getCount(String kind) {
+        long[] values = kinds.get(kind);
+        return values == null ? 0 : values[COUNT];
+    }
+
+    /**
+     * @param kind a kind of entity
+     * @return the estimated bytes retained by all live entities of the kind
+     */
+    public long getBytes(String kind) {
+        long[] values = kinds.get(kind);
+        return values == null ? 0 : values[BYTES];
+    }
+
+    /**
+     * @return the estimated bytes retained by all live entities
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return the number of frames measured since the game started
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return bytes allocated by the game thread in the last frame, UNSUPPORTED if not measured
+     */
+    public long getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    /**
+     * @return average bytes allocated by the game thread per frame, UNSUPPORTED if not measured
+     */
+    public double getAverageFrameBytes() {
+        if (totalAllocatedBytes == UNSUPPORTED) {
+            return UNSUPPORTED;
+        }
+        return frames == 0 ? 0 : (double) totalAllocatedBytes / frames;
+    }
+
+    /**
+     * @return most bytes allocated by the game thread in a single frame, UNSUPPORTED if not measured
+     */
+    public long getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    /**
+     * @return the report as a table, a row per kind of entity followed by the allocation rates
+     */
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(HEADER_FORMAT, "kind", "count", "bytes", "bytes/each"));
+        for (Map.Entry<String, long[]> kind : kinds.entrySet()) {
+            long[] values = kind.getValue();
+            table.append(String.format(ROW_FORMAT, kind.getKey(), values[COUNT], values[BYTES],
+                    (double) values[BYTES] / values[COUNT]));
+        }
+        table.append(String.format(HEADER_FORMAT, "total", "", totalBytes, ""));
+        table.append(String.format(ALLOCATION_FORMAT, frames, lastFrameBytes, getAverageFrameBytes(),
+                maxFrameBytes));
+        return table.toString();
+    }
+}
@@ -0,0 +1,248 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyType;
+import bricker.gameobjects.EntityKind;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A toggleable overlay of text lines on the UI layer, showing the frame rate, frame time percentiles,
+ * objects per layer, balls by kind, collision pairs tested and rejected, brick collisions and strategy
+ * activations per second, GC pauses, and the frame pacing: its mode, the jitter of the frame times and the
+ * frames that missed their deadline.
+ * <p>
+ * While visible, every frame only stores its frame time and adds up the frame counters. The lines are
+ * refreshed a few times a second, which is when objects are counted and text is built, so the overlay
+ * costs nothing per frame beyond a few additions. While hidden it does no work at all.
+ */
+public class PerformanceOverlay {
+
+    private static final float REFRESH_SECONDS = 0.5f;
+    private static final int FRAME_WINDOW = 512;
+    private static final float MEDIAN = 0.5f;
+    private static final float P99 = 0.99f;
+    private static final float MILLIS_PER_SECOND = 1000;
+    private static final int FRAME_LINE = 0;
+    private static final int OBJECTS_LINE = 1;
+    private static final int BALLS_LINE = 2;
+    private static final int PAIRS_LINE = 3;
+    private static final int ACTIVATIONS_LINE = 4;
+    private static final int GC_LINE = 5;
+    private static final int PACING_LINE = 6;
+    private static final int LINE_COUNT = 7;
+    private static final float PERCENT = 100;
+    private static final String FRAME_FORMAT = "FPS %.1f   frame p50 %.1f ms   p99 %.1f ms";
+    private static final String OBJECTS_PREFIX = "objects:";
+    private static final String BALLS_PREFIX = "balls: ";
+    private static final String PAIRS_FORMAT = "collision pairs/s %.1f   rejected/s %.1f (%.0f%%)";
+    private static final String HITS_FORMAT = "hits/s %.1f   strategies/s";
+    private static final String ACTIVATION_FORMAT = " %s %.1f";
+    private static final String GC_FORMAT = "GC %d collections, %d ms in the last %.1f s";
+    private static final String PACING_FORMAT = "pacing %s   jitter %.2f ms   missed %d (%.1f%%)";
+    private static final float LINE_HEIGHT = 15;
+    private static final float LINE_WIDTH = 420;
+    private static final int[] LAYERS = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT,
+            Layer.FOREGROUND, Layer.UI};
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    private static final String[] LAYER_NAMES = {"background", "static", "default", "foreground", "ui"};
+
+    // private fields
+    private final FrameCounters frameCounters;
+    private final List<GarbageCollectorMXBean> garbageCollectors =
+            ManagementFactory.getGarbageCollectorMXBeans();
+    private final float[] frameTimes = new float[FRAME_WINDOW];
+    private final float[] sortedFrameTimes = new float[FRAME_WINDOW];
+    private final int[] strategyActivations = new int[STRATEGY_TYPES.length];
+    private final FramePacingStats pacingStats = new FramePacingStats();
+    private final TextRenderable[] lineTexts = new TextRenderable[LINE_COUNT];
+    private final GameObject[] lines = new GameObject[LINE_COUNT];
+    private GameObjectCollection gameObjects;
+    private boolean visible = false;
+    private int frames = 0;
+    private float elapsedSeconds = 0;
+    private int collisionPairs = 0;
+    private int rejectedCollisionPairs = 0;
+    private int brickCollisions = 0;
+    private long gcCount = 0;
+    private long gcMillis = 0;
+    private String pacing = "";
+
+    /**
+     * Creates a hidden overlay.
+     *
+     * @param frameCounters the counters of the current frame, read before they are reset
+     */
+    public PerformanceOverlay(FrameCounters frameCounters) {
+        this.frameCounters = frameCounters;
+        for (int line = 0; line < LINE_COUNT; line++) {
+            lineTexts[line] = new TextRenderable("");
+            lineTexts[line].setColor(Color.white);
+        }
+    }
+
+    /**
+     * Places the overlay in a game, stacking its lines upwards from a given corner. Must be called for
+     * every initialization of the game, and keeps the overlay visible if it was.
+     *
+     * @param gameObjects      the objects of the game
+     * @param bottomLeftCorner the bottom left corner of the lowest line
+     */
+    public void attach(GameObjectCollection gameObjects, Vector2 bottomLeftCorner) {
+        this.gameObjects = gameObjects;
+        for (int line = 0; line < LINE_COUNT; line++) {
+            lines[line] = new GameObject(new Vector2(bottomLeftCorner.x(),
+                    bottomLeftCorner.y() - (LINE_COUNT - line) * LINE_HEIGHT),
+                    new Vector2(LINE_WIDTH, LINE_HEIGHT), lineTexts[line]);
+            if (visible) {
+                gameObjects.addGameObject(lines[line], Layer.UI);
+            }
+        }
+        startInterval();
+    }
+
+    /**
+     * Shows the overlay if it is hidden, and hides it otherwise.
+     */
+    public void toggle() {
+        visible = !visible;
+        for (GameObject line : lines) {
+            if (visible) {
+                gameObjects.addGameObject(line, Layer.UI);
+            } else {
+                gameObjects.removeGameObject(line, Layer.UI);
+            }
+        }
+        startInterval();
+        for (TextRenderable lineText : lineTexts) {
+            lineText.setString("");
+        }
+    }
+
+    /**
+     * @return true if the overlay is shown
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Accounts for a frame, refreshing the lines once enough time passed. Must be called at the end of
+     * every frame, before the frame counters are reset.
+     *
+     * @param deltaTime       the frame time in seconds
+     * @param deadlineSeconds the longest the frame may take before it counts as missed, 0 for no deadline
+     * @param pacing          the frame pacing mode and target
+     */
+    public void recordFrame(float deltaTime, float deadlineSeconds, String pacing) {
+        if (!visible) {
+            return;
+        }
+        this.pacing = pacing;
+        pacingStats.record(deltaTime, deadlineSeconds);
+        frameTimes[frames % FRAME_WINDOW] = deltaTime;
+        frames++;
+        elapsedSeconds += deltaTime;
+        collisionPairs += frameCounters.getCollisionPairs();
+        rejectedCollisionPairs += frameCounters.getRejectedCollisionPairs();
+        brickCollisions += frameCounters.getBrickCollisions();
+        for (StrategyType type : STRATEGY_TYPES) {
+            strategyActivations[type.ordinal()] += frameCounters.getStrategyActivations(type);
+        }
+        if (elapsedSeconds >= REFRESH_SECONDS) {
+            refresh();
+            startInterval();
+        }
+    }
+
+    /**
+     * Clears what was accounted, starting a new refresh interval.
+     */
+    private void startInterval() {
+        frames = 0;
+        elapsedSeconds = 0;
+        collisionPairs = 0;
+        rejectedCollisionPairs = 0;
+        brickCollisions = 0;
+        Arrays.fill(strategyActivations, 0);
+        pacingStats.reset();
+        gcCount = 0;
+        gcMillis = 0;
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectors) {
+            gcCount += Math.max(0, garbageCollector.getCollectionCount());
+            gcMillis += Math.max(0, garbageCollector.getCollectionTime());
+        }
+    }
+
+    /**
+     * Writes the values of the interval that ended into the lines.
+     */
+    private void refresh() {
+        int measuredFrames = Math.min(frames, FRAME_WINDOW);
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, measuredFrames);
+        Arrays.sort(sortedFrameTimes, 0, measuredFrames);
+        lineTexts[FRAME_LINE].setString(String.format(FRAME_FORMAT,
+                frames / elapsedSeconds, percentile(measuredFrames, MEDIAN) * MILLIS_PER_SECOND,
+                percentile(measuredFrames, P99) * MILLIS_PER_SECOND));
+
+        StringBuilder objects = new StringBuilder(OBJECTS_PREFIX);
+        Map<String, Integer> ballsByKind = new TreeMap<>();
+        for (int layer = 0; layer < LAYERS.length; layer++) {
+            int count = 0;
+            for (GameObject gameObject : gameObjects.objectsInLayer(LAYERS[layer])) {
+                count++;
+                if (EntityKind.has(gameObject, EntityKind.BALL)) {
+                    ballsByKind.merge(EntityKind.nameOf(EntityKind.kindOf(gameObject)), 1, Integer::sum);
+                }
+            }
+            objects.append(' ').append(LAYER_NAMES[layer]).append(' ').append(count);
+        }
+        lineTexts[OBJECTS_LINE].setString(objects.toString());
+        lineTexts[BALLS_LINE].setString(BALLS_PREFIX + ballsByKind);
+        lineTexts[PAIRS_LINE].setString(String.format(PAIRS_FORMAT, collisionPairs / elapsedSeconds,
+                rejectedCollisionPairs / elapsedSeconds,
+                collisionPairs == 0 ? 0 : PERCENT * rejectedCollisionPairs / collisionPairs));
+
+        StringBuilder activations = new StringBuilder(String.format(HITS_FORMAT,
+                brickCollisions / elapsedSeconds));
+        for (StrategyType type : STRATEGY_TYPES) {
+            activations.append(String.format(ACTIVATION_FORMAT, type, strategyActivations[type.ordinal()] /
+                    elapsedSeconds));
+        }
+        lineTexts[ACTIVATIONS_LINE].setString(activations.toString());
+
+        long intervalGcCount = -gcCount;
+        long intervalGcMillis = -gcMillis;
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectors) {
+            intervalGcCount += Math.max(0, garbageCollector.getCollectionCount());
+            intervalGcMillis += Math.max(0, garbageCollector.getCollectionTime());
+        }
+        lineTexts[GC_LINE].setString(String.format(GC_FORMAT,
+                intervalGcCount, intervalGcMillis, elapsedSeconds));
+        lineTexts[PACING_LINE].setString(String.format(PACING_FORMAT, pacing, pacingStats.getJitterMillis(),
+                pacingStats.getMissedFrames(), pacingStats.getMissedPercent()));
+    }
+
+    /**
+     * @param measuredFrames the number of sorted frame times
+     * @param fraction       the fraction of frames at or below the percentile
+     * @return the frame time of the percentile, in seconds
+     */
+    private float percentile(int measuredFrames, float fraction) {
+        if (measuredFrames == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * measuredFrames) - 1;
+        return sortedFrameTimes[Math.max(0, index)];
+    }
+}
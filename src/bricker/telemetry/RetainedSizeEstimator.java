@@ -0,0 +1,191 @@
+package bricker.telemetry;
+
+import bricker.assets.SoundSource;
+import bricker.assets.TextureAtlas;
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.gameobjects.PaddleController;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.Sound;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Counter;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Estimates the heap bytes retained by a single game entity, by walking the objects it references through
+ * reflection. Objects shared between entities (other game objects, strategies, assets, game services,
+ * strings, enums and classes) are not followed, so every entity is only charged for what it owns.
+ * <p>
+ * Sizes follow the layout of a 64 bit JVM with compressed references and class pointers, the default for
+ * heaps below 32GB: a 12 byte object header, 4 byte references, and every object padded to 8 bytes.
+ * Objects whose fields can not be read, as those of the JDK, are charged their own size only.
+ */
+class RetainedSizeEstimator {
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ALIGNMENT = 8;
+    private static final Class<?>[] SHARED_TYPES = {GameObject.class, CollisionStrategy.class,
+            GameObjectCollection.class, Renderable.class, Sound.class, TextureAtlas.class, SoundSource.class,
+            PaddleController.class, FrameCounters.class, Counter.class, UserInputListener.class,
+            WindowController.class, String.class, Enum.class, Class.class};
+
+    // per class caches
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return shallowSizeOf(type);
+        }
+    };
+    private static final ClassValue<Field[]> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            return readableReferenceFieldsOf(type);
+        }
+    };
+
+    /**
+     * Estimates the bytes retained by an entity.
+     *
+     * @param root the entity
+     * @return the estimated size of the entity and every object it owns, in bytes
+     */
+    static long estimate(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        visited.add(root);
+        pending.add(root);
+        long bytes = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.poll();
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                bytes += arraySizeOf(object);
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(object); i++) {
+                        follow(Array.get(object, i), visited, pending);
+                    }
+                }
+                continue;
+            }
+            bytes += SHALLOW_SIZES.get(type);
+            for (Field field : REFERENCE_FIELDS.get(type)) {
+                try {
+                    follow(field.get(object), visited, pending);
+                } catch (IllegalAccessException e) {
+                    // charged its own size only, like any object whose fields can not be read
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Queues a referenced object, unless it is shared or was already charged.
+     *
+     * @param object  the referenced object, may be null
+     * @param visited the objects already charged
+     * @param pending the objects left to charge
+     */
+    private static void follow(Object object, Set<Object> visited, ArrayDeque<Object> pending) {
+        if (object == null || isShared(object) || !visited.add(object)) {
+            return;
+        }
+        pending.add(object);
+    }
+
+    /**
+     * @param object an object referenced by an entity
+     * @return true if the object is shared between entities, and so not charged to any of them
+     */
+    private static boolean isShared(Object object) {
+        for (Class<?> sharedType : SHARED_TYPES) {
+            if (sharedType.isInstance(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param array an array
+     * @return the size of the array itself, without the objects it references
+     */
+    private static long arraySizeOf(Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        return align(ARRAY_HEADER_BYTES + (long) Array.getLength(array) * fieldSizeOf(componentType));
+    }
+
+    /**
+     * @param type a class
+     * @return the size of an instance of the class, without the objects it references
+     */
+    private static long shallowSizeOf(Class<?> type) {
+        long bytes = OBJECT_HEADER_BYTES;
+        for (Class<?> level = type; level != null; level = level.getSuperclass()) {
+            for (Field field : level.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += fieldSizeOf(field.getType());
+                }
+            }
+        }
+        return align(bytes);
+    }
+
+    /**
+     * @param type a class
+     * @return the instance fields of the class and its superclasses that hold references and can be read
+     */
+    private static Field[] readableReferenceFieldsOf(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> level = type; level != null; level = level.getSuperclass()) {
+            for (Field field : level.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive() &&
+                        field.trySetAccessible()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+    /**
+     * @param type the type of a field or array element
+     * @return the bytes it takes
+     */
+    private static int fieldSizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        }
+        if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        }
+        if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return Byte.BYTES;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    /**
+     * @param bytes a size in bytes
+     * @return the size padded to the object alignment
+     */
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
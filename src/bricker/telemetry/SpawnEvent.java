@@ -0,0 +1,36 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a puck ball, falling heart or mock paddle added to the game.
+ */
+@Name("bricker.Spawn")
+@Label("Object Spawned")
+@Category("Bricker")
+@Description("A puck ball, falling heart or mock paddle was added to the game")
+@StackTrace(false)
+public class SpawnEvent extends Event {
+
+    /** The tag of the added object */
+    @Label("Object")
+    public String objectTag;
+
+    /**
+     * Records the event if it is enabled.
+     *
+     * @param objectTag the tag of the added object
+     */
+    public static void emit(String objectTag) {
+        SpawnEvent event = new SpawnEvent();
+        if (event.shouldCommit()) {
+            event.objectTag = objectTag;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the execution of a brick's collision strategy.
+ */
+@Name("bricker.StrategyActivation")
+@Label("Collision Strategy Activation")
+@Category("Bricker")
+@Description("A brick's collision strategy ran, from the collision until all its behaviors were applied")
+@StackTrace(false)
+public class StrategyActivationEvent extends Event {
+
+    /** The behaviors of the strategy */
+    @Label("Strategy")
+    public String strategy;
+
+    /** The code of the strategy, see StrategyCode */
+    @Label("Strategy Code")
+    public int strategyCode;
+
+    /** The tag of the object that hit the brick */
+    @Label("Hit By")
+    public String hitBy;
+}
@@ -0,0 +1,93 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A small local tool that connects to a running game's TelemetryStream and prints every record it
+ * receives, one line per frame.
+ */
+public class TelemetryReader {
+
+    private static final int PORT_ARG = 0;
+    private static final int MAX_RECORD_SIZE = 64 * 1024;
+    private static final String[] BALL_KINDS = {"main", "turbo", "puck"};
+
+    /**
+     * Connects to the telemetry stream and prints its records until the game closes it.
+     *
+     * @param args args[0] = the port the game streams telemetry on
+     * @throws IOException if connecting fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length <= PORT_ARG) {
+            System.err.println("usage: TelemetryReader <port>");
+            return;
+        }
+        int port = Integer.parseInt(args[PORT_ARG]);
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer record = ByteBuffer.allocate(MAX_RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        StringBuilder line = new StringBuilder();
+        try (SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            while (true) {
+                readFully(channel, length.clear());
+                record.clear().limit(length.getInt(0));
+                readFully(channel, record);
+                record.flip();
+                line.setLength(0);
+                formatRecord(record, line);
+                System.out.println(line);
+            }
+        } catch (EOFException e) {
+            // the game closed the stream
+        }
+    }
+
+    /**
+     * Formats a single record as a line of text.
+     *
+     * @param record the record, without its length
+     * @param line   the line to append to
+     */
+    private static void formatRecord(ByteBuffer record, StringBuilder line) {
+        line.append("frame ").append(record.getLong());
+        line.append(String.format(" %.2fms", record.getFloat() * 1000));
+        line.append(" layers [");
+        for (int i = 0; i < TelemetryStream.LAYERS.length; i++) {
+            line.append(i == 0 ? "" : " ").append(record.getShort());
+        }
+        line.append("] hits ").append(record.getShort());
+        for (StrategyType type : StrategyType.values()) {
+            line.append(' ').append(type.name().toLowerCase()).append(' ').append(record.getShort());
+        }
+        int ballCount = record.getShort();
+        for (int ball = 0; ball < ballCount; ball++) {
+            String kind = BALL_KINDS[record.get()];
+            line.append(String.format(" | %s (%.1f, %.1f) v(%.1f, %.1f)", kind,
+                    record.getFloat(), record.getFloat(), record.getFloat(), record.getFloat()));
+        }
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param channel the connection to read from
+     * @param buffer  the buffer to fill
+     * @throws IOException if the connection closes or reading fails
+     */
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package bricker.telemetry;
+
+import bricker.brick_strategies.StrategyType;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.EntityKind;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Streams a compact binary record of the game state to a local client once per frame.
+ * The stream listens on the loopback interface without blocking. While no client is attached the only
+ * cost is checking for a new connection every few frames. Records are queued in a preallocated buffer
+ * and written without blocking; when a client reads too slowly, new records are dropped instead of
+ * stalling the game loop.
+ * <p>
+ * Every record is little endian: its length (int, not counting itself), the frame number (long), the
+ * frame time in seconds (float), the number of objects in each of the LAYERS (short each), the number
+ * of brick collisions (short), the number of activations of each StrategyType in ordinal order
+ * (short each), the number of balls (short), and for every ball its kind (byte), center and
+ * velocity (4 floats).
+ */
+public class TelemetryStream {
+
+    /** The layers whose objects are counted, in record order */
+    public static final int[] LAYERS = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT,
+            Layer.FOREGROUND, Layer.UI};
+    /** Ball kind of the main ball in its normal state */
+    public static final byte MAIN_BALL = 0;
+    /** Ball kind of the main ball in its turbo state */
+    public static final byte TURBO_BALL = 1;
+    /** Ball kind of a puck ball */
+    public static final byte PUCK_BALL = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FRAMES_BETWEEN_ACCEPTS = 30;
+    private static final int MAX_BALLS_PER_RECORD = 1024;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Float.BYTES
+            + (LAYERS.length + 1 + StrategyType.values().length + 1) * Short.BYTES;
+    private static final int BALL_SIZE = Byte.BYTES + 4 * Float.BYTES;
+
+    // private fields
+    private final ServerSocketChannel serverChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private SocketChannel client;
+    private int framesUntilAccept = 0;
+    private long droppedRecords = 0;
+
+    /**
+     * Starts listening for a telemetry client on the loopback interface.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @throws IOException if the port can not be bound
+     */
+    public TelemetryStream(int port) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+    }
+
+    /**
+     * @return the port the stream listens on
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return the number of records dropped because the client was not reading fast enough
+     */
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * Sends the record of a single frame, if a client is attached.
+     *
+     * @param frame       the frame number
+     * @param frameTime   the time, in seconds, the frame took
+     * @param gameObjects the objects of the game
+     * @param counters    the events of the frame
+     */
+    public void publishFrame(long frame, float frameTime, GameObjectCollection gameObjects,
+                             FrameCounters counters) {
+        if (client == null && !pollForClient()) {
+            return;
+        }
+        int ballCount = 0;
+        for (GameObject gameObject : gameObjects.objectsInLayer(Layer.DEFAULT)) {
+            if (gameObject instanceof Ball) {
+                ballCount++;
+            }
+        }
+        ballCount = Math.min(ballCount, MAX_BALLS_PER_RECORD);
+        if (buffer.remaining() < HEADER_SIZE + ballCount * BALL_SIZE) {
+            droppedRecords++;
+        } else {
+            writeRecord(frame, frameTime, gameObjects, counters, ballCount);
+        }
+        flush();
+    }
+
+    /**
+     * Appends a single record to the buffer, which is known to have room for it.
+     *
+     * @param frame       the frame number
+     * @param frameTime   the time, in seconds, the frame took
+     * @param gameObjects the objects of the game
+     * @param counters    the events of the frame
+     * @param ballCount   the number of balls to write
+     */
+    private void writeRecord(long frame, float frameTime, GameObjectCollection gameObjects,
+                             FrameCounters counters, int ballCount) {
+        buffer.putInt(HEADER_SIZE - Integer.BYTES + ballCount * BALL_SIZE);
+        buffer.putLong(frame);
+        buffer.putFloat(frameTime);
+        for (int layer : LAYERS) {
+            int count = 0;
+            for (GameObject ignored : gameObjects.objectsInLayer(layer)) {
+                count++;
+            }
+            buffer.putShort((short) count);
+        }
+        buffer.putShort((short) counters.getBrickCollisions());
+        for (StrategyType type : StrategyType.values()) {
+            buffer.putShort((short) counters.getStrategyActivations(type));
+        }
+        buffer.putShort((short) ballCount);
+        int written = 0;
+        for (GameObject gameObject : gameObjects.objectsInLayer(Layer.DEFAULT)) {
+            if (!(gameObject instanceof Ball) || written == ballCount) {
+                continue;
+            }
+            buffer.put(ballKind((Ball) gameObject));
+            buffer.putFloat(gameObject.getCenter().x());
+            buffer.putFloat(gameObject.getCenter().y());
+            buffer.putFloat(gameObject.getVelocity().x());
+            buffer.putFloat(gameObject.getVelocity().y());
+            written++;
+        }
+    }
+
+    /**
+     * @param ball a ball in the game
+     * @return the kind of the ball, by its entity kind and turbo state
+     */
+    private static byte ballKind(Ball ball) {
+        if (ball.getKind() != EntityKind.MAIN_BALL) {
+            return PUCK_BALL;
+        }
+        return ball.isTurbo() ? TURBO_BALL : MAIN_BALL;
+    }
+
+    /**
+     * Checks for a waiting client, only once every few frames.
+     *
+     * @return true if a client is attached
+     */
+    private boolean pollForClient() {
+        if (--framesUntilAccept > 0) {
+            return false;
+        }
+        framesUntilAccept = FRAMES_BETWEEN_ACCEPTS;
+        try {
+            client = serverChannel.accept();
+            if (client != null) {
+                client.configureBlocking(false);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            client = null;
+        }
+        return client != null;
+    }
+
+    /**
+     * Writes as much of the buffer as the socket accepts without blocking, detaching the client if the
+     * connection is gone.
+     */
+    private void flush() {
+        buffer.flip();
+        try {
+            client.write(buffer);
+            buffer.compact();
+        } catch (IOException e) {
+            detachClient();
+        }
+    }
+
+    /**
+     * Closes the client's connection, waiting for the next client.
+     */
+    private void detachClient() {
+        try {
+            client.close();
+        } catch (IOException ignored) {
+            // the connection is gone either way
+        }
+        client = null;
+        buffer.clear();
+    }
+
+    /**
+     * Stops listening and closes the client's connection.
+     */
+    public void close() {
+        if (client != null) {
+            detachClient();
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // closing either way
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package bricker.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of the main ball entering or leaving its turbo state.
+ */
+@Name("bricker.Turbo")
+@Label("Turbo")
+@Category("Bricker")
+@Description("The main ball entered or left its turbo state")
+@StackTrace(false)
+public class TurboEvent extends Event {
+
+    /** True when turbo started, false when it expired */
+    @Label("Started")
+    public boolean started;
+
+    /** The collision count of the ball at which turbo expires */
+    @Label("Expires At Collision")
+    public int expiresAtCollision;
+
+    /**
+     * Records the event if it is enabled.
+     *
+     * @param started            true when turbo started, false when it expired
+     * @param expiresAtCollision the collision count of the ball at which turbo expires
+     */
+    public static void emit(boolean started, int expiresAtCollision) {
+        TurboEvent event = new TurboEvent();
+        if (event.shouldCommit()) {
+            event.started = started;
+            event.expiresAtCollision = expiresAtCollision;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package bricker;
+
+import java.util.Objects;
+
+/**
+ * The few assertions the self-checks use, so they run on a plain JDK without a test framework. A failed
+ * assertion throws an AssertionError whatever the -ea flag of the JVM.
+ */
+public final class Assertions {
+
+    private Assertions() {
+    }
+
+    /**
+     * Fails unless a condition holds.
+     *
+     * @param condition the condition
+     * @param message   what went wrong if the condition does not hold
+     */
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Fails unless two values are equal.
+     *
+     * @param expected the expected value
+     * @param actual   the actual value
+     * @param message  what is compared
+     */
+    public static void assertEquals(long expected, long actual, String message) {
+        if (expected != actual) {
+            throw new AssertionError(message + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * Fails unless two objects are equal.
+     *
+     * @param expected the expected object
+     * @param actual   the actual object
+     * @param message  what is compared
+     */
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * Fails unless two values are equal up to a tolerance.
+     *
+     * @param expected  the expected value
+     * @param actual    the actual value
+     * @param tolerance the largest difference allowed
+     * @param message   what is compared
+     */
+    public static void assertEquals(double expected, double actual, double tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * Fails unless running some code throws an exception of a given type.
+     *
+     * @param type    the exception type expected
+     * @param code    the code to run
+     * @param message what the code does
+     */
+    public static void assertThrows(Class<? extends Throwable> type, Runnable code, String message) {
+        try {
+            code.run();
+        } catch (Throwable e) {
+            if (type.isInstance(e)) {
+                return;
+            }
+            throw new AssertionError(message + ": expected " + type.getSimpleName() + ", got " + e, e);
+        }
+        throw new AssertionError(message + ": expected " + type.getSimpleName() + ", nothing was thrown");
+    }
+}
@@ -0,0 +1,80 @@
+package bricker;
+
+import bricker.assets.AssetPackCheck;
+import bricker.brick_strategies.StrategySamplerCheck;
+import bricker.headless.FastForwardCheck;
+import bricker.headless.RuleParityCheck;
+import bricker.levels.LevelGeneratorCheck;
+import bricker.main.GameSnapshotCheck;
+import bricker.main.RewindBufferCheck;
+import bricker.main.TournamentResultCheck;
+import bricker.rl.VectorizedBrickerEnvCheck;
+import bricker.server.SnapshotCodecCheck;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Runs the self-checks of the game without a test framework. Every public static no-argument method of a
+ * check class whose name starts with "check" is a single check, run in name order. Prints a line per
+ * failed check and a summary, and exits with status 1 if any check failed.
+ */
+public final class SelfCheck {
+
+    private static final String CHECK_PREFIX = "check";
+    private static final int FAILED_STATUS = 1;
+    private static final Class<?>[] CHECK_CLASSES = {AssetPackCheck.class, StrategySamplerCheck.class,
+            SnapshotCodecCheck.class, GameSnapshotCheck.class, RewindBufferCheck.class, RuleParityCheck.class,
+            FastForwardCheck.class, VectorizedBrickerEnvCheck.class, TournamentResultCheck.class,
+            LevelGeneratorCheck.class};
+
+    private SelfCheck() {
+    }
+
+    /**
+     * Runs all the checks.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        int checks = 0;
+        int failures = 0;
+        for (Class<?> checkClass : CHECK_CLASSES) {
+            Method[] methods = checkClass.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (!isCheck(method)) {
+                    continue;
+                }
+                checks++;
+                try {
+                    method.invoke(null);
+                } catch (InvocationTargetException e) {
+                    failures++;
+                    System.err.println("FAILED " + checkClass.getSimpleName() + "." + method.getName() +
+                            ": " + e.getCause());
+                } catch (IllegalAccessException e) {
+                    failures++;
+                    System.err.println("Can not run " + checkClass.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        System.out.println(checks - failures + " of " + checks + " checks passed");
+        if (failures > 0) {
+            System.exit(FAILED_STATUS);
+        }
+    }
+
+    /**
+     * @param method a method of a check class
+     * @return true if the method is a check
+     */
+    private static boolean isCheck(Method method) {
+        int modifiers = method.getModifiers();
+        return Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) &&
+                method.getParameterCount() == 0 && method.getName().startsWith(CHECK_PREFIX);
+    }
+}
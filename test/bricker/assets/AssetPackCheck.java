@@ -0,0 +1,140 @@
+package bricker.assets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertThrows;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of AssetPack: the assets of a written pack read back as they were, and a corrupt, truncated
+ * or foreign pack is refused when it is opened instead of when one of its assets is read.
+ */
+public final class AssetPackCheck {
+
+    private static final String TEMP_PREFIX = "bricker-check";
+    private static final String PACK_SUFFIX = ".pack";
+    private static final List<String> NAMES = List.of("assets/first.bin", "assets/second.bin");
+    private static final int FIRST_SIZE = 100;
+    private static final int SECOND_SIZE = 37;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int ENTRY_COUNT_OFFSET = Integer.BYTES + Short.BYTES;
+    // the offset and length of the first entry follow its name length and name
+    private static final int FIRST_OFFSET_OFFSET = HEADER_SIZE + Short.BYTES +
+            NAMES.get(0).getBytes(StandardCharsets.UTF_8).length;
+    private static final int FIRST_LENGTH_OFFSET = FIRST_OFFSET_OFFSET + Long.BYTES;
+    private static final long OFFSET_PAST_2_GB = (1L << Integer.SIZE) + HEADER_SIZE;
+
+    private AssetPackCheck() {
+    }
+
+    /**
+     * Every asset of a written pack reads back with the bytes of its file.
+     *
+     * @throws IOException if the temporary files can not be written
+     */
+    public static void checkRoundTrip() throws IOException {
+        byte[] first = createBytes(FIRST_SIZE, 1);
+        byte[] second = createBytes(SECOND_SIZE, 2);
+        Path pack = writePack(first, second);
+        try {
+            AssetPack assetPack = new AssetPack(pack, null);
+            assertEquals(NAMES.size(), assetPack.getAssetNames().size(), "assets in the pack");
+            assertTrue(Arrays.equals(first, toArray(assetPack.readBytes(NAMES.get(0)))), "first asset");
+            assertTrue(Arrays.equals(second, toArray(assetPack.readBytes(NAMES.get(1)))), "second asset");
+        } finally {
+            Files.delete(pack);
+        }
+    }
+
+    /**
+     * A pack whose index points outside of the pack, counts more entries than fit or is cut short is
+     * refused, as is a file that is not a pack at all.
+     *
+     * @throws IOException if the temporary files can not be written
+     */
+    public static void checkCorruptIndex() throws IOException {
+        checkRefused(bytes -> bytes.putLong(FIRST_OFFSET_OFFSET, OFFSET_PAST_2_GB), "offset past 2 GB");
+        checkRefused(bytes -> bytes.putLong(FIRST_OFFSET_OFFSET, -1), "negative offset");
+        checkRefused(bytes -> bytes.putInt(FIRST_LENGTH_OFFSET, FIRST_SIZE + SECOND_SIZE + 1),
+                "length past the end");
+        checkRefused(bytes -> bytes.putInt(FIRST_LENGTH_OFFSET, -1), "negative length");
+        checkRefused(bytes -> bytes.putInt(ENTRY_COUNT_OFFSET, Integer.MAX_VALUE), "huge entry count");
+        checkRefused(bytes -> bytes.putInt(ENTRY_COUNT_OFFSET, -1), "negative entry count");
+        checkRefused(bytes -> bytes.putInt(0, 0), "foreign file");
+        checkRefused(bytes -> bytes.limit(FIRST_OFFSET_OFFSET), "truncated index");
+    }
+
+    /**
+     * Writes a pack, corrupts it and checks opening it throws.
+     *
+     * @param corruption changes the bytes of the pack, in the byte order of packs
+     * @param message    describes the corruption
+     * @throws IOException if the temporary files can not be written
+     */
+    private static void checkRefused(Consumer<ByteBuffer> corruption, String message)
+            throws IOException {
+        Path pack = writePack(createBytes(FIRST_SIZE, 1), createBytes(SECOND_SIZE, 2));
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(pack)).order(AssetPack.BYTE_ORDER);
+            corruption.accept(bytes);
+            Files.write(pack, Arrays.copyOf(bytes.array(), bytes.limit()));
+            assertThrows(IllegalStateException.class, () -> new AssetPack(pack, null), message);
+        } finally {
+            Files.delete(pack);
+        }
+    }
+
+    /**
+     * Writes a pack of two assets through temporary files.
+     *
+     * @param first  the bytes of the first asset
+     * @param second the bytes of the second asset
+     * @return the pack file, which the caller deletes
+     * @throws IOException if the temporary files can not be written
+     */
+    private static Path writePack(byte[] first, byte[] second) throws IOException {
+        Path firstFile = Files.createTempFile(TEMP_PREFIX, null);
+        Path secondFile = Files.createTempFile(TEMP_PREFIX, null);
+        try {
+            Files.write(firstFile, first);
+            Files.write(secondFile, second);
+            Path pack = Files.createTempFile(TEMP_PREFIX, PACK_SUFFIX);
+            AssetPackWriter.writePack(NAMES, List.of(firstFile, secondFile), pack);
+            return pack;
+        } finally {
+            Files.delete(firstFile);
+            Files.delete(secondFile);
+        }
+    }
+
+    /**
+     * @param size the number of bytes
+     * @param step the difference between consecutive bytes
+     * @return bytes that differ from those of another step
+     */
+    private static byte[] createBytes(int size, int step) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * step);
+        }
+        return bytes;
+    }
+
+    /**
+     * @param buffer a buffer
+     * @return the remaining bytes of the buffer
+     */
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,168 @@
+package bricker.brick_strategies;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertThrows;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of StrategySampler: the exact distribution of its alias table matches the weights for the
+ * default mix and for skewed tables, sampling draws once per brick and follows the weights, and invalid
+ * tables are rejected.
+ */
+public final class StrategySamplerCheck {
+
+    private static final double EXACT_TOLERANCE = 1e-12;
+    private static final int SAMPLES = 1_000_000;
+    private static final double MAX_SIGMAS = 5;
+    private static final long SEED = 67125;
+
+    private StrategySamplerCheck() {
+    }
+
+    /**
+     * The alias table of the default mix returns every code with exactly its weight's probability.
+     */
+    public static void checkDefaultsExactDistribution() {
+        checkExactDistribution(StrategySampler.defaults());
+    }
+
+    /**
+     * Weights many orders of magnitude apart and zero weights keep the exact distribution, and a code with
+     * weight 0 is never returned.
+     */
+    public static void checkSkewedExactDistribution() {
+        Map<Integer, Double> weights = new TreeMap<>();
+        weights.put(StrategyCode.BASIC, 1000.0);
+        weights.put(StrategyCode.of(StrategyType.PUCK), 1e-6);
+        weights.put(StrategyCode.of(StrategyType.TURBO), 0.0);
+        weights.put(StrategyCode.of(StrategyType.HEART), 3.0);
+        weights.put(StrategyCode.of(StrategyType.MOCK_PADDLE, StrategyType.HEART), 7.0);
+        StrategySampler sampler = new StrategySampler(weights);
+        checkExactDistribution(sampler);
+        int turbo = StrategyCode.of(StrategyType.TURBO);
+        assertEquals(0, sampler.getSampleProbability(turbo), 0, "probability of a zero weight");
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            assertTrue(sampler.sample(random) != turbo, "a code with weight 0 was sampled");
+        }
+    }
+
+    /**
+     * A table of a single code always returns it.
+     */
+    public static void checkSingleCode() {
+        int code = StrategyCode.of(StrategyType.PUCK, StrategyType.TURBO);
+        StrategySampler sampler = new StrategySampler(Map.of(code, 0.4));
+        assertEquals(1, sampler.getSampleProbability(code), EXACT_TOLERANCE, "probability of the only code");
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            assertEquals(code, sampler.sample(random), "sampled code");
+        }
+    }
+
+    /**
+     * Sampling draws from the random generator exactly once, and the same seed gives the same codes.
+     */
+    public static void checkSingleDrawPerSample() {
+        StrategySampler sampler = StrategySampler.defaults();
+        CountingRandom counting = new CountingRandom(SEED);
+        SplittableRandom same = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            int code = sampler.sample(counting);
+            assertEquals(i + 1, counting.draws, "random draws");
+            assertEquals(sampler.sample(same), code, "code sampled from the same seed");
+        }
+    }
+
+    /**
+     * The frequencies of a million samples of the default mix are within 5 standard deviations of the
+     * weights.
+     */
+    public static void checkSampleFrequencies() {
+        StrategySampler sampler = StrategySampler.defaults();
+        int[] counts = new int[StrategyCode.MAX_CODE + 1];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        for (int code : sampler.getCodes()) {
+            double probability = sampler.getWeightProbability(code);
+            double sigma = Math.sqrt(SAMPLES * probability * (1 - probability));
+            assertEquals(SAMPLES * probability, counts[code], MAX_SIGMAS * sigma,
+                    "samples of " + StrategyCode.describe(code));
+        }
+    }
+
+    /**
+     * Negative, infinite and undefined weights, and tables without a positive weight, are rejected.
+     */
+    public static void checkInvalidWeights() {
+        int puck = StrategyCode.of(StrategyType.PUCK);
+        assertThrows(IllegalArgumentException.class,
+                () -> new StrategySampler(Map.of(StrategyCode.BASIC, 1.0, puck, -1.0)), "negative weight");
+        assertThrows(IllegalArgumentException.class,
+                () -> new StrategySampler(Map.of(puck, Double.POSITIVE_INFINITY)), "infinite weight");
+        assertThrows(IllegalArgumentException.class,
+                () -> new StrategySampler(Map.of(puck, Double.NaN)), "undefined weight");
+        assertThrows(IllegalArgumentException.class,
+                () -> new StrategySampler(Map.of(StrategyCode.BASIC, 0.0, puck, 0.0)), "all weights 0");
+        assertThrows(IllegalArgumentException.class, () -> new StrategySampler(Map.of()), "empty table");
+    }
+
+    /**
+     * Checks that the alias table of a sampler gives every code its weight's probability, and that the
+     * probabilities add up to 1.
+     *
+     * @param sampler the sampler to check
+     */
+    private static void checkExactDistribution(StrategySampler sampler) {
+        double total = 0;
+        for (int code : sampler.getCodes()) {
+            double probability = sampler.getSampleProbability(code);
+            assertEquals(sampler.getWeightProbability(code), probability, EXACT_TOLERANCE,
+                    "probability of " + StrategyCode.describe(code));
+            total += probability;
+        }
+        assertEquals(1, total, EXACT_TOLERANCE, "total probability");
+    }
+
+    /**
+     * A random generator that counts its draws.
+     */
+    private static final class CountingRandom implements RandomGenerator {
+
+        // private fields
+        private final SplittableRandom random;
+        private int draws = 0;
+
+        /**
+         * @param seed the seed of the draws
+         */
+        private CountingRandom(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+
+        /**
+         * @return the next random long
+         */
+        @Override
+        public long nextLong() {
+            draws++;
+            return random.nextLong();
+        }
+
+        /**
+         * @return the next random double, from a single draw
+         */
+        @Override
+        public double nextDouble() {
+            draws++;
+            return random.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bricker.headless;
+
+import bricker.main.Constants;
+
+import java.util.Arrays;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Checks that fast-forwarding a headless game gives the same results as stepping it frame by frame with
+ * the paddle in place: after the same number of frames both games have the same bricks, lives and
+ * status, and the main ball at the same place within a tolerance.
+ */
+public final class FastForwardCheck {
+
+    // seed 561 loses its ball on the window bottom exactly at the end of a frame, where moving by several
+    // frames at once used to round the ball back into the window and lose the life a frame late
+    private static final int FIRST_SEED = 545;
+    private static final int SEEDS = 40;
+    private static final int FRAMES = 3_000;
+    // a few checkpoints inside a game, where fast-forwarding stops in the middle of a skip
+    private static final int[] CHECKPOINT_FRAMES = {1, 97, 600, FRAMES};
+    private static final float FRAME_TIME = 1f / 60;
+    private static final float POSITION_TOLERANCE = 0.5f;
+
+    private FastForwardCheck() {
+    }
+
+    /**
+     * Every seed is played to several checkpoints both ways, and the games must agree at all of them.
+     */
+    public static void checkMatchesSteppedGames() {
+        HeadlessBrickerGame stepped = createGame();
+        HeadlessBrickerGame fastForwarded = createGame();
+        long[] steppedBricks = new long[stepped.getAliveWordCount()];
+        long[] fastForwardedBricks = new long[fastForwarded.getAliveWordCount()];
+        for (int seed = FIRST_SEED; seed < FIRST_SEED + SEEDS; seed++) {
+            stepped.reset(seed);
+            fastForwarded.reset(seed);
+            int steppedFrames = 0;
+            int fastForwardedFrames = 0;
+            for (int checkpoint : CHECKPOINT_FRAMES) {
+                while (steppedFrames < checkpoint && stepped.getStatus() == GameStatus.RUNNING) {
+                    stepped.step(FRAME_TIME, HeadlessBrickerGame.STAY);
+                    steppedFrames++;
+                }
+                fastForwardedFrames += fastForwarded.fastForward(checkpoint - fastForwardedFrames, FRAME_TIME);
+                String game = "seed " + seed + " at frame " + checkpoint;
+                assertEquals(steppedFrames, fastForwardedFrames, "frames played, " + game);
+                assertEquals(stepped.getStatus(), fastForwarded.getStatus(), "status, " + game);
+                assertEquals(stepped.getLives(), fastForwarded.getLives(), "lives, " + game);
+                stepped.copyAliveBricks(steppedBricks, 0);
+                fastForwarded.copyAliveBricks(fastForwardedBricks, 0);
+                assertTrue(Arrays.equals(steppedBricks, fastForwardedBricks), "bricks, " + game);
+                assertEquals(stepped.getBallX(HeadlessBrickerGame.MAIN_BALL),
+                        fastForwarded.getBallX(HeadlessBrickerGame.MAIN_BALL), POSITION_TOLERANCE,
+                        "main ball x, " + game);
+                assertEquals(stepped.getBallY(HeadlessBrickerGame.MAIN_BALL),
+                        fastForwarded.getBallY(HeadlessBrickerGame.MAIN_BALL), POSITION_TOLERANCE,
+                        "main ball y, " + game);
+                if (stepped.getStatus() != GameStatus.RUNNING) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a game of the default brick grid
+     */
+    private static HeadlessBrickerGame createGame() {
+        return new HeadlessBrickerGame(Constants.DEFAULT_BRICKS_NUMBER_PER_ROW,
+                Constants.DEFAULT_NUMBER_OF_BRICK_ROWS);
+    }
+}
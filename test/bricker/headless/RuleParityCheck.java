@@ -0,0 +1,572 @@
+package bricker.headless;
+
+import bricker.assets.TextureAtlas;
+import bricker.brick_strategies.CollisionStrategyFactory;
+import bricker.brick_strategies.StrategyCode;
+import bricker.brick_strategies.StrategySampler;
+import bricker.brick_strategies.StrategyType;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.EntityKind;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PaddleController;
+import bricker.main.BrickLayout;
+import bricker.main.Constants;
+import bricker.particles.ParticleSystem;
+import bricker.telemetry.FrameCounters;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Checks that HeadlessBrickerGame follows the rules of the windowed game. For every strategy code of the
+ * default mix, a headless game whose bricks all have that code is played until its main ball destroys the
+ * first brick, and the same brick is hit by the main ball in the windowed game, through the collision
+ * strategies CollisionStrategyFactory creates for the game. Both must then agree on the bricks left, the
+ * pucks spawned with their size, speed, direction and spawn point, the mock paddle, the turbo state and
+ * speed of the main ball, the hearts spawned and where, and the strategy activations counted.
+ * Both games are also played side by side for several seconds, the windowed one through the engine's own
+ * update of its objects, and must agree on the trajectory of every ball and paddle and on the collisions
+ * counted.
+ */
+public final class RuleParityCheck {
+
+    private static final float FRAME_SECONDS = 1 / 60f;
+    private static final int MAX_FRAMES = 10_000;
+    private static final int MAX_SEEDS = 1000;
+    private static final float HALF = 0.5f;
+    private static final float TOLERANCE = 1e-3f;
+    private static final int IMAGE_SIZE = 4;
+    private static final int PARTICLE_CAPACITY = 1024;
+    private static final int TRAJECTORY_FRAMES = 600;
+    private static final int TRAJECTORY_SEEDS = 4;
+    private static final float POSITION_TOLERANCE = 1e-2f;
+    private static final float STEERING_DEAD_ZONE = Constants.PADDLE_WIDTH / 4f;
+    private static final String[] IMAGE_PATHS = {Constants.PADDLE_IMAGE_PATH, Constants.HEART_IMAGE_PATH,
+            Constants.MOCK_BALL_IMAGE_PATH, Constants.RED_BALL_IMAGE_PATH};
+
+    private RuleParityCheck() {
+    }
+
+    /**
+     * The first brick hit of every strategy code of the default mix has the same outcome in both games.
+     */
+    public static void checkFirstBrickHit() {
+        for (int code : StrategySampler.defaults().getCodes()) {
+            checkFirstBrickHit(code);
+        }
+    }
+
+    /**
+     * Checks the first brick hit of a strategy code.
+     *
+     * @param code the strategy code of all the bricks
+     */
+    private static void checkFirstBrickHit(int code) {
+        String name = StrategyCode.describe(code);
+        HeadlessHit headless = playToFirstHit(code);
+        HeadlessBrickerGame game = headless.game;
+        WindowedHit windowed = new WindowedHit(code, headless.brick, headless.velocityBefore);
+        int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+        BrickLayout layout = new BrickLayout(Constants.WINDOW_WIDTH, bricksPerRow);
+        float brickCenterX = layout.getBrickLeft(headless.brick % bricksPerRow) + layout.getBrickWidth() * HALF;
+        float brickCenterY = layout.getRowTop(headless.brick / bricksPerRow) + Constants.BRICK_HEIGHT * HALF;
+
+        assertEquals(1 - windowed.bricksCounter.value(), game.getBrickCount() - game.getBricksLeft(),
+                name + ": bricks destroyed");
+        List<GameObject> pucks = windowed.objectsOfKind(EntityKind.PUCK_BALL);
+        assertEquals(pucks.size(), game.getBallCount() - 1, name + ": pucks");
+        for (int puck = 0; puck < pucks.size(); puck++) {
+            GameObject windowedPuck = pucks.get(puck);
+            int headlessPuck = puck + 1;
+            assertEquals(windowedPuck.getDimensions().x(), game.getBallSize(headlessPuck), TOLERANCE,
+                    name + ": puck size");
+            assertEquals(speed(windowedPuck.getVelocity().x(), windowedPuck.getVelocity().y()),
+                    speed(game.getBallVelocityX(headlessPuck), game.getBallVelocityY(headlessPuck)), TOLERANCE,
+                    name + ": puck speed");
+            assertTrue(windowedPuck.getVelocity().y() >= 0 && game.getBallVelocityY(headlessPuck) >= 0,
+                    name + ": pucks fly down");
+            checkAtBrickCenter(windowedPuck, windowed.brick, game.getBallX(headlessPuck) - brickCenterX,
+                    game.getBallY(headlessPuck) - brickCenterY, name + ": puck spawn point");
+        }
+
+        List<GameObject> mockPaddles = windowed.objectsOfKind(EntityKind.MOCK_PADDLE);
+        assertEquals(mockPaddles.size(), game.isMockPaddleActive() ? 1 : 0, name + ": mock paddles");
+        if (game.isMockPaddleActive()) {
+            float headlessCenterX = game.getMockPaddleX() + Constants.PADDLE_WIDTH * HALF;
+            assertEquals(mockPaddles.get(0).getCenter().x(), headlessCenterX, TOLERANCE,
+                    name + ": mock paddle center");
+        }
+
+        assertTrue(windowed.ball.isTurbo() == game.isTurbo(), name + ": turbo");
+        Vector2 before = headless.velocityBefore;
+        float windowedFactor = speed(windowed.ball.getVelocity().x(), windowed.ball.getVelocity().y()) /
+                speed(before.x(), before.y());
+        float headlessFactor = speed(game.getBallVelocityX(HeadlessBrickerGame.MAIN_BALL),
+                game.getBallVelocityY(HeadlessBrickerGame.MAIN_BALL)) / speed(before.x(), before.y());
+        assertEquals(windowedFactor, headlessFactor, TOLERANCE, name + ": main ball speed factor");
+
+        List<GameObject> hearts = windowed.objectsOfKind(EntityKind.FALLING_HEART);
+        assertEquals(hearts.size(), game.getFallingHeartCount(), name + ": hearts");
+        for (int heart = 0; heart < hearts.size(); heart++) {
+            checkAtBrickCenter(hearts.get(heart), windowed.brick, game.getHeartX(heart) - brickCenterX,
+                    game.getHeartY(heart) - brickCenterY, name + ": heart spawn point");
+        }
+
+        for (StrategyType type : StrategyType.values()) {
+            assertEquals(windowed.frameCounters.getStrategyActivations(type), game.getStrategyActivations(type),
+                    name + ": " + type + " activations");
+        }
+    }
+
+    /**
+     * Over several seconds of play, the balls of both games move, bounce off the borders, the paddles, the
+     * bricks and each other, and count their collisions the same way, for every strategy code of the
+     * default mix and a few seeds, with the paddles following the main ball. Puck directions are random, so
+     * every puck of the windowed game takes the direction of the headless puck spawned at the same point.
+     * The windowed game follows the rules BrickerGameManager applies after the engine's update: the main
+     * ball is put back at the center when it falls, objects below the window are removed and the turbo
+     * state ends after its hits. The comparison stops when a heart is collected, when the game ends, or when
+     * the headless game reaches its limit of balls or of falling hearts, which the windowed game does not
+     * have.
+     */
+    public static void checkTrajectories() {
+        for (int code : StrategySampler.defaults().getCodes()) {
+            for (long seed = 0; seed < TRAJECTORY_SEEDS; seed++) {
+                checkTrajectory(code, seed);
+            }
+        }
+    }
+
+    /**
+     * Plays both games side by side with all the bricks of a strategy code, comparing them every frame.
+     *
+     * @param code the strategy code of all the bricks
+     * @param seed the seed of the headless game
+     */
+    private static void checkTrajectory(int code, long seed) {
+        int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+        int brickRows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+        int[] codes = new int[bricksPerRow * brickRows];
+        Arrays.fill(codes, code);
+        HeadlessBrickerGame game = new HeadlessBrickerGame(bricksPerRow, brickRows, StrategySampler.defaults());
+        game.reset(seed, codes);
+        WindowedGame windowed = new WindowedGame(code, new Vector2(
+                game.getBallVelocityX(HeadlessBrickerGame.MAIN_BALL),
+                game.getBallVelocityY(HeadlessBrickerGame.MAIN_BALL)));
+        String name = StrategyCode.describe(code) + ", seed " + seed;
+        for (int frame = 0; frame < TRAJECTORY_FRAMES; frame++) {
+            int ballsBefore = game.getBallCount();
+            windowed.direction = steer(game);
+            game.step(FRAME_SECONDS, windowed.direction);
+            windowed.update();
+            if (game.getHeartsCollectedInLastStep() > 0 || game.getStatus() != GameStatus.RUNNING ||
+                    game.getBallCount() == HeadlessBrickerGame.MAX_BALLS ||
+                    game.getFallingHeartCount() == HeadlessBrickerGame.MAX_FALLING_HEARTS) {
+                return;
+            }
+            String at = name + ", frame " + frame;
+            windowed.matchBalls(game, ballsBefore, at);
+            compareFrame(game, windowed, at);
+        }
+    }
+
+    /**
+     * @param game the headless game
+     * @return the direction that moves the paddle under the main ball
+     */
+    private static int steer(HeadlessBrickerGame game) {
+        float offset = game.getBallX(HeadlessBrickerGame.MAIN_BALL) -
+                (game.getPaddleX() + Constants.PADDLE_WIDTH * HALF);
+        if (offset > STEERING_DEAD_ZONE) {
+            return HeadlessBrickerGame.MOVE_RIGHT;
+        }
+        return offset < -STEERING_DEAD_ZONE ? HeadlessBrickerGame.MOVE_LEFT : HeadlessBrickerGame.STAY;
+    }
+
+    /**
+     * Compares the state of both games after a frame.
+     *
+     * @param game     the headless game
+     * @param windowed the windowed game
+     * @param at       the game and frame compared
+     */
+    private static void compareFrame(HeadlessBrickerGame game, WindowedGame windowed, String at) {
+        for (int ball = 0; ball < game.getBallCount(); ball++) {
+            GameObject windowedBall = windowed.balls[ball];
+            String message = at + ": ball " + ball;
+            assertEquals(windowedBall.getCenter().x(), game.getBallX(ball), POSITION_TOLERANCE, message + " x");
+            assertEquals(windowedBall.getCenter().y(), game.getBallY(ball), POSITION_TOLERANCE, message + " y");
+            assertEquals(windowedBall.getVelocity().x(), game.getBallVelocityX(ball), POSITION_TOLERANCE,
+                    message + " horizontal velocity");
+            assertEquals(windowedBall.getVelocity().y(), game.getBallVelocityY(ball), POSITION_TOLERANCE,
+                    message + " vertical velocity");
+        }
+        assertEquals(windowed.paddle.getTopLeftCorner().x(), game.getPaddleX(), POSITION_TOLERANCE,
+                at + ": paddle");
+        assertEquals(windowed.ball.getCollisionCounter(), game.getMainBallCollisions(),
+                at + ": main ball collisions");
+        assertTrue(windowed.ball.isTurbo() == game.isTurbo(), at + ": turbo");
+        assertEquals(windowed.bricksCounter.value(), game.getBricksLeft(), at + ": bricks left");
+        List<GameObject> bricks = new ArrayList<>();
+        windowed.gameObjects.objectsInLayer(Layer.STATIC_OBJECTS).forEach(bricks::add);
+        for (int brick = 0; brick < windowed.bricks.length; brick++) {
+            assertTrue(bricks.contains(windowed.bricks[brick]) == game.isBrickAlive(brick),
+                    at + ": brick " + brick);
+        }
+        List<GameObject> mockPaddles = windowed.objectsOfKind(EntityKind.MOCK_PADDLE);
+        assertEquals(mockPaddles.size(), game.isMockPaddleActive() ? 1 : 0, at + ": mock paddles");
+        if (game.isMockPaddleActive()) {
+            assertEquals(mockPaddles.get(0).getTopLeftCorner().x(), game.getMockPaddleX(), POSITION_TOLERANCE,
+                    at + ": mock paddle");
+        }
+        assertEquals(windowed.objectsOfKind(EntityKind.FALLING_HEART).size(), game.getFallingHeartCount(),
+                at + ": hearts");
+        for (StrategyType type : StrategyType.values()) {
+            assertEquals(windowed.frameCounters.getStrategyActivations(type), game.getStrategyActivations(type),
+                    at + ": " + type + " activations");
+        }
+    }
+
+    /**
+     * Plays a headless game whose bricks all have a strategy code until its main ball destroys a brick.
+     * Seeds are tried in order until one starts the main ball upwards and destroys a single brick on its
+     * first hit, so the hit can be repeated in the windowed game.
+     *
+     * @param code the strategy code of all the bricks
+     * @return the game right after the hit
+     */
+    private static HeadlessHit playToFirstHit(int code) {
+        int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+        int brickRows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+        int[] codes = new int[bricksPerRow * brickRows];
+        Arrays.fill(codes, code);
+        HeadlessBrickerGame game = new HeadlessBrickerGame(bricksPerRow, brickRows, StrategySampler.defaults());
+        for (long seed = 0; seed < MAX_SEEDS; seed++) {
+            game.reset(seed, codes);
+            if (game.getBallVelocityY(HeadlessBrickerGame.MAIN_BALL) >= 0) {
+                continue;
+            }
+            for (int frame = 0; frame < MAX_FRAMES; frame++) {
+                Vector2 velocityBefore = new Vector2(game.getBallVelocityX(HeadlessBrickerGame.MAIN_BALL),
+                        game.getBallVelocityY(HeadlessBrickerGame.MAIN_BALL));
+                game.step(FRAME_SECONDS, HeadlessBrickerGame.STAY);
+                if (game.getBricksDestroyedInLastStep() == 1) {
+                    return new HeadlessHit(game, findDestroyedBrick(game), velocityBefore);
+                }
+                if (game.getBricksDestroyedInLastStep() > 1) {
+                    break;
+                }
+            }
+        }
+        throw new AssertionError(StrategyCode.describe(code) + ": no seed hits a single brick first");
+    }
+
+    /**
+     * @param game a game with a single destroyed brick
+     * @return index of the destroyed brick
+     */
+    private static int findDestroyedBrick(HeadlessBrickerGame game) {
+        for (int brick = 0; brick < game.getBrickCount(); brick++) {
+            if (!game.isBrickAlive(brick)) {
+                return brick;
+            }
+        }
+        throw new AssertionError("No brick was destroyed");
+    }
+
+    /**
+     * Checks that an object of the windowed game spawned at the center of the brick, at the same offset
+     * from it as the headless object.
+     *
+     * @param object          the windowed object
+     * @param brick           the windowed brick
+     * @param headlessOffsetX horizontal offset of the headless object from the center of its brick
+     * @param headlessOffsetY vertical offset of the headless object from the center of its brick
+     * @param message         what is compared
+     */
+    private static void checkAtBrickCenter(GameObject object, GameObject brick, float headlessOffsetX,
+                                           float headlessOffsetY, String message) {
+        assertEquals(object.getCenter().x() - brick.getCenter().x(), headlessOffsetX, TOLERANCE, message);
+        assertEquals(object.getCenter().y() - brick.getCenter().y(), headlessOffsetY, TOLERANCE, message);
+    }
+
+    /**
+     * @param velocityX horizontal velocity
+     * @param velocityY vertical velocity
+     * @return the speed
+     */
+    private static float speed(float velocityX, float velocityY) {
+        return (float) Math.hypot(velocityX, velocityY);
+    }
+
+    /**
+     * A headless game right after its main ball destroyed its first brick.
+     */
+    private static final class HeadlessHit {
+
+        // private fields
+        private final HeadlessBrickerGame game;
+        private final int brick;
+        private final Vector2 velocityBefore;
+
+        /**
+         * @param game           the game
+         * @param brick          index of the destroyed brick
+         * @param velocityBefore velocity of the main ball in the frame before the hit
+         */
+        private HeadlessHit(HeadlessBrickerGame game, int brick, Vector2 velocityBefore) {
+            this.game = game;
+            this.brick = brick;
+            this.velocityBefore = velocityBefore;
+        }
+    }
+
+    /**
+     * @return an atlas holding a blank image for every image the collision strategies use
+     */
+    private static TextureAtlas blankAtlas() {
+        Map<String, BufferedImage> images = new HashMap<>();
+        for (String path : IMAGE_PATHS) {
+            images.put(path, new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB));
+        }
+        return new TextureAtlas(images);
+    }
+
+    /**
+     * A windowed game with the borders, paddle, main ball and bricks of BrickerGameManager, whose objects
+     * are moved and collided by the engine. The paddles follow a direction set before every frame.
+     */
+    private static final class WindowedGame implements PaddleController {
+
+        // private fields
+        private final GameObjectCollection gameObjects = new GameObjectCollection();
+        private final FrameCounters frameCounters = new FrameCounters();
+        private final Counter bricksCounter;
+        private final Ball ball;
+        private final Paddle paddle;
+        private final Brick[] bricks;
+        // the balls by their index in the headless game
+        private GameObject[] balls = new GameObject[HeadlessBrickerGame.MAX_BALLS];
+        private int ballCount = 1;
+        private int direction = HeadlessBrickerGame.STAY;
+
+        /**
+         * Creates the game with the main ball at the center of the window.
+         *
+         * @param code         the strategy code of all the bricks
+         * @param ballVelocity the start velocity of the main ball
+         */
+        private WindowedGame(int code, Vector2 ballVelocity) {
+            float windowWidth = Constants.WINDOW_WIDTH;
+            float windowHeight = Constants.WINDOW_HEIGHT;
+            Vector2 windowDimensions = new Vector2(windowWidth, windowHeight);
+            // the borders of BrickerGameManager.createBorders
+            gameObjects.addGameObject(new GameObject(Vector2.LEFT,
+                    new Vector2(Constants.BORDER_LENGTH, windowHeight), null), Layer.STATIC_OBJECTS);
+            gameObjects.addGameObject(new GameObject(new Vector2(windowWidth - Constants.BORDER_LENGTH + 1, 0),
+                    new Vector2(Constants.BORDER_LENGTH, windowHeight), null), Layer.STATIC_OBJECTS);
+            gameObjects.addGameObject(new GameObject(Vector2.LEFT,
+                    new Vector2(windowWidth, Constants.BORDER_LENGTH), null), Layer.STATIC_OBJECTS);
+
+            Vector2 ballSize = new Vector2(Constants.BALL_DIMENSIONS, Constants.BALL_DIMENSIONS);
+            this.ball = new Ball(Vector2.ZERO, ballSize, null, null, EntityKind.MAIN_BALL, frameCounters);
+            ball.setCenter(windowDimensions.mult(HALF));
+            ball.setVelocity(ballVelocity);
+            gameObjects.addGameObject(ball);
+            balls[HeadlessBrickerGame.MAIN_BALL] = ball;
+            Vector2 paddleSize = new Vector2(Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT);
+            this.paddle = new Paddle(Vector2.ZERO, paddleSize, null, this, frameCounters);
+            paddle.setCenter(new Vector2(windowWidth / 2,
+                    (int) windowHeight - Constants.PADDLE_POSITION_OFFSET));
+            gameObjects.addGameObject(paddle);
+
+            int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+            int brickRows = Constants.DEFAULT_NUMBER_OF_BRICK_ROWS;
+            this.bricksCounter = new Counter(bricksPerRow * brickRows);
+            CollisionStrategyFactory factory = new CollisionStrategyFactory(gameObjects, blankAtlas(),
+                    path -> null, this, ball, bricksCounter, StrategySampler.defaults(), frameCounters,
+                    new ParticleSystem(windowDimensions, PARTICLE_CAPACITY), index -> {
+                    });
+            BrickLayout layout = new BrickLayout(Constants.WINDOW_WIDTH, bricksPerRow);
+            this.bricks = new Brick[bricksPerRow * brickRows];
+            for (int index = 0; index < bricks.length; index++) {
+                bricks[index] = new Brick(new Vector2(layout.getBrickLeft(index % bricksPerRow),
+                        layout.getRowTop(index / bricksPerRow)),
+                        new Vector2(layout.getBrickWidth(), Constants.BRICK_HEIGHT), null,
+                        factory.createCollisionStrategy(code), code, index, frameCounters);
+                gameObjects.addGameObject(bricks[index], Layer.STATIC_OBJECTS);
+            }
+        }
+
+        @Override
+        public int getDirection() {
+            return direction;
+        }
+
+        /**
+         * Plays a frame: the engine's update of the objects, followed by the rules of
+         * BrickerGameManager.checkForGameEnd, checkForOutOfScreenObject and checkBallState that move, remove
+         * or slow down objects.
+         */
+        private void update() {
+            gameObjects.update(FRAME_SECONDS);
+            Vector2 windowDimensions = new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+            if (ball.getCenter().y() > Constants.WINDOW_HEIGHT) {
+                ball.setCenter(windowDimensions.mult(HALF));
+            }
+            for (GameObject gameObject : gameObjects.objectsInLayer(Layer.DEFAULT)) {
+                if (gameObject.getCenter().y() > Constants.WINDOW_HEIGHT) {
+                    gameObjects.removeGameObject(gameObject);
+                }
+            }
+            if (ball.isTurbo() && ball.getTurboBallHits() == 0) {
+                ball.setTurboBallHits(ball.getCollisionCounter() + Constants.MAX_TURBO_BALL_HITS);
+            } else if (ball.getTurboBallHits() == ball.getCollisionCounter() &&
+                    ball.getCollisionCounter() != 0) {
+                ball.setTurboBallHits(0);
+                ball.setTurbo(false);
+                ball.setVelocity(new Vector2(ball.getVelocity().x() / Constants.SPEED_MULTIPLIER,
+                        ball.getVelocity().y() / Constants.SPEED_MULTIPLIER));
+            }
+        }
+
+        /**
+         * Gives the windowed balls the indices of the headless ones after a frame: removed pucks make way
+         * for the last puck like in the headless game, and every new puck takes the index and direction of
+         * the headless puck spawned at the same point.
+         *
+         * @param game        the headless game
+         * @param ballsBefore the number of headless balls before the frame
+         * @param at          the game and frame compared
+         */
+        private void matchBalls(HeadlessBrickerGame game, int ballsBefore, String at) {
+            List<GameObject> known = Arrays.asList(balls).subList(0, ballCount);
+            List<GameObject> spawned = new ArrayList<>();
+            for (GameObject puck : objectsOfKind(EntityKind.PUCK_BALL)) {
+                if (!known.contains(puck)) {
+                    spawned.add(puck);
+                }
+            }
+            assertEquals(ballCount, ballsBefore, at + ": balls before");
+            GameObject[] indexed = new GameObject[HeadlessBrickerGame.MAX_BALLS + spawned.size()];
+            System.arraycopy(balls, 0, indexed, 0, ballCount);
+            int count = ballCount + spawned.size();
+            for (int index = count - 1; index > HeadlessBrickerGame.MAIN_BALL; index--) {
+                if (indexed[index] != null && indexed[index].getCenter().y() > Constants.WINDOW_HEIGHT) {
+                    indexed[index] = indexed[--count];
+                }
+            }
+            assertEquals(count, game.getBallCount(), at + ": balls");
+            for (int index = 0; index < count; index++) {
+                if (indexed[index] == null) {
+                    indexed[index] = takeSpawnedAt(spawned, game.getBallX(index), game.getBallY(index), at);
+                    indexed[index].setVelocity(new Vector2(game.getBallVelocityX(index),
+                            game.getBallVelocityY(index)));
+                }
+            }
+            balls = indexed;
+            ballCount = count;
+        }
+
+        /**
+         * @param spawned the pucks spawned in the last frame that were not matched yet
+         * @param x       x coordinate of a spawn point
+         * @param y       y coordinate of the spawn point
+         * @param at      the game and frame compared
+         * @return a puck spawned at that point, taken out of spawned
+         */
+        private static GameObject takeSpawnedAt(List<GameObject> spawned, float x, float y, String at) {
+            for (int i = 0; i < spawned.size(); i++) {
+                Vector2 center = spawned.get(i).getCenter();
+                if (Math.abs(center.x() - x) <= POSITION_TOLERANCE &&
+                        Math.abs(center.y() - y) <= POSITION_TOLERANCE) {
+                    return spawned.remove(i);
+                }
+            }
+            throw new AssertionError(at + ": no puck spawned at " + x + ", " + y);
+        }
+
+        /**
+         * @param kind an entity kind, see EntityKind
+         * @return the objects of that kind in the default layer, in the order they were added
+         */
+        private List<GameObject> objectsOfKind(int kind) {
+            List<GameObject> objects = new ArrayList<>();
+            for (GameObject gameObject : gameObjects.objectsInLayer(Layer.DEFAULT)) {
+                if (EntityKind.kindOf(gameObject) == kind) {
+                    objects.add(gameObject);
+                }
+            }
+            return objects;
+        }
+    }
+
+    /**
+     * A windowed game with a single brick, right after the main ball hit it.
+     */
+    private static final class WindowedHit {
+
+        // private fields
+        private final GameObjectCollection gameObjects = new GameObjectCollection();
+        private final FrameCounters frameCounters = new FrameCounters();
+        private final Counter bricksCounter = new Counter(1);
+        private final Ball ball;
+        private final Brick brick;
+
+        /**
+         * Creates the brick where the headless game has it and hits it with the main ball.
+         *
+         * @param code          the strategy code of the brick
+         * @param brickIndex    index of the brick in the default grid
+         * @param ballVelocity  velocity of the main ball when it hits the brick
+         */
+        private WindowedHit(int code, int brickIndex, Vector2 ballVelocity) {
+            Vector2 windowDimensions = new Vector2(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+            Vector2 ballSize = new Vector2(Constants.BALL_DIMENSIONS, Constants.BALL_DIMENSIONS);
+            this.ball = new Ball(Vector2.ZERO, ballSize, null, null, EntityKind.MAIN_BALL, frameCounters);
+            ball.setVelocity(ballVelocity);
+            gameObjects.addGameObject(ball);
+            CollisionStrategyFactory factory = new CollisionStrategyFactory(gameObjects,
+                    blankAtlas(), path -> null, null, ball, bricksCounter,
+                    StrategySampler.defaults(), frameCounters,
+                    new ParticleSystem(windowDimensions, PARTICLE_CAPACITY), index -> {
+                    });
+
+            int bricksPerRow = Constants.DEFAULT_BRICKS_NUMBER_PER_ROW;
+            BrickLayout layout = new BrickLayout(Constants.WINDOW_WIDTH, bricksPerRow);
+            this.brick = new Brick(new Vector2(layout.getBrickLeft(brickIndex % bricksPerRow),
+                    layout.getRowTop(brickIndex / bricksPerRow)),
+                    new Vector2(layout.getBrickWidth(), Constants.BRICK_HEIGHT), null,
+                    factory.createCollisionStrategy(code), code, brickIndex, frameCounters);
+            gameObjects.addGameObject(brick, Layer.STATIC_OBJECTS);
+            brick.onCollisionEnter(ball, null);
+        }
+
+        /**
+         * @param kind an entity kind, see EntityKind
+         * @return the objects of that kind in the default layer, in the order they were added
+         */
+        private List<GameObject> objectsOfKind(int kind) {
+            List<GameObject> objects = new ArrayList<>();
+            for (GameObject gameObject : gameObjects.objectsInLayer(Layer.DEFAULT)) {
+                if (EntityKind.kindOf(gameObject) == kind) {
+                    objects.add(gameObject);
+                }
+            }
+            return objects;
+        }
+    }
+}
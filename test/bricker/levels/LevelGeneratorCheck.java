@@ -0,0 +1,82 @@
+package bricker.levels;
+
+import bricker.brick_strategies.StrategySampler;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of LevelGenerator: the same seed gives the same level whether its regions are generated on
+ * the common pool, on a single thread or on more threads than the machine has cores.
+ */
+public final class LevelGeneratorCheck {
+
+    private static final long FIRST_SEED = 42;
+    private static final int SEEDS = 4;
+    // enough rows for many regions, so they are spread over the threads of a pool
+    private static final int BRICKS_PER_ROW = 97;
+    private static final int ROWS = 203;
+    private static final int MANY_THREADS = 8;
+
+    private LevelGeneratorCheck() {
+    }
+
+    /**
+     * Levels generated on the common pool, on a single thread and on many threads have the same checksum
+     * and the same bricks.
+     *
+     * @throws InterruptedException if interrupted while waiting for a pool
+     * @throws ExecutionException   if generating a level in a pool fails
+     */
+    public static void checkSameLevelOnAnyThreads() throws InterruptedException, ExecutionException {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool manyThreads = new ForkJoinPool(MANY_THREADS);
+        try {
+            for (long seed = FIRST_SEED; seed < FIRST_SEED + SEEDS; seed++) {
+                LevelGenerator generator = new LevelGenerator(seed, StrategySampler.defaults());
+                Level common = generator.generate(BRICKS_PER_ROW, ROWS);
+                // a parallel stream started from a task of a pool runs on that pool
+                Level single = singleThread.submit(() -> generator.generate(BRICKS_PER_ROW, ROWS)).get();
+                Level many = manyThreads.submit(() -> generator.generate(BRICKS_PER_ROW, ROWS)).get();
+                assertEquals(common.checksum(), single.checksum(), "single thread checksum of seed " + seed);
+                assertEquals(common.checksum(), many.checksum(), "many threads checksum of seed " + seed);
+                assertTrue(sameBricks(common, single), "single thread bricks of seed " + seed);
+                assertTrue(sameBricks(common, many), "many threads bricks of seed " + seed);
+            }
+        } finally {
+            singleThread.shutdown();
+            manyThreads.shutdown();
+        }
+    }
+
+    /**
+     * Different seeds give different levels, so the checksums compared above tell levels apart.
+     */
+    public static void checkSeedsDiffer() {
+        Level first = new LevelGenerator(FIRST_SEED, StrategySampler.defaults()).generate(BRICKS_PER_ROW,
+                ROWS);
+        Level second = new LevelGenerator(FIRST_SEED + 1, StrategySampler.defaults()).generate(
+                BRICKS_PER_ROW, ROWS);
+        assertTrue(first.checksum() != second.checksum(), "checksums of consecutive seeds");
+    }
+
+    /**
+     * @param first  a level
+     * @param second a level of the same size
+     * @return true if every cell of the levels has the same brick and strategy
+     */
+    private static boolean sameBricks(Level first, Level second) {
+        for (int row = 0; row < first.getRows(); row++) {
+            for (int column = 0; column < first.getBricksPerRow(); column++) {
+                if (first.hasBrick(row, column) != second.hasBrick(row, column) ||
+                        first.getStrategyCode(row, column) != second.getStrategyCode(row, column)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,233 @@
+package bricker.main;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertThrows;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of GameSnapshot: a written snapshot reads back to the same state, also into a reused
+ * snapshot of another size, and truncated or corrupt bytes are rejected before anything is sized for them.
+ */
+public final class GameSnapshotCheck {
+
+    private static final int ROUND_TRIPS = 200;
+    private static final int MAX_BRICKS_PER_ROW = 40;
+    private static final int MAX_BRICK_ROWS = 30;
+    private static final int MAX_OBJECTS = 20;
+    private static final int MAX_CODE = 512;
+    // offsets in the written form: magic and version, then the grid, then the bricks
+    private static final int BRICKS_PER_ROW_OFFSET = Integer.BYTES + Short.BYTES;
+    private static final int BRICK_ROWS_OFFSET = BRICKS_PER_ROW_OFFSET + Integer.BYTES;
+    private static final int LARGE_GRID_SIDE = 1 << 20;
+    private static final long SEED = 67125;
+
+    private GameSnapshotCheck() {
+    }
+
+    /**
+     * Snapshots of random games read back to the same state, reading into a single reused snapshot whose
+     * brick grid and object counts change every time.
+     */
+    public static void checkRoundTrip() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        GameSnapshot reused = new GameSnapshot();
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            GameSnapshot written = createRandom(random);
+            ByteBuffer buffer = write(written);
+            reused.readFrom(buffer);
+            assertEquals(0, buffer.remaining(), "bytes left after reading");
+            checkSame(written, reused);
+        }
+    }
+
+    /**
+     * Reading leaves the byte order of the buffer as it was.
+     */
+    public static void checkByteOrderKept() {
+        ByteBuffer buffer = write(createRandom(new SplittableRandom(SEED)));
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        new GameSnapshot().readFrom(buffer);
+        assertTrue(buffer.order() == ByteOrder.BIG_ENDIAN, "byte order after reading");
+    }
+
+    /**
+     * Every truncation of a written snapshot is rejected.
+     */
+    public static void checkTruncatedRejected() {
+        ByteBuffer buffer = write(createRandom(new SplittableRandom(SEED)));
+        for (int length = 0; length < buffer.limit(); length++) {
+            ByteBuffer truncated = buffer.duplicate().limit(length);
+            assertThrows(IllegalArgumentException.class, () -> new GameSnapshot().readFrom(truncated),
+                    "reading " + length + " of " + buffer.limit() + " bytes");
+        }
+    }
+
+    /**
+     * Foreign bytes, negative and oversized brick grids, and negative or oversized puck and heart counts
+     * are rejected.
+     */
+    public static void checkCorruptRejected() {
+        GameSnapshot snapshot = createRandom(new SplittableRandom(SEED));
+        ByteBuffer valid = write(snapshot);
+
+        ByteBuffer foreign = copy(valid);
+        foreign.putInt(0, ~foreign.getInt(0));
+        checkRejected(foreign, "foreign bytes");
+        checkRejected(withInt(valid, BRICKS_PER_ROW_OFFSET, -1), "negative bricks per row");
+        checkRejected(withInt(valid, BRICK_ROWS_OFFSET, -1), "negative brick rows");
+        ByteBuffer largeGrid = withInt(valid, BRICKS_PER_ROW_OFFSET, LARGE_GRID_SIDE);
+        checkRejected(withInt(largeGrid, BRICK_ROWS_OFFSET, LARGE_GRID_SIDE), "brick grid over the bytes left");
+
+        int heartCountOffset = valid.limit() - snapshot.heartCount * GameSnapshot.HEART_FLOATS * Float.BYTES -
+                Integer.BYTES;
+        int puckCountOffset = heartCountOffset - snapshot.puckCount * (GameSnapshot.BALL_FLOATS * Float.BYTES +
+                Integer.BYTES) - Integer.BYTES;
+        checkRejected(withInt(valid, puckCountOffset, -1), "negative puck count");
+        checkRejected(withInt(valid, puckCountOffset, Integer.MAX_VALUE), "puck count over the bytes left");
+        checkRejected(withInt(valid, heartCountOffset, -1), "negative heart count");
+        checkRejected(withInt(valid, heartCountOffset, Integer.MAX_VALUE), "heart count over the bytes left");
+    }
+
+    /**
+     * @param random the random generator
+     * @return a snapshot of a random game
+     */
+    private static GameSnapshot createRandom(SplittableRandom random) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.setBrickGrid(1 + random.nextInt(MAX_BRICKS_PER_ROW), 1 + random.nextInt(MAX_BRICK_ROWS));
+        for (int brick = 0; brick < snapshot.strategyCodes.length; brick++) {
+            if (random.nextBoolean()) {
+                snapshot.setBrickAlive(brick);
+            }
+            snapshot.strategyCodes[brick] = (short) random.nextInt(MAX_CODE);
+        }
+        snapshot.lives = random.nextInt(Constants.MAX_HEARTS_AMOUNT + 1);
+        snapshot.turboBallHits = random.nextInt(MAX_OBJECTS);
+        fillRandom(snapshot.mainBall, GameSnapshot.BALL_FLOATS, random);
+        snapshot.mainBallCollisions = random.nextInt();
+        snapshot.turbo = random.nextBoolean();
+        snapshot.paddleX = random.nextFloat();
+        snapshot.paddleY = random.nextFloat();
+        snapshot.mockPaddleActive = random.nextBoolean();
+        snapshot.mockPaddleX = random.nextFloat();
+        snapshot.mockPaddleY = random.nextFloat();
+        snapshot.mockPaddleCollisions = random.nextInt();
+        // at least one of each, so the counts of a snapshot can be corrupted
+        snapshot.puckCount = 1 + random.nextInt(MAX_OBJECTS);
+        snapshot.ensurePuckCapacity(snapshot.puckCount);
+        fillRandom(snapshot.pucks, snapshot.puckCount * GameSnapshot.BALL_FLOATS, random);
+        for (int puck = 0; puck < snapshot.puckCount; puck++) {
+            snapshot.puckCollisions[puck] = random.nextInt();
+        }
+        snapshot.heartCount = 1 + random.nextInt(MAX_OBJECTS);
+        snapshot.ensureHeartCapacity(snapshot.heartCount);
+        fillRandom(snapshot.hearts, snapshot.heartCount * GameSnapshot.HEART_FLOATS, random);
+        return snapshot;
+    }
+
+    /**
+     * Fills the start of an array with random floats.
+     *
+     * @param values the array
+     * @param count  the number of floats to fill
+     * @param random the random generator
+     */
+    private static void fillRandom(float[] values, int count, SplittableRandom random) {
+        for (int i = 0; i < count; i++) {
+            values[i] = (float) random.nextDouble(-Constants.WINDOW_WIDTH, Constants.WINDOW_WIDTH);
+        }
+    }
+
+    /**
+     * @param snapshot a snapshot
+     * @return a buffer holding exactly the written snapshot
+     */
+    private static ByteBuffer write(GameSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(snapshot.getEncodedSize());
+        snapshot.writeTo(buffer);
+        assertEquals(0, buffer.remaining(), "bytes left after writing");
+        return buffer.flip();
+    }
+
+    /**
+     * @param buffer a buffer holding a written snapshot
+     * @return a copy of the buffer
+     */
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        return ByteBuffer.allocate(buffer.limit()).put(buffer.duplicate()).flip();
+    }
+
+    /**
+     * @param buffer a buffer holding a written snapshot
+     * @param offset the offset of a little endian int in the snapshot
+     * @param value  the value to put there
+     * @return a copy of the buffer with the int replaced
+     */
+    private static ByteBuffer withInt(ByteBuffer buffer, int offset, int value) {
+        return copy(buffer).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+    }
+
+    /**
+     * Checks that reading a buffer is rejected.
+     *
+     * @param buffer  the buffer
+     * @param message what is wrong with the buffer
+     */
+    private static void checkRejected(ByteBuffer buffer, String message) {
+        assertThrows(IllegalArgumentException.class, () -> new GameSnapshot().readFrom(buffer), message);
+    }
+
+    /**
+     * Checks that two snapshots hold the same state.
+     *
+     * @param expected the expected snapshot
+     * @param actual   the actual snapshot
+     */
+    private static void checkSame(GameSnapshot expected, GameSnapshot actual) {
+        assertEquals(expected.bricksPerRow, actual.bricksPerRow, "bricks per row");
+        assertEquals(expected.brickRows, actual.brickRows, "brick rows");
+        for (int i = 0; i < expected.aliveBricks.length; i++) {
+            assertEquals(expected.aliveBricks[i], actual.aliveBricks[i], "brick word " + i);
+        }
+        for (int brick = 0; brick < expected.strategyCodes.length; brick++) {
+            assertEquals(expected.strategyCodes[brick], actual.strategyCodes[brick], "code of brick " + brick);
+        }
+        assertEquals(expected.lives, actual.lives, "lives");
+        assertEquals(expected.turboBallHits, actual.turboBallHits, "turbo ball hits");
+        checkSameFloats(expected.mainBall, actual.mainBall, GameSnapshot.BALL_FLOATS, "main ball");
+        assertEquals(expected.mainBallCollisions, actual.mainBallCollisions, "main ball collisions");
+        assertTrue(expected.turbo == actual.turbo, "turbo");
+        assertEquals(expected.paddleX, actual.paddleX, 0, "paddle x");
+        assertEquals(expected.paddleY, actual.paddleY, 0, "paddle y");
+        assertTrue(expected.mockPaddleActive == actual.mockPaddleActive, "mock paddle activity");
+        assertEquals(expected.mockPaddleX, actual.mockPaddleX, 0, "mock paddle x");
+        assertEquals(expected.mockPaddleY, actual.mockPaddleY, 0, "mock paddle y");
+        assertEquals(expected.mockPaddleCollisions, actual.mockPaddleCollisions, "mock paddle collisions");
+        assertEquals(expected.puckCount, actual.puckCount, "puck count");
+        checkSameFloats(expected.pucks, actual.pucks, expected.puckCount * GameSnapshot.BALL_FLOATS, "pucks");
+        for (int puck = 0; puck < expected.puckCount; puck++) {
+            assertEquals(expected.puckCollisions[puck], actual.puckCollisions[puck], "puck collisions");
+        }
+        assertEquals(expected.heartCount, actual.heartCount, "heart count");
+        checkSameFloats(expected.hearts, actual.hearts, expected.heartCount * GameSnapshot.HEART_FLOATS,
+                "hearts");
+    }
+
+    /**
+     * Checks that the starts of two float arrays are equal.
+     *
+     * @param expected the expected floats
+     * @param actual   the actual floats
+     * @param count    the number of floats to compare
+     * @param message  what is compared
+     */
+    private static void checkSameFloats(float[] expected, float[] actual, int count, String message) {
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], actual[i], 0, message + " float " + i);
+        }
+    }
+}
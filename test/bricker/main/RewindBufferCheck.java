@@ -0,0 +1,140 @@
+package bricker.main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertThrows;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of RewindBuffer: frames are cut into segments of a fixed length, rewinding hands back the
+ * segments newest first with the bricks removed in them, and the oldest segments are dropped when either
+ * the keyframes or the removed bricks no longer fit.
+ */
+public final class RewindBufferCheck {
+
+    private static final int SEGMENT_CAPACITY = 3;
+    private static final float SECONDS_PER_KEYFRAME = 1;
+    private static final int REMOVAL_CAPACITY = 8;
+    // a power of two fraction of a segment, so the frame times add up exactly
+    private static final float FRAME_SECONDS = 0.25f;
+    private static final int FRAMES_PER_SEGMENT = 4;
+    private static final int SEGMENTS = 5;
+
+    private RewindBufferCheck() {
+    }
+
+    /**
+     * Only the first frame of every segment length of time starts a segment and gets a keyframe.
+     */
+    public static void checkSegmentLength() {
+        RewindBuffer buffer = createBuffer();
+        assertTrue(!buffer.canRewind(), "an empty buffer can rewind");
+        assertEquals(0, buffer.getRecordedSeconds(), 0, "recorded seconds of an empty buffer");
+        for (int frame = 0; frame < SEGMENTS * FRAMES_PER_SEGMENT; frame++) {
+            GameSnapshot keyframe = buffer.startFrame(FRAME_SECONDS);
+            assertTrue((keyframe != null) == (frame % FRAMES_PER_SEGMENT == 0), "keyframe of frame " + frame);
+        }
+        assertEquals(SEGMENT_CAPACITY * SECONDS_PER_KEYFRAME, buffer.getRecordedSeconds(), 0,
+                "recorded seconds of a full buffer");
+    }
+
+    /**
+     * Rewinding hands back the kept segments newest first, each with its keyframe and its removed bricks
+     * newest first, and then nothing is left to rewind.
+     */
+    public static void checkRewindOrder() {
+        RewindBuffer buffer = createBuffer();
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            recordSegment(buffer, segment, segment * 2, segment * 2 + 1);
+        }
+        for (int segment = SEGMENTS - 1; segment >= SEGMENTS - SEGMENT_CAPACITY; segment--) {
+            assertTrue(buffer.canRewind(), "segment " + segment + " can be rewound");
+            List<Integer> restored = new ArrayList<>();
+            GameSnapshot keyframe = buffer.rewind(restored::add);
+            assertEquals(segment, keyframe.lives, "keyframe of the rewound segment");
+            assertEquals(List.of(segment * 2 + 1, segment * 2), restored, "bricks restored");
+        }
+        assertTrue(!buffer.canRewind(), "segments beyond the capacity can be rewound");
+        assertThrows(IllegalStateException.class, () -> buffer.rewind(brick -> {
+        }), "rewinding an empty buffer");
+    }
+
+    /**
+     * After a rewind the next frame starts a new segment, recorded over the rewound one.
+     */
+    public static void checkRecordAfterRewind() {
+        RewindBuffer buffer = createBuffer();
+        recordSegment(buffer, 0, 1);
+        recordSegment(buffer, 1, 2);
+        buffer.rewind(brick -> {
+        });
+        recordSegment(buffer, 2, 3);
+        List<Integer> restored = new ArrayList<>();
+        assertEquals(2, buffer.rewind(restored::add).lives, "keyframe recorded after a rewind");
+        assertEquals(List.of(3), restored, "bricks restored");
+        restored.clear();
+        assertEquals(0, buffer.rewind(restored::add).lives, "keyframe before the rewound one");
+        assertEquals(List.of(1), restored, "bricks restored");
+    }
+
+    /**
+     * When the removed bricks no longer fit, the oldest segments are dropped, and a segment removing more
+     * bricks than fit drops the whole recording.
+     */
+    public static void checkRemovalCapacity() {
+        RewindBuffer buffer = createBuffer();
+        recordSegment(buffer, 0, 0, 1, 2, 3, 4);
+        recordSegment(buffer, 1, 5, 6, 7, 8);
+        List<Integer> restored = new ArrayList<>();
+        assertEquals(1, buffer.rewind(restored::add).lives, "keyframe of the kept segment");
+        assertEquals(List.of(8, 7, 6, 5), restored, "bricks restored");
+        assertTrue(!buffer.canRewind(), "a segment whose bricks were overwritten can be rewound");
+
+        buffer.startFrame(FRAME_SECONDS);
+        for (int brick = 0; brick <= REMOVAL_CAPACITY; brick++) {
+            buffer.recordRemovedBrick(brick);
+        }
+        assertTrue(!buffer.canRewind(), "a segment over the removal capacity can be rewound");
+    }
+
+    /**
+     * Clearing drops the whole recording.
+     */
+    public static void checkClear() {
+        RewindBuffer buffer = createBuffer();
+        recordSegment(buffer, 0, 1, 2);
+        buffer.clear();
+        assertTrue(!buffer.canRewind(), "a cleared buffer can rewind");
+        assertEquals(0, buffer.getRecordedSeconds(), 0, "recorded seconds of a cleared buffer");
+        assertTrue(buffer.startFrame(FRAME_SECONDS) != null, "the first frame after clearing has no keyframe");
+    }
+
+    /**
+     * @return an empty buffer with the capacities of the checks
+     */
+    private static RewindBuffer createBuffer() {
+        return new RewindBuffer(SEGMENT_CAPACITY, SECONDS_PER_KEYFRAME, REMOVAL_CAPACITY);
+    }
+
+    /**
+     * Records the frames of a whole segment, marking its keyframe with an id in the lives field and
+     * removing bricks in its first frame.
+     *
+     * @param buffer the buffer to record into
+     * @param id     the id of the segment
+     * @param bricks the indices of the bricks removed in the segment
+     */
+    private static void recordSegment(RewindBuffer buffer, int id, int... bricks) {
+        GameSnapshot keyframe = buffer.startFrame(FRAME_SECONDS);
+        assertTrue(keyframe != null, "segment " + id + " did not start a segment");
+        keyframe.lives = id;
+        for (int brick : bricks) {
+            buffer.recordRemovedBrick(brick);
+        }
+        for (int frame = 1; frame < FRAMES_PER_SEGMENT; frame++) {
+            assertTrue(buffer.startFrame(FRAME_SECONDS) == null, "segment " + id + " ended early");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+import bricker.headless.GameStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of the tournament results files: the games of a columnar file written a block at a time
+ * read back as they were with TournamentResultReader, and a CSV file keeps configuration descriptions
+ * holding quotes, separators and line breaks within their column.
+ */
+public final class TournamentResultCheck {
+
+    private static final String TEMP_PREFIX = "bricker-check";
+    private static final String RESULTS_SUFFIX = ".results";
+    private static final String CSV_SUFFIX = ".csv";
+    private static final List<String> CONFIGS = List.of("bot=tracking weights=\"a, b\".bin",
+            "bot=random weights=first\nsecond.bin");
+    private static final int BLOCK_CAPACITY = 4;
+    private static final int[] BLOCK_ROWS = {BLOCK_CAPACITY, 1};
+    private static final long SEED_BASE = 1000;
+    private static final int STRATEGY_TYPES = StrategyType.values().length;
+
+    private TournamentResultCheck() {
+    }
+
+    /**
+     * Every game of every row group of a columnar file reads back with the values it was written with,
+     * along with the configuration descriptions.
+     *
+     * @throws IOException if the temporary file can not be written
+     */
+    public static void checkColumnarRoundTrip() throws IOException {
+        Path path = Files.createTempFile(TEMP_PREFIX, RESULTS_SUFFIX);
+        try {
+            writeResults(path);
+            try (TournamentResultReader reader = new TournamentResultReader(path)) {
+                assertEquals(CONFIGS, reader.getConfigDescriptions(), "configuration descriptions");
+                assertEquals(BLOCK_ROWS.length, reader.getGroupCount(), "row groups");
+                assertEquals(BLOCK_CAPACITY, reader.getMaxGroupRows(), "largest row group");
+                assertEquals(BLOCK_CAPACITY + 1, reader.getRows(), "games");
+                TournamentResultBlock block = new TournamentResultBlock(reader.getMaxGroupRows());
+                int game = 0;
+                for (int group = 0; group < reader.getGroupCount(); group++) {
+                    reader.readGroup(group, block);
+                    assertEquals(BLOCK_ROWS[group], block.getRows(), "games in row group " + group);
+                    for (int row = 0; row < block.getRows(); row++, game++) {
+                        checkGame(block, row, game);
+                    }
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * A CSV file has a header line and a line per game, with every configuration description quoted and
+     * its quotes doubled.
+     *
+     * @throws IOException if the temporary file can not be written
+     */
+    public static void checkCsvQuoting() throws IOException {
+        Path path = Files.createTempFile(TEMP_PREFIX, CSV_SUFFIX);
+        try {
+            writeResults(path);
+            String csv = Files.readString(path, StandardCharsets.UTF_8);
+            String header = String.join(",", TournamentResultWriter.columnNames());
+            assertTrue(csv.startsWith(header + System.lineSeparator()), "header line");
+            assertTrue(csv.contains(",\"bot=tracking weights=\"\"a, b\"\".bin\","), "doubled quotes");
+            assertTrue(csv.contains(",\"bot=random weights=first\nsecond.bin\","), "quoted line break");
+            assertEquals("\"\"\"\"", TournamentResultWriter.quoteCsv("\""), "a lone quote");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Writes a block of games per entry of BLOCK_ROWS, numbered from 0 in order.
+     *
+     * @param path the path of the results file
+     * @throws IOException if writing fails
+     */
+    private static void writeResults(Path path) throws IOException {
+        try (TournamentResultWriter writer = new TournamentResultWriter(path, CONFIGS)) {
+            TournamentResultBlock block = new TournamentResultBlock(BLOCK_CAPACITY);
+            int game = 0;
+            for (int rows : BLOCK_ROWS) {
+                block.clear();
+                for (int row = 0; row < rows; row++, game++) {
+                    int[] activations = new int[STRATEGY_TYPES];
+                    for (int type = 0; type < STRATEGY_TYPES; type++) {
+                        activations[type] = game * STRATEGY_TYPES + type;
+                    }
+                    block.add(SEED_BASE + game, game % CONFIGS.size(), outcome(game), game * 2, game * 3L,
+                            game * 4, game * 0.5f, activations);
+                }
+                writer.write(block);
+            }
+            assertEquals(game, writer.getRowsWritten(), "games written");
+        }
+    }
+
+    /**
+     * Checks a game read back has the values writeResults wrote for it.
+     *
+     * @param block the block read
+     * @param row   index of the game in the block
+     * @param game  index of the game in the file
+     */
+    private static void checkGame(TournamentResultBlock block, int row, int game) {
+        String name = "game " + game;
+        assertEquals(SEED_BASE + game, block.seeds[row], name + " seed");
+        assertEquals(game % CONFIGS.size(), block.configs[row], name + " config");
+        assertEquals(outcome(game), block.outcomes[row], name + " outcome");
+        assertEquals(game * 2, block.frames[row], name + " frames");
+        assertEquals(game * 3L, block.wallNanos[row], name + " wall time");
+        assertEquals(game * 4, block.bricksDestroyed[row], name + " bricks destroyed");
+        assertEquals(game * 0.5f, block.bricksPerSecond[row], 0, name + " bricks per second");
+        for (int type = 0; type < STRATEGY_TYPES; type++) {
+            assertEquals(game * STRATEGY_TYPES + type, block.strategyActivations[type][row],
+                    name + " activations of " + type);
+        }
+    }
+
+    /**
+     * @param game index of a game
+     * @return the outcome of the game, cycling through all the game statuses
+     */
+    private static byte outcome(int game) {
+        return (byte) (game % GameStatus.values().length);
+    }
+}
@@ -0,0 +1,72 @@
+package bricker.rl;
+
+import bricker.headless.HeadlessBrickerGame;
+
+import java.util.Arrays;
+
+import static bricker.Assertions.assertThrows;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of VectorizedBrickerEnv: stepping on several threads gives the same results as stepping on
+ * one, and a closed batch refuses to step instead of waiting for workers that have exited.
+ */
+public final class VectorizedBrickerEnvCheck {
+
+    private static final int ENVS = 6;
+    private static final int BRICKS_PER_ROW = 8;
+    private static final int BRICK_ROWS = 3;
+    private static final int THREADS = 3;
+    private static final long SEED = 7;
+    private static final int STEPS = 300;
+
+    private VectorizedBrickerEnvCheck() {
+    }
+
+    /**
+     * A batch stepped by several threads has the same observations, rewards and done flags after every
+     * step as the same batch stepped by the calling thread alone.
+     */
+    public static void checkThreadsMatchSingleThread() {
+        int[] actions = new int[ENVS];
+        try (VectorizedBrickerEnv threaded = createEnv(THREADS); VectorizedBrickerEnv single = createEnv(1)) {
+            threaded.reset(SEED);
+            single.reset(SEED);
+            for (int step = 0; step < STEPS; step++) {
+                for (int env = 0; env < ENVS; env++) {
+                    actions[env] = (step / (env + 1)) % 3 - 1;
+                }
+                threaded.step(actions);
+                single.step(actions);
+                assertTrue(Arrays.equals(single.getObservations(), threaded.getObservations()) &&
+                                Arrays.equals(single.getRewards(), threaded.getRewards()) &&
+                                Arrays.equals(single.getDones(), threaded.getDones()),
+                        "threaded batch differs at step " + step);
+            }
+        }
+    }
+
+    /**
+     * Stepping a closed batch throws, on one thread and on several.
+     */
+    public static void checkStepAfterClose() {
+        int[] actions = new int[ENVS];
+        Arrays.fill(actions, HeadlessBrickerGame.STAY);
+        for (int threads = 1; threads <= THREADS; threads++) {
+            VectorizedBrickerEnv env = createEnv(threads);
+            env.reset(SEED);
+            env.step(actions);
+            env.close();
+            assertThrows(IllegalStateException.class, () -> env.step(actions),
+                    "step after close on " + threads + " threads");
+        }
+    }
+
+    /**
+     * @param threads the number of threads stepping the environments
+     * @return a batch of ENVS environments
+     */
+    private static VectorizedBrickerEnv createEnv(int threads) {
+        return new VectorizedBrickerEnv(ENVS, BRICKS_PER_ROW, BRICK_ROWS, threads);
+    }
+}
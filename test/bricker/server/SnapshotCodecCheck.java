@@ -0,0 +1,213 @@
+package bricker.server;
+
+import bricker.headless.HeadlessBrickerGame;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static bricker.Assertions.assertEquals;
+import static bricker.Assertions.assertTrue;
+
+/**
+ * Self-checks of SnapshotCodec: full and delta snapshot messages decode back to the snapshot that was
+ * encoded, deltas leave out what did not change, and input messages have the size the server expects.
+ */
+public final class SnapshotCodecCheck {
+
+    // enough words for gaps between changed words that need multi-byte varints
+    private static final int ALIVE_WORD_COUNT = 300;
+    private static final int ROUND_TRIPS = 2000;
+    private static final int MAX_CHANGED_WORDS = 6;
+    private static final int MAX_LIVES = 4;
+    // a delta changing a single word must be at least this many times smaller than a full snapshot
+    private static final int SINGLE_WORD_DELTA_RATIO = 50;
+    private static final int FIRST_TICK = 1000;
+    private static final int DIRECTION = -1;
+    private static final long SEED = 67125;
+
+    private SnapshotCodecCheck() {
+    }
+
+    /**
+     * A full snapshot decodes to the encoded one, and its header gives its length and type.
+     */
+    public static void checkFullRoundTrip() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ByteBuffer buffer = createBuffer();
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            StateSnapshot current = createRandom(random, FIRST_TICK + i);
+            buffer.clear();
+            SnapshotCodec.encode(current, null, buffer);
+            StateSnapshot decoded = decode(buffer, null);
+            assertEquals(SnapshotCodec.NO_TICK, peekBaseTick(buffer), "base tick of a full snapshot");
+            checkSame(current, decoded);
+        }
+    }
+
+    /**
+     * A snapshot encoded against a base decodes back to it from that base, whatever changed between them.
+     */
+    public static void checkDeltaRoundTrip() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ByteBuffer buffer = createBuffer();
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            StateSnapshot base = createRandom(random, FIRST_TICK + i);
+            StateSnapshot current = new StateSnapshot(ALIVE_WORD_COUNT);
+            current.copyFrom(base);
+            mutate(current, random, base.tick + 1 + random.nextInt(ROUND_TRIPS));
+            buffer.clear();
+            SnapshotCodec.encode(current, base, buffer);
+            assertEquals(base.tick, peekBaseTick(buffer), "base tick of a delta");
+            checkSame(current, decode(buffer, base));
+        }
+    }
+
+    /**
+     * A delta against an identical base holds only the ticks and an empty section mask, and a delta that
+     * changes a single brick is far smaller than a full snapshot.
+     */
+    public static void checkDeltaSize() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StateSnapshot base = createRandom(random, FIRST_TICK);
+        StateSnapshot current = new StateSnapshot(ALIVE_WORD_COUNT);
+        current.copyFrom(base);
+        current.tick++;
+        ByteBuffer buffer = createBuffer();
+        SnapshotCodec.encode(current, base, buffer);
+        assertEquals(SnapshotCodec.MESSAGE_HEADER_SIZE + 2 * Integer.BYTES + Byte.BYTES, buffer.position(),
+                "size of an unchanged delta");
+        checkSame(current, decode(buffer, base));
+
+        current.aliveBricks[ALIVE_WORD_COUNT - 1] ^= 1;
+        buffer.clear();
+        SnapshotCodec.encode(current, base, buffer);
+        int deltaSize = buffer.position();
+        checkSame(current, decode(buffer, base));
+        buffer.clear();
+        SnapshotCodec.encode(current, null, buffer);
+        assertTrue(deltaSize * SINGLE_WORD_DELTA_RATIO < buffer.position(),
+                "a single brick delta of " + deltaSize + " bytes against a full " + buffer.position());
+    }
+
+    /**
+     * An input message has the length and type header, the acknowledged tick and the paddle direction.
+     */
+    public static void checkInputMessage() {
+        ByteBuffer buffer = ByteBuffer.allocate(SnapshotCodec.MESSAGE_HEADER_SIZE +
+                SnapshotCodec.INPUT_PAYLOAD_SIZE);
+        SnapshotCodec.encodeInput(FIRST_TICK, DIRECTION, buffer);
+        assertEquals(buffer.capacity(), buffer.position(), "input message size");
+        buffer.flip();
+        assertEquals(Byte.BYTES + SnapshotCodec.INPUT_PAYLOAD_SIZE, buffer.getInt(), "input message length");
+        assertEquals(SnapshotCodec.INPUT_MESSAGE, buffer.get(), "input message type");
+        assertEquals(FIRST_TICK, buffer.getInt(), "acknowledged tick");
+        assertEquals(DIRECTION, buffer.get(), "paddle direction");
+    }
+
+    /**
+     * @return a buffer large enough for any snapshot message of the checks
+     */
+    private static ByteBuffer createBuffer() {
+        return ByteBuffer.allocate(SnapshotCodec.maxMessageSize(ALIVE_WORD_COUNT,
+                HeadlessBrickerGame.MAX_BALLS));
+    }
+
+    /**
+     * @param buffer a buffer holding a snapshot message from its start
+     * @return the base tick of the message
+     */
+    private static int peekBaseTick(ByteBuffer buffer) {
+        return SnapshotCodec.peekBaseTick(buffer.duplicate().position(SnapshotCodec.MESSAGE_HEADER_SIZE));
+    }
+
+    /**
+     * Checks the header of an encoded message and decodes its payload.
+     *
+     * @param buffer the buffer holding the message from its start to its position
+     * @param base   the base the message was encoded against, null for a full snapshot
+     * @return the decoded snapshot
+     */
+    private static StateSnapshot decode(ByteBuffer buffer, StateSnapshot base) {
+        int end = buffer.position();
+        assertEquals(end - Integer.BYTES, buffer.getInt(0), "message length");
+        assertEquals(SnapshotCodec.SNAPSHOT_MESSAGE, buffer.get(Integer.BYTES), "message type");
+        ByteBuffer payload = buffer.duplicate().position(SnapshotCodec.MESSAGE_HEADER_SIZE).limit(end);
+        StateSnapshot decoded = new StateSnapshot(ALIVE_WORD_COUNT);
+        SnapshotCodec.decode(payload, base, decoded);
+        assertEquals(0, payload.remaining(), "bytes left after decoding");
+        return decoded;
+    }
+
+    /**
+     * @param random the random generator
+     * @param tick   the tick of the snapshot
+     * @return a snapshot with random bricks, balls, paddles and lives
+     */
+    private static StateSnapshot createRandom(SplittableRandom random, int tick) {
+        StateSnapshot snapshot = new StateSnapshot(ALIVE_WORD_COUNT);
+        for (int i = 0; i < ALIVE_WORD_COUNT; i++) {
+            snapshot.aliveBricks[i] = random.nextLong();
+        }
+        randomizeObjects(snapshot, random);
+        snapshot.tick = tick;
+        return snapshot;
+    }
+
+    /**
+     * Changes a few random brick words of a snapshot, and randomly its balls, paddles and lives.
+     *
+     * @param snapshot the snapshot to change
+     * @param random   the random generator
+     * @param tick     the new tick of the snapshot
+     */
+    private static void mutate(StateSnapshot snapshot, SplittableRandom random, int tick) {
+        int changedWords = random.nextInt(MAX_CHANGED_WORDS + 1);
+        for (int i = 0; i < changedWords; i++) {
+            snapshot.aliveBricks[random.nextInt(ALIVE_WORD_COUNT)] &= random.nextLong();
+        }
+        if (random.nextBoolean()) {
+            randomizeObjects(snapshot, random);
+        }
+        snapshot.tick = tick;
+    }
+
+    /**
+     * Sets random balls, paddles and lives.
+     *
+     * @param snapshot the snapshot to change
+     * @param random   the random generator
+     */
+    private static void randomizeObjects(StateSnapshot snapshot, SplittableRandom random) {
+        snapshot.ballCount = random.nextInt(HeadlessBrickerGame.MAX_BALLS + 1);
+        for (int ball = 0; ball < snapshot.ballCount; ball++) {
+            snapshot.ballX[ball] = (short) random.nextInt();
+            snapshot.ballY[ball] = (short) random.nextInt();
+        }
+        snapshot.paddleX = (short) random.nextInt();
+        snapshot.mockPaddleActive = random.nextBoolean();
+        snapshot.mockPaddleX = snapshot.mockPaddleActive ? (short) random.nextInt() : 0;
+        snapshot.lives = random.nextInt(MAX_LIVES + 1);
+    }
+
+    /**
+     * Checks that two snapshots hold the same state.
+     *
+     * @param expected the expected snapshot
+     * @param actual   the actual snapshot
+     */
+    private static void checkSame(StateSnapshot expected, StateSnapshot actual) {
+        assertEquals(expected.tick, actual.tick, "tick");
+        assertEquals(expected.lives, actual.lives, "lives");
+        assertEquals(expected.paddleX, actual.paddleX, "paddle");
+        assertTrue(expected.mockPaddleActive == actual.mockPaddleActive, "mock paddle activity");
+        assertEquals(expected.mockPaddleX, actual.mockPaddleX, "mock paddle");
+        assertEquals(expected.ballCount, actual.ballCount, "ball count");
+        for (int ball = 0; ball < expected.ballCount; ball++) {
+            assertEquals(expected.ballX[ball], actual.ballX[ball], "x of ball " + ball);
+            assertEquals(expected.ballY[ball], actual.ballY[ball], "y of ball " + ball);
+        }
+        for (int i = 0; i < ALIVE_WORD_COUNT; i++) {
+            assertEquals(expected.aliveBricks[i], actual.aliveBricks[i], "brick word " + i);
+        }
+    }
+}